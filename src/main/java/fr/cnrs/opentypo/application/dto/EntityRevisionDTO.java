@@ -8,6 +8,7 @@ import lombok.Setter;
 
 import java.io.Serializable;
 import java.time.LocalDateTime;
+import java.util.List;
 import java.util.Map;
 
 /**
@@ -32,6 +33,12 @@ public class EntityRevisionDTO implements Serializable {
     /** Valeur du statut à cette révision (pour affichage) */
     private String statutValue;
     
+    /** Indique s'il s'agit de la plus ancienne révision de l'entité */
+    private boolean firstRevision;
+    
+    /** Clés des champs modifiés par rapport à la révision précédente (résumé de la liste d'historique) */
+    private List<String> changedFields;
+    
     // Données de l'entité à cette révision
     private Map<String, Object> entityData;
     
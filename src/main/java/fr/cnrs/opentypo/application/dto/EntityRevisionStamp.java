@@ -0,0 +1,10 @@
+package fr.cnrs.opentypo.application.dto;
+
+/**
+ * Dernière révision Envers connue pour une entité (toutes tables d'audit liées confondues).
+ *
+ * @param rev       numéro de révision ({@code revinfo.rev})
+ * @param timestamp horodatage de la révision en millisecondes epoch ({@code revinfo.revtstmp})
+ */
+public record EntityRevisionStamp(long rev, long timestamp) {
+}
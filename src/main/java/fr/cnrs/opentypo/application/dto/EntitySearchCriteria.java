@@ -0,0 +1,66 @@
+package fr.cnrs.opentypo.application.dto;
+
+/**
+ * Critères d'une recherche textuelle d'entités (interface JSF et API REST).
+ * Statut, type et périmètre sont appliqués par la requête, avant {@code limit}.
+ *
+ * @param term           texte recherché (non vide)
+ * @param field          champ interrogé
+ * @param matchMode      mode de correspondance
+ * @param langCode       langue des libellés et descriptions
+ * @param scopeRootId    racine du sous-arbre à laquelle limiter la recherche (null : pas de limite)
+ * @param statut         statut exigé (null : tous les statuts)
+ * @param entityTypeCode code du type d'entité exigé (null : tous les types)
+ * @param order          ordre des résultats
+ * @param limit          nombre maximal d'identifiants retournés
+ */
+public record EntitySearchCriteria(
+        String term,
+        Field field,
+        MatchMode matchMode,
+        String langCode,
+        Long scopeRootId,
+        String statut,
+        String entityTypeCode,
+        Order order,
+        int limit) {
+
+    public EntitySearchCriteria {
+        if (order == null) {
+            order = Order.RELEVANCE;
+        }
+    }
+
+    /** Critères sans filtre de type, classés par pertinence. */
+    public EntitySearchCriteria(String term, Field field, MatchMode matchMode, String langCode,
+                                Long scopeRootId, String statut, int limit) {
+        this(term, field, matchMode, langCode, scopeRootId, statut, null, Order.RELEVANCE, limit);
+    }
+
+    /** Champ interrogé. */
+    public enum Field {
+        /** Code métier, libellés et descriptions (plein texte). */
+        ANY,
+        /** Code métier uniquement. */
+        CODE,
+        /** Libellés de la langue uniquement. */
+        LABEL
+    }
+
+    /** Mode de correspondance. */
+    public enum MatchMode {
+        CONTAINS,
+        STARTS_WITH,
+        EXACT
+    }
+
+    /** Ordre des résultats, appliqué avant {@code limit}. */
+    public enum Order {
+        /** Pertinence décroissante. */
+        RELEVANCE,
+        DATE_DESC,
+        DATE_ASC,
+        CODE_ASC,
+        CODE_DESC
+    }
+}
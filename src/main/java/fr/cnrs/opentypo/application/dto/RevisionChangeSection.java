@@ -0,0 +1,72 @@
+package fr.cnrs.opentypo.application.dto;
+
+import java.util.EnumSet;
+import java.util.Set;
+
+/**
+ * Tables d'audit dont une révision peut modifier une entité : chaque section est un bit de
+ * {@code revision_change.changed_sections}. L'ordre des constantes fixe les bits déjà enregistrés
+ * (et ceux de la migration V74) : ne pas le modifier, ajouter les nouvelles sections à la fin.
+ * Chaque table a sa table d'archive (migration V75), lue avec elle par l'historique.
+ */
+public enum RevisionChangeSection {
+
+    ENTITY("entity_aud", "id"),
+    METADATA("entity_metadata_aud", "entity_id"),
+    LABEL("label_aud", "entity_id"),
+    DESCRIPTION("description_aud", "entity_id"),
+    DESCRIPTION_DETAIL("description_detail_aud", "entity_id"),
+    DESCRIPTION_PATE("description_pate_aud", "entity_id"),
+    DESCRIPTION_MONNAIE("description_monnaie_aud", "entity_id"),
+    CARACTERISTIQUE_PHYSIQUE("caracteristique_physique_aud", "entity_id"),
+    CARACTERISTIQUE_PHYSIQUE_MONNAIE("caracteristique_physique_monnaie_aud", "entity_id"),
+    IMAGE("image_aud", "entity_id"),
+    REFERENCE_OPENTHESO("\"reference-opentheso_aud\"", "entity_id"),
+    /** Relation parent / enfant : la révision touche les deux entités. */
+    RELATION("entity_relation_aud", "parent_id", "child_id");
+
+    private final String auditTable;
+    private final String[] entityIdColumns;
+
+    RevisionChangeSection(String auditTable, String... entityIdColumns) {
+        this.auditTable = auditTable;
+        this.entityIdColumns = entityIdColumns;
+    }
+
+    /** Table d'audit Envers (nom SQL, entre guillemets si nécessaire). */
+    public String getAuditTable() {
+        return auditTable;
+    }
+
+    /** Table d'archive des révisions anciennes de la table d'audit ({@code AuditArchiveService}). */
+    public String getArchiveTable() {
+        return archiveTableOf(auditTable);
+    }
+
+    /** Colonnes de la table d'audit qui désignent l'entité concernée. */
+    public String[] getEntityIdColumns() {
+        return entityIdColumns.clone();
+    }
+
+    public int bit() {
+        return 1 << ordinal();
+    }
+
+    /** Nom SQL de la table d'archive d'une table d'audit ({@code label_aud} → {@code label_aud_archive}). */
+    public static String archiveTableOf(String auditTable) {
+        return auditTable.endsWith("\"")
+                ? auditTable.substring(0, auditTable.length() - 1) + "_archive\""
+                : auditTable + "_archive";
+    }
+
+    /** Sections présentes dans un masque {@code changed_sections}. */
+    public static Set<RevisionChangeSection> fromBits(int bits) {
+        Set<RevisionChangeSection> sections = EnumSet.noneOf(RevisionChangeSection.class);
+        for (RevisionChangeSection section : values()) {
+            if ((bits & section.bit()) != 0) {
+                sections.add(section);
+            }
+        }
+        return sections;
+    }
+}
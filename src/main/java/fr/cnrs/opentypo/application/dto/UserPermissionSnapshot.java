@@ -0,0 +1,121 @@
+package fr.cnrs.opentypo.application.dto;
+
+import java.io.Serial;
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Instantané immuable des permissions d'un utilisateur : groupe et rôles par entité.
+ * Les identifiants d'entités sont triés dans un tableau primitif et associés à un masque de rôles
+ * (un bit par valeur de {@link PermissionRoleEnum}) ; une vérification est une recherche dichotomique,
+ * sans accès à la base.
+ */
+public final class UserPermissionSnapshot implements Serializable {
+
+    @Serial
+    private static final long serialVersionUID = 1L;
+
+    /** Instantané vide (visiteur anonyme ou utilisateur sans permission). */
+    public static final UserPermissionSnapshot EMPTY = new UserPermissionSnapshot(null, null, new long[0], new int[0], 0L);
+
+    private static final Map<String, PermissionRoleEnum> ROLE_BY_LABEL = new HashMap<>();
+
+    static {
+        for (PermissionRoleEnum role : PermissionRoleEnum.values()) {
+            ROLE_BY_LABEL.put(role.getLabel(), role);
+        }
+    }
+
+    private final Long userId;
+    private final String groupeNom;
+    private final long[] entityIds;
+    private final int[] roleMasks;
+    private final long generation;
+
+    private UserPermissionSnapshot(Long userId, String groupeNom, long[] entityIds, int[] roleMasks, long generation) {
+        this.userId = userId;
+        this.groupeNom = groupeNom;
+        this.entityIds = entityIds;
+        this.roleMasks = roleMasks;
+        this.generation = generation;
+    }
+
+    /**
+     * Construit l'instantané à partir des lignes (entityId, role) de {@code user_permission}.
+     *
+     * @param userId     identifiant de l'utilisateur
+     * @param groupeNom  nom du groupe de l'utilisateur (peut être null)
+     * @param rows       lignes {@code [entityId, roleLabel]}
+     * @param generation génération des permissions au moment du chargement
+     */
+    public static UserPermissionSnapshot of(Long userId, String groupeNom, Collection<Object[]> rows, long generation) {
+        Map<Long, Integer> masks = new HashMap<>();
+        if (rows != null) {
+            for (Object[] row : rows) {
+                if (row == null || row[0] == null) {
+                    continue;
+                }
+                long entityId = ((Number) row[0]).longValue();
+                PermissionRoleEnum role = row[1] != null ? ROLE_BY_LABEL.get(row[1].toString()) : null;
+                int bit = role != null ? 1 << role.ordinal() : 0;
+                masks.merge(entityId, bit, (a, b) -> a | b);
+            }
+        }
+        long[] ids = masks.keySet().stream().mapToLong(Long::longValue).sorted().toArray();
+        int[] roleMasks = new int[ids.length];
+        for (int i = 0; i < ids.length; i++) {
+            roleMasks[i] = masks.get(ids[i]);
+        }
+        return new UserPermissionSnapshot(userId, groupeNom, ids, roleMasks, generation);
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getGroupeNom() {
+        return groupeNom;
+    }
+
+    public long getGeneration() {
+        return generation;
+    }
+
+    /**
+     * Vrai si le groupe de l'utilisateur est « Administrateur technique » ou « Administrateur fonctionnel ».
+     */
+    public boolean isAdministrateur() {
+        return groupeNom != null
+                && (GroupEnum.ADMINISTRATEUR_TECHNIQUE.getLabel().equalsIgnoreCase(groupeNom)
+                || GroupEnum.ADMINISTRATEUR_FONCTIONNEL.getLabel().equalsIgnoreCase(groupeNom));
+    }
+
+    /**
+     * Vrai si l'utilisateur a le rôle indiqué (libellé de {@link PermissionRoleEnum}) sur l'entité.
+     */
+    public boolean hasRole(Long entityId, String roleLabel) {
+        PermissionRoleEnum role = roleLabel != null ? ROLE_BY_LABEL.get(roleLabel) : null;
+        return role != null && hasRole(entityId, role);
+    }
+
+    /**
+     * Vrai si l'utilisateur a le rôle indiqué sur l'entité.
+     */
+    public boolean hasRole(Long entityId, PermissionRoleEnum role) {
+        if (entityId == null || role == null) {
+            return false;
+        }
+        int index = Arrays.binarySearch(entityIds, entityId);
+        return index >= 0 && (roleMasks[index] & (1 << role.ordinal())) != 0;
+    }
+
+    /**
+     * Vrai si l'utilisateur a au moins une permission (tous rôles) sur l'entité.
+     */
+    public boolean hasAnyRole(Long entityId) {
+        return entityId != null && Arrays.binarySearch(entityIds, entityId) >= 0;
+    }
+}
@@ -34,6 +34,8 @@ public final class ApiErrorMessages {
     public static final String VISIBILITY_PROPOSITION_FORBIDDEN =
             "Impossible de changer la visibilité d'une entité au statut PROPOSITION : validez-la d'abord";
     public static final String ENTITY_NOT_FOUND = "Entité introuvable";
+    public static final String COLLECTION_NOT_FOUND = "Collection introuvable";
+    public static final String IMPORT_JOB_NOT_FOUND = "Import introuvable";
     public static final String CODE_REQUIRED = "Le paramètre code est obligatoire";
     public static final String VALUE_REQUIRED = "Le paramètre value est obligatoire";
     public static final String FIELD_MUST_BE_CODE_OR_LABEL = "Le paramètre field doit valoir CODE ou LABEL";
@@ -52,7 +54,12 @@ public final class ApiErrorMessages {
             "Une série avec ce code existe déjà dans ce groupe";
     public static final String TYPE_CODE_EXISTS_IN_GROUP =
             "Un type avec ce code existe déjà dans ce groupe";
+    public static final String INVALID_CURSOR =
+            "Paramètre cursor invalide : utilisez la valeur X-Next-Cursor renvoyée pour le même tri";
+    public static final String CURSOR_NOT_SUPPORTED_FOR_LOOKUP =
+            "Le paramètre cursor n'est pas disponible en mode recherche (field, match, value)";
     public static final String LIMIT_MIN_ONE = "Le paramètre limit doit être au moins égal à 1";
+    public static final String SINCE_REV_MIN_ZERO = "Le paramètre sinceRev doit être positif ou nul";
     public static final String BAD_REQUEST = "Requête invalide";
     public static final String NOT_FOUND = "Ressource introuvable";
     public static final String CONFLICT = "Conflit";
@@ -75,7 +82,7 @@ public final class ApiErrorMessages {
     }
 
     public static String invalidListOrder(String value) {
-        return "Valeur de order invalide : « " + value + " ». Utilisez date_desc, date, code ou code_desc";
+        return "Valeur de order invalide : « " + value + " ». Utilisez date_desc, date, code, code_desc ou relevance";
     }
 
     public static String parentEntityNotFound(Long parentId) {
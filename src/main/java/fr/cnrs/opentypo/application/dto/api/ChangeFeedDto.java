@@ -0,0 +1,20 @@
+package fr.cnrs.opentypo.application.dto.api;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.util.List;
+
+/**
+ * Page du flux des modifications ({@code GET /api/v1/changes}).
+ */
+@Schema(name = "ChangeFeedDto", description = "Entités modifiées depuis une révision et nouvelle révision de reprise.")
+public record ChangeFeedDto(
+        @Schema(description = "Entités touchées, par révision croissante.")
+        List<EntityChangeDto> changes,
+        @Schema(description = "Révision à passer en sinceRev à l'appel suivant.", example = "1287")
+        long highWaterMark,
+        @Schema(description = "D'autres révisions suivent : rappeler immédiatement avec sinceRev=highWaterMark.",
+                example = "false")
+        boolean hasMore
+) {
+}
@@ -0,0 +1,18 @@
+package fr.cnrs.opentypo.application.dto.api;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Entité touchée dans le flux des modifications ({@code GET /api/v1/changes}).
+ */
+@Schema(name = "EntityChangeDto", description = "Entité modifiée depuis la révision demandée.")
+public record EntityChangeDto(
+        @Schema(description = "Identifiant de l'entité.", example = "42")
+        long entityId,
+        @Schema(description = "Effet net des révisions de la page sur l'entité.", example = "MOD",
+                allowableValues = {"ADD", "MOD", "DEL"})
+        EntityChangeOperation operation,
+        @Schema(description = "Dernière révision de la page touchant l'entité.", example = "1287")
+        long rev
+) {
+}
@@ -0,0 +1,40 @@
+package fr.cnrs.opentypo.application.dto.api;
+
+/**
+ * Opération du flux des modifications ({@code GET /api/v1/changes}) pour une entité.
+ */
+public enum EntityChangeOperation {
+
+    /** Entité créée. */
+    ADD,
+    /** Entité modifiée (elle-même ou ses libellés, descriptions, références, images, relations…). */
+    MOD,
+    /** Entité supprimée. */
+    DEL;
+
+    /**
+     * Opération d'une ligne {@code revision_change} d'après le type de révision Envers d'{@code entity_aud}
+     * (0 création, 1 modification, 2 suppression ; {@code null} : seules des tables liées ont changé).
+     */
+    public static EntityChangeOperation fromRevisionType(Number revtype) {
+        if (revtype == null) {
+            return MOD;
+        }
+        return switch (revtype.intValue()) {
+            case 0 -> ADD;
+            case 2 -> DEL;
+            default -> MOD;
+        };
+    }
+
+    /**
+     * Effet net de cette opération suivie de {@code later} sur la même entité : une suppression l'emporte,
+     * une création reste une création tant que l'entité n'est pas supprimée.
+     */
+    public EntityChangeOperation followedBy(EntityChangeOperation later) {
+        if (later == DEL || later == ADD) {
+            return later;
+        }
+        return this == DEL ? MOD : this;
+    }
+}
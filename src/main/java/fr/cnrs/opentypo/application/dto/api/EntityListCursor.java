@@ -0,0 +1,63 @@
+package fr.cnrs.opentypo.application.dto.api;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+
+/**
+ * Curseur de pagination par clé (keyset) pour {@code GET /api/v1/entities}.
+ * <p>
+ * Dernière clé de tri renvoyée ({@code createDate} ou {@code lower(code)}) et identifiant de l'entité,
+ * liés au tri qui les a produits. Exposé aux clients sous forme opaque (Base64 URL-safe).
+ *
+ * @param order     tri de la liste ({@link EntityListOrder#RELEVANCE} exclu)
+ * @param sortValue valeur de la clé de tri de la dernière entité (date ISO ou code en minuscules)
+ * @param id        identifiant de la dernière entité
+ */
+public record EntityListCursor(EntityListOrder order, String sortValue, long id) {
+
+    private static final String SEPARATOR = "\n";
+
+    public static EntityListCursor ofDate(EntityListOrder order, LocalDateTime createDate, long id) {
+        return new EntityListCursor(order, createDate.toString(), id);
+    }
+
+    public static EntityListCursor ofCode(EntityListOrder order, String lowerCode, long id) {
+        return new EntityListCursor(order, lowerCode, id);
+    }
+
+    public LocalDateTime dateValue() {
+        return LocalDateTime.parse(sortValue);
+    }
+
+    public String encode() {
+        String raw = order.name() + SEPARATOR + id + SEPARATOR + sortValue;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Décode un curseur reçu en paramètre ; il doit avoir été émis pour le même tri.
+     *
+     * @throws ResponseStatusException 400 si le curseur est illisible ou correspond à un autre tri
+     */
+    public static EntityListCursor decode(String value, EntityListOrder expectedOrder) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(value.trim()), StandardCharsets.UTF_8);
+            String[] parts = raw.split(SEPARATOR, 3);
+            if (parts.length == 3 && expectedOrder.name().equals(parts[0])) {
+                EntityListCursor cursor = new EntityListCursor(expectedOrder, parts[2], Long.parseLong(parts[1]));
+                if (expectedOrder == EntityListOrder.DATE_ASC || expectedOrder == EntityListOrder.DATE_DESC) {
+                    cursor.dateValue();
+                }
+                return cursor;
+            }
+        } catch (IllegalArgumentException | DateTimeParseException e) {
+            // curseur illisible : même réponse qu'un curseur d'un autre tri
+        }
+        throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ApiErrorMessages.INVALID_CURSOR);
+    }
+}
@@ -1,12 +1,11 @@
 package fr.cnrs.opentypo.application.dto.api;
 
+import fr.cnrs.opentypo.application.dto.EntitySearchCriteria;
 import fr.cnrs.opentypo.domain.entity.Entity;
-import org.springframework.data.domain.PageRequest;
-import org.springframework.data.domain.Pageable;
-import org.springframework.data.domain.Sort;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.server.ResponseStatusException;
 
+import java.time.LocalDateTime;
 import java.util.Comparator;
 import java.util.List;
 import java.util.Locale;
@@ -16,27 +15,24 @@ import java.util.Locale;
  */
 public enum EntityListOrder {
 
-    DATE_DESC("date_desc", Sort.by(Sort.Direction.DESC, "createDate")),
-    DATE_ASC("date", Sort.by(Sort.Direction.ASC, "createDate")),
-    CODE_ASC("code", null),
-    CODE_DESC("code_desc", null);
+    DATE_DESC("date_desc"),
+    DATE_ASC("date"),
+    CODE_ASC("code"),
+    CODE_DESC("code_desc"),
+    /** Pertinence décroissante (recherche « contient » uniquement ; ordre fourni par le moteur de recherche). */
+    RELEVANCE("relevance");
 
     public static final String DEFAULT_VALUE = "date_desc";
 
     private final String paramValue;
-    private final Sort jpaSort;
 
-    EntityListOrder(String paramValue, Sort jpaSort) {
+    EntityListOrder(String paramValue) {
         this.paramValue = paramValue;
-        this.jpaSort = jpaSort;
     }
 
-    public boolean usesJpaSort() {
-        return jpaSort != null;
-    }
-
-    public Pageable toPageable(int limit) {
-        return PageRequest.of(0, limit, jpaSort);
+    /** Tri par code métier (clé de pagination {@code lower(code)}) plutôt que par date de création. */
+    public boolean sortsByCode() {
+        return this == CODE_ASC || this == CODE_DESC;
     }
 
     public static EntityListOrder parse(String value) {
@@ -54,16 +50,35 @@ public enum EntityListOrder {
                 ApiErrorMessages.invalidListOrder(value.trim()));
     }
 
-    public List<Entity> sortEntities(List<Entity> entities) {
-        if (entities.isEmpty() || usesJpaSort()) {
+    /** Ordre équivalent de la recherche textuelle, appliqué en base avant la limite. */
+    public EntitySearchCriteria.Order toSearchOrder() {
+        return switch (this) {
+            case DATE_DESC -> EntitySearchCriteria.Order.DATE_DESC;
+            case DATE_ASC -> EntitySearchCriteria.Order.DATE_ASC;
+            case CODE_ASC -> EntitySearchCriteria.Order.CODE_ASC;
+            case CODE_DESC -> EntitySearchCriteria.Order.CODE_DESC;
+            case RELEVANCE -> EntitySearchCriteria.Order.RELEVANCE;
+        };
+    }
+
+    /**
+     * Tri en mémoire de résultats de recherche (identifiants non issus d'une requête triée).
+     * {@link #RELEVANCE} conserve l'ordre reçu.
+     */
+    public List<Entity> sortSearchResults(List<Entity> entities) {
+        if (entities.isEmpty()) {
             return entities;
         }
         Comparator<Entity> comparator = switch (this) {
+            case DATE_DESC -> Comparator.comparing(
+                    Entity::getCreateDate, Comparator.nullsLast(Comparator.<LocalDateTime>reverseOrder()));
+            case DATE_ASC -> Comparator.comparing(
+                    Entity::getCreateDate, Comparator.nullsLast(Comparator.<LocalDateTime>naturalOrder()));
             case CODE_ASC -> Comparator.comparing(
                     e -> safeCode(e), String.CASE_INSENSITIVE_ORDER);
             case CODE_DESC -> Comparator.comparing(
                     (Entity e) -> safeCode(e), String.CASE_INSENSITIVE_ORDER).reversed();
-            default -> null;
+            case RELEVANCE -> null;
         };
         if (comparator == null) {
             return entities;
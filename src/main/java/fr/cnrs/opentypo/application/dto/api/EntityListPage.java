@@ -0,0 +1,16 @@
+package fr.cnrs.opentypo.application.dto.api;
+
+import java.util.List;
+
+/**
+ * Page de résultats de {@code GET /api/v1/entities}.
+ *
+ * @param items      entités de la page
+ * @param nextCursor curseur opaque de la page suivante ({@code null} s'il n'y en a pas)
+ */
+public record EntityListPage(List<EntityResponseDto> items, String nextCursor) {
+
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
@@ -0,0 +1,30 @@
+package fr.cnrs.opentypo.application.dto.api;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Avancement d'un import CSV de typologie ({@code GET /api/v1/imports/{jobId}} et flux SSE associé).
+ */
+@Schema(name = "ImportJobProgressDto", description = "État et avancement d'un import CSV de typologie.")
+public record ImportJobProgressDto(
+        @Schema(description = "Identifiant du job d'import.", example = "42")
+        long jobId,
+        @Schema(description = "Identifiant du référentiel importé.", example = "7")
+        long referenceId,
+        @Schema(description = "État du job.", example = "RUNNING",
+                allowableValues = {"QUEUED", "RUNNING", "COMPLETED", "PARTIAL", "CANCELLED", "FAILED"})
+        String status,
+        @Schema(description = "Lignes traitées (lots validés pour l'import).", example = "1250")
+        int current,
+        @Schema(description = "Lignes à traiter (0 tant qu'il n'est pas connu).", example = "4000")
+        int total,
+        @Schema(description = "Pourcentage d'avancement.", example = "31")
+        int percent,
+        @Schema(description = "Étape ou dernière ligne CSV traitée.", example = "Ligne 1252")
+        String detail,
+        @Schema(description = "Message d'échec ou d'arrêt.", example = "Import annulé : 1250 / 4000 lignes enregistrées.")
+        String message,
+        @Schema(description = "Job terminé (plus aucune mise à jour).", example = "false")
+        boolean terminal
+) {
+}
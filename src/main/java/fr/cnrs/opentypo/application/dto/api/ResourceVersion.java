@@ -0,0 +1,45 @@
+package fr.cnrs.opentypo.application.dto.api;
+
+import org.springframework.web.context.request.WebRequest;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+
+/**
+ * Version d'une ressource REST pour les GET conditionnels : ETag fort et date de dernière modification,
+ * dérivés des révisions Envers des entités qui composent la réponse.
+ *
+ * @param etag         ETag fort (entre guillemets)
+ * @param lastModified date de dernière modification en millisecondes epoch
+ */
+public record ResourceVersion(String etag, long lastModified) {
+
+    /** Incrémenter quand la forme JSON des réponses change, pour invalider les ETag déjà diffusés. */
+    private static final String FORMAT_VERSION = "1";
+
+    /**
+     * @param key          description canonique de la réponse (ressource, paramètres, entités et révisions)
+     * @param lastModified horodatage de la révision la plus récente
+     */
+    public static ResourceVersion of(String key, long lastModified) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256")
+                    .digest((FORMAT_VERSION + "|" + key).getBytes(StandardCharsets.UTF_8));
+            return new ResourceVersion("\"" + HexFormat.of().formatHex(digest, 0, 16) + "\"", lastModified);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+
+    /**
+     * Compare aux en-têtes {@code If-None-Match} / {@code If-Modified-Since} de la requête et positionne
+     * {@code ETag} / {@code Last-Modified} sur la réponse.
+     *
+     * @return true si la réponse est un 304 (le contrôleur renvoie alors {@code null})
+     */
+    public boolean isNotModified(WebRequest request) {
+        return request.checkNotModified(etag, lastModified);
+    }
+}
@@ -0,0 +1,133 @@
+package fr.cnrs.opentypo.application.import_typology;
+
+import fr.cnrs.opentypo.domain.entity.ImageUrlValidation;
+import fr.cnrs.opentypo.infrastructure.persistence.ImageUrlValidationRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.util.StringUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Validation des URL d'image de l'analyse d'import : les résultats encore valides de la table
+ * {@code image_url_validation} sont réutilisés, seules les URL nouvelles ou périmées sont vérifiées
+ * sur le réseau ({@link RemoteImageUrlBatchValidator}), puis enregistrées.
+ */
+@Slf4j
+@Service
+public class ImageUrlValidationService {
+
+    private static final int LOOKUP_BATCH_SIZE = 1000;
+
+    private final ImageUrlValidationRepository imageUrlValidationRepository;
+    private final RemoteImageUrlBatchValidator remoteImageUrlBatchValidator;
+    private final Duration ttl;
+    private final TransactionTemplate writeTransactionTemplate;
+
+    public ImageUrlValidationService(ImageUrlValidationRepository imageUrlValidationRepository,
+                                     RemoteImageUrlBatchValidator remoteImageUrlBatchValidator,
+                                     PlatformTransactionManager platformTransactionManager,
+                                     @Value("${opentypo.import.image-validation.cache-ttl-hours:168}") long ttlHours) {
+        this.imageUrlValidationRepository = imageUrlValidationRepository;
+        this.remoteImageUrlBatchValidator = remoteImageUrlBatchValidator;
+        this.ttl = Duration.ofHours(Math.max(0, ttlHours));
+        // L'analyse s'exécute en lecture seule : l'enregistrement se fait dans sa propre transaction.
+        this.writeTransactionTemplate = new TransactionTemplate(platformTransactionManager);
+        this.writeTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * @param rawUrls URL du fichier (espaces de bord ignorés, doublons et valeurs vides écartés)
+     * @return résultat par URL ; les URL non vérifiées dans le délai réseau sont absentes
+     */
+    public Map<String, Boolean> validateAll(Collection<String> rawUrls) {
+        Map<String, String> urlsByHash = new LinkedHashMap<>();
+        for (String rawUrl : rawUrls) {
+            if (StringUtils.hasText(rawUrl)) {
+                String url = rawUrl.trim();
+                urlsByHash.putIfAbsent(urlHash(url), url);
+            }
+        }
+        Map<String, Boolean> results = new HashMap<>();
+        if (urlsByHash.isEmpty()) {
+            return results;
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        if (!ttl.isZero()) {
+            List<String> hashes = new ArrayList<>(urlsByHash.keySet());
+            for (int from = 0; from < hashes.size(); from += LOOKUP_BATCH_SIZE) {
+                List<String> batch = hashes.subList(from, Math.min(from + LOOKUP_BATCH_SIZE, hashes.size()));
+                for (ImageUrlValidation known : imageUrlValidationRepository.findFresh(batch, now.minus(ttl))) {
+                    if (known.getUrl().equals(urlsByHash.get(known.getUrlHash()))) {
+                        results.put(known.getUrl(), known.isValid());
+                    }
+                }
+            }
+        }
+        int reused = results.size();
+
+        List<String> toCheck = urlsByHash.values().stream().filter(url -> !results.containsKey(url)).toList();
+        Map<String, RemoteImageUrlValidator.Check> checked = remoteImageUrlBatchValidator.validateAll(toCheck);
+        checked.forEach((url, check) -> results.put(url, check.valid()));
+        store(checked, now);
+
+        log.info("Validation des URL d'image : {} URL, {} résultats réutilisés, {} vérifiées sur le réseau",
+                urlsByHash.size(), reused, checked.size());
+        return results;
+    }
+
+    /**
+     * Enregistre les URL ayant obtenu une réponse définitive ({@link RemoteImageUrlValidator.Check#definitive()})
+     * et purge les résultats périmés : un échec transitoire n'est pas conservé.
+     * Un échec d'écriture n'interrompt pas l'analyse.
+     */
+    private void store(Map<String, RemoteImageUrlValidator.Check> checked, LocalDateTime checkedAt) {
+        List<ImageUrlValidation> rows = new ArrayList<>();
+        checked.forEach((url, check) -> {
+            if (check.definitive()) {
+                rows.add(new ImageUrlValidation(urlHash(url), url, check.valid(), check.status(),
+                        abbreviate(check.contentType()), checkedAt));
+            }
+        });
+        if (rows.isEmpty() || ttl.isZero()) {
+            return;
+        }
+        try {
+            writeTransactionTemplate.executeWithoutResult(status -> {
+                imageUrlValidationRepository.deleteCheckedBefore(checkedAt.minus(ttl));
+                imageUrlValidationRepository.saveAll(rows);
+            });
+        } catch (RuntimeException e) {
+            log.warn("Enregistrement des vérifications d'URL d'image impossible : {}", e.getMessage());
+        }
+    }
+
+    private static String abbreviate(String contentType) {
+        return contentType != null && contentType.length() > 255 ? contentType.substring(0, 255) : contentType;
+    }
+
+    static String urlHash(String url) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(url.getBytes(StandardCharsets.UTF_8));
+            return HexFormat.of().formatHex(digest);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+}
@@ -0,0 +1,105 @@
+package fr.cnrs.opentypo.application.import_typology;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Validation réseau d'un lot d'URL d'image ({@link RemoteImageUrlValidator#check}) en parallèle,
+ * sur des threads virtuels : URL dédoublonnées, nombre de requêtes simultanées borné par hôte et au total,
+ * délai global au-delà duquel les vérifications en cours sont abandonnées.
+ */
+@Slf4j
+@Component
+public class RemoteImageUrlBatchValidator {
+
+    private final int perHostLimit;
+    private final int maxConcurrency;
+    private final Duration deadline;
+
+    public RemoteImageUrlBatchValidator(
+            @Value("${opentypo.import.image-validation.per-host:4}") int perHostLimit,
+            @Value("${opentypo.import.image-validation.max-concurrency:32}") int maxConcurrency,
+            @Value("${opentypo.import.image-validation.deadline-seconds:120}") long deadlineSeconds) {
+        this.perHostLimit = Math.max(1, perHostLimit);
+        this.maxConcurrency = Math.max(1, maxConcurrency);
+        this.deadline = Duration.ofSeconds(Math.max(1, deadlineSeconds));
+    }
+
+    /**
+     * @param rawUrls URL telles que lues dans le fichier (espaces de bord ignorés, doublons et valeurs vides écartés)
+     * @return résultat par URL ; les URL non vérifiées avant le délai global sont absentes
+     */
+    public Map<String, RemoteImageUrlValidator.Check> validateAll(Collection<String> rawUrls) {
+        Set<String> urls = new LinkedHashSet<>();
+        for (String rawUrl : rawUrls) {
+            if (StringUtils.hasText(rawUrl)) {
+                urls.add(rawUrl.trim());
+            }
+        }
+        Map<String, RemoteImageUrlValidator.Check> results = new ConcurrentHashMap<>();
+        Semaphore permits = new Semaphore(maxConcurrency);
+        Map<String, Semaphore> hostPermits = new HashMap<>();
+        List<Callable<Void>> checks = new ArrayList<>();
+        for (String url : urls) {
+            String host = RemoteImageUrlValidator.hostKey(url);
+            if (host == null) {
+                results.put(url, RemoteImageUrlValidator.Check.NO_RESPONSE);
+                continue;
+            }
+            Semaphore perHost = hostPermits.computeIfAbsent(host, h -> new Semaphore(perHostLimit));
+            checks.add(() -> {
+                perHost.acquire();
+                try {
+                    permits.acquire();
+                    try {
+                        RemoteImageUrlValidator.Check check = RemoteImageUrlValidator.check(url);
+                        // interrompu au délai global : l'échec de connexion ne dit rien de l'URL
+                        if (!Thread.currentThread().isInterrupted()) {
+                            results.put(url, check);
+                        }
+                    } finally {
+                        permits.release();
+                    }
+                } finally {
+                    perHost.release();
+                }
+                return null;
+            });
+        }
+        if (checks.isEmpty()) {
+            return results;
+        }
+
+        long start = System.nanoTime();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            executor.invokeAll(checks, deadline.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        int unchecked = urls.size() - results.size();
+        if (unchecked > 0) {
+            log.warn("Validation des URL d'image : {} URL sur {} non vérifiées dans le délai de {} s",
+                    unchecked, urls.size(), deadline.toSeconds());
+        }
+        log.debug("Validation de {} URL d'image ({} hôtes) en {} ms", urls.size(), hostPermits.size(),
+                TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start));
+        return results;
+    }
+}
@@ -30,10 +30,29 @@ public final class RemoteImageUrlValidator {
         return isLikelyImagePath(path) || !StringUtils.hasText(path) || "/".equals(path);
     }
 
+    /**
+     * Hôte (et port explicite) d'une URL http(s), en minuscules ; null si l'URL n'est pas valide.
+     */
+    static String hostKey(String rawUrl) {
+        URI uri = parseHttpUri(rawUrl);
+        if (uri == null) {
+            return null;
+        }
+        String host = uri.getHost().toLowerCase(Locale.ROOT);
+        return uri.getPort() >= 0 ? host + ":" + uri.getPort() : host;
+    }
+
     public static boolean isValidRemoteImageUrl(String rawUrl) {
+        return check(rawUrl).valid();
+    }
+
+    /**
+     * Vérification réseau détaillée : statut HTTP et type de contenu de la réponse.
+     */
+    public static Check check(String rawUrl) {
         URI uri = parseHttpUri(rawUrl);
         if (uri == null) {
-            return false;
+            return Check.NO_RESPONSE;
         }
 
         HttpURLConnection connection = null;
@@ -45,20 +64,17 @@ public final class RemoteImageUrlValidator {
             connection.setRequestMethod("HEAD");
 
             int status = connection.getResponseCode();
+            String contentType = connection.getContentType();
             if (status < 200 || status >= 400) {
                 if (status == HttpURLConnection.HTTP_BAD_METHOD) {
-                    return isValidRemoteImageUrlWithGet(uri);
+                    return checkWithGet(uri);
                 }
-                return false;
+                return new Check(false, status, contentType);
             }
-            String contentType = connection.getContentType();
-            if (isImageContentType(contentType)) {
-                return true;
-            }
-            return isLikelyImagePath(uri.getPath());
+            return new Check(isImageContentType(contentType) || isLikelyImagePath(uri.getPath()), status, contentType);
         } catch (IOException e) {
             log.debug("URL image inaccessible: {}", rawUrl);
-            return false;
+            return Check.NO_RESPONSE;
         } finally {
             if (connection != null) {
                 connection.disconnect();
@@ -66,7 +82,7 @@ public final class RemoteImageUrlValidator {
         }
     }
 
-    private static boolean isValidRemoteImageUrlWithGet(URI uri) {
+    private static Check checkWithGet(URI uri) {
         HttpURLConnection connection = null;
         try {
             connection = (HttpURLConnection) uri.toURL().openConnection();
@@ -77,18 +93,14 @@ public final class RemoteImageUrlValidator {
             connection.setRequestProperty("Range", "bytes=0-1024");
 
             int status = connection.getResponseCode();
-            if (status < 200 || status >= 400) {
-                return false;
-            }
-
             String contentType = connection.getContentType();
-            if (isImageContentType(contentType)) {
-                return true;
+            if (status < 200 || status >= 400) {
+                return new Check(false, status, contentType);
             }
-            return isLikelyImagePath(uri.getPath());
+            return new Check(isImageContentType(contentType) || isLikelyImagePath(uri.getPath()), status, contentType);
         } catch (IOException e) {
             log.debug("URL image inaccessible (GET): {}", uri);
-            return false;
+            return Check.NO_RESPONSE;
         } finally {
             if (connection != null) {
                 connection.disconnect();
@@ -134,4 +146,23 @@ public final class RemoteImageUrlValidator {
                 || lower.endsWith(".bmp");
     }
 
+    /**
+     * Résultat d'une vérification : {@code status} vaut -1 si aucune réponse HTTP n'a été obtenue
+     * (URL invalide, hôte injoignable, délai dépassé).
+     */
+    public record Check(boolean valid, int status, String contentType) {
+
+        static final Check NO_RESPONSE = new Check(false, -1, null);
+
+        /**
+         * Réponse définitive, conservable d'un import à l'autre : succès 2xx (image ou autre type de
+         * contenu) ou ressource absente (404, 410). Les délais, limitations de débit (408, 429) et
+         * erreurs serveur (5xx) sont transitoires et revérifiés à l'analyse suivante.
+         */
+        public boolean definitive() {
+            return (status >= 200 && status < 300)
+                    || status == HttpURLConnection.HTTP_NOT_FOUND
+                    || status == HttpURLConnection.HTTP_GONE;
+        }
+    }
 }
@@ -0,0 +1,120 @@
+package fr.cnrs.opentypo.application.import_typology;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.Serializable;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.util.List;
+
+/**
+ * CSV d'import déposé dans un fichier temporaire (UTF-8) et relu en flux à chaque étape :
+ * la mémoire utilisée ne dépend plus de la taille du fichier.
+ * <p>
+ * Le fichier est déposé dans le répertoire de {@link TypologyCsvSpool} et supprimé par {@link #delete()}
+ * (nouveau dépôt, réinitialisation de l'assistant, fin de session) ; ceux laissés par un arrêt brutal
+ * sont purgés au démarrage suivant.
+ */
+@Slf4j
+public final class TypologyCsvFile implements TypologyCsvSource, Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /** Préfixe des fichiers déposés (purge de {@link TypologyCsvSpool}). */
+    static final String SPOOL_PREFIX = "opentypo-import-";
+
+    private final File file;
+    private final List<String> headers;
+    private final int rowCount;
+
+    private TypologyCsvFile(File file, List<String> headers, int rowCount) {
+        this.file = file;
+        this.headers = headers;
+        this.rowCount = rowCount;
+    }
+
+    /**
+     * Copie le flux dans un fichier temporaire de {@code directory} et le parcourt une fois (en-tête, nombre de lignes).
+     *
+     * @throws IllegalArgumentException si le fichier est vide ou sans ligne de données
+     */
+    public static TypologyCsvFile store(InputStream content, Path directory) throws IOException {
+        Path path = Files.createTempFile(directory, SPOOL_PREFIX, ".csv");
+        try {
+            Files.copy(content, path, StandardCopyOption.REPLACE_EXISTING);
+            return load(path);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(path);
+            throw e;
+        }
+    }
+
+    /**
+     * Relit un CSV déjà déposé (copie conservée par un job d'import), sans le dupliquer.
+     *
+     * @throws IllegalArgumentException si le fichier est vide ou sans ligne de données
+     */
+    public static TypologyCsvFile load(Path path) throws IOException {
+        List<String> headers;
+        int count = 0;
+        try (TypologyCsvParser.CsvRowReader rows = open(path.toFile())) {
+            headers = rows.headers();
+            while (rows.next() != null) {
+                count++;
+            }
+        }
+        if (count == 0) {
+            throw new IllegalArgumentException(TypologyCsvParser.NO_DATA_ROWS);
+        }
+        return new TypologyCsvFile(path.toFile(), headers, count);
+    }
+
+    /**
+     * Copie le fichier vers {@code target} (fichier remplacé s'il existe).
+     */
+    public void copyTo(Path target) throws IOException {
+        Files.copy(file.toPath(), target, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    @Override
+    public List<String> headers() {
+        return headers;
+    }
+
+    @Override
+    public int rowCount() {
+        return rowCount;
+    }
+
+    @Override
+    public Rows openRows() {
+        try {
+            return open(file);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Fichier d'import introuvable : " + file.getName(), e);
+        }
+    }
+
+    /**
+     * Supprime le fichier temporaire (sans effet s'il n'existe plus).
+     */
+    public void delete() {
+        try {
+            Files.deleteIfExists(file.toPath());
+        } catch (IOException e) {
+            log.warn("Suppression du fichier d'import {} impossible : {}", file, e.getMessage());
+        }
+    }
+
+    private static TypologyCsvParser.CsvRowReader open(File file) throws IOException {
+        // InputStreamReader remplace les octets invalides (même comportement que new String(bytes, UTF_8))
+        return TypologyCsvParser.open(new InputStreamReader(Files.newInputStream(file.toPath()), StandardCharsets.UTF_8));
+    }
+}
@@ -2,20 +2,30 @@ package fr.cnrs.opentypo.application.import_typology;
 
 import lombok.extern.slf4j.Slf4j;
 
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.UncheckedIOException;
 import java.util.ArrayList;
+import java.util.Iterator;
 import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
-import java.util.Set;
 
 /**
  * Parseur CSV minimal (RFC 4180 : guillemets, retours à la ligne dans les champs quotés,
  * séparateur {@code ,} ou {@code ;} détecté sur la ligne d'en-tête).
+ * <p>
+ * {@link #open(Reader)} lit le fichier en flux ({@link CsvRowReader}) : seul l'enregistrement courant
+ * est en mémoire. {@link #parse(String)} charge toutes les lignes, pour les petits contenus.
  */
 @Slf4j
 public final class TypologyCsvParser {
 
+    static final String EMPTY_FILE = "Le fichier est vide.";
+    static final String NO_DATA_ROWS = "Le fichier doit contenir un en-tête et au moins une ligne de données.";
+
     private TypologyCsvParser() {
     }
 
@@ -24,75 +34,29 @@ public final class TypologyCsvParser {
      */
     public static ParsedCsv parse(String content) {
         if (content == null || content.isBlank()) {
-            throw new IllegalArgumentException("Le fichier est vide.");
-        }
-        String bomStripped = content.startsWith("\uFEFF") ? content.substring(1) : content;
-        String normalized = bomStripped.replace("\r\n", "\n").replace('\r', '\n');
-        List<String> records = splitCsvRecords(normalized);
-        if (records.size() < 2) {
-            throw new IllegalArgumentException("Le fichier doit contenir un en-tête et au moins une ligne de données.");
-        }
-        char delimiter = detectDelimiter(records.get(0));
-        List<String> headers = splitCsvLine(records.get(0), delimiter);
-        List<Map<String, String>> rows = new ArrayList<>();
-        for (int i = 1; i < records.size(); i++) {
-            String record = records.get(i);
-            if (record.isBlank()) {
-                continue;
+            throw new IllegalArgumentException(EMPTY_FILE);
+        }
+        try (CsvRowReader reader = open(new StringReader(content))) {
+            List<Map<String, String>> rows = new ArrayList<>();
+            Map<String, String> row;
+            while ((row = reader.next()) != null) {
+                rows.add(row);
             }
-            List<String> cells = splitCsvLine(record, delimiter);
-            Map<String, String> row = new LinkedHashMap<>();
-            for (int c = 0; c < headers.size(); c++) {
-                String key = normalizeHeader(headers.get(c));
-                if (key.isEmpty()) {
-                    continue;
-                }
-                String value = c < cells.size() ? cells.get(c) : "";
-                row.put(key, value == null ? "" : value.strip());
+            if (rows.isEmpty()) {
+                throw new IllegalArgumentException(NO_DATA_ROWS);
             }
-            rows.add(row);
+            return new ParsedCsv(reader.headers(), rows);
         }
-        return new ParsedCsv(headers.stream().map(TypologyCsvParser::normalizeHeader).filter(s -> !s.isEmpty()).toList(), rows);
     }
 
     /**
-     * Découpe le fichier en enregistrements logiques : les retours à la ligne à l'intérieur
-     * d'un champ quoté font partie du champ, pas d'un nouvel enregistrement.
+     * Ouvre une lecture en flux : l'en-tête est lu immédiatement, les lignes de données à chaque
+     * {@link CsvRowReader#next()}. Le {@code reader} est fermé avec le {@link CsvRowReader}.
+     *
+     * @throws IllegalArgumentException si le fichier est vide
      */
-    static List<String> splitCsvRecords(String content) {
-        List<String> records = new ArrayList<>();
-        if (content == null || content.isEmpty()) {
-            return records;
-        }
-        StringBuilder record = new StringBuilder();
-        boolean inQuotes = false;
-        for (int i = 0; i < content.length(); i++) {
-            char ch = content.charAt(i);
-            if (ch == '"') {
-                record.append(ch);
-                if (inQuotes) {
-                    if (i + 1 < content.length() && content.charAt(i + 1) == '"') {
-                        record.append('"');
-                        i++;
-                    } else {
-                        inQuotes = false;
-                    }
-                } else {
-                    inQuotes = true;
-                }
-                continue;
-            }
-            if (ch == '\n' && !inQuotes) {
-                records.add(record.toString());
-                record.setLength(0);
-                continue;
-            }
-            record.append(ch);
-        }
-        if (!record.isEmpty()) {
-            records.add(record.toString());
-        }
-        return records;
+    public static CsvRowReader open(Reader reader) {
+        return new CsvRowReader(reader);
     }
 
     /**
@@ -159,13 +123,240 @@ public final class TypologyCsvParser {
         return result;
     }
 
-    public record ParsedCsv(List<String> headers, List<Map<String, String>> rows) {
+    /**
+     * Contenu CSV entièrement chargé en mémoire ({@link #parse(String)}).
+     */
+    public record ParsedCsv(List<String> headers, List<Map<String, String>> rows) implements TypologyCsvSource {
+
+        @Override
+        public int rowCount() {
+            return rows.size();
+        }
+
+        @Override
+        public Rows openRows() {
+            Iterator<Map<String, String>> iterator = rows.iterator();
+            return new Rows() {
+                private int csvRowNumber = 1;
+
+                @Override
+                public Map<String, String> next() {
+                    if (!iterator.hasNext()) {
+                        return null;
+                    }
+                    csvRowNumber++;
+                    return iterator.next();
+                }
+
+                @Override
+                public int csvRowNumber() {
+                    return csvRowNumber;
+                }
+
+                @Override
+                public void close() {
+                    // rien à libérer
+                }
+            };
+        }
+    }
+
+    /**
+     * Lecture en flux d'un CSV, un enregistrement à la fois. Tampons de caractères et de cellules réutilisés
+     * d'une ligne à l'autre ; clés d'en-tête normalisées une seule fois (chaînes internées partagées par
+     * toutes les lignes). Lignes vides ignorées, {@code \r\n} et {@code \r} lus comme {@code \n}.
+     */
+    public static final class CsvRowReader implements TypologyCsvSource.Rows {
+
+        private final Reader reader;
+        private final char[] buffer = new char[8192];
+        private int position;
+        private int limit;
+        private final StringBuilder cell = new StringBuilder();
+        private final List<String> cells = new ArrayList<>();
+        private boolean recordBlank;
+        private final char delimiter;
+        private final String[] columnKeys;
+        private final List<String> headers;
+        private int csvRowNumber = 1;
+
+        private CsvRowReader(Reader reader) {
+            this.reader = reader;
+            if (peek() == '\uFEFF') {
+                read();
+            }
+            String headerRecord = readRawRecord();
+            if (headerRecord == null || headerRecord.isBlank()) {
+                close();
+                throw new IllegalArgumentException(EMPTY_FILE);
+            }
+            delimiter = detectDelimiter(headerRecord);
+            List<String> rawHeaders = splitCsvLine(headerRecord, delimiter);
+            columnKeys = new String[rawHeaders.size()];
+            List<String> keys = new ArrayList<>(rawHeaders.size());
+            for (int c = 0; c < rawHeaders.size(); c++) {
+                String key = normalizeHeader(rawHeaders.get(c));
+                if (!key.isEmpty()) {
+                    columnKeys[c] = key.intern();
+                    keys.add(columnKeys[c]);
+                }
+            }
+            headers = List.copyOf(keys);
+        }
+
+        /**
+         * En-têtes normalisés non vides, dans l'ordre du fichier.
+         */
+        public List<String> headers() {
+            return headers;
+        }
+
+        @Override
+        public Map<String, String> next() {
+            while (readRecordCells()) {
+                if (recordBlank) {
+                    continue;
+                }
+                csvRowNumber++;
+                Map<String, String> row = new LinkedHashMap<>(columnKeys.length * 4 / 3 + 1);
+                for (int c = 0; c < columnKeys.length; c++) {
+                    if (columnKeys[c] != null) {
+                        row.put(columnKeys[c], c < cells.size() ? cells.get(c).strip() : "");
+                    }
+                }
+                return row;
+            }
+            return null;
+        }
+
+        @Override
+        public int csvRowNumber() {
+            return csvRowNumber;
+        }
+
+        @Override
+        public void close() {
+            try {
+                reader.close();
+            } catch (IOException e) {
+                log.debug("Fermeture du fichier CSV : {}", e.getMessage());
+            }
+        }
+
         /**
-         * Noms d'en-tête normalisés (tels qu'utilisés en clé dans chaque ligne) : sert à l'import partiel
-         * (seules les colonnes listées ici sont prises en compte à la mise à jour).
+         * Enregistrement suivant découpé en cellules (guillemets résolus) ; false en fin de fichier.
+         * Les retours à la ligne à l'intérieur d'un champ quoté font partie du champ.
          */
-        public Set<String> headerKeySet() {
-            return Set.copyOf(headers);
+        private boolean readRecordCells() {
+            cells.clear();
+            cell.setLength(0);
+            recordBlank = true;
+            boolean inQuotes = false;
+            boolean any = false;
+            int ch;
+            while ((ch = read()) >= 0) {
+                any = true;
+                if (inQuotes) {
+                    if (ch == '"') {
+                        if (peek() == '"') {
+                            read();
+                            cell.append('"');
+                        } else {
+                            inQuotes = false;
+                        }
+                    } else if (ch == '\r') {
+                        skipLineFeed();
+                        cell.append('\n');
+                    } else {
+                        cell.append((char) ch);
+                    }
+                } else if (ch == '"') {
+                    inQuotes = true;
+                    recordBlank = false;
+                } else if (ch == '\n' || ch == '\r') {
+                    if (ch == '\r') {
+                        skipLineFeed();
+                    }
+                    break;
+                } else if (ch == delimiter) {
+                    cells.add(cell.toString());
+                    cell.setLength(0);
+                    recordBlank = false;
+                } else {
+                    cell.append((char) ch);
+                    if (!Character.isWhitespace(ch)) {
+                        recordBlank = false;
+                    }
+                }
+            }
+            if (!any) {
+                return false;
+            }
+            cells.add(cell.toString());
+            return true;
+        }
+
+        /**
+         * Enregistrement brut (guillemets conservés), pour détecter le séparateur sur l'en-tête.
+         */
+        private String readRawRecord() {
+            StringBuilder record = new StringBuilder();
+            boolean inQuotes = false;
+            boolean any = false;
+            int ch;
+            while ((ch = read()) >= 0) {
+                any = true;
+                if (ch == '\r') {
+                    skipLineFeed();
+                    ch = '\n';
+                }
+                if (ch == '\n' && !inQuotes) {
+                    break;
+                }
+                record.append((char) ch);
+                if (ch == '"') {
+                    if (inQuotes && peek() == '"') {
+                        record.append((char) read());
+                    } else {
+                        inQuotes = !inQuotes;
+                    }
+                }
+            }
+            return any ? record.toString() : null;
+        }
+
+        private void skipLineFeed() {
+            if (peek() == '\n') {
+                read();
+            }
+        }
+
+        private int read() {
+            if (position >= limit && !fill()) {
+                return -1;
+            }
+            return buffer[position++];
+        }
+
+        private int peek() {
+            if (position >= limit && !fill()) {
+                return -1;
+            }
+            return buffer[position];
+        }
+
+        private boolean fill() {
+            try {
+                int count;
+                do {
+                    count = reader.read(buffer, 0, buffer.length);
+                } while (count == 0);
+                position = 0;
+                limit = Math.max(count, 0);
+                return count > 0;
+            } catch (IOException e) {
+                throw new UncheckedIOException("Lecture du fichier CSV impossible", e);
+            }
         }
     }
 }
@@ -0,0 +1,56 @@
+package fr.cnrs.opentypo.application.import_typology;
+
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Fichier CSV d'import relisible : l'analyse, l'import et l'export des lignes en erreur le parcourent
+ * chacun en flux ({@link #openRows()}), sans conserver toutes les lignes en mémoire.
+ */
+public interface TypologyCsvSource {
+
+    /**
+     * Noms d'en-tête normalisés (tels qu'utilisés en clé dans chaque ligne), dans l'ordre du fichier.
+     */
+    List<String> headers();
+
+    /**
+     * Nombre de lignes de données (lignes vides exclues).
+     */
+    int rowCount();
+
+    /**
+     * Nouveau parcours des lignes de données, depuis la première.
+     */
+    Rows openRows();
+
+    /**
+     * En-têtes présents dans le fichier : sert à l'import partiel
+     * (seules les colonnes listées ici sont prises en compte à la mise à jour).
+     */
+    default Set<String> headerKeySet() {
+        return Set.copyOf(headers());
+    }
+
+    /**
+     * Parcours séquentiel des lignes de données.
+     */
+    interface Rows extends AutoCloseable {
+
+        /**
+         * Ligne suivante (clé : en-tête normalisé, valeur sans espaces de bord), ou null en fin de fichier.
+         *
+         * @throws java.io.UncheckedIOException si la lecture du fichier échoue
+         */
+        Map<String, String> next();
+
+        /**
+         * Numéro de ligne CSV de la dernière ligne renvoyée (2 pour la première ligne de données).
+         */
+        int csvRowNumber();
+
+        @Override
+        void close();
+    }
+}
@@ -0,0 +1,80 @@
+package fr.cnrs.opentypo.application.import_typology;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.DirectoryIteratorException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+
+/**
+ * Répertoire des CSV déposés dans l'assistant d'import ({@link TypologyCsvFile}) jusqu'à leur soumission.
+ * <p>
+ * Chaque fichier est supprimé explicitement par son propriétaire. Au démarrage, ceux qu'un arrêt brutal
+ * a laissés sont purgés : seuls les fichiers non modifiés depuis {@code opentypo.import.spool.max-age},
+ * pour ne pas retirer le dépôt en cours d'une autre instance partageant le répertoire.
+ */
+@Slf4j
+@Component
+public class TypologyCsvSpool implements ApplicationRunner {
+
+    private final Path directory;
+    private final Duration maxAge;
+
+    public TypologyCsvSpool(
+            @Value("${opentypo.import.spool.directory:${java.io.tmpdir}/opentypo-import-spool}") String directory,
+            @Value("${opentypo.import.spool.max-age:24h}") Duration maxAge) {
+        this.directory = Path.of(directory);
+        this.maxAge = maxAge;
+    }
+
+    /**
+     * Dépose le CSV téléversé dans le répertoire (voir {@link TypologyCsvFile#store(InputStream, Path)}).
+     */
+    public TypologyCsvFile store(InputStream content) throws IOException {
+        Files.createDirectories(directory);
+        return TypologyCsvFile.store(content, directory);
+    }
+
+    @Override
+    public void run(ApplicationArguments args) {
+        int deleted = sweep(Instant.now().minus(maxAge));
+        if (deleted > 0) {
+            log.info("Dépôts d'import CSV abandonnés supprimés au démarrage : {}", deleted);
+        }
+    }
+
+    /**
+     * Supprime les dépôts non modifiés depuis {@code cutoff}.
+     *
+     * @return nombre de fichiers supprimés
+     */
+    int sweep(Instant cutoff) {
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+        int deleted = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, TypologyCsvFile.SPOOL_PREFIX + "*.csv")) {
+            for (Path file : files) {
+                try {
+                    if (Files.getLastModifiedTime(file).toInstant().isBefore(cutoff) && Files.deleteIfExists(file)) {
+                        deleted++;
+                    }
+                } catch (IOException e) {
+                    log.warn("Suppression du dépôt d'import {} impossible : {}", file, e.getMessage());
+                }
+            }
+        } catch (IOException | DirectoryIteratorException e) {
+            log.warn("Purge du répertoire des dépôts d'import {} impossible : {}", directory, e.getMessage());
+        }
+        return deleted;
+    }
+}
@@ -9,14 +9,14 @@ public record TypologyImportAnalyzeResult(
         boolean successful,
         List<String> blockingErrors,
         List<TypologyImportPreviewLine> previewLines,
-        TypologyCsvParser.ParsedCsv parsedCsv,
+        TypologyCsvSource parsedCsv,
         TypologyImportImageUrlCache imageUrlCache
 ) {
     public TypologyImportAnalyzeResult(
             boolean successful,
             List<String> blockingErrors,
             List<TypologyImportPreviewLine> previewLines,
-            TypologyCsvParser.ParsedCsv parsedCsv) {
+            TypologyCsvSource parsedCsv) {
         this(successful, blockingErrors, previewLines, parsedCsv, new TypologyImportImageUrlCache());
     }
 }
@@ -0,0 +1,36 @@
+package fr.cnrs.opentypo.application.import_typology;
+
+/**
+ * Points de contrôle de l'import aux limites de lots transactionnels : reprise après les lignes déjà validées,
+ * enregistrement de l'avancement et annulation. Les lignes sont comptées dans l'ordre d'import
+ * (catégories, groupes, séries puis types ; ordre du fichier dans chaque niveau).
+ */
+public interface TypologyImportCheckpoint {
+
+    /** Import sans reprise ni annulation. */
+    TypologyImportCheckpoint NONE = new TypologyImportCheckpoint() {
+    };
+
+    /**
+     * Lignes enregistrées par une exécution précédente du même fichier, ignorées à la reprise.
+     */
+    default int committedRows() {
+        return 0;
+    }
+
+    /**
+     * Appelé après la validation de chaque lot.
+     *
+     * @param importedCount lignes enregistrées depuis le début de l'import (reprises comprises)
+     * @param lastCsvRow    numéro de ligne CSV de la dernière ligne du lot
+     */
+    default void batchCommitted(int importedCount, int plannedCount, int lastCsvRow) {
+    }
+
+    /**
+     * Consulté avant chaque lot : {@code true} arrête l'import, les lots déjà validés restent en base.
+     */
+    default boolean cancelRequested() {
+        return false;
+    }
+}
@@ -1,6 +1,7 @@
 package fr.cnrs.opentypo.application.import_typology;
 
 import java.nio.charset.StandardCharsets;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
 
@@ -15,10 +16,9 @@ public final class TypologyImportCsvExport {
     private TypologyImportCsvExport() {
     }
 
-    public static byte[] buildUtf8(TypologyCsvParser.ParsedCsv parsed, List<TypologyImportPreviewLine> errorLines) {
+    public static byte[] buildUtf8(TypologyCsvSource parsed, List<TypologyImportPreviewLine> errorLines) {
         StringBuilder sb = new StringBuilder();
         List<String> headers = parsed.headers();
-        List<Map<String, String>> rows = parsed.rows();
 
         boolean first = true;
         for (String h : headers) {
@@ -30,24 +30,35 @@ public final class TypologyImportCsvExport {
         }
         sb.append(',').append(escapeCsvField(COL_ERREURS)).append(',').append(escapeCsvField(COL_AVERTISSEMENTS)).append('\n');
 
+        Map<Integer, TypologyImportPreviewLine> linesByRow = new HashMap<>();
         for (TypologyImportPreviewLine line : errorLines) {
-            int idx = line.csvRowNumber() - 2;
-            if (idx < 0 || idx >= rows.size()) {
-                continue;
-            }
-            Map<String, String> row = rows.get(idx);
-            first = true;
-            for (String h : headers) {
-                if (!first) {
-                    sb.append(',');
+            linesByRow.putIfAbsent(line.csvRowNumber(), line);
+        }
+        if (linesByRow.isEmpty()) {
+            return sb.toString().getBytes(StandardCharsets.UTF_8);
+        }
+
+        // Un seul parcours du fichier : seules les lignes en erreur sont recopiées
+        try (TypologyCsvSource.Rows rows = parsed.openRows()) {
+            Map<String, String> row;
+            while ((row = rows.next()) != null) {
+                TypologyImportPreviewLine line = linesByRow.get(rows.csvRowNumber());
+                if (line == null) {
+                    continue;
+                }
+                first = true;
+                for (String h : headers) {
+                    if (!first) {
+                        sb.append(',');
+                    }
+                    first = false;
+                    String v = row.get(h);
+                    sb.append(escapeCsvField(v != null ? v : ""));
                 }
-                first = false;
-                String v = row.get(h);
-                sb.append(escapeCsvField(v != null ? v : ""));
+                sb.append(',').append(escapeCsvField(joinMessages(line.errors())));
+                sb.append(',').append(escapeCsvField(joinMessages(line.warnings())));
+                sb.append('\n');
             }
-            sb.append(',').append(escapeCsvField(joinMessages(line.errors())));
-            sb.append(',').append(escapeCsvField(joinMessages(line.warnings())));
-            sb.append('\n');
         }
 
         return sb.toString().getBytes(StandardCharsets.UTF_8);
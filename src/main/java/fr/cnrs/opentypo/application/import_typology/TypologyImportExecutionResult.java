@@ -1,7 +1,7 @@
 package fr.cnrs.opentypo.application.import_typology;
 
 /**
- * Résultat d'un import typologique (succès total, partiel ou échec sans ligne enregistrée).
+ * Résultat d'un import typologique (succès total, partiel, annulé ou échec sans ligne enregistrée).
  */
 public record TypologyImportExecutionResult(
         boolean success,
@@ -9,18 +9,25 @@ public record TypologyImportExecutionResult(
         int importedCount,
         int plannedCount,
         Integer failedAtCsvRow,
-        String message) {
+        String message,
+        boolean cancelled) {
 
     public static TypologyImportExecutionResult ok(int importedCount) {
-        return new TypologyImportExecutionResult(true, false, importedCount, importedCount, null, null);
+        return new TypologyImportExecutionResult(true, false, importedCount, importedCount, null, null, false);
     }
 
     public static TypologyImportExecutionResult partial(
             int importedCount, int plannedCount, Integer failedAtCsvRow, String message) {
-        return new TypologyImportExecutionResult(false, true, importedCount, plannedCount, failedAtCsvRow, message);
+        return new TypologyImportExecutionResult(false, true, importedCount, plannedCount, failedAtCsvRow, message, false);
+    }
+
+    /** Import arrêté à la demande avant le lot commençant à {@code nextCsvRow} : les lots validés restent en base. */
+    public static TypologyImportExecutionResult cancelled(int importedCount, int plannedCount, Integer nextCsvRow) {
+        return new TypologyImportExecutionResult(false, importedCount > 0, importedCount, plannedCount, nextCsvRow,
+                "Import annulé : " + importedCount + " / " + plannedCount + " lignes enregistrées.", true);
     }
 
     public static TypologyImportExecutionResult failure(String message) {
-        return new TypologyImportExecutionResult(false, false, 0, 0, null, message);
+        return new TypologyImportExecutionResult(false, false, 0, 0, null, message, false);
     }
 }
@@ -1,6 +1,5 @@
 package fr.cnrs.opentypo.application.import_typology;
 
-import java.io.Serializable;
 import java.io.Serializable;
 import java.util.HashMap;
 import java.util.Map;
@@ -12,12 +11,27 @@ import java.util.Map;
 public final class TypologyImportImageUrlCache implements Serializable {
 
     private final Map<String, Boolean> networkResults = new HashMap<>();
+    private boolean prefetched;
+
+    /**
+     * Renseigne, avant le parcours des lignes, les résultats de toutes les URL du fichier
+     * ({@link ImageUrlValidationService#validateAll}). Ensuite, {@link #validateWithNetwork} ne fait plus
+     * d'appel réseau : une URL sans résultat (délai dépassé) est seulement contrôlée syntaxiquement, comme à l'import.
+     * Le cache n'est alors plus que lu, et peut être partagé par les threads de l'analyse.
+     */
+    void prefetch(Map<String, Boolean> results) {
+        networkResults.putAll(results);
+        prefetched = true;
+    }
 
     boolean validateWithNetwork(String rawUrl) {
         if (rawUrl == null || rawUrl.isBlank()) {
             return false;
         }
         String key = rawUrl.trim();
+        if (prefetched) {
+            return isValidForImport(key);
+        }
         return networkResults.computeIfAbsent(key, RemoteImageUrlValidator::isValidRemoteImageUrl);
     }
 
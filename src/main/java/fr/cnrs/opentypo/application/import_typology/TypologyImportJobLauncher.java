@@ -1,77 +1,483 @@
 package fr.cnrs.opentypo.application.import_typology;
 
 import fr.cnrs.opentypo.domain.entity.Entity;
+import fr.cnrs.opentypo.domain.entity.ImportJob;
 import fr.cnrs.opentypo.domain.entity.Utilisateur;
-import jakarta.servlet.http.HttpSession;
+import fr.cnrs.opentypo.infrastructure.persistence.ImportJobRepository;
+import fr.cnrs.opentypo.infrastructure.persistence.UtilisateurRepository;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.ApplicationArguments;
+import org.springframework.boot.ApplicationRunner;
+import org.springframework.core.annotation.Order;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.util.StringUtils;
 
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.UnknownHostException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayDeque;
+import java.util.Deque;
+import java.util.EnumSet;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 /**
- * Lance l'import typologique en arrière-plan (lots transactionnels, progression en session HTTP).
+ * File d'exécution des imports typologiques ({@link ImportJob}) : chaque import soumis est enregistré en base avec
+ * sa copie du CSV, puis exécuté en arrière-plan (lots transactionnels, progression publiée par
+ * {@link TypologyImportProgressRegistry}).
+ * <ul>
+ *     <li>les imports de référentiels différents s'exécutent en parallèle ({@code opentypo.import.jobs.pool-size}) ;
+ *     ceux d'un même référentiel, l'un après l'autre, dans l'ordre de soumission ;</li>
+ *     <li>un import en cours s'arrête à la demande avant le lot suivant ; les lots validés restent en base ;</li>
+ *     <li>un import annulé ou interrompu reprend après la dernière ligne validée ;</li>
+ *     <li>au démarrage, les imports en attente ou en cours lors de l'arrêt sont relancés.</li>
+ * </ul>
+ * Plusieurs instances peuvent partager la base (et {@code opentypo.import.jobs.directory}) : un job n'est exécuté
+ * qu'après avoir été pris en base ({@link ImportJobRepository#claim}) sous un bail renouvelé toutes les
+ * {@code heartbeat-interval}. Seuls les jobs en cours de l'instance elle-même ({@code instance-id}, stable d'un
+ * redémarrage à l'autre) ou dont le bail a dépassé {@code lease-timeout} sont remis en file. L'annulation est
+ * enregistrée sur le job : elle vaut quelle que soit l'instance qui la reçoit et celle qui exécute l'import.
  */
 @Slf4j
 @Service
-public class TypologyImportJobLauncher {
+@Order(2)
+public class TypologyImportJobLauncher implements ApplicationRunner {
+
+    private static final Set<ImportJob.Status> QUEUED_STATUSES = EnumSet.of(ImportJob.Status.QUEUED);
 
     private final TypologyImportService typologyImportService;
+    private final ImportJobRepository importJobRepository;
+    private final UtilisateurRepository utilisateurRepository;
+    private final TypologyImportProgressRegistry progressRegistry;
+    private final Path jobDirectory;
+    private final int poolSize;
+    private final String instanceId;
+    private final Duration leaseTimeout;
+    private final ExecutorService importExecutor;
+
+    /** Jobs en attente, dans l'ordre de soumission (accès synchronisé sur {@code this}). */
+    private final Deque<QueuedJob> queue = new ArrayDeque<>();
+    /** Référentiels ayant un import en cours (accès synchronisé sur {@code this}). */
+    private final Set<Long> busyReferences = new HashSet<>();
+    /** Demande d'annulation des jobs en cours. */
+    private final Map<Long, AtomicBoolean> cancelFlags = new ConcurrentHashMap<>();
+    /** Analyse validée à la soumission, gardée en mémoire (perdue au redémarrage : le job se poursuit sans). */
+    private final Map<Long, TypologyImportAnalyzeResult> priorAnalyses = new ConcurrentHashMap<>();
+    private volatile boolean shuttingDown;
+
+    private record QueuedJob(long jobId, long referenceId) {
+    }
 
-    private final ExecutorService importExecutor = Executors.newSingleThreadExecutor(r -> {
-        Thread t = new Thread(r, "typology-import-worker");
-        t.setDaemon(true);
-        return t;
-    });
 
-    public TypologyImportJobLauncher(TypologyImportService typologyImportService) {
+    public TypologyImportJobLauncher(TypologyImportService typologyImportService,
+                                     ImportJobRepository importJobRepository,
+                                     UtilisateurRepository utilisateurRepository,
+                                     TypologyImportProgressRegistry progressRegistry,
+                                     @Value("${opentypo.import.jobs.directory:${java.io.tmpdir}/opentypo-import-jobs}") String jobDirectory,
+                                     @Value("${opentypo.import.jobs.pool-size:2}") int poolSize,
+                                     @Value("${opentypo.import.jobs.instance-id:}") String instanceId,
+                                     @Value("${opentypo.import.jobs.lease-timeout:2m}") Duration leaseTimeout) {
         this.typologyImportService = typologyImportService;
+        this.importJobRepository = importJobRepository;
+        this.utilisateurRepository = utilisateurRepository;
+        this.progressRegistry = progressRegistry;
+        this.jobDirectory = Path.of(jobDirectory);
+        this.poolSize = Math.max(1, poolSize);
+        this.instanceId = StringUtils.hasText(instanceId) ? instanceId.trim() : defaultInstanceId();
+        this.leaseTimeout = leaseTimeout;
+        AtomicInteger threadCount = new AtomicInteger();
+        this.importExecutor = Executors.newFixedThreadPool(this.poolSize, r -> {
+            Thread t = new Thread(r, "typology-import-worker-" + threadCount.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
     }
 
-    public void launchExecute(
+    /**
+     * Enregistre l'import et le place dans la file.
+     *
+     * @param priorAnalysis analyse validée à l'étape 2 (classification et URL d'image réutilisées)
+     * @return identifiant du job
+     * @throws IOException si la copie du CSV est impossible
+     */
+    public long submit(
             Long referenceId,
-            TypologyCsvParser.ParsedCsv parsed,
+            TypologyCsvFile parsed,
+            String fileName,
             Utilisateur user,
             TypologyImportCollectionProfile collectionProfile,
-            HttpSession httpSession,
-            TypologyImportAnalyzeResult priorAnalysis) {
-        importExecutor.submit(() -> runImport(
-                referenceId, parsed, user, collectionProfile, httpSession, priorAnalysis));
+            TypologyImportAnalyzeResult priorAnalysis) throws IOException {
+        Files.createDirectories(jobDirectory);
+        Path csvCopy = Files.createTempFile(jobDirectory, "import-job-", ".csv");
+        ImportJob job = new ImportJob();
+        try {
+            parsed.copyTo(csvCopy);
+            job.setReferenceId(referenceId);
+            job.setCollectionProfile(collectionProfile.name());
+            job.setStatus(ImportJob.Status.QUEUED);
+            job.setCsvPath(csvCopy.toAbsolutePath().toString());
+            job.setFileName(fileName);
+            if (user != null) {
+                job.setUserId(user.getId());
+                job.setCreateBy(user.getEmail());
+            }
+            job.setPlannedCount(parsed.rowCount());
+            job.setCreatedAt(LocalDateTime.now());
+            job = importJobRepository.save(job);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(csvCopy);
+            throw e;
+        }
+        if (priorAnalysis != null) {
+            priorAnalyses.put(job.getId(), priorAnalysis);
+        }
+        log.info("Import typologique {} soumis (référentiel id={}, {} lignes CSV)",
+                job.getId(), referenceId, parsed.rowCount());
+        enqueue(job);
+        return job.getId();
     }
 
-    private void runImport(
-            Long referenceId,
-            TypologyCsvParser.ParsedCsv parsed,
-            Utilisateur user,
-            TypologyImportCollectionProfile collectionProfile,
-            HttpSession httpSession,
-            TypologyImportAnalyzeResult priorAnalysis) {
-        TypologyImportProgress progress = TypologyImportProgressSession.getOrCreate(httpSession);
-        log.info("Import typologique démarré (référentiel id={}, {} lignes CSV)",
-                referenceId, parsed != null ? parsed.rows().size() : 0);
+    /**
+     * Annule un job, qu'il soit porté par cette instance ou par une autre : la demande est enregistrée en base ;
+     * un job en attente est aussitôt terminé, un job en cours s'arrête avant son prochain lot.
+     *
+     * @return {@code false} si le job n'est ni en attente ni en cours
+     */
+    public boolean cancel(long jobId) {
+        if (importJobRepository.requestCancel(jobId, ImportJob.Status.QUEUED, ImportJob.Status.RUNNING) == 0) {
+            return false;
+        }
+        importJobRepository.cancelQueued("Import annulé avant son démarrage.", LocalDateTime.now(),
+                ImportJob.Status.QUEUED, ImportJob.Status.CANCELLED);
+        Optional<ImportJob> cancelled = importJobRepository.findById(jobId)
+                .filter(job -> job.getStatus() == ImportJob.Status.CANCELLED);
+        if (cancelled.isPresent()) {
+            ImportJob job = cancelled.get();
+            synchronized (this) {
+                queue.removeIf(queued -> queued.jobId() == jobId);
+            }
+            priorAnalyses.remove(jobId);
+            progressRegistry.find(jobId).ifPresent(progress ->
+                    progress.completeImportingPartial(job.getImportedCount(), job.getPlannedCount(), job.getMessage()));
+            progressRegistry.updateStatus(jobId, ImportJob.Status.CANCELLED, job.getMessage());
+            log.info("Import typologique {} annulé avant son démarrage", jobId);
+            return true;
+        }
+        AtomicBoolean flag = cancelFlags.get(jobId);
+        if (flag != null) {
+            flag.set(true);
+        }
+        log.info("Import typologique {} : annulation demandée", jobId);
+        return true;
+    }
+
+    /**
+     * Replace en file un job annulé ou arrêté en erreur ; il reprend après la dernière ligne validée.
+     *
+     * @return {@code false} si le job n'existe pas, n'est pas repris ou si sa copie du CSV a disparu
+     */
+    public boolean resume(long jobId) {
+        Optional<ImportJob> found = importJobRepository.findById(jobId);
+        if (found.isEmpty() || !found.get().getStatus().isResumable()
+                || !Files.isRegularFile(Path.of(found.get().getCsvPath()))) {
+            return false;
+        }
+        ImportJob job = found.get();
+        job.setStatus(ImportJob.Status.QUEUED);
+        job.setMessage(null);
+        job.setFinishedAt(null);
+        job.setCancelRequested(false);
+        job = importJobRepository.save(job);
+        log.info("Import typologique {} repris après {} lignes", jobId, job.getImportedCount());
+        enqueue(job);
+        return true;
+    }
+
+    public Optional<ImportJob> findJob(long jobId) {
+        return importJobRepository.findById(jobId);
+    }
+
+    /**
+     * Job visible par l'utilisateur {@code userEmail} : celui qui l'a soumis ou un administrateur.
+     * Vide pour tout autre utilisateur, comme pour un job inexistant.
+     */
+    public Optional<ImportJob> findJobVisibleTo(long jobId, String userEmail, boolean admin) {
+        Optional<ImportJob> job = importJobRepository.findById(jobId);
+        if (admin || job.isEmpty()) {
+            return job;
+        }
+        Long ownerId = job.get().getUserId();
+        if (ownerId == null || userEmail == null) {
+            return Optional.empty();
+        }
+        return utilisateurRepository.findByEmail(userEmail)
+                .filter(user -> ownerId.equals(user.getId()))
+                .flatMap(user -> job);
+    }
+
+    /**
+     * Progression en mémoire du job (créée à la mise en file), partagée avec l'API REST et le flux SSE.
+     */
+    public Optional<TypologyImportProgress> findProgress(long jobId) {
+        return progressRegistry.find(jobId);
+    }
+
+    /**
+     * Relance les jobs en attente ou en cours lors de l'arrêt de l'application (après les migrations Flyway) :
+     * ceux que cette instance exécutait et ceux dont le bail a expiré, sauf s'ils ont été annulés entre-temps ;
+     * les jobs d'une autre instance active ne sont pas touchés.
+     */
+    @Override
+    public void run(ApplicationArguments args) {
+        int released = importJobRepository.releaseLeasesOf(instanceId, ImportJob.Status.QUEUED, ImportJob.Status.RUNNING)
+                + importJobRepository.releaseExpiredLeases(LocalDateTime.now().minus(leaseTimeout),
+                ImportJob.Status.QUEUED, ImportJob.Status.RUNNING);
+        cancelReleasedJobs(LocalDateTime.now());
+        int pending = enqueueUnknownQueuedJobs();
+        if (pending > 0) {
+            log.info("Imports typologiques relancés au démarrage : {} (dont {} interrompus en cours)", pending, released);
+        }
+    }
+
+    /**
+     * Renouvelle le bail des imports en cours sur cette instance, remet en file ceux d'une instance disparue
+     * (bail expiré) et prend en charge les jobs en attente qu'aucune file en mémoire ne porte.
+     */
+    @Scheduled(fixedDelayString = "${opentypo.import.jobs.heartbeat-interval:30s}",
+            initialDelayString = "${opentypo.import.jobs.heartbeat-interval:30s}")
+    void maintainLeases() {
+        if (shuttingDown) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        importJobRepository.renewLeases(instanceId, now, ImportJob.Status.RUNNING);
+        int released = importJobRepository.releaseExpiredLeases(now.minus(leaseTimeout),
+                ImportJob.Status.QUEUED, ImportJob.Status.RUNNING);
+        if (released > 0) {
+            log.warn("Imports typologiques dont le bail a expiré, remis en file : {}", released);
+        }
+        cancelReleasedJobs(now);
+        enqueueUnknownQueuedJobs();
+    }
+
+    /**
+     * Termine les jobs remis en file alors que leur annulation était demandée : {@link ImportJobRepository#claim}
+     * ne les prendrait plus.
+     */
+    private void cancelReleasedJobs(LocalDateTime now) {
+        int cancelled = importJobRepository.cancelQueued("Import annulé.", now,
+                ImportJob.Status.QUEUED, ImportJob.Status.CANCELLED);
+        if (cancelled > 0) {
+            log.info("Imports typologiques annulés avant leur reprise : {}", cancelled);
+        }
+    }
+
+    /**
+     * Arrêt de l'application : les imports en cours s'arrêtent au prochain lot et restent en file pour le redémarrage.
+     */
+    @PreDestroy
+    void shutdown() {
+        shuttingDown = true;
+        cancelFlags.values().forEach(flag -> flag.set(true));
+        importExecutor.shutdown();
+        try {
+            if (!importExecutor.awaitTermination(30, TimeUnit.SECONDS)) {
+                log.warn("Imports typologiques encore en cours à l'arrêt : ils reprendront au redémarrage");
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    /**
+     * Met en file les jobs en attente en base qui ne sont ni dans la file ni en cours sur cette instance.
+     *
+     * @return nombre de jobs ajoutés
+     */
+    private int enqueueUnknownQueuedJobs() {
+        Set<Long> known = new HashSet<>(cancelFlags.keySet());
+        synchronized (this) {
+            queue.forEach(queued -> known.add(queued.jobId()));
+        }
+        int added = 0;
+        for (ImportJob job : importJobRepository.findByStatusInOrderByIdAsc(QUEUED_STATUSES)) {
+            if (!known.contains(job.getId())) {
+                enqueue(job);
+                added++;
+            }
+        }
+        return added;
+    }
+
+    private void enqueue(ImportJob job) {
+        TypologyImportProgress progress = progressRegistry.register(job.getId(), job.getReferenceId());
+        progress.reset();
+        progress.beginImporting(job.getPlannedCount());
+        progress.setPreparingImport("Import en attente…");
+        progressRegistry.updateStatus(job.getId(), ImportJob.Status.QUEUED, null);
+        synchronized (this) {
+            queue.addLast(new QueuedJob(job.getId(), job.getReferenceId()));
+        }
+        dispatch();
+    }
+
+    /**
+     * Démarre les jobs en attente dont le référentiel est libre, dans la limite du pool.
+     */
+    private synchronized void dispatch() {
+        if (shuttingDown) {
+            return;
+        }
+        Iterator<QueuedJob> it = queue.iterator();
+        while (it.hasNext() && busyReferences.size() < poolSize) {
+            QueuedJob queued = it.next();
+            if (busyReferences.add(queued.referenceId())) {
+                it.remove();
+                cancelFlags.put(queued.jobId(), new AtomicBoolean());
+                importExecutor.execute(() -> runQueued(queued));
+            }
+        }
+    }
+
+    private void runQueued(QueuedJob queued) {
+        try {
+            int claimed = importJobRepository.claim(queued.jobId(), instanceId, LocalDateTime.now(),
+                    ImportJob.Status.QUEUED, ImportJob.Status.RUNNING);
+            if (claimed == 1) {
+                importJobRepository.findById(queued.jobId()).ifPresent(this::runImport);
+            } else {
+                // Annulé, pris par une autre instance ou précédé par un autre import du référentiel :
+                // s'il est toujours en attente, maintainLeases() le remet en file
+                log.debug("Import typologique {} non pris par l'instance {}", queued.jobId(), instanceId);
+                importJobRepository.findById(queued.jobId())
+                        .filter(job -> job.getStatus().isTerminal())
+                        .ifPresent(job -> progressRegistry.updateStatus(job.getId(), job.getStatus(), job.getMessage()));
+            }
+        } catch (Exception ex) {
+            log.error("Import typologique {} : erreur inattendue", queued.jobId(), ex);
+        } finally {
+            cancelFlags.remove(queued.jobId());
+            priorAnalyses.remove(queued.jobId());
+            synchronized (this) {
+                busyReferences.remove(queued.referenceId());
+            }
+            dispatch();
+        }
+    }
+
+    private void runImport(ImportJob job) {
+        long jobId = job.getId();
+        TypologyImportProgress progress = progressRegistry.register(jobId, job.getReferenceId());
+
+        progressRegistry.updateStatus(jobId, ImportJob.Status.RUNNING, null);
+        log.info("Import typologique {} démarré (référentiel id={}, {} lignes déjà enregistrées)",
+                jobId, job.getReferenceId(), job.getImportedCount());
+
+        TypologyCsvFile csv;
+        try {
+            csv = TypologyCsvFile.load(Path.of(job.getCsvPath()));
+        } catch (IOException | RuntimeException ex) {
+            log.error("Import typologique {} : fichier {} illisible", jobId, job.getCsvPath(), ex);
+            String message = "Fichier d'import introuvable ou illisible.";
+            progress.fail(message);
+            finish(job, ImportJob.Status.FAILED, message);
+            return;
+        }
+
+        AtomicBoolean cancelFlag = cancelFlags.computeIfAbsent(jobId, id -> new AtomicBoolean());
+        int committedRows = job.getImportedCount();
+        TypologyImportCheckpoint checkpoint = new TypologyImportCheckpoint() {
+            @Override
+            public int committedRows() {
+                return committedRows;
+            }
+
+            @Override
+            public void batchCommitted(int importedCount, int plannedCount, int lastCsvRow) {
+                importJobRepository.updateProgress(jobId, importedCount, plannedCount, lastCsvRow);
+            }
+
+            @Override
+            public boolean cancelRequested() {
+                return cancelFlag.get() || importJobRepository.existsByIdAndCancelRequestedTrue(jobId);
+            }
+        };
+
         try {
             Entity reference = new Entity();
-            reference.setId(referenceId);
+            reference.setId(job.getReferenceId());
+            Utilisateur user = job.getUserId() != null ? utilisateurRepository.findById(job.getUserId()).orElse(null) : null;
             TypologyImportExecutionResult result = typologyImportService.executeImport(
-                    reference, parsed, user, collectionProfile, progress, true, priorAnalysis, httpSession);
+                    reference, csv, user, TypologyImportCollectionProfile.valueOf(job.getCollectionProfile()),
+                    progress, true, priorAnalyses.get(jobId), null, checkpoint);
+            job = importJobRepository.findById(jobId).orElse(job);
+            job.setImportedCount(result.importedCount());
+            job.setPlannedCount(result.plannedCount());
             if (result.success()) {
                 progress.completeImporting();
-                log.info("Import typologique terminé (référentiel id={}, {} lignes)",
-                        referenceId, result.importedCount());
-            } else if (result.partial()) {
-                progress.completeImportingPartial(
+                finish(job, ImportJob.Status.COMPLETED, null);
+                csv.delete();
+                log.info("Import typologique {} terminé (référentiel id={}, {} lignes)",
+                        jobId, job.getReferenceId(), result.importedCount());
+            } else if (result.cancelled() && shuttingDown && !job.isCancelRequested()) {
+                job.setStatus(ImportJob.Status.QUEUED);
+                job.setLeaseOwner(null);
+                job.setLeaseHeartbeat(null);
+                importJobRepository.save(job);
+                progressRegistry.updateStatus(jobId, ImportJob.Status.QUEUED, null);
+                log.info("Import typologique {} suspendu par l'arrêt de l'application ({}/{} lignes)",
+                        jobId, result.importedCount(), result.plannedCount());
+            } else if (result.cancelled() || result.partial()) {
+                progress.completeImportingPartial(result.importedCount(), result.plannedCount(), result.message());
+                finish(job, result.cancelled() ? ImportJob.Status.CANCELLED : ImportJob.Status.PARTIAL, result.message());
+                log.warn("Import typologique {} {} (référentiel id={}, {}/{} lignes) : {}",
+                        jobId, result.cancelled() ? "annulé" : "partiel", job.getReferenceId(),
                         result.importedCount(), result.plannedCount(), result.message());
-                log.warn("Import typologique partiel (référentiel id={}, {}/{} lignes) : {}",
-                        referenceId, result.importedCount(), result.plannedCount(), result.message());
             } else {
                 progress.fail(result.message());
-                log.error("Import typologique échoué (référentiel id={}) : {}", referenceId, result.message());
+                finish(job, ImportJob.Status.FAILED, result.message());
+                log.error("Import typologique {} échoué (référentiel id={}) : {}", jobId, job.getReferenceId(), result.message());
             }
-            TypologyImportProgressSession.publish(httpSession, progress);
         } catch (Exception ex) {
-            log.error("Import typologique échoué (référentiel id={})", referenceId, ex);
+            log.error("Import typologique {} échoué (référentiel id={})", jobId, job.getReferenceId(), ex);
             progress.fail(ex.getMessage());
-            TypologyImportProgressSession.publish(httpSession, progress);
+            finish(importJobRepository.findById(jobId).orElse(job), ImportJob.Status.FAILED, ex.getMessage());
+        }
+    }
+
+    private void finish(ImportJob job, ImportJob.Status status, String message) {
+        job.setStatus(status);
+        job.setMessage(message);
+        job.setFinishedAt(LocalDateTime.now());
+        job.setLeaseOwner(null);
+        job.setLeaseHeartbeat(null);
+        progressRegistry.updateStatus(job.getId(), status, message);
+        importJobRepository.save(job);
+    }
+
+    private static String defaultInstanceId() {
+        try {
+            return InetAddress.getLocalHost().getHostName();
+        } catch (UnknownHostException e) {
+            return UUID.randomUUID().toString();
         }
     }
 }
@@ -1,16 +1,16 @@
 package fr.cnrs.opentypo.application.import_typology;
 
-import fr.cnrs.opentypo.application.service.CategoryService;
-import fr.cnrs.opentypo.application.service.GroupService;
-import fr.cnrs.opentypo.application.service.SerieService;
-import fr.cnrs.opentypo.application.service.TypeService;
 import fr.cnrs.opentypo.common.constant.EntityConstants;
 import fr.cnrs.opentypo.domain.entity.Entity;
+import fr.cnrs.opentypo.infrastructure.persistence.EntityRelationRepository;
 import fr.cnrs.opentypo.infrastructure.persistence.EntityRepository;
 import org.springframework.util.StringUtils;
 
+import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.List;
+import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
@@ -22,6 +22,7 @@ import java.util.Set;
 final class TypologyImportLookupCache {
 
     private static final String KEY_SEP = "\u001F";
+    private static final int TAKEN_CODES_BATCH_SIZE = 1000;
 
     private final EntityRepository entityRepository;
     private final Map<String, Long> categoryIdByCode = new HashMap<>();
@@ -33,57 +34,118 @@ final class TypologyImportLookupCache {
     private final Map<String, Long> typeIdByGroupId = new HashMap<>();
     private final Map<Long, Entity> entityById = new HashMap<>();
     private final Map<Long, Long> parentIdByChildId = new HashMap<>();
+    private final Map<Long, Long> groupIdBySerieId = new HashMap<>();
     private final Set<String> knownLinks = new HashSet<>();
+    /** Codes pris (type, périmètre, code en minuscules), renseignés par {@link #preloadTakenCodes}. */
+    private final Set<String> takenCodes = new HashSet<>();
+    private Long referenceId;
+    private boolean takenCodesLoaded;
 
     private TypologyImportLookupCache(EntityRepository entityRepository) {
         this.entityRepository = entityRepository;
     }
 
+    /**
+     * Remplit les tables code → id en une requête ({@link EntityRelationRepository#findTypologyTreeRows}) :
+     * seuls les identifiants et codes sont lus, aucune entité n'est chargée. Le parcours reprend celui
+     * des listes catalogue (catégories du référentiel, groupes, séries, types de série et de groupe).
+     */
     static TypologyImportLookupCache warm(
             Entity reference,
-            CategoryService categoryService,
-            GroupService groupService,
-            SerieService serieService,
-            TypeService typeService,
+            EntityRelationRepository entityRelationRepository,
             EntityRepository entityRepository) {
         TypologyImportLookupCache cache = new TypologyImportLookupCache(entityRepository);
-        for (Entity cat : categoryService.loadCategoriesByReference(reference)) {
-            if (!StringUtils.hasText(cat.getCode()) || cat.getId() == null) {
-                continue;
-            }
-            cache.categoryIdByCode.put(cat.getCode(), cat.getId());
-            for (Entity grp : groupService.loadCategoryGroups(cat)) {
-                if (!StringUtils.hasText(grp.getCode()) || grp.getId() == null) {
-                    continue;
-                }
-                cache.groupIdByKey.put(gKey(cat.getCode(), grp.getCode()), grp.getId());
-                cache.groupIdInReferenceByCode.putIfAbsent(grp.getCode(), grp.getId());
-                for (Entity ser : serieService.loadGroupSeries(grp)) {
-                    if (!StringUtils.hasText(ser.getCode()) || ser.getId() == null) {
-                        continue;
-                    }
-                    cache.serieIdByKey.put(sKey(cat.getCode(), grp.getCode(), ser.getCode()), ser.getId());
-                    cache.serieIdByGroupId.put(groupScopedKey(grp.getId(), ser.getCode()), ser.getId());
-                    for (Entity typ : typeService.loadSerieTypes(ser)) {
-                        if (!StringUtils.hasText(typ.getCode()) || typ.getId() == null) {
-                            continue;
-                        }
-                        cache.typeIdByGroupKey.put(tKey(cat.getCode(), grp.getCode(), typ.getCode()), typ.getId());
-                        cache.typeIdByGroupId.put(groupScopedKey(grp.getId(), typ.getCode()), typ.getId());
+        Map<Long, List<TreeNode>> childrenByParentId = new HashMap<>();
+        for (Object[] row : entityRelationRepository.findTypologyTreeRows(reference.getId())) {
+            childrenByParentId.computeIfAbsent(((Number) row[1]).longValue(), k -> new ArrayList<>())
+                    .add(new TreeNode(((Number) row[0]).longValue(), (String) row[2], (String) row[3]));
+        }
+        for (TreeNode cat : children(childrenByParentId, reference.getId(), EntityConstants.ENTITY_TYPE_CATEGORY)) {
+            cache.categoryIdByCode.put(cat.code(), cat.id());
+            for (TreeNode grp : children(childrenByParentId, cat.id(), EntityConstants.ENTITY_TYPE_GROUP)) {
+                cache.groupIdByKey.put(gKey(cat.code(), grp.code()), grp.id());
+                cache.groupIdInReferenceByCode.putIfAbsent(grp.code(), grp.id());
+                for (TreeNode ser : children(childrenByParentId, grp.id(), EntityConstants.ENTITY_TYPE_SERIES)) {
+                    cache.serieIdByKey.put(sKey(cat.code(), grp.code(), ser.code()), ser.id());
+                    cache.serieIdByGroupId.put(groupScopedKey(grp.id(), ser.code()), ser.id());
+                    cache.groupIdBySerieId.put(ser.id(), grp.id());
+                    for (TreeNode typ : children(childrenByParentId, ser.id(), EntityConstants.ENTITY_TYPE_TYPE)) {
+                        cache.typeIdByGroupKey.put(tKey(cat.code(), grp.code(), typ.code()), typ.id());
+                        cache.typeIdByGroupId.put(groupScopedKey(grp.id(), typ.code()), typ.id());
                     }
                 }
-                for (Entity typ : typeService.loadGroupTypes(grp)) {
-                    if (!StringUtils.hasText(typ.getCode()) || typ.getId() == null) {
-                        continue;
-                    }
-                    cache.typeIdByGroupKey.put(tKey(cat.getCode(), grp.getCode(), typ.getCode()), typ.getId());
-                    cache.typeIdByGroupId.put(groupScopedKey(grp.getId(), typ.getCode()), typ.getId());
+                for (TreeNode typ : children(childrenByParentId, grp.id(), EntityConstants.ENTITY_TYPE_TYPE)) {
+                    cache.typeIdByGroupKey.put(tKey(cat.code(), grp.code(), typ.code()), typ.id());
+                    cache.typeIdByGroupId.put(groupScopedKey(grp.id(), typ.code()), typ.id());
                 }
             }
         }
         return cache;
     }
 
+    /** Enfants d'un type donné, dans l'ordre d'affichage ; les entités sans code sont ignorées avec leur sous-arbre. */
+    private static List<TreeNode> children(Map<Long, List<TreeNode>> childrenByParentId, Long parentId, String typeCode) {
+        return childrenByParentId.getOrDefault(parentId, List.of()).stream()
+                .filter(node -> typeCode.equals(node.typeCode()) && StringUtils.hasText(node.code()))
+                .toList();
+    }
+
+    private record TreeNode(long id, String typeCode, String code) {
+    }
+
+    /**
+     * Vérification ensembliste des codes à importer : pour chaque type d'entité, une requête sur la table de
+     * fermeture donne les codes déjà pris (insensible à la casse) dans le référentiel (groupes) ou dans les
+     * groupes existants (séries, types). Ensuite {@link #isCodeTakenInScope} fait autorité pour le reste de
+     * l'import ; les entités enregistrées par l'import y sont ajoutées au fil de l'eau.
+     *
+     * @param codesByEntityType codes cibles du fichier par code de type ({@code GROUPE}, {@code SERIE}, {@code TYPE})
+     */
+    void preloadTakenCodes(Long referenceId, Map<String, Set<String>> codesByEntityType) {
+        this.referenceId = referenceId;
+        Set<Long> groupIds = new HashSet<>(groupIdByKey.values());
+        groupIds.addAll(groupIdInReferenceByCode.values());
+        codesByEntityType.forEach((entityTypeCode, codes) -> {
+            Set<Long> rootIds = EntityConstants.ENTITY_TYPE_GROUP.equals(entityTypeCode) ? Set.of(referenceId) : groupIds;
+            List<String> lowerCodes = codes.stream()
+                    .filter(StringUtils::hasText)
+                    .map(code -> code.trim().toLowerCase(Locale.ROOT))
+                    .distinct()
+                    .toList();
+            if (rootIds.isEmpty() || lowerCodes.isEmpty()) {
+                return;
+            }
+            for (int from = 0; from < lowerCodes.size(); from += TAKEN_CODES_BATCH_SIZE) {
+                List<String> batch = lowerCodes.subList(from, Math.min(from + TAKEN_CODES_BATCH_SIZE, lowerCodes.size()));
+                for (Object[] taken : entityRepository.findTakenTypedCodesInSubtrees(rootIds, entityTypeCode, batch)) {
+                    takenCodes.add(takenCodeKey(entityTypeCode, ((Number) taken[0]).longValue(), (String) taken[1]));
+                }
+            }
+        });
+        takenCodesLoaded = true;
+    }
+
+    boolean hasPreloadedTakenCodes() {
+        return takenCodesLoaded;
+    }
+
+    /**
+     * Code déjà pris dans le périmètre d'unicité : référentiel pour un groupe, groupe {@code scope} pour une série
+     * ou un type. À n'appeler qu'après {@link #preloadTakenCodes}.
+     */
+    boolean isCodeTakenInScope(Entity scope, String expectedTypeCode, String code) {
+        if (!StringUtils.hasText(code)) {
+            return false;
+        }
+        Long scopeId = EntityConstants.ENTITY_TYPE_GROUP.equals(expectedTypeCode) ? referenceId
+                : scope != null ? scope.getId() : null;
+        return scopeId != null && takenCodes.contains(takenCodeKey(expectedTypeCode, scopeId, code.trim()));
+    }
+
+    Optional<Long> findGroupIdOfSerie(Long serieId) {
+        return Optional.ofNullable(groupIdBySerieId.get(serieId));
+    }
+
     void clearEntityInstances() {
         entityById.clear();
     }
@@ -183,6 +245,9 @@ final class TypologyImportLookupCache {
                 && StringUtils.hasText(group.getCode()) && group.getId() != null) {
             groupIdByKey.put(gKey(catCode, group.getCode()), group.getId());
             groupIdInReferenceByCode.putIfAbsent(group.getCode(), group.getId());
+            if (referenceId != null) {
+                takenCodes.add(takenCodeKey(EntityConstants.ENTITY_TYPE_GROUP, referenceId, group.getCode()));
+            }
             registerLoadedEntity(group);
         }
     }
@@ -191,8 +256,11 @@ final class TypologyImportLookupCache {
         if (StringUtils.hasText(catCode) && StringUtils.hasText(groupCode) && serie != null
                 && StringUtils.hasText(serie.getCode()) && serie.getId() != null) {
             serieIdByKey.put(sKey(catCode, groupCode, serie.getCode()), serie.getId());
-            findEntityIdByGroupKey(catCode, groupCode).ifPresent(groupId ->
-                    serieIdByGroupId.put(groupScopedKey(groupId, serie.getCode()), serie.getId()));
+            findEntityIdByGroupKey(catCode, groupCode).ifPresent(groupId -> {
+                serieIdByGroupId.put(groupScopedKey(groupId, serie.getCode()), serie.getId());
+                groupIdBySerieId.put(serie.getId(), groupId);
+                takenCodes.add(takenCodeKey(EntityConstants.ENTITY_TYPE_SERIES, groupId, serie.getCode()));
+            });
             registerLoadedEntity(serie);
         }
     }
@@ -201,8 +269,10 @@ final class TypologyImportLookupCache {
         if (StringUtils.hasText(catCode) && StringUtils.hasText(groupCode) && type != null
                 && StringUtils.hasText(type.getCode()) && type.getId() != null) {
             typeIdByGroupKey.put(tKey(catCode, groupCode, type.getCode()), type.getId());
-            findEntityIdByGroupKey(catCode, groupCode).ifPresent(groupId ->
-                    typeIdByGroupId.put(groupScopedKey(groupId, type.getCode()), type.getId()));
+            findEntityIdByGroupKey(catCode, groupCode).ifPresent(groupId -> {
+                typeIdByGroupId.put(groupScopedKey(groupId, type.getCode()), type.getId());
+                takenCodes.add(takenCodeKey(EntityConstants.ENTITY_TYPE_TYPE, groupId, type.getCode()));
+            });
             registerLoadedEntity(type);
         }
     }
@@ -246,6 +316,10 @@ final class TypologyImportLookupCache {
         return groupId + KEY_SEP + code;
     }
 
+    private static String takenCodeKey(String entityTypeCode, Long scopeId, String code) {
+        return entityTypeCode + KEY_SEP + scopeId + KEY_SEP + code.toLowerCase(Locale.ROOT);
+    }
+
     private static String linkKey(Long parentId, Long childId) {
         return parentId + KEY_SEP + childId;
     }
@@ -5,7 +5,8 @@ import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicReference;
 
 /**
- * État d'avancement partagé entre le thread d'import/analyse et les requêtes AJAX de polling.
+ * État d'avancement partagé entre le thread d'import/analyse et l'interface (poll AJAX de l'analyse,
+ * flux SSE et API REST pour les imports, voir {@link TypologyImportProgressRegistry}).
  */
 public class TypologyImportProgress implements Serializable {
 
@@ -35,6 +36,9 @@ public class TypologyImportProgress implements Serializable {
 
     private transient TypologyImportAnalyzeResult analyzeResult;
 
+    /** Prévenu à chaque {@link #publish()} (abonnés à la progression d'un job, voir {@link TypologyImportProgressRegistry}). */
+    private transient volatile Runnable publishListener;
+
     public void reset() {
         phase.set(Phase.IDLE);
         operation.set(Operation.NONE);
@@ -194,4 +198,18 @@ public class TypologyImportProgress implements Serializable {
     public void setFinalized(boolean value) {
         finalized = value;
     }
+
+    public void setPublishListener(Runnable listener) {
+        publishListener = listener;
+    }
+
+    /**
+     * Signale une étape d'avancement aux abonnés éventuels (sans effet s'il n'y en a pas).
+     */
+    public void publish() {
+        Runnable listener = publishListener;
+        if (listener != null) {
+            listener.run();
+        }
+    }
 }
@@ -0,0 +1,269 @@
+package fr.cnrs.opentypo.application.import_typology;
+
+import fr.cnrs.opentypo.application.dto.api.ImportJobProgressDto;
+import fr.cnrs.opentypo.domain.entity.ImportJob;
+import fr.cnrs.opentypo.infrastructure.persistence.ImportJobRepository;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Consumer;
+
+/**
+ * Progression des imports par identifiant de job, indépendante des sessions HTTP : le thread d'import met à jour
+ * un {@link TypologyImportProgress} enregistré ici, lu par l'assistant JSF, l'API REST et les abonnés SSE.
+ * <p>
+ * Une publication sans abonné ne coûte rien ; un job terminé reste en mémoire {@link #RETENTION}, puis son état
+ * est relu depuis {@code import_job} (avancement enregistré à chaque lot validé).
+ * <p>
+ * Les abonnés sont appelés sur un exécuteur dédié, jamais sur le thread d'import : chacun ne garde que le dernier
+ * état non encore remis, une rafale de publications vers un abonné lent se réduit à un envoi. Un job absent de la
+ * mémoire de cette instance (en file ou exécuté par une autre) est suivi en relisant {@code import_job} toutes
+ * les {@code opentypo.import.events-poll-interval}, jusqu'à ce qu'il soit terminé ou pris par cette instance.
+ */
+@Slf4j
+@Component
+public class TypologyImportProgressRegistry {
+
+    static final Duration RETENTION = Duration.ofMinutes(15);
+
+    private final ImportJobRepository importJobRepository;
+    private final Executor notificationExecutor;
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    /** Abonnés des jobs absents de la mémoire, par job, suivis depuis {@code import_job}. */
+    private final Map<Long, Set<Subscription>> persistedJobSubscribers = new ConcurrentHashMap<>();
+
+    private static final class Entry {
+        private final long referenceId;
+        private final TypologyImportProgress progress = new TypologyImportProgress();
+        private final Set<Subscription> subscribers = ConcurrentHashMap.newKeySet();
+        private volatile ImportJob.Status status = ImportJob.Status.QUEUED;
+        private volatile String message;
+        private volatile long finishedAtNanos;
+
+        private Entry(long referenceId) {
+            this.referenceId = referenceId;
+        }
+    }
+
+    /**
+     * Abonné : dernier état à lui remettre et remise en cours (une à la fois, dans l'ordre des publications).
+     */
+    private final class Subscription {
+        private final long jobId;
+        private final Consumer<ImportJobProgressDto> listener;
+        private final Runnable onFailure;
+        private final AtomicReference<ImportJobProgressDto> pending = new AtomicReference<>();
+        private final AtomicBoolean delivering = new AtomicBoolean();
+        /** Dernier état relu en base (suivi d'un job absent de la mémoire). */
+        private volatile ImportJobProgressDto lastPersisted;
+
+        private Subscription(long jobId, Consumer<ImportJobProgressDto> listener, Runnable onFailure) {
+            this.jobId = jobId;
+            this.listener = listener;
+            this.onFailure = onFailure;
+        }
+
+        private void offer(ImportJobProgressDto progress) {
+            pending.set(progress);
+            scheduleDelivery();
+        }
+
+        private void scheduleDelivery() {
+            if (pending.get() == null || !delivering.compareAndSet(false, true)) {
+                return;
+            }
+            try {
+                notificationExecutor.execute(this::deliver);
+            } catch (RejectedExecutionException e) {
+                delivering.set(false);
+            }
+        }
+
+        private void deliver() {
+            try {
+                ImportJobProgressDto progress;
+                while ((progress = pending.getAndSet(null)) != null) {
+                    listener.accept(progress);
+                }
+            } catch (RuntimeException e) {
+                pending.set(null);
+                onFailure.run();
+                log.debug("Abonné à la progression de l'import {} retiré : {}", jobId, e.getMessage());
+            } finally {
+                delivering.set(false);
+            }
+            // État publié pendant la fin de la remise
+            scheduleDelivery();
+        }
+    }
+
+    @Autowired
+    public TypologyImportProgressRegistry(ImportJobRepository importJobRepository) {
+        this(importJobRepository, Executors.newVirtualThreadPerTaskExecutor());
+    }
+
+    TypologyImportProgressRegistry(ImportJobRepository importJobRepository, Executor notificationExecutor) {
+        this.importJobRepository = importJobRepository;
+        this.notificationExecutor = notificationExecutor;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        if (notificationExecutor instanceof ExecutorService executorService) {
+            executorService.shutdownNow();
+        }
+    }
+
+    /**
+     * Progression du job (créée au besoin, état QUEUED) ; les publications du thread d'import sont relayées aux abonnés.
+     */
+    public TypologyImportProgress register(long jobId, long referenceId) {
+        evictFinished();
+        Entry entry = entries.computeIfAbsent(jobId, id -> {
+            Entry created = new Entry(referenceId);
+            created.progress.setPublishListener(() -> notifySubscribers(id, created));
+            return created;
+        });
+        entry.finishedAtNanos = 0;
+        // Job pris par cette instance : ses abonnés suivis en base reçoivent désormais chaque publication
+        Set<Subscription> waiting = persistedJobSubscribers.remove(jobId);
+        if (waiting != null) {
+            entry.subscribers.addAll(waiting);
+        }
+        return entry.progress;
+    }
+
+    public Optional<TypologyImportProgress> find(long jobId) {
+        return Optional.ofNullable(entries.get(jobId)).map(entry -> entry.progress);
+    }
+
+    /**
+     * Change l'état du job et le publie ; un état terminal démarre le délai de rétention.
+     */
+    public void updateStatus(long jobId, ImportJob.Status status, String message) {
+        Entry entry = entries.get(jobId);
+        if (entry == null) {
+            return;
+        }
+        entry.status = status;
+        entry.message = message;
+        entry.finishedAtNanos = status.isTerminal() ? System.nanoTime() : 0;
+        entry.progress.publish();
+    }
+
+    /**
+     * État courant : progression en mémoire, sinon dernier avancement enregistré en base.
+     */
+    public Optional<ImportJobProgressDto> snapshot(long jobId) {
+        Entry entry = entries.get(jobId);
+        if (entry != null) {
+            return Optional.of(toDto(jobId, entry));
+        }
+        return importJobRepository.findById(jobId).map(TypologyImportProgressRegistry::toDto);
+    }
+
+    /**
+     * Abonne {@code listener} aux publications du job, remises sur l'exécuteur de notification ; un listener qui
+     * lève une exception est désabonné. Pour un job absent de la mémoire, les états sont relus en base.
+     *
+     * @return désabonnement
+     */
+    public Runnable subscribe(long jobId, Consumer<ImportJobProgressDto> listener) {
+        AtomicReference<Runnable> unsubscribe = new AtomicReference<>();
+        Subscription subscription = new Subscription(jobId, listener, () -> unsubscribe.get().run());
+        Entry entry = entries.get(jobId);
+        if (entry != null) {
+            entry.subscribers.add(subscription);
+        } else {
+            // État déjà remis par l'appelant (snapshot) : seuls les changements suivants sont envoyés
+            subscription.lastPersisted = importJobRepository.findById(jobId)
+                    .map(TypologyImportProgressRegistry::toDto).orElse(null);
+            persistedJobSubscribers.computeIfAbsent(jobId, id -> ConcurrentHashMap.newKeySet()).add(subscription);
+        }
+        unsubscribe.set(() -> {
+            Entry current = entries.get(jobId);
+            if (current != null) {
+                current.subscribers.remove(subscription);
+            }
+            persistedJobSubscribers.computeIfPresent(jobId, (id, subscribers) -> {
+                subscribers.remove(subscription);
+                return subscribers.isEmpty() ? null : subscribers;
+            });
+        });
+        return unsubscribe.get();
+    }
+
+    /**
+     * Relit en base l'état des jobs suivis hors mémoire et le remet à leurs abonnés quand il a changé.
+     */
+    @Scheduled(fixedDelayString = "${opentypo.import.events-poll-interval:2s}",
+            initialDelayString = "${opentypo.import.events-poll-interval:2s}")
+    void pollPersistedJobs() {
+        if (persistedJobSubscribers.isEmpty()) {
+            return;
+        }
+        Map<Long, ImportJobProgressDto> persisted = new HashMap<>();
+        for (ImportJob job : importJobRepository.findAllById(persistedJobSubscribers.keySet())) {
+            persisted.put(job.getId(), toDto(job));
+        }
+        persistedJobSubscribers.forEach((jobId, subscribers) -> {
+            ImportJobProgressDto progress = persisted.get(jobId);
+            for (Subscription subscription : subscribers) {
+                if (progress != null && !progress.equals(subscription.lastPersisted)) {
+                    subscription.lastPersisted = progress;
+                    subscription.offer(progress);
+                }
+            }
+        });
+    }
+
+    private void notifySubscribers(long jobId, Entry entry) {
+        if (entry.subscribers.isEmpty()) {
+            return;
+        }
+        ImportJobProgressDto snapshot = toDto(jobId, entry);
+        for (Subscription subscription : entry.subscribers) {
+            subscription.offer(snapshot);
+        }
+    }
+
+    private void evictFinished() {
+        long now = System.nanoTime();
+        entries.values().removeIf(entry -> entry.finishedAtNanos != 0
+                && now - entry.finishedAtNanos > RETENTION.toNanos());
+    }
+
+    private static ImportJobProgressDto toDto(long jobId, Entry entry) {
+        TypologyImportProgress progress = entry.progress;
+        String message = entry.message != null ? entry.message
+                : progress.getErrorMessage() != null ? progress.getErrorMessage() : progress.getWarningMessage();
+        return new ImportJobProgressDto(jobId, entry.referenceId, entry.status.name(),
+                progress.getCurrent(), progress.getTotal(), progress.getPercent(), progress.getDetailMessage(),
+                message, entry.status.isTerminal());
+    }
+
+    private static ImportJobProgressDto toDto(ImportJob job) {
+        int total = job.getPlannedCount();
+        int current = Math.min(job.getImportedCount(), total);
+        int percent = total > 0 ? (int) Math.round(100.0 * current / total)
+                : job.getStatus() == ImportJob.Status.COMPLETED ? 100 : 0;
+        String detail = job.getLastCsvRow() != null ? "Ligne " + job.getLastCsvRow() : "";
+        return new ImportJobProgressDto(job.getId(), job.getReferenceId(), job.getStatus().name(),
+                current, total, percent, detail, job.getMessage(), job.getStatus().isTerminal());
+    }
+}
@@ -0,0 +1,40 @@
+package fr.cnrs.opentypo.application.import_typology;
+
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Empreinte SHA-256 d'une ligne CSV d'import (profil de collection, colonnes présentes et valeurs nettoyées) :
+ * deux imports d'une même ligne donnent la même empreinte, quel que soit l'ordre des colonnes du fichier.
+ */
+final class TypologyImportRowFingerprint {
+
+    /** À incrémenter quand l'écriture d'une ligne change : les empreintes existantes ne correspondent plus. */
+    private static final String FORMAT_VERSION = "1";
+    private static final char FIELD_SEP = '\u001F';
+    private static final char RECORD_SEP = '\u001E';
+
+    private TypologyImportRowFingerprint() {
+    }
+
+    static String of(Map<String, String> row, Set<String> csvHeaders, TypologyImportCollectionProfile collectionProfile) {
+        StringBuilder sb = new StringBuilder(256)
+                .append(FORMAT_VERSION).append(RECORD_SEP)
+                .append(collectionProfile.name()).append(RECORD_SEP);
+        for (String header : new TreeSet<>(csvHeaders)) {
+            String value = row.get(header);
+            sb.append(header).append(FIELD_SEP).append(value != null ? value.strip() : "").append(RECORD_SEP);
+        }
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            return HexFormat.of().formatHex(digest.digest(sb.toString().getBytes(StandardCharsets.UTF_8)));
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 indisponible", e);
+        }
+    }
+}
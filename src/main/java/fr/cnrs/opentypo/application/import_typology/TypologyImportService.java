@@ -3,38 +3,41 @@ package fr.cnrs.opentypo.application.import_typology;
 import fr.cnrs.opentypo.application.dto.EntityStatusEnum;
 import fr.cnrs.opentypo.application.dto.ReferenceOpenthesoEnum;
 import fr.cnrs.opentypo.application.service.ArkIdentifierService;
-import fr.cnrs.opentypo.application.service.CategoryService;
 import fr.cnrs.opentypo.application.service.EntityCodeUniquenessService;
-import fr.cnrs.opentypo.application.service.GroupService;
-import fr.cnrs.opentypo.application.service.SerieService;
 import fr.cnrs.opentypo.application.service.TypeService;
 import fr.cnrs.opentypo.common.constant.EntityConstants;
 import fr.cnrs.opentypo.domain.entity.Description;
 import fr.cnrs.opentypo.domain.entity.DescriptionDetail;
 import fr.cnrs.opentypo.domain.entity.DescriptionPate;
 import fr.cnrs.opentypo.domain.entity.Entity;
+import fr.cnrs.opentypo.domain.entity.EntityImportFingerprint;
 import fr.cnrs.opentypo.domain.entity.EntityRelation;
 import fr.cnrs.opentypo.domain.entity.EntityType;
 import fr.cnrs.opentypo.domain.entity.Image;
 import fr.cnrs.opentypo.domain.entity.Label;
 import fr.cnrs.opentypo.domain.entity.Langue;
 import fr.cnrs.opentypo.domain.entity.ReferenceOpentheso;
+import fr.cnrs.opentypo.domain.entity.RevisionInfo;
 import fr.cnrs.opentypo.domain.entity.CaracteristiquePhysique;
 import fr.cnrs.opentypo.domain.entity.CaracteristiquePhysiqueMonnaie;
 import fr.cnrs.opentypo.domain.entity.DescriptionMonnaie;
 import fr.cnrs.opentypo.domain.entity.AuteurScientifique;
 import fr.cnrs.opentypo.domain.entity.Utilisateur;
 import fr.cnrs.opentypo.infrastructure.persistence.AuteurScientifiqueRepository;
+import fr.cnrs.opentypo.infrastructure.persistence.EntityImportFingerprintRepository;
 import fr.cnrs.opentypo.infrastructure.persistence.EntityRelationRepository;
 import fr.cnrs.opentypo.infrastructure.persistence.EntityRepository;
 import fr.cnrs.opentypo.infrastructure.persistence.EntityTypeRepository;
 import fr.cnrs.opentypo.infrastructure.persistence.LangueRepository;
 import fr.cnrs.opentypo.infrastructure.persistence.ReferenceOpenthesoRepository;
 import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import lombok.extern.slf4j.Slf4j;
+import org.hibernate.envers.AuditReaderFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.PlatformTransactionManager;
 import org.springframework.transaction.annotation.Transactional;
@@ -43,17 +46,23 @@ import org.springframework.util.StringUtils;
 
 import java.net.URI;
 import java.time.LocalDateTime;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Comparator;
-import java.util.EnumMap;
+import java.util.Deque;
 import java.util.HashMap;
 import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Objects;
 import java.util.Optional;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ForkJoinPool;
 import java.util.regex.Pattern;
 
 /**
@@ -97,12 +106,6 @@ public class TypologyImportService {
     @Autowired
     private ReferenceOpenthesoRepository referenceOpenthesoRepository;
     @Autowired
-    private CategoryService categoryService;
-    @Autowired
-    private GroupService groupService;
-    @Autowired
-    private SerieService serieService;
-    @Autowired
     private TypeService typeService;
     @Autowired
     private EntityCodeUniquenessService entityCodeUniquenessService;
@@ -111,22 +114,44 @@ public class TypologyImportService {
     @Autowired
     private AuteurScientifiqueRepository auteurScientifiqueRepository;
     @Autowired
+    private ImageUrlValidationService imageUrlValidationService;
+    @Autowired
+    private EntityImportFingerprintRepository entityImportFingerprintRepository;
+    @Autowired
     private PlatformTransactionManager platformTransactionManager;
+    /** Import différentiel : lignes inchangées depuis le dernier import ignorées (voir {@link EntityImportFingerprint}). */
+    @Value("${opentypo.import.differential:true}")
+    private boolean differentialImport;
     @PersistenceContext
     private EntityManager entityManager;
 
+    /** Threads de l'analyse des lignes (0 : nombre de cœurs du serveur). */
+    @Value("${opentypo.import.analysis.parallelism:0}")
+    private int analysisParallelism;
+
     private TransactionTemplate importTransactionTemplate;
+    private ForkJoinPool analysisPool;
 
     @PostConstruct
     void initImportTransactionTemplate() {
         importTransactionTemplate = new TransactionTemplate(platformTransactionManager);
         importTransactionTemplate.setTimeout(3_600);
+        analysisPool = new ForkJoinPool(analysisParallelism > 0
+                ? analysisParallelism : Runtime.getRuntime().availableProcessors());
+    }
+
+    @PreDestroy
+    void shutdownAnalysisPool() {
+        analysisPool.shutdownNow();
     }
 
+    /** Lignes analysées par tâche parallèle. */
+    private static final int ANALYSIS_CHUNK_SIZE = 256;
+
     /**
      * Analyse le fichier : classification, détection d'erreurs, aperçu création/mise à jour.
      */
-    public TypologyImportAnalyzeResult analyze(Entity reference, TypologyCsvParser.ParsedCsv parsed,
+    public TypologyImportAnalyzeResult analyze(Entity reference, TypologyCsvSource parsed,
                                                TypologyImportCollectionProfile collectionProfile) {
         return analyze(reference, parsed, collectionProfile, null);
     }
@@ -136,7 +161,7 @@ public class TypologyImportService {
      * Exécutée sur le thread de la requête JSF (contexte JPA / sécurité).
      */
     @Transactional(readOnly = true)
-    public TypologyImportAnalyzeResult analyze(Entity reference, TypologyCsvParser.ParsedCsv parsed,
+    public TypologyImportAnalyzeResult analyze(Entity reference, TypologyCsvSource parsed,
                                                TypologyImportCollectionProfile collectionProfile,
                                                TypologyImportProgress progress) {
         List<String> blocking = new ArrayList<>();
@@ -155,14 +180,13 @@ public class TypologyImportService {
         }
 
         TypologyImportImageUrlCache imageUrlCache = new TypologyImportImageUrlCache();
-        TypologyImportLookupCache lookupCache = TypologyImportLookupCache.warm(
-                reference, categoryService, groupService, serieService, typeService, entityRepository);
+        TypologyImportLookupCache lookupCache = TypologyImportLookupCache.warm(reference, entityRelationRepository, entityRepository);
 
-        List<Map<String, String>> rows = parsed.rows();
-        int n = rows.size();
+        int n = parsed.rowCount();
         if (progress != null) {
             progress.beginAnalyzing(n);
         }
+        imageUrlCache.prefetch(imageUrlValidationService.validateAll(collectImageUrls(parsed)));
         List<List<String>> err = new ArrayList<>();
         List<List<String>> warn = new ArrayList<>();
         for (int i = 0; i < n; i++) {
@@ -177,48 +201,33 @@ public class TypologyImportService {
         String[] csArr = new String[n];
 
         Map<String, Integer> firstOccurrenceIdx = new HashMap<>();
-
-        for (int i = 0; i < n; i++) {
-            final int rowIndex = i;
-            int csvRowNumber = rowIndex + 2;
-            Map<String, String> row = rows.get(rowIndex);
-            HierarchyCodes codes = hierarchyCodesFromRow(row);
-            ccArr[rowIndex] = codes.categorie() != null ? codes.categorie() : "";
-            cgArr[rowIndex] = codes.groupe() != null ? codes.groupe() : "";
-            csArr[rowIndex] = codes.serie() != null ? codes.serie() : "";
-
-            Optional<ClassifyResult> clf = classify(codes, err.get(rowIndex));
-            if (clf.isEmpty()) {
-                kinds[rowIndex] = TypologyImportKind.NON_CLASSIFIE;
-                continue;
-            }
-            kinds[rowIndex] = clf.get().kind();
-            targets[rowIndex] = clf.get().targetCode();
-
-            validateCodeFormat(targets[rowIndex], err.get(rowIndex));
-
-            String dupKey = importDuplicateKey(kinds[rowIndex], ccArr[rowIndex], cgArr[rowIndex], csArr[rowIndex], targets[rowIndex]);
-            Integer first = firstOccurrenceIdx.putIfAbsent(dupKey, rowIndex);
-            if (first != null) {
-                err.get(rowIndex).add("Code « " + targets[rowIndex] + " » dupliqué dans le fichier (ligne " + (first + 2) + ").");
-                err.get(first).add("Code « " + targets[rowIndex] + " » dupliqué dans le fichier (ligne " + csvRowNumber + ").");
+        ImportRowChecks checks = new ImportRowChecks(collectionProfile, lookupCache, imageUrlCache);
+        // Contrôles indépendants par paquets de lignes en parallèle ; fusion dans l'ordre du fichier (doublons, progression).
+        Deque<CompletableFuture<List<RowAnalysis>>> pending = new ArrayDeque<>();
+        int maxPending = analysisPool.getParallelism() * 2;
+        try (TypologyCsvSource.Rows rows = parsed.openRows()) {
+            List<Map<String, String>> chunk = new ArrayList<>(ANALYSIS_CHUNK_SIZE);
+            int chunkStart = 0;
+            Map<String, String> row;
+            for (int i = 0; i < n && (row = rows.next()) != null; i++) {
+                chunk.add(row);
+                if (chunk.size() == ANALYSIS_CHUNK_SIZE || i == n - 1) {
+                    List<Map<String, String>> submitted = chunk;
+                    pending.add(CompletableFuture.supplyAsync(() -> checks.analyzeChunk(submitted), analysisPool));
+                    chunk = new ArrayList<>(ANALYSIS_CHUNK_SIZE);
+                    if (pending.size() >= maxPending) {
+                        chunkStart = mergeRowAnalyses(joinChunk(pending.poll()), chunkStart, n, kinds, targets,
+                                ccArr, cgArr, csArr, err, warn, firstOccurrenceIdx, progress);
+                    }
+                }
             }
-
-            validateImportScopedCode(lookupCache, kinds[rowIndex], targets[rowIndex], ccArr[rowIndex], cgArr[rowIndex],
-                    csArr[rowIndex], err.get(rowIndex));
-
-            previewImages(row, warn.get(rowIndex), imageUrlCache);
-            if (collectionProfile == TypologyImportCollectionProfile.MONNAIE) {
-                previewOpenThesoMonnaie(row, err.get(rowIndex));
-            } else if (collectionProfile == TypologyImportCollectionProfile.INSTRUMENTUM) {
-                previewOpenThesoInstrumentum(row, err.get(rowIndex));
-            } else {
-                previewOpenThesoCeramique(row, err.get(rowIndex));
+            if (!chunk.isEmpty()) {
+                List<Map<String, String>> submitted = chunk;
+                pending.add(CompletableFuture.supplyAsync(() -> checks.analyzeChunk(submitted), analysisPool));
             }
-            previewDatation(row, err.get(rowIndex));
-            previewScientificAuthors(row, warn.get(rowIndex));
-            if (progress != null) {
-                progress.tickAnalyzing(rowIndex, n, csvRowNumber);
+            while (!pending.isEmpty()) {
+                chunkStart = mergeRowAnalyses(joinChunk(pending.poll()), chunkStart, n, kinds, targets,
+                        ccArr, cgArr, csArr, err, warn, firstOccurrenceIdx, progress);
             }
         }
 
@@ -301,10 +310,125 @@ public class TypologyImportService {
         return new TypologyImportAnalyzeResult(allOk && blocking.isEmpty(), blocking, previews, parsed, imageUrlCache);
     }
 
+    /**
+     * Résultat des contrôles d'une ligne ne dépendant que d'elle et du cache (sans ordre ni doublons) :
+     * {@code leadingErrors} précèdent l'éventuel message de doublon, {@code errors} le suivent.
+     */
+    private record RowAnalysis(TypologyImportKind kind, String targetCode, HierarchyCodes codes,
+                               List<String> leadingErrors, List<String> errors, List<String> warnings) {
+    }
+
+    /**
+     * Contrôles ligne à ligne exécutés en parallèle : le cache de recherche et celui des images
+     * ne sont plus que lus une fois préchargés ; aucun accès JPA hors du thread de la requête.
+     */
+    private final class ImportRowChecks {
+
+        private final TypologyImportCollectionProfile collectionProfile;
+        private final TypologyImportLookupCache lookupCache;
+        private final TypologyImportImageUrlCache imageUrlCache;
+
+        private ImportRowChecks(TypologyImportCollectionProfile collectionProfile,
+                                TypologyImportLookupCache lookupCache,
+                                TypologyImportImageUrlCache imageUrlCache) {
+            this.collectionProfile = collectionProfile;
+            this.lookupCache = lookupCache;
+            this.imageUrlCache = imageUrlCache;
+        }
+
+        List<RowAnalysis> analyzeChunk(List<Map<String, String>> rows) {
+            List<RowAnalysis> result = new ArrayList<>(rows.size());
+            for (Map<String, String> row : rows) {
+                result.add(analyzeRow(row));
+            }
+            return result;
+        }
+
+        private RowAnalysis analyzeRow(Map<String, String> row) {
+            HierarchyCodes codes = hierarchyCodesFromRow(row);
+            List<String> leadingErrors = new ArrayList<>();
+            Optional<ClassifyResult> clf = classify(codes, leadingErrors);
+            if (clf.isEmpty()) {
+                return new RowAnalysis(TypologyImportKind.NON_CLASSIFIE, null, codes, leadingErrors,
+                        new ArrayList<>(), new ArrayList<>());
+            }
+            TypologyImportKind kind = clf.get().kind();
+            String target = clf.get().targetCode();
+            validateCodeFormat(target, leadingErrors);
+
+            List<String> errors = new ArrayList<>();
+            List<String> warnings = new ArrayList<>();
+            validateImportScopedCode(lookupCache, kind, target, nullToEmpty(codes.categorie()),
+                    nullToEmpty(codes.groupe()), nullToEmpty(codes.serie()), errors);
+            previewImages(row, warnings, imageUrlCache);
+            if (collectionProfile == TypologyImportCollectionProfile.MONNAIE) {
+                previewOpenThesoMonnaie(row, errors);
+            } else if (collectionProfile == TypologyImportCollectionProfile.INSTRUMENTUM) {
+                previewOpenThesoInstrumentum(row, errors);
+            } else {
+                previewOpenThesoCeramique(row, errors);
+            }
+            previewDatation(row, errors);
+            previewScientificAuthors(row, warnings);
+            return new RowAnalysis(kind, target, codes, leadingErrors, errors, warnings);
+        }
+    }
+
+    /**
+     * Reporte dans les tableaux de l'analyse un paquet de lignes contrôlées, dans l'ordre du fichier :
+     * détection des codes dupliqués et progression. Renvoie l'indice de la ligne suivante.
+     */
+    private static int mergeRowAnalyses(List<RowAnalysis> analyses, int start, int n,
+                                        TypologyImportKind[] kinds, String[] targets,
+                                        String[] ccArr, String[] cgArr, String[] csArr,
+                                        List<List<String>> err, List<List<String>> warn,
+                                        Map<String, Integer> firstOccurrenceIdx, TypologyImportProgress progress) {
+        int rowIndex = start;
+        for (RowAnalysis analysis : analyses) {
+            int csvRowNumber = rowIndex + 2;
+            ccArr[rowIndex] = nullToEmpty(analysis.codes().categorie());
+            cgArr[rowIndex] = nullToEmpty(analysis.codes().groupe());
+            csArr[rowIndex] = nullToEmpty(analysis.codes().serie());
+            kinds[rowIndex] = analysis.kind();
+            err.get(rowIndex).addAll(analysis.leadingErrors());
+            if (analysis.kind() != TypologyImportKind.NON_CLASSIFIE) {
+                targets[rowIndex] = analysis.targetCode();
+                String dupKey = importDuplicateKey(kinds[rowIndex], ccArr[rowIndex], cgArr[rowIndex], csArr[rowIndex], targets[rowIndex]);
+                Integer first = firstOccurrenceIdx.putIfAbsent(dupKey, rowIndex);
+                if (first != null) {
+                    err.get(rowIndex).add("Code « " + targets[rowIndex] + " » dupliqué dans le fichier (ligne " + (first + 2) + ").");
+                    err.get(first).add("Code « " + targets[rowIndex] + " » dupliqué dans le fichier (ligne " + csvRowNumber + ").");
+                }
+                err.get(rowIndex).addAll(analysis.errors());
+                warn.get(rowIndex).addAll(analysis.warnings());
+                if (progress != null) {
+                    progress.tickAnalyzing(rowIndex, n, csvRowNumber);
+                }
+            }
+            rowIndex++;
+        }
+        return rowIndex;
+    }
+
+    private static List<RowAnalysis> joinChunk(CompletableFuture<List<RowAnalysis>> future) {
+        try {
+            return future.join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    private static String nullToEmpty(String value) {
+        return value != null ? value : "";
+    }
+
     /**
      * Applique l'import (lots transactionnels ; échec possible avec lignes déjà enregistrées).
      */
-    public void execute(Entity reference, TypologyCsvParser.ParsedCsv parsed, Utilisateur user,
+    public void execute(Entity reference, TypologyCsvSource parsed, Utilisateur user,
                         TypologyImportCollectionProfile collectionProfile) {
         failIfNotSuccessful(executeImport(reference, parsed, user, collectionProfile, null, false, null, null));
     }
@@ -312,7 +436,7 @@ public class TypologyImportService {
     /**
      * Applique l'import avec remontée de progression (optionnelle).
      */
-    public void execute(Entity reference, TypologyCsvParser.ParsedCsv parsed, Utilisateur user,
+    public void execute(Entity reference, TypologyCsvSource parsed, Utilisateur user,
                         TypologyImportCollectionProfile collectionProfile, TypologyImportProgress progress) {
         failIfNotSuccessful(executeImport(reference, parsed, user, collectionProfile, progress, false, null, null));
     }
@@ -320,7 +444,7 @@ public class TypologyImportService {
     /**
      * Applique l'import avec progression. Si {@code skipPriorAnalysis}, ne relance pas l'analyse (déjà validée à l'étape 2).
      */
-    public void execute(Entity reference, TypologyCsvParser.ParsedCsv parsed, Utilisateur user,
+    public void execute(Entity reference, TypologyCsvSource parsed, Utilisateur user,
                         TypologyImportCollectionProfile collectionProfile, TypologyImportProgress progress,
                         boolean skipPriorAnalysis) {
         failIfNotSuccessful(executeImport(reference, parsed, user, collectionProfile, progress, skipPriorAnalysis, null, null));
@@ -334,10 +458,22 @@ public class TypologyImportService {
     /**
      * Applique l'import par lots avec progression et publication session HTTP pour le poll UI.
      */
-    public TypologyImportExecutionResult executeImport(Entity reference, TypologyCsvParser.ParsedCsv parsed, Utilisateur user,
+    public TypologyImportExecutionResult executeImport(Entity reference, TypologyCsvSource parsed, Utilisateur user,
                         TypologyImportCollectionProfile collectionProfile, TypologyImportProgress progress,
                         boolean skipPriorAnalysis, TypologyImportAnalyzeResult priorAnalysis,
                         jakarta.servlet.http.HttpSession httpSession) {
+        return executeImport(reference, parsed, user, collectionProfile, progress, skipPriorAnalysis, priorAnalysis,
+                httpSession, TypologyImportCheckpoint.NONE);
+    }
+
+    /**
+     * Applique l'import par lots ; {@code checkpoint} permet la reprise après les lignes déjà validées,
+     * le suivi lot par lot et l'annulation entre deux lots (voir {@link TypologyImportJobLauncher}).
+     */
+    public TypologyImportExecutionResult executeImport(Entity reference, TypologyCsvSource parsed, Utilisateur user,
+                        TypologyImportCollectionProfile collectionProfile, TypologyImportProgress progress,
+                        boolean skipPriorAnalysis, TypologyImportAnalyzeResult priorAnalysis,
+                        jakarta.servlet.http.HttpSession httpSession, TypologyImportCheckpoint checkpoint) {
         Entity ref = entityRepository.findById(Objects.requireNonNull(reference.getId()))
                 .orElseThrow(() -> new IllegalArgumentException("Référentiel introuvable."));
         if (ref.getEntityType() == null
@@ -361,33 +497,33 @@ public class TypologyImportService {
             publishProgress(httpSession, progress);
         }
 
-        List<Map<String, String>> rows = parsed.rows();
-        int n = rows.size();
+        int n = parsed.rowCount();
         TypologyImportKind[] kinds = new TypologyImportKind[n];
         String[] targets = new String[n];
 
         boolean reusedAnalysis = skipPriorAnalysis
                 && fillKindsFromPriorAnalysis(n, kinds, targets, priorAnalysis);
         if (!reusedAnalysis) {
-            for (int i = 0; i < n; i++) {
-                Map<String, String> row = rows.get(i);
-                HierarchyCodes codes = hierarchyCodesFromRow(row);
-                Optional<ClassifyResult> clf = classify(codes, new ArrayList<>());
-                if (clf.isPresent()) {
-                    kinds[i] = clf.get().kind();
-                    targets[i] = clf.get().targetCode();
-                }
-                if (progress != null && (i % 200 == 0 || i == n - 1)) {
-                    progress.setPreparingImport("Classification des lignes…");
-                    progress.tickImporting(0, n, i + 2);
-                    publishProgress(httpSession, progress);
+            try (TypologyCsvSource.Rows rows = parsed.openRows()) {
+                Map<String, String> row;
+                for (int i = 0; i < n && (row = rows.next()) != null; i++) {
+                    HierarchyCodes codes = hierarchyCodesFromRow(row);
+                    Optional<ClassifyResult> clf = classify(codes, new ArrayList<>());
+                    if (clf.isPresent()) {
+                        kinds[i] = clf.get().kind();
+                        targets[i] = clf.get().targetCode();
+                    }
+                    if (progress != null && (i % 200 == 0 || i == n - 1)) {
+                        progress.setPreparingImport("Classification des lignes…");
+                        progress.tickImporting(0, n, i + 2);
+                        publishProgress(httpSession, progress);
+                    }
                 }
             }
         } else {
             log.info("Import : réutilisation de la classification de l'étape analyse ({} lignes)", n);
         }
 
-        List<Integer> order = sortedRowIndices(n, kinds);
         EntityType catType = entityTypeRepository.findByCode(EntityConstants.ENTITY_TYPE_CATEGORY)
                 .orElseThrow(() -> new IllegalStateException("Type CATEGORIE manquant."));
         EntityType grpType = entityTypeRepository.findByCode(EntityConstants.ENTITY_TYPE_GROUP)
@@ -401,9 +537,11 @@ public class TypologyImportService {
         Set<String> csvHeaders = parsed.headerKeySet();
 
         int importTotal = 0;
-        for (int idx : order) {
-            if (kinds[idx] != null) {
+        boolean[] rankPresent = new boolean[IMPORT_RANK_COUNT];
+        for (TypologyImportKind kind : kinds) {
+            if (kind != null && importRank(kind) < IMPORT_RANK_COUNT) {
                 importTotal++;
+                rankPresent[importRank(kind)] = true;
             }
         }
         if (progress != null) {
@@ -421,53 +559,97 @@ public class TypologyImportService {
             publishProgress(httpSession, progress);
         }
 
-        TypologyImportLookupCache lookupCache = TypologyImportLookupCache.warm(
-                ref, categoryService, groupService, serieService, typeService, entityRepository);
+        TypologyImportLookupCache lookupCache = TypologyImportLookupCache.warm(ref, entityRelationRepository, entityRepository);
+        lookupCache.preloadTakenCodes(ref.getId(), importCodesByEntityType(kinds, targets));
         TypologyImportAuthorCache authorCache = new TypologyImportAuthorCache(auteurScientifiqueRepository);
         Langue langLabel = resolveLangCode("fr", "fr");
         Langue langDesc = langLabel;
         ImportExecutionContext ctx = new ImportExecutionContext(
-                ref.getId(), rows, kinds, targets, order, catType, grpType, serType, typType,
+                ref.getId(), kinds, targets, catType, grpType, serType, typType,
                 csvHeaders, collectionProfile, importTotal);
 
-        List<List<Integer>> batches = buildImportBatches(order, kinds);
-        int importDone = 0;
-        for (List<Integer> batch : batches) {
-            final int batchSize = batch.size();
-            final TypologyImportImageUrlCache batchImageCache = imageUrlCache;
-            try {
-                importTransactionTemplate.executeWithoutResult(status ->
-                        processImportBatch(ctx, batch, lookupCache, authorCache, batchImageCache,
-                                user, langLabel, langDesc));
-            } catch (Exception ex) {
-                String rootMessage = ex.getMessage() != null ? ex.getMessage() : ex.getClass().getSimpleName();
-                if (importDone > 0) {
-                    String partialMsg = importDone + " / " + importTotal
-                            + " lignes enregistrées avant l'arrêt : " + rootMessage;
-                    log.warn("Import partiel (référentiel id={}) : {}", ref.getId(), partialMsg, ex);
-                    if (progress != null) {
-                        progress.tickImporting(importDone, importTotal, batch.get(0) + 2);
-                        publishProgress(httpSession, progress);
+        /*
+         * Un parcours du fichier par niveau (catégories, groupes, séries, types) : les parents sont enregistrés
+         * avant leurs enfants et seules les lignes du lot courant sont en mémoire.
+         */
+        int importDone = Math.min(Math.max(0, checkpoint.committedRows()), importTotal);
+        int toSkip = importDone;
+        int unchangedRows = 0;
+        if (importDone > 0) {
+            log.info("Import : reprise après {} lignes déjà enregistrées (référentiel id={})", importDone, ref.getId());
+        }
+        for (int rank = 0; rank < IMPORT_RANK_COUNT; rank++) {
+            if (!rankPresent[rank]) {
+                continue;
+            }
+            try (TypologyCsvSource.Rows rows = parsed.openRows()) {
+                List<ImportRow> batch = new ArrayList<>(IMPORT_BATCH_SIZE);
+                boolean more = true;
+                for (int i = 0; more; i++) {
+                    Map<String, String> row = i < n ? rows.next() : null;
+                    more = row != null;
+                    if (more && kinds[i] != null && importRank(kinds[i]) == rank) {
+                        if (toSkip > 0) {
+                            toSkip--;
+                        } else {
+                            batch.add(new ImportRow(i, row));
+                        }
                     }
-                    return TypologyImportExecutionResult.partial(
-                            importDone, importTotal, batch.get(0) + 2, partialMsg);
-                }
-                log.error("Import échoué avant toute ligne (référentiel id={})", ref.getId(), ex);
-                return TypologyImportExecutionResult.failure(rootMessage);
-            }
-            entityManager.clear();
-            lookupCache.clearEntityInstances();
-            for (int idx : batch) {
-                importDone++;
-                if (progress != null && (importDone % IMPORT_PROGRESS_PUBLISH_EVERY == 0 || importDone == importTotal)) {
-                    progress.tickImporting(importDone, importTotal, idx + 2);
-                    publishProgress(httpSession, progress);
+                    if (batch.isEmpty() || (more && batch.size() < IMPORT_BATCH_SIZE)) {
+                        continue;
+                    }
+                    final List<ImportRow> currentBatch = batch;
+                    if (checkpoint.cancelRequested()) {
+                        log.info("Import annulé après {}/{} lignes (référentiel id={})", importDone, importTotal, ref.getId());
+                        return TypologyImportExecutionResult.cancelled(
+                                importDone, importTotal, currentBatch.get(0).index() + 2);
+                    }
+                    final TypologyImportImageUrlCache batchImageCache = imageUrlCache;
+                    try {
+                        BatchOutcome outcome = importTransactionTemplate.execute(status ->
+                                processImportBatch(ctx, currentBatch, lookupCache, authorCache, batchImageCache,
+                                        user, langLabel, langDesc));
+                        if (outcome != null) {
+                            unchangedRows += outcome.unchangedRows();
+                        }
+                    } catch (Exception ex) {
+                        String rootMessage = ex.getMessage() != null ? ex.getMessage() : ex.getClass().getSimpleName();
+                        int firstCsvRow = currentBatch.get(0).index() + 2;
+                        if (importDone > 0) {
+                            String partialMsg = importDone + " / " + importTotal
+                                    + " lignes enregistrées avant l'arrêt : " + rootMessage;
+                            log.warn("Import partiel (référentiel id={}) : {}", ref.getId(), partialMsg, ex);
+                            if (progress != null) {
+                                progress.tickImporting(importDone, importTotal, firstCsvRow);
+                                publishProgress(httpSession, progress);
+                            }
+                            return TypologyImportExecutionResult.partial(
+                                    importDone, importTotal, firstCsvRow, partialMsg);
+                        }
+                        log.error("Import échoué avant toute ligne (référentiel id={})", ref.getId(), ex);
+                        return TypologyImportExecutionResult.failure(rootMessage);
+                    }
+                    entityManager.clear();
+                    lookupCache.clearEntityInstances();
+                    for (ImportRow done : currentBatch) {
+                        importDone++;
+                        if (progress != null && (importDone % IMPORT_PROGRESS_PUBLISH_EVERY == 0 || importDone == importTotal)) {
+                            progress.tickImporting(importDone, importTotal, done.index() + 2);
+                            publishProgress(httpSession, progress);
+                        }
+                    }
+                    if (importDone % IMPORT_PROGRESS_LOG_EVERY == 0 || importDone == importTotal) {
+                        log.info("Import progression : {}/{} (référentiel id={})", importDone, importTotal, ref.getId());
+                    }
+                    checkpoint.batchCommitted(importDone, importTotal, currentBatch.get(currentBatch.size() - 1).index() + 2);
+                    log.debug("Import : lot validé (+{} lignes, total {}/{})", currentBatch.size(), importDone, importTotal);
+                    batch = new ArrayList<>(IMPORT_BATCH_SIZE);
                 }
             }
-            if (importDone % IMPORT_PROGRESS_LOG_EVERY == 0 || importDone == importTotal) {
-                log.info("Import progression : {}/{} (référentiel id={})", importDone, importTotal, ref.getId());
-            }
-            log.debug("Import : lot validé (+{} lignes, total {}/{})", batchSize, importDone, importTotal);
+        }
+        if (differentialImport) {
+            log.info("Import différentiel : {} / {} lignes inchangées ignorées (référentiel id={})",
+                    unchangedRows, importTotal, ref.getId());
         }
         return TypologyImportExecutionResult.ok(importTotal);
     }
@@ -481,10 +663,8 @@ public class TypologyImportService {
 
     private record ImportExecutionContext(
             Long referenceId,
-            List<Map<String, String>> rows,
             TypologyImportKind[] kinds,
             String[] targets,
-            List<Integer> order,
             EntityType catType,
             EntityType grpType,
             EntityType serType,
@@ -494,23 +674,16 @@ public class TypologyImportService {
             int importTotal) {
     }
 
-    private static List<List<Integer>> buildImportBatches(List<Integer> order, TypologyImportKind[] kinds) {
-        List<List<Integer>> batches = new ArrayList<>();
-        List<Integer> current = new ArrayList<>(IMPORT_BATCH_SIZE);
-        for (int idx : order) {
-            if (kinds[idx] == null) {
-                continue;
-            }
-            current.add(idx);
-            if (current.size() >= IMPORT_BATCH_SIZE) {
-                batches.add(current);
-                current = new ArrayList<>(IMPORT_BATCH_SIZE);
-            }
-        }
-        if (!current.isEmpty()) {
-            batches.add(current);
-        }
-        return batches;
+    /**
+     * Ligne du lot d'import en cours, avec son index de ligne de données (0 = première ligne après l'en-tête).
+     */
+    private record ImportRow(int index, Map<String, String> row) {
+    }
+
+    /**
+     * Bilan d'un lot validé : lignes ignorées car inchangées.
+     */
+    private record BatchOutcome(int unchangedRows) {
     }
 
     private static TypologyImportImageUrlCache resolveImageUrlCache(
@@ -521,9 +694,9 @@ public class TypologyImportService {
         return new TypologyImportImageUrlCache();
     }
 
-    private void processImportBatch(
+    private BatchOutcome processImportBatch(
             ImportExecutionContext ctx,
-            List<Integer> batchIndices,
+            List<ImportRow> batch,
             TypologyImportLookupCache lookupCache,
             TypologyImportAuthorCache authorCache,
             TypologyImportImageUrlCache imageUrlCache,
@@ -533,24 +706,96 @@ public class TypologyImportService {
         Entity ref = entityRepository.findById(Objects.requireNonNull(ctx.referenceId()))
                 .orElseThrow(() -> new IllegalArgumentException("Référentiel introuvable."));
         lookupCache.registerLoadedEntity(ref);
+        Map<Long, EntityImportFingerprint> storedFingerprints = new HashMap<>();
+        Set<Long> upToDateEntityIds = new HashSet<>();
+        if (differentialImport) {
+            loadStoredFingerprints(ctx, batch, lookupCache, storedFingerprints, upToDateEntityIds);
+        }
+        Map<Long, String> appliedFingerprints = new LinkedHashMap<>();
+        int unchanged = 0;
         int flushed = 0;
-        for (int idx : batchIndices) {
-            Map<String, String> row = ctx.rows().get(idx);
+        for (ImportRow importRow : batch) {
+            int idx = importRow.index();
+            Map<String, String> row = importRow.row();
             HierarchyCodes codes = hierarchyCodesFromRow(row);
-            applyRow(ref, row, ctx.kinds()[idx], ctx.targets()[idx],
+            String fingerprint = null;
+            if (differentialImport) {
+                fingerprint = TypologyImportRowFingerprint.of(row, ctx.csvHeaders(), ctx.collectionProfile());
+                Optional<Long> existingId = lookupCache.findExistingEntityId(
+                        ctx.kinds()[idx], ctx.targets()[idx], codes.categorie(), codes.groupe());
+                EntityImportFingerprint stored = existingId.map(storedFingerprints::get).orElse(null);
+                if (stored != null && upToDateEntityIds.contains(stored.getEntityId())
+                        && fingerprint.equals(stored.getFingerprint())) {
+                    unchanged++;
+                    continue;
+                }
+            }
+            Entity saved = applyRow(ref, row, ctx.kinds()[idx], ctx.targets()[idx],
                     codes.categorie(), codes.groupe(), codes.serie(),
                     ctx.catType(), ctx.grpType(), ctx.serType(), ctx.typType(),
                     user, ctx.csvHeaders(), ctx.collectionProfile(), lookupCache, authorCache, imageUrlCache,
                     langLabel, langDesc);
+            if (fingerprint != null) {
+                appliedFingerprints.put(saved.getId(), fingerprint);
+            }
             flushed++;
             if (flushed % IMPORT_FLUSH_EVERY == 0) {
                 entityRepository.flush();
             }
         }
+        if (appliedFingerprints.isEmpty()) {
+            return new BatchOutcome(unchanged);
+        }
+        // Entités écrites avant leurs empreintes (clé étrangère) ; celles-ci partent au commit, par lots JDBC.
+        entityRepository.flush();
+        // Révision Envers de ce lot, dans sa transaction : une modification depuis l'application validée après
+        // le lot porte une révision plus récente et rend l'empreinte caduque.
+        Long batchRev = AuditReaderFactory.get(entityManager).getCurrentRevision(RevisionInfo.class, true).getRev();
+        LocalDateTime now = LocalDateTime.now();
+        appliedFingerprints.forEach((entityId, fingerprint) -> {
+            EntityImportFingerprint stored = storedFingerprints.get(entityId);
+            if (stored == null) {
+                entityManager.persist(new EntityImportFingerprint(entityId, fingerprint, batchRev, now));
+            } else {
+                stored.setFingerprint(fingerprint);
+                stored.setRev(batchRev);
+                stored.setImportedAt(now);
+            }
+        });
+        return new BatchOutcome(unchanged);
+    }
+
+    /**
+     * Empreintes enregistrées pour les entités existantes du lot, et parmi elles celles encore valables
+     * (deux requêtes par lot).
+     */
+    private void loadStoredFingerprints(ImportExecutionContext ctx, List<ImportRow> batch,
+                                        TypologyImportLookupCache lookupCache,
+                                        Map<Long, EntityImportFingerprint> storedFingerprints,
+                                        Set<Long> upToDateEntityIds) {
+        Set<Long> existingIds = new HashSet<>();
+        for (ImportRow importRow : batch) {
+            HierarchyCodes codes = hierarchyCodesFromRow(importRow.row());
+            lookupCache.findExistingEntityId(ctx.kinds()[importRow.index()], ctx.targets()[importRow.index()],
+                    codes.categorie(), codes.groupe()).ifPresent(existingIds::add);
+        }
+        if (existingIds.isEmpty()) {
+            return;
+        }
+        for (EntityImportFingerprint stored : entityImportFingerprintRepository.findAllById(existingIds)) {
+            storedFingerprints.put(stored.getEntityId(), stored);
+        }
+        if (!storedFingerprints.isEmpty()) {
+            upToDateEntityIds.addAll(entityImportFingerprintRepository.findUpToDateEntityIds(storedFingerprints.keySet()));
+        }
     }
 
     private static void publishProgress(jakarta.servlet.http.HttpSession httpSession, TypologyImportProgress progress) {
-        if (httpSession != null && progress != null) {
+        if (progress == null) {
+            return;
+        }
+        progress.publish();
+        if (httpSession != null) {
             TypologyImportProgressSession.publish(httpSession, progress);
         }
     }
@@ -579,7 +824,7 @@ public class TypologyImportService {
         return true;
     }
 
-    private void applyRow(Entity reference, Map<String, String> row, TypologyImportKind kind, String targetCode,
+    private Entity applyRow(Entity reference, Map<String, String> row, TypologyImportKind kind, String targetCode,
                           String cc, String cg, String cs,
                           EntityType catType, EntityType grpType, EntityType serType, EntityType typType,
                           Utilisateur user, Set<String> csvHeaders,
@@ -591,12 +836,13 @@ public class TypologyImportService {
 
         String statutStr = null;
 
-        switch (kind) {
+        return switch (kind) {
             case CATEGORIE -> {
                 Entity saved = upsertCategory(reference, targetCode, langLabel, langDesc,
                         statutStr, row, catType, user, csvHeaders, collectionProfile,
                         lookupCache, authorCache, imageUrlCache);
                 lookupCache.registerCategory(saved);
+                yield saved;
             }
             case GROUPE -> {
                 Entity cat = lookupCache.findCategory(cc).orElseThrow();
@@ -604,6 +850,7 @@ public class TypologyImportService {
                         langLabel, langDesc, statutStr, row, user, csvHeaders, collectionProfile,
                         lookupCache, authorCache, imageUrlCache);
                 lookupCache.registerGroup(cc, saved);
+                yield saved;
             }
             case SERIE -> {
                 Entity grp = lookupCache.findGroup(cc, cg).orElseThrow();
@@ -611,6 +858,7 @@ public class TypologyImportService {
                         langLabel, langDesc, statutStr, row, user, csvHeaders, collectionProfile,
                         lookupCache, authorCache, imageUrlCache);
                 lookupCache.registerSerie(cc, cg, saved);
+                yield saved;
             }
             case TYPE_SOUS_SERIE -> {
                 Entity serie = lookupCache.findSerie(cc, cg, cs).orElseThrow();
@@ -618,6 +866,7 @@ public class TypologyImportService {
                         langLabel, langDesc, statutStr, row, user, csvHeaders, collectionProfile,
                         lookupCache, authorCache, imageUrlCache);
                 lookupCache.registerType(cc, cg, saved);
+                yield saved;
             }
             case TYPE_SOUS_GROUPE -> {
                 Entity grp = lookupCache.findGroup(cc, cg).orElseThrow();
@@ -625,10 +874,11 @@ public class TypologyImportService {
                         langLabel, langDesc, statutStr, row, user, csvHeaders, collectionProfile,
                         lookupCache, authorCache, imageUrlCache);
                 lookupCache.registerType(cc, cg, saved);
+                yield saved;
             }
             case NON_CLASSIFIE ->
                     throw new IllegalStateException("Ligne non classifiable : ne doit pas être importée.");
-        }
+        };
     }
 
     private Entity upsertCategory(Entity reference, String code,
@@ -649,7 +899,7 @@ public class TypologyImportService {
             attachAuthor(entity, user);
             entity.setStatut(statutStr != null ? statutStr : EntityStatusEnum.PROPOSITION.name());
             entity = entityRepository.save(entity);
-            linkParentChild(reference, entity, lookupCache);
+            linkNewChild(reference, entity, lookupCache);
         } else {
             entity = loadEntityForImport(existingId.get(), lookupCache);
             entity.setStatut(statutStr != null ? statutStr : entity.getStatut());
@@ -668,8 +918,12 @@ public class TypologyImportService {
         return entityRepository.save(entity);
     }
 
-    private Entity resolveLookupParent(Entity parent, String expectedTypeCode) {
+    private Entity resolveLookupParent(Entity parent, String expectedTypeCode, TypologyImportLookupCache lookupCache) {
         if (EntityConstants.ENTITY_TYPE_TYPE.equals(expectedTypeCode)) {
+            Optional<Entity> group = lookupCache.findGroupIdOfSerie(parent.getId()).flatMap(lookupCache::findEntity);
+            if (group.isPresent()) {
+                return group.get();
+            }
             return entityCodeUniquenessService.resolveGroup(parent).orElse(parent);
         }
         return parent;
@@ -682,13 +936,12 @@ public class TypologyImportService {
                              TypologyImportLookupCache lookupCache,
                              TypologyImportAuthorCache authorCache,
                              TypologyImportImageUrlCache imageUrlCache) {
-        Optional<Long> existingId = lookupCache.findExistingChildEntityId(
-                resolveLookupParent(parent, expectedTypeCode), expectedTypeCode, code);
+        Entity lookupParent = resolveLookupParent(parent, expectedTypeCode, lookupCache);
+        Optional<Long> existingId = lookupCache.findExistingChildEntityId(lookupParent, expectedTypeCode, code);
         boolean isCreate = existingId.isEmpty();
         Entity entity;
         if (existingId.isEmpty()) {
-            assertImportCodeAvailableOnCreate(
-                    resolveLookupParent(parent, expectedTypeCode), expectedTypeCode, code, lookupCache);
+            assertImportCodeAvailableOnCreate(lookupParent, expectedTypeCode, code, lookupCache);
             entity = new Entity();
             entity.setEntityType(concreteType);
             entity.setCode(code);
@@ -696,7 +949,7 @@ public class TypologyImportService {
             attachAuthor(entity, user);
             entity.setStatut(statutStr != null ? statutStr : EntityStatusEnum.PROPOSITION.name());
             entity = entityRepository.save(entity);
-            linkParentChild(parent, entity, lookupCache);
+            linkNewChild(parent, entity, lookupCache);
         } else {
             entity = loadEntityForImport(existingId.get(), lookupCache);
             if (entity.getEntityType() == null || !expectedTypeCode.equals(entity.getEntityType().getCode())) {
@@ -780,19 +1033,19 @@ public class TypologyImportService {
             return;
         }
         if (touchCat) {
-            ReferenceOpentheso r = saveReferenceForEntity(entity, getCell(row, TypologyImportInstrumentumConstants.COL_DESCRIPTION_CATEGORIE_FONCTIONNELLE),
-                    ReferenceOpenthesoEnum.CATEGORIE_FONCTIONNELLE.name());
-            entity.setCategorieFonctionnelle(r);
+            syncReference(entity, getCell(row, TypologyImportInstrumentumConstants.COL_DESCRIPTION_CATEGORIE_FONCTIONNELLE),
+                    ReferenceOpenthesoEnum.CATEGORIE_FONCTIONNELLE.name(),
+                    entity::getCategorieFonctionnelle, entity::setCategorieFonctionnelle);
         }
         if (touchRel) {
-            ReferenceOpentheso r = saveReferenceForEntity(entity, getCell(row, TypologyImportInstrumentumConstants.COL_DESCRIPTION_RELATION_IMITATION),
-                    TypologyImportInstrumentumConstants.OPENTHESO_CODE_RELATION_IMITATION);
-            entity.setRelationImitation(r != null ? r.getValeur() : null);
+            syncReferenceText(entity, getCell(row, TypologyImportInstrumentumConstants.COL_DESCRIPTION_RELATION_IMITATION),
+                    TypologyImportInstrumentumConstants.OPENTHESO_CODE_RELATION_IMITATION,
+                    entity::getRelationImitation, entity::setRelationImitation);
         }
         if (touchDen) {
-            ReferenceOpentheso r = saveReferenceForEntity(entity, getCell(row, TypologyImportInstrumentumConstants.COL_DESCRIPTION_DENOMINATION),
-                    ReferenceOpenthesoEnum.DENOMINATION.name());
-            entity.setDenominationInstrumentum(r != null ? r.getValeur() : null);
+            syncReferenceText(entity, getCell(row, TypologyImportInstrumentumConstants.COL_DESCRIPTION_DENOMINATION),
+                    ReferenceOpenthesoEnum.DENOMINATION.name(),
+                    entity::getDenominationInstrumentum, entity::setDenominationInstrumentum);
         }
     }
 
@@ -812,29 +1065,29 @@ public class TypologyImportService {
             entity.setCaracteristiquePhysique(cp);
         }
         if (m) {
-            ReferenceOpentheso r = saveReferenceForEntity(entity, getCell(row, TypologyImportInstrumentumConstants.COL_CARACT_PHYS_MATERIAUX),
-                    ReferenceOpenthesoEnum.MATERIAUX.name());
-            cp.setMateriaux(r);
+            syncReference(entity, getCell(row, TypologyImportInstrumentumConstants.COL_CARACT_PHYS_MATERIAUX),
+                    ReferenceOpenthesoEnum.MATERIAUX.name(),
+                    cp::getMateriaux, cp::setMateriaux);
         }
         if (f) {
-            ReferenceOpentheso r = saveReferenceForEntity(entity, getCell(row, TypologyImportInstrumentumConstants.COL_CARACT_PHYS_FORME),
-                    ReferenceOpenthesoEnum.FORME.name());
-            cp.setForme(r);
+            syncReference(entity, getCell(row, TypologyImportInstrumentumConstants.COL_CARACT_PHYS_FORME),
+                    ReferenceOpenthesoEnum.FORME.name(),
+                    cp::getForme, cp::setForme);
         }
         if (d) {
-            ReferenceOpentheso r = saveReferenceForEntity(entity, getCell(row, TypologyImportInstrumentumConstants.COL_CARACT_PHYS_DIMENSIONS),
-                    ReferenceOpenthesoEnum.DIMENSIONS.name());
-            cp.setDimensions(r);
+            syncReference(entity, getCell(row, TypologyImportInstrumentumConstants.COL_CARACT_PHYS_DIMENSIONS),
+                    ReferenceOpenthesoEnum.DIMENSIONS.name(),
+                    cp::getDimensions, cp::setDimensions);
         }
         if (t) {
-            ReferenceOpentheso r = saveReferenceForEntity(entity, getCell(row, TypologyImportInstrumentumConstants.COL_CARACT_PHYS_TECHNIQUE),
-                    ReferenceOpenthesoEnum.TECHNIQUE.name());
-            cp.setTechnique(r);
+            syncReference(entity, getCell(row, TypologyImportInstrumentumConstants.COL_CARACT_PHYS_TECHNIQUE),
+                    ReferenceOpenthesoEnum.TECHNIQUE.name(),
+                    cp::getTechnique, cp::setTechnique);
         }
         if (fab) {
-            ReferenceOpentheso r = saveReferenceForEntity(entity, getCell(row, TypologyImportConstants.COL_CARACT_PHYS_FABRICATION),
-                    ReferenceOpenthesoEnum.FABRICATION_FACONNAGE.name());
-            entity.setFabricationFaconnage(r);
+            syncReference(entity, getCell(row, TypologyImportConstants.COL_CARACT_PHYS_FABRICATION),
+                    ReferenceOpenthesoEnum.FABRICATION_FACONNAGE.name(),
+                    entity::getFabricationFaconnage, entity::setFabricationFaconnage);
         }
     }
 
@@ -889,29 +1142,29 @@ public class TypologyImportService {
             entity.setCaracteristiquePhysiqueMonnaie(cpm);
         }
         if (touchMat) {
-            ReferenceOpentheso r = saveReferenceForEntity(entity, getCell(row, TypologyImportMonnaieConstants.COL_CARACT_PHYS_MATERIAU),
-                    ReferenceOpenthesoEnum.MATERIAUX.name());
-            cpm.setMateriaux(r);
+            syncReference(entity, getCell(row, TypologyImportMonnaieConstants.COL_CARACT_PHYS_MATERIAU),
+                    ReferenceOpenthesoEnum.MATERIAUX.name(),
+                    cpm::getMateriaux, cpm::setMateriaux);
         }
         if (touchDen) {
-            ReferenceOpentheso r = saveReferenceForEntity(entity, getCell(row, TypologyImportMonnaieConstants.COL_CARACT_PHYS_DENOMINATION),
-                    ReferenceOpenthesoEnum.DENOMINATION.name());
-            cpm.setDenomination(r);
+            syncReference(entity, getCell(row, TypologyImportMonnaieConstants.COL_CARACT_PHYS_DENOMINATION),
+                    ReferenceOpenthesoEnum.DENOMINATION.name(),
+                    cpm::getDenomination, cpm::setDenomination);
         }
         if (touchMet) {
-            ReferenceOpentheso r = saveReferenceForEntity(entity, getCell(row, TypologyImportConstants.COL_CARACT_PHYS_METROLOGIE),
-                    ReferenceOpenthesoEnum.METROLOGIE.name());
-            cpm.setMetrologie(r != null ? r.getValeur() : null);
+            syncReferenceText(entity, getCell(row, TypologyImportConstants.COL_CARACT_PHYS_METROLOGIE),
+                    ReferenceOpenthesoEnum.METROLOGIE.name(),
+                    cpm::getMetrologie, cpm::setMetrologie);
         }
         if (touchVal) {
-            ReferenceOpentheso r = saveReferenceForEntity(entity, getCell(row, TypologyImportMonnaieConstants.COL_CARACT_PHYS_VALEUR),
-                    ReferenceOpenthesoEnum.VALEUR.name());
-            cpm.setValeur(r);
+            syncReference(entity, getCell(row, TypologyImportMonnaieConstants.COL_CARACT_PHYS_VALEUR),
+                    ReferenceOpenthesoEnum.VALEUR.name(),
+                    cpm::getValeur, cpm::setValeur);
         }
         if (touchTec) {
-            ReferenceOpentheso r = saveReferenceForEntity(entity, getCell(row, TypologyImportMonnaieConstants.COL_CARACT_PHYS_TECHNIQUE),
-                    ReferenceOpenthesoEnum.TECHNIQUE.name());
-            cpm.setTechnique(r);
+            syncReference(entity, getCell(row, TypologyImportMonnaieConstants.COL_CARACT_PHYS_TECHNIQUE),
+                    ReferenceOpenthesoEnum.TECHNIQUE.name(),
+                    cpm::getTechnique, cpm::setTechnique);
         }
     }
 
@@ -978,16 +1231,38 @@ public class TypologyImportService {
         lookupCache.registerParentChild(parent.getId(), child.getId());
     }
 
+    /**
+     * Rattache une entité créée par l'import : aucune relation ne peut encore exister, l'INSERT est mis en file
+     * (persist, sans lecture préalable) et part avec le lot JDBC suivant. Le parent peut être détaché
+     * (contexte vidé entre deux lots) : seule sa référence est rattachée.
+     */
+    private void linkNewChild(Entity parent, Entity child, TypologyImportLookupCache lookupCache) {
+        EntityRelation rel = new EntityRelation();
+        rel.setParent(entityManager.getReference(Entity.class, parent.getId()));
+        rel.setChild(child);
+        entityManager.persist(rel);
+        lookupCache.registerParentChild(parent.getId(), child.getId());
+    }
+
     private void replaceLabels(Entity entity, Langue lang, String nom) {
         if (entity.getLabels() == null) {
             entity.setLabels(new ArrayList<>());
         }
-        entity.getLabels().removeIf(l -> l.getLangue() != null && Objects.equals(l.getLangue().getCode(), lang.getCode()));
-        if (StringUtils.hasText(nom)) {
+        String value = StringUtils.hasText(nom) ? nom.trim() : null;
+        Label kept = value == null ? null : entity.getLabels().stream()
+                .filter(l -> l.getLangue() != null && Objects.equals(l.getLangue().getCode(), lang.getCode()))
+                .findFirst().orElse(null);
+        entity.getLabels().removeIf(l -> l != kept
+                && l.getLangue() != null && Objects.equals(l.getLangue().getCode(), lang.getCode()));
+        if (kept != null) {
+            if (!value.equals(kept.getNom())) {
+                kept.setNom(value);
+            }
+        } else if (value != null) {
             Label lb = new Label();
             lb.setEntity(entity);
             lb.setLangue(lang);
-            lb.setNom(nom.trim());
+            lb.setNom(value);
             entity.getLabels().add(lb);
         }
     }
@@ -996,12 +1271,21 @@ public class TypologyImportService {
         if (entity.getDescriptions() == null) {
             entity.setDescriptions(new ArrayList<>());
         }
-        entity.getDescriptions().removeIf(d -> d.getLangue() != null && Objects.equals(d.getLangue().getCode(), lang.getCode()));
-        if (StringUtils.hasText(text)) {
+        String value = StringUtils.hasText(text) ? text.trim() : null;
+        Description kept = value == null ? null : entity.getDescriptions().stream()
+                .filter(d -> d.getLangue() != null && Objects.equals(d.getLangue().getCode(), lang.getCode()))
+                .findFirst().orElse(null);
+        entity.getDescriptions().removeIf(d -> d != kept
+                && d.getLangue() != null && Objects.equals(d.getLangue().getCode(), lang.getCode()));
+        if (kept != null) {
+            if (!value.equals(kept.getValeur())) {
+                kept.setValeur(value);
+            }
+        } else if (value != null) {
             Description d = new Description();
             d.setEntity(entity);
             d.setLangue(lang);
-            d.setValeur(text.trim());
+            d.setValeur(value);
             entity.getDescriptions().add(d);
         }
     }
@@ -1139,11 +1423,9 @@ public class TypologyImportService {
         if (entity.getImages() == null) {
             entity.setImages(new ArrayList<>());
         }
-        entity.getImages().clear();
-        if (!StringUtils.hasText(raw)) {
-            return;
-        }
-        String normalized = raw.replace("##", "||");
+        List<Image> unmatched = new ArrayList<>(entity.getImages());
+        List<Image> missing = new ArrayList<>();
+        String normalized = raw != null ? raw.replace("##", "||") : "";
         for (String part : LIST_SPLIT.split(normalized)) {
             String token = part.trim();
             String legende = "";
@@ -1159,12 +1441,25 @@ public class TypologyImportService {
             if (!imageUrlCache.isValidForImport(url)) {
                 continue;
             }
+            String caption = legende != null ? legende : "";
+            String imageUrl = url;
+            Optional<Image> same = unmatched.stream()
+                    .filter(img -> Objects.equals(img.getUrl(), imageUrl) && Objects.equals(img.getLegende(), caption))
+                    .findFirst();
+            if (same.isPresent()) {
+                unmatched.remove(same.get());
+                continue;
+            }
             Image img = new Image();
             img.setEntity(entity);
             img.setUrl(url);
-            img.setLegende(legende != null ? legende : "");
-            entity.getImages().add(img);
+            img.setLegende(caption);
+            missing.add(img);
         }
+        if (!unmatched.isEmpty()) {
+            entity.getImages().removeIf(img -> unmatched.stream().anyMatch(stale -> stale == img));
+        }
+        entity.getImages().addAll(missing);
     }
 
     private void replaceOpenTheso(Entity entity, Map<String, String> row, Set<String> csvHeaders, boolean isCreate) {
@@ -1237,14 +1532,16 @@ public class TypologyImportService {
             entity.setCaracteristiquePhysique(cp);
         }
         if (touchForme) {
-            cp.setForme(saveReferenceForEntity(entity, getCell(row, TypologyImportCeramiqueConstants.COL_DESCRIPTION_FORM), "FORME"));
+            syncReference(entity, getCell(row, TypologyImportCeramiqueConstants.COL_DESCRIPTION_FORM), "FORME",
+                    cp::getForme, cp::setForme);
         }
         if (touchMetro) {
-            cp.setMetrologie(saveReferenceForEntity(entity, getCell(row, TypologyImportConstants.COL_CARACT_PHYS_METROLOGIE), "METROLOGIE"));
+            syncReference(entity, getCell(row, TypologyImportConstants.COL_CARACT_PHYS_METROLOGIE), "METROLOGIE",
+                    cp::getMetrologie, cp::setMetrologie);
         }
         if (touchFab) {
-            entity.setFabricationFaconnage(saveReferenceForEntity(entity, getCell(row, TypologyImportConstants.COL_CARACT_PHYS_FABRICATION),
-                    ReferenceOpenthesoEnum.FABRICATION_FACONNAGE.name()));
+            syncReference(entity, getCell(row, TypologyImportConstants.COL_CARACT_PHYS_FABRICATION), ReferenceOpenthesoEnum.FABRICATION_FACONNAGE.name(),
+                    entity::getFabricationFaconnage, entity::setFabricationFaconnage);
         }
     }
 
@@ -1267,20 +1564,20 @@ public class TypologyImportService {
             dp.setDescription(trimToNull(getCell(row, TypologyImportCeramiqueConstants.COL_CARACT_PHYS_DESCRIPTION_PATE)));
         }
         if (touchCouleur) {
-            entity.setCouleurPate(saveReferenceForEntity(entity, getCell(row, TypologyImportCeramiqueConstants.COL_CARACT_PHYS_COULEUR_PATE),
-                    ReferenceOpenthesoEnum.COULEUR_PATE.name()));
+            syncReference(entity, getCell(row, TypologyImportCeramiqueConstants.COL_CARACT_PHYS_COULEUR_PATE), ReferenceOpenthesoEnum.COULEUR_PATE.name(),
+                    entity::getCouleurPate, entity::setCouleurPate);
         }
         if (touchNature) {
-            entity.setNaturePate(saveReferenceForEntity(entity, getCell(row, TypologyImportCeramiqueConstants.COL_CARACT_PHYS_NATURE_PATE),
-                    ReferenceOpenthesoEnum.NATURE_PATE.name()));
+            syncReference(entity, getCell(row, TypologyImportCeramiqueConstants.COL_CARACT_PHYS_NATURE_PATE), ReferenceOpenthesoEnum.NATURE_PATE.name(),
+                    entity::getNaturePate, entity::setNaturePate);
         }
         if (touchIncl) {
-            entity.setInclusionPate(saveReferenceForEntity(entity, getCell(row, TypologyImportCeramiqueConstants.COL_CARACT_PHYS_INCLUSION),
-                    ReferenceOpenthesoEnum.INCLUSIONS.name()));
+            syncReference(entity, getCell(row, TypologyImportCeramiqueConstants.COL_CARACT_PHYS_INCLUSION), ReferenceOpenthesoEnum.INCLUSIONS.name(),
+                    entity::getInclusionPate, entity::setInclusionPate);
         }
         if (touchCuisson) {
-            entity.setCuissonPostCuissonRef(saveReferenceForEntity(entity, getCell(row, TypologyImportCeramiqueConstants.COL_CARACT_PHYS_CUISSON),
-                    ReferenceOpenthesoEnum.CUISSON_POST_CUISSON.name()));
+            syncReference(entity, getCell(row, TypologyImportCeramiqueConstants.COL_CARACT_PHYS_CUISSON), ReferenceOpenthesoEnum.CUISSON_POST_CUISSON.name(),
+                    entity::getCuissonPostCuissonRef, entity::setCuissonPostCuissonRef);
         }
     }
 
@@ -1295,11 +1592,8 @@ public class TypologyImportService {
         if (entity.getAppellationsUsuelles() == null) {
             entity.setAppellationsUsuelles(new ArrayList<>());
         }
-        entity.getAppellationsUsuelles().clear();
-        if (raw == null) {
-            return;
-        }
-        String normalized = raw.replace("##", "||");
+        List<String[]> desired = new ArrayList<>();
+        String normalized = raw != null ? raw.replace("##", "||") : "";
         for (String token : LIST_SPLIT.split(normalized)) {
             String t = token.trim();
             if (!StringUtils.hasText(t)) {
@@ -1316,14 +1610,9 @@ public class TypologyImportService {
             } else {
                 continue;
             }
-            ReferenceOpentheso ref = ReferenceOpentheso.builder()
-                    .code(ReferenceOpenthesoEnum.APPELLATION_USUELLE.name())
-                    .valeur(valeur)
-                    .url(urlToken != null ? limitVarcharColumn(urlToken) : null)
-                    .entity(entity)
-                    .build();
-            entity.getAppellationsUsuelles().add(referenceOpenthesoRepository.save(ref));
+            desired.add(new String[]{valeur, urlToken != null ? limitVarcharColumn(urlToken) : null});
         }
+        syncReferenceList(entity, entity.getAppellationsUsuelles(), ReferenceOpenthesoEnum.APPELLATION_USUELLE.name(), desired);
     }
 
     private void replaceAiresCirculation(Entity entity, Map<String, String> row, Set<String> csvHeaders, boolean isCreate) {
@@ -1337,11 +1626,8 @@ public class TypologyImportService {
         if (entity.getAiresCirculation() == null) {
             entity.setAiresCirculation(new ArrayList<>());
         }
-        entity.getAiresCirculation().clear();
-        if (raw == null) {
-            return;
-        }
-        String normalized = raw.replace("##", "||");
+        List<String[]> desired = new ArrayList<>();
+        String normalized = raw != null ? raw.replace("##", "||") : "";
         for (String token : LIST_SPLIT.split(normalized)) {
             String t = token.trim();
             if (!StringUtils.hasText(t)) {
@@ -1352,14 +1638,9 @@ public class TypologyImportService {
             if (!StringUtils.hasText(valeur)) {
                 continue;
             }
-            ReferenceOpentheso ref = ReferenceOpentheso.builder()
-                    .code("AIRE_CIRCULATION")
-                    .valeur(valeur)
-                    .url(StringUtils.hasText(pair[1]) ? limitVarcharColumn(pair[1]) : null)
-                    .entity(entity)
-                    .build();
-            entity.getAiresCirculation().add(referenceOpenthesoRepository.save(ref));
+            desired.add(new String[]{valeur, StringUtils.hasText(pair[1]) ? limitVarcharColumn(pair[1]) : null});
         }
+        syncReferenceList(entity, entity.getAiresCirculation(), "AIRE_CIRCULATION", desired);
     }
 
     private void replaceProductions(Entity entity, Map<String, String> row, Set<String> csvHeaders, boolean isCreate) {
@@ -1373,11 +1654,8 @@ public class TypologyImportService {
         if (entity.getProductions() == null) {
             entity.setProductions(new ArrayList<>());
         }
-        entity.getProductions().clear();
-        if (raw == null) {
-            return;
-        }
-        String normalized = raw.replace("##", "||");
+        List<String[]> desired = new ArrayList<>();
+        String normalized = raw != null ? raw.replace("##", "||") : "";
         for (String token : LIST_SPLIT.split(normalized)) {
             String t = token.trim();
             if (!StringUtils.hasText(t)) {
@@ -1388,14 +1666,9 @@ public class TypologyImportService {
             if (!StringUtils.hasText(valeur)) {
                 continue;
             }
-            ReferenceOpentheso ref = ReferenceOpentheso.builder()
-                    .code(ReferenceOpenthesoEnum.PRODUCTION.name())
-                    .valeur(valeur)
-                    .url(StringUtils.hasText(pair[1]) ? limitVarcharColumn(pair[1]) : null)
-                    .entity(entity)
-                    .build();
-            entity.getProductions().add(referenceOpenthesoRepository.save(ref));
+            desired.add(new String[]{valeur, StringUtils.hasText(pair[1]) ? limitVarcharColumn(pair[1]) : null});
         }
+        syncReferenceList(entity, entity.getProductions(), ReferenceOpenthesoEnum.PRODUCTION.name(), desired);
     }
 
     private void replaceFonctionsUsage(Entity entity, Map<String, String> row, Set<String> csvHeaders, boolean isCreate) {
@@ -1409,11 +1682,8 @@ public class TypologyImportService {
         if (entity.getFonctionsUsage() == null) {
             entity.setFonctionsUsage(new ArrayList<>());
         }
-        entity.getFonctionsUsage().clear();
-        if (raw == null) {
-            return;
-        }
-        String normalized = raw.replace("##", "||");
+        List<String[]> desired = new ArrayList<>();
+        String normalized = raw != null ? raw.replace("##", "||") : "";
         for (String token : LIST_SPLIT.split(normalized)) {
             String t = token.trim();
             if (!StringUtils.hasText(t)) {
@@ -1424,14 +1694,9 @@ public class TypologyImportService {
             if (!StringUtils.hasText(valeur)) {
                 continue;
             }
-            ReferenceOpentheso ref = ReferenceOpentheso.builder()
-                    .code(ReferenceOpenthesoEnum.FONCTION_USAGE.name())
-                    .valeur(valeur)
-                    .url(StringUtils.hasText(pair[1]) ? limitVarcharColumn(pair[1]) : null)
-                    .entity(entity)
-                    .build();
-            entity.getFonctionsUsage().add(referenceOpenthesoRepository.save(ref));
+            desired.add(new String[]{valeur, StringUtils.hasText(pair[1]) ? limitVarcharColumn(pair[1]) : null});
         }
+        syncReferenceList(entity, entity.getFonctionsUsage(), ReferenceOpenthesoEnum.FONCTION_USAGE.name(), desired);
     }
 
     private void replaceAuteursScientifiques(Entity entity, Map<String, String> row, Set<String> csvHeaders,
@@ -1446,7 +1711,7 @@ public class TypologyImportService {
         if (entity.getAuteursScientifiques() == null) {
             entity.setAuteursScientifiques(new ArrayList<>());
         }
-        entity.getAuteursScientifiques().clear();
+        List<AuteurScientifique> authors = new ArrayList<>();
         String normalized = raw.replace("##", "||");
         for (String token : LIST_SPLIT.split(normalized)) {
             Optional<ParsedScientificAuthor> parsed = parseScientificAuthorToken(token);
@@ -1454,9 +1719,14 @@ public class TypologyImportService {
                 continue;
             }
             ParsedScientificAuthor pn = parsed.get();
-            AuteurScientifique author = authorCache.resolve(pn.nom(), pn.prenom());
-            entity.getAuteursScientifiques().add(author);
+            authors.add(authorCache.resolve(pn.nom(), pn.prenom()));
+        }
+        List<Long> currentIds = entity.getAuteursScientifiques().stream().map(AuteurScientifique::getId).toList();
+        if (currentIds.equals(authors.stream().map(AuteurScientifique::getId).toList())) {
+            return;
         }
+        entity.getAuteursScientifiques().clear();
+        entity.getAuteursScientifiques().addAll(authors);
     }
 
     private boolean columnInCsvScientificAuthors(Set<String> csvHeaders) {
@@ -1521,7 +1791,10 @@ public class TypologyImportService {
     private record ParsedScientificAuthor(String prenom, String nom) {
     }
 
-    private ReferenceOpentheso saveReferenceForEntity(Entity entity, String labelUrlValue, String code) {
+    /**
+     * Valeur et URL enregistrées pour une cellule {@code libellé|url} ({@code null} si la cellule est vide).
+     */
+    private static String[] referenceValues(String labelUrlValue) {
         String raw = trimToNull(labelUrlValue);
         if (raw == null) {
             return null;
@@ -1531,21 +1804,95 @@ public class TypologyImportService {
         if (!StringUtils.hasText(valeur)) {
             return null;
         }
+        return new String[]{valeur, StringUtils.hasText(pair[1]) ? limitVarcharColumn(pair[1]) : null};
+    }
+
+    private static boolean sameReference(ReferenceOpentheso ref, String valeur, String url) {
+        return ref != null && Objects.equals(ref.getValeur(), valeur) && Objects.equals(ref.getUrl(), url);
+    }
+
+    private ReferenceOpentheso saveReference(Entity entity, String code, String valeur, String url) {
         ReferenceOpentheso ref = ReferenceOpentheso.builder()
                 .code(code)
                 .valeur(valeur)
-                .url(StringUtils.hasText(pair[1]) ? limitVarcharColumn(pair[1]) : null)
+                .url(url)
                 .entity(entity)
                 .build();
         return referenceOpenthesoRepository.save(ref);
     }
 
+    /**
+     * Référence OpenTheso à valeur unique : remplacée seulement si la cellule diffère de la valeur enregistrée
+     * (pas de nouvelle ligne ni de révision pour un ré-import identique).
+     */
+    private void syncReference(Entity entity, String labelUrlValue, String code,
+                               java.util.function.Supplier<ReferenceOpentheso> getter,
+                               java.util.function.Consumer<ReferenceOpentheso> setter) {
+        String[] values = referenceValues(labelUrlValue);
+        ReferenceOpentheso current = getter.get();
+        if (values == null) {
+            if (current != null) {
+                setter.accept(null);
+            }
+            return;
+        }
+        if (sameReference(current, values[0], values[1])) {
+            return;
+        }
+        setter.accept(saveReference(entity, code, values[0], values[1]));
+    }
+
+    /**
+     * Variante de {@link #syncReference} pour les champs texte alimentés par une référence OpenTheso.
+     */
+    private void syncReferenceText(Entity entity, String labelUrlValue, String code,
+                                   java.util.function.Supplier<String> getter,
+                                   java.util.function.Consumer<String> setter) {
+        String[] values = referenceValues(labelUrlValue);
+        String valeur = values != null ? values[0] : null;
+        if (Objects.equals(getter.get(), valeur)) {
+            return;
+        }
+        setter.accept(values != null ? saveReference(entity, code, values[0], values[1]).getValeur() : null);
+    }
+
+    /**
+     * Aligne une liste de références OpenTheso sur les couples {@code (valeur, url)} du CSV : les références
+     * identiques sont conservées, seules les absentes sont supprimées et les nouvelles enregistrées.
+     */
+    private void syncReferenceList(Entity entity, List<ReferenceOpentheso> current, String code, List<String[]> desired) {
+        List<ReferenceOpentheso> unmatched = new ArrayList<>(current);
+        List<String[]> missing = new ArrayList<>();
+        for (String[] values : desired) {
+            Optional<ReferenceOpentheso> same = unmatched.stream()
+                    .filter(ref -> sameReference(ref, values[0], values[1]))
+                    .findFirst();
+            if (same.isPresent()) {
+                unmatched.remove(same.get());
+            } else {
+                missing.add(values);
+            }
+        }
+        if (!unmatched.isEmpty()) {
+            current.removeIf(ref -> unmatched.stream().anyMatch(stale -> stale == ref));
+        }
+        for (String[] values : missing) {
+            current.add(saveReference(entity, code, values[0], values[1]));
+        }
+    }
+
     private void applySlot(Entity entity, String url, String libelle, ReferenceOpenthesoEnum slot,
                            java.util.function.Supplier<ReferenceOpentheso> getter,
                            java.util.function.Consumer<ReferenceOpentheso> setter) {
         ReferenceOpentheso current = getter.get();
         boolean hasUrl = StringUtils.hasText(url);
         boolean hasLabel = StringUtils.hasText(libelle);
+        if ((hasUrl || hasLabel) && current != null && current.getEntity() != null
+                && Objects.equals(current.getEntity().getId(), entity.getId())
+                && sameReference(current, limitVarcharColumn(hasLabel ? libelle.trim() : url.trim()),
+                hasUrl ? limitVarcharColumn(url.trim()) : null)) {
+            return;
+        }
         if (!hasUrl && !hasLabel) {
             if (current != null && current.getEntity() != null
                     && Objects.equals(current.getEntity().getId(), entity.getId())) {
@@ -1631,21 +1978,42 @@ public class TypologyImportService {
 
     private static void previewImages(Map<String, String> row, List<String> warnings,
                                       TypologyImportImageUrlCache imageUrlCache) {
+        for (String url : previewImageUrls(row)) {
+            if (!imageUrlCache.validateWithNetwork(url)) {
+                warnings.add("Image ignorée (URL invalide ou inaccessible) : " + url);
+            }
+        }
+    }
+
+    /**
+     * URL d'image de toutes les lignes, validées ensemble avant l'analyse ligne à ligne.
+     */
+    private static Set<String> collectImageUrls(TypologyCsvSource parsed) {
+        Set<String> urls = new LinkedHashSet<>();
+        try (TypologyCsvSource.Rows rows = parsed.openRows()) {
+            Map<String, String> row;
+            while ((row = rows.next()) != null) {
+                urls.addAll(previewImageUrls(row));
+            }
+        }
+        return urls;
+    }
+
+    private static List<String> previewImageUrls(Map<String, String> row) {
         String raw = getCell(row, TypologyImportConstants.COL_ILLUSTRATIONS);
         if (!StringUtils.hasText(raw)) {
-            return;
+            return List.of();
         }
+        List<String> urls = new ArrayList<>();
         String normalized = raw.replace("##", "||");
         for (String part : LIST_SPLIT.split(normalized)) {
             String token = part.trim();
             String url = token.contains(":") ? splitPair(token)[1] : token;
-            if (!StringUtils.hasText(url)) {
-                continue;
-            }
-            if (!imageUrlCache.validateWithNetwork(url)) {
-                warnings.add("Image ignorée (URL invalide ou inaccessible) : " + url);
+            if (StringUtils.hasText(url)) {
+                urls.add(url);
             }
         }
+        return urls;
     }
 
     private static void previewOpenThesoCeramique(Map<String, String> row, List<String> errors) {
@@ -1836,9 +2204,16 @@ public class TypologyImportService {
         return lookupCache.findExistingEntityId(kind, targetCode, catCode, groupCode).isPresent();
     }
 
+    /**
+     * Après {@link TypologyImportLookupCache#preloadTakenCodes}, le cache fait autorité : aucune requête par ligne.
+     */
     private void assertImportCodeAvailableOnCreate(
             Entity parent, String expectedTypeCode, String code, TypologyImportLookupCache lookupCache) {
-        if (lookupCache.isCodeRegisteredInScope(parent, expectedTypeCode, code)) {
+        boolean taken = lookupCache.isCodeRegisteredInScope(parent, expectedTypeCode, code)
+                || (lookupCache.hasPreloadedTakenCodes()
+                        ? lookupCache.isCodeTakenInScope(parent, expectedTypeCode, code)
+                        : entityCodeUniquenessService.isCodeTakenForCreate(expectedTypeCode, parent, code, null));
+        if (taken) {
             String message = switch (expectedTypeCode) {
                 case EntityConstants.ENTITY_TYPE_GROUP -> EntityConstants.ERROR_GROUP_CODE_EXISTS_IN_REFERENCE;
                 case EntityConstants.ENTITY_TYPE_SERIES -> EntityConstants.ERROR_SERIE_CODE_EXISTS_IN_GROUP;
@@ -1847,15 +2222,29 @@ public class TypologyImportService {
             };
             throw new IllegalStateException(message);
         }
-        if (entityCodeUniquenessService.isCodeTakenForCreate(expectedTypeCode, parent, code, null)) {
-            String message = switch (expectedTypeCode) {
-                case EntityConstants.ENTITY_TYPE_GROUP -> EntityConstants.ERROR_GROUP_CODE_EXISTS_IN_REFERENCE;
-                case EntityConstants.ENTITY_TYPE_SERIES -> EntityConstants.ERROR_SERIE_CODE_EXISTS_IN_GROUP;
-                case EntityConstants.ENTITY_TYPE_TYPE -> EntityConstants.ERROR_TYPE_CODE_EXISTS_IN_GROUP;
-                default -> EntityConstants.ERROR_CODE_ALREADY_EXISTS;
+    }
+
+    /**
+     * Codes cibles du fichier par type d'entité, pour la vérification ensembliste d'unicité
+     * (les catégories sont résolues par le cache seul).
+     */
+    private static Map<String, Set<String>> importCodesByEntityType(TypologyImportKind[] kinds, String[] targets) {
+        Map<String, Set<String>> codes = new HashMap<>();
+        for (int i = 0; i < kinds.length; i++) {
+            if (kinds[i] == null || !StringUtils.hasText(targets[i])) {
+                continue;
+            }
+            String entityTypeCode = switch (kinds[i]) {
+                case GROUPE -> EntityConstants.ENTITY_TYPE_GROUP;
+                case SERIE -> EntityConstants.ENTITY_TYPE_SERIES;
+                case TYPE_SOUS_SERIE, TYPE_SOUS_GROUPE -> EntityConstants.ENTITY_TYPE_TYPE;
+                default -> null;
             };
-            throw new IllegalStateException(message);
+            if (entityTypeCode != null) {
+                codes.computeIfAbsent(entityTypeCode, k -> new HashSet<>()).add(targets[i]);
+            }
         }
+        return codes;
     }
 
     private static List<Integer> sortedRowIndices(int n, TypologyImportKind[] kinds) {
@@ -1863,17 +2252,26 @@ public class TypologyImportService {
         for (int i = 0; i < n; i++) {
             idx.add(i);
         }
-        Map<TypologyImportKind, Integer> orderRank = new EnumMap<>(TypologyImportKind.class);
-        orderRank.put(TypologyImportKind.CATEGORIE, 0);
-        orderRank.put(TypologyImportKind.GROUPE, 1);
-        orderRank.put(TypologyImportKind.SERIE, 2);
-        orderRank.put(TypologyImportKind.TYPE_SOUS_SERIE, 3);
-        orderRank.put(TypologyImportKind.TYPE_SOUS_GROUPE, 3);
-        orderRank.put(TypologyImportKind.NON_CLASSIFIE, 99);
-        idx.sort(Comparator.comparingInt(i -> kinds[i] == null ? 99 : orderRank.getOrDefault(kinds[i], 99)));
+        idx.sort(Comparator.comparingInt(i -> kinds[i] == null ? IMPORT_RANK_COUNT : importRank(kinds[i])));
         return idx;
     }
 
+    /** Nombre de niveaux d'import (catégorie, groupe, série, type). */
+    private static final int IMPORT_RANK_COUNT = 4;
+
+    /**
+     * Niveau d'enregistrement d'une ligne : les parents sont importés avant leurs enfants.
+     */
+    private static int importRank(TypologyImportKind kind) {
+        return switch (kind) {
+            case CATEGORIE -> 0;
+            case GROUPE -> 1;
+            case SERIE -> 2;
+            case TYPE_SOUS_SERIE, TYPE_SOUS_GROUPE -> 3;
+            case NON_CLASSIFIE -> IMPORT_RANK_COUNT;
+        };
+    }
+
     /**
      * Détermine le niveau hiérarchique créé/mis à jour selon les codes renseignés :
      * <ul>
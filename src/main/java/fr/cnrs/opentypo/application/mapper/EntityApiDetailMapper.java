@@ -26,13 +26,16 @@ import org.springframework.stereotype.Component;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.Comparator;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 /**
  * Charge et mappe les rubriques « Description » et « Caractéristiques physiques » pour l'API REST.
  * Tous les champs sont renvoyés indépendamment du profil typologique (céramique, monnaie, instrumentum).
+ * Le chargement se fait par lot : un nombre fixe de requêtes, que l'on mappe une entité ou une page entière.
  */
 @Component
 @RequiredArgsConstructor
@@ -46,8 +49,63 @@ public class EntityApiDetailMapper {
     private final CaracteristiquePhysiqueMonnaieRepository caracteristiquePhysiqueMonnaieRepository;
     private final ReferenceOpenthesoRepository referenceOpenthesoRepository;
 
-    public List<EntityTextDescriptionDto> loadPresentationDescriptions(Long entityId) {
-        List<Description> descriptions = descriptionRepository.findByEntityIdWithLangue(entityId);
+    /**
+     * Rubriques de détail d'une entité ({@code presentationDescriptions}, {@code description},
+     * {@code physicalCharacteristics} de {@code EntityResponseDto}).
+     */
+    public record DetailSections(
+            List<EntityTextDescriptionDto> presentationDescriptions,
+            EntityDescriptionSectionDto description,
+            EntityPhysicalCharacteristicsSectionDto physicalCharacteristics) {
+    }
+
+    /**
+     * Rubriques de détail de plusieurs entités, avec une requête {@code IN} par table
+     * (descriptions, détail, monnaie, pâte, caractéristiques physiques, références) quel que soit le nombre d'entités.
+     * Les entités doivent avoir été chargées avec leurs métadonnées et leur catégorie fonctionnelle.
+     *
+     * @return rubriques par identifiant d'entité (une entrée pour chaque entité fournie)
+     */
+    public Map<Long, DetailSections> loadDetailSections(List<Entity> entities) {
+        if (entities == null || entities.isEmpty()) {
+            return Map.of();
+        }
+        List<Long> entityIds = entities.stream().map(Entity::getId).toList();
+        Map<Long, List<Description>> descriptionsByEntity = descriptionRepository.findByEntityIdsWithLangue(entityIds)
+                .stream()
+                .collect(Collectors.groupingBy(d -> d.getEntity().getId()));
+        Map<Long, DescriptionDetail> detailByEntity = indexByEntityId(
+                descriptionDetailRepository.findByEntity_IdIn(entityIds), d -> d.getEntity().getId());
+        Map<Long, DescriptionMonnaie> descriptionMonnaieByEntity = indexByEntityId(
+                descriptionMonnaieRepository.findByEntity_IdIn(entityIds), d -> d.getEntity().getId());
+        Map<Long, DescriptionPate> pateByEntity = indexByEntityId(
+                descriptionPateRepository.findByEntity_IdIn(entityIds), p -> p.getEntity().getId());
+        Map<Long, CaracteristiquePhysique> physiqueByEntity = indexByEntityId(
+                caracteristiquePhysiqueRepository.findByEntityIdsForApi(entityIds), c -> c.getEntity().getId());
+        Map<Long, CaracteristiquePhysiqueMonnaie> physiqueMonnaieByEntity = indexByEntityId(
+                caracteristiquePhysiqueMonnaieRepository.findByEntityIdsForApi(entityIds), c -> c.getEntity().getId());
+        Map<Long, Map<String, List<ReferenceOpentheso>>> refsByEntity = referenceOpenthesoRepository
+                .findByEntityIds(entityIds).stream()
+                .filter(r -> r.getCode() != null && r.getEntity() != null)
+                .collect(Collectors.groupingBy(r -> r.getEntity().getId(),
+                        Collectors.groupingBy(ReferenceOpentheso::getCode)));
+
+        Map<Long, DetailSections> out = new HashMap<>(entities.size() * 2);
+        for (Entity entity : entities) {
+            Long id = entity.getId();
+            Map<String, List<ReferenceOpentheso>> refsByCode = refsByEntity.getOrDefault(id, Map.of());
+            CaracteristiquePhysique physique = physiqueByEntity.get(id);
+            out.put(id, new DetailSections(
+                    toPresentationDescriptions(descriptionsByEntity.getOrDefault(id, List.of())),
+                    toDescriptionSection(entity, detailByEntity.get(id), descriptionMonnaieByEntity.get(id), physique,
+                            refsByCode),
+                    toPhysicalCharacteristicsSection(pateByEntity.get(id), physique, physiqueMonnaieByEntity.get(id),
+                            refsByCode)));
+        }
+        return out;
+    }
+
+    private static List<EntityTextDescriptionDto> toPresentationDescriptions(List<Description> descriptions) {
         if (descriptions.isEmpty()) {
             return List.of();
         }
@@ -60,11 +118,12 @@ public class EntityApiDetailMapper {
         return Collections.unmodifiableList(out);
     }
 
-    public EntityDescriptionSectionDto loadDescriptionSection(Long entityId, Entity entity) {
-        DescriptionDetail detail = descriptionDetailRepository.findByEntity_Id(entityId).orElse(null);
-        DescriptionMonnaie monnaie = descriptionMonnaieRepository.findByEntity_Id(entityId).orElse(null);
-        CaracteristiquePhysique physique = caracteristiquePhysiqueRepository.findByEntityIdForApi(entityId).orElse(null);
-        Map<String, List<ReferenceOpentheso>> refsByCode = groupReferencesByCode(entityId);
+    private static EntityDescriptionSectionDto toDescriptionSection(
+            Entity entity,
+            DescriptionDetail detail,
+            DescriptionMonnaie monnaie,
+            CaracteristiquePhysique physique,
+            Map<String, List<ReferenceOpentheso>> refsByCode) {
         EntityMetadata metadata = entity.getMetadata();
 
         return new EntityDescriptionSectionDto(
@@ -82,13 +141,11 @@ public class EntityApiDetailMapper {
                 monnaie != null ? monnaie.getLegendeRevers() : null);
     }
 
-    public EntityPhysicalCharacteristicsSectionDto loadPhysicalCharacteristicsSection(Long entityId) {
-        DescriptionPate pate = descriptionPateRepository.findByEntity_Id(entityId).orElse(null);
-        CaracteristiquePhysique physique = caracteristiquePhysiqueRepository.findByEntityIdForApi(entityId).orElse(null);
-        CaracteristiquePhysiqueMonnaie monnaie =
-                caracteristiquePhysiqueMonnaieRepository.findByEntityIdForApi(entityId).orElse(null);
-        Map<String, List<ReferenceOpentheso>> refsByCode = groupReferencesByCode(entityId);
-
+    private static EntityPhysicalCharacteristicsSectionDto toPhysicalCharacteristicsSection(
+            DescriptionPate pate,
+            CaracteristiquePhysique physique,
+            CaracteristiquePhysiqueMonnaie monnaie,
+            Map<String, List<ReferenceOpentheso>> refsByCode) {
         return new EntityPhysicalCharacteristicsSectionDto(
                 pate != null ? pate.getDescription() : null,
                 physique != null ? toRef(physique.getMetrologie()) : null,
@@ -107,10 +164,12 @@ public class EntityApiDetailMapper {
                 monnaie != null ? toRef(monnaie.getValeur()) : null);
     }
 
-    private Map<String, List<ReferenceOpentheso>> groupReferencesByCode(Long entityId) {
-        return referenceOpenthesoRepository.findByEntityId(entityId).stream()
-                .filter(r -> r.getCode() != null)
-                .collect(Collectors.groupingBy(ReferenceOpentheso::getCode));
+    private static <T> Map<Long, T> indexByEntityId(List<T> rows, Function<T, Long> entityId) {
+        Map<Long, T> map = new HashMap<>(rows.size() * 2);
+        for (T row : rows) {
+            map.putIfAbsent(entityId.apply(row), row);
+        }
+        return map;
     }
 
     private static OpenThesoReferenceDto toRef(ReferenceOpentheso ref) {
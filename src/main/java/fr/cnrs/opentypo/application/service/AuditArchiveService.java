@@ -0,0 +1,266 @@
+package fr.cnrs.opentypo.application.service;
+
+import fr.cnrs.opentypo.application.dto.RevisionChangeSection;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Collectors;
+
+/**
+ * Archivage des révisions d'audit anciennes : les lignes des tables d'audit de l'historique
+ * ({@link RevisionChangeSection}) dont la révision est antérieure à l'horizon sont déplacées vers leur table
+ * d'archive, partitionnée par tranches de révisions (partitions créées à la demande). L'historique lit les deux
+ * tables ({@link AuditService}) ; {@code revinfo} et {@code revision_change} ne sont pas archivées.
+ * <p>
+ * Dans {@code entity_aud}, la dernière ligne de chaque entité reste en place quelle que soit sa date : elle donne
+ * le statut courant à {@code revision_change} et la dernière révision aux empreintes de l'import différentiel.
+ * <p>
+ * Les bornes des partitions existantes sont relues en base : un changement de {@code partition-size} ne s'applique
+ * qu'aux nouvelles partitions, ajustées pour ne jamais chevaucher les anciennes. Un verrou consultatif PostgreSQL
+ * réserve l'archivage à une seule instance à la fois.
+ */
+@Slf4j
+@Service
+public class AuditArchiveService {
+
+    /** Colonnes d'une table d'audit et leur type dans la table d'archive ({@code NULL} : colonne absente). */
+    private static final String COLUMNS_SQL = """
+            SELECT a.attname, format_type(a.atttypid, a.atttypmod),
+                   (SELECT format_type(b.atttypid, b.atttypmod) FROM pg_attribute b
+                    WHERE b.attrelid = to_regclass(:archiveTable) AND b.attname = a.attname
+                      AND b.attnum > 0 AND NOT b.attisdropped)
+            FROM pg_attribute a
+            WHERE a.attrelid = to_regclass(:auditTable) AND a.attnum > 0 AND NOT a.attisdropped
+            ORDER BY a.attnum
+            """;
+
+    /** Bornes des partitions de la table d'archive ({@code FOR VALUES FROM (0) TO (100000)}). */
+    private static final String PARTITION_BOUNDS_SQL = """
+            SELECT pg_get_expr(c.relpartbound, c.oid)
+            FROM pg_partition_tree(to_regclass(:archiveTable)) t
+            JOIN pg_class c ON c.oid = t.relid
+            WHERE t.level = 1
+            """;
+
+    private static final Pattern RANGE_BOUND = Pattern.compile("FROM \\('?(-?\\d+)'?\\) TO \\('?(-?\\d+)'?\\)");
+
+    /** Verrou consultatif de l'archivage, libéré avec la transaction qui le prend (fin du job ou perte de connexion). */
+    private static final String TRY_LOCK_SQL = "SELECT pg_try_advisory_xact_lock(hashtext('opentypo.audit-archive'))";
+
+    private final TransactionTemplate transactionTemplate;
+    private final TransactionTemplate lockTransactionTemplate;
+    private final boolean enabled;
+    private final Duration horizon;
+    private final long partitionSize;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    public AuditArchiveService(PlatformTransactionManager platformTransactionManager,
+                               @Value("${opentypo.audit.archive.enabled:false}") boolean enabled,
+                               @Value("${opentypo.audit.archive.horizon-days:365}") long horizonDays,
+                               @Value("${opentypo.audit.archive.partition-size:100000}") long partitionSize) {
+        // Une transaction par table et par tranche : verrous courts sur les tables d'audit
+        this.transactionTemplate = new TransactionTemplate(platformTransactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        // Transaction ouverte pendant tout l'archivage : elle porte le verrou consultatif
+        this.lockTransactionTemplate = new TransactionTemplate(platformTransactionManager);
+        this.lockTransactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.enabled = enabled;
+        this.horizon = Duration.ofDays(Math.max(1, horizonDays));
+        this.partitionSize = Math.max(1, partitionSize);
+    }
+
+    @Scheduled(cron = "${opentypo.audit.archive.cron:0 30 3 * * *}")
+    public void archiveScheduled() {
+        if (enabled) {
+            archiveRevisionsBefore(Instant.now().minus(horizon));
+        }
+    }
+
+    /**
+     * Archive les révisions enregistrées avant {@code cutoff}.
+     *
+     * @return nombre de lignes d'audit déplacées (0 si un archivage est déjà en cours, ici ou sur une autre instance)
+     */
+    public long archiveRevisionsBefore(Instant cutoff) {
+        Long moved = lockTransactionTemplate.execute(status -> {
+            Object locked = entityManager.createNativeQuery(TRY_LOCK_SQL).getSingleResult();
+            if (!Boolean.TRUE.equals(locked)) {
+                log.info("Archivage des révisions d'audit déjà en cours");
+                return 0L;
+            }
+            return archiveUpTo(cutoff);
+        });
+        return moved != null ? moved : 0;
+    }
+
+    private long archiveUpTo(Instant cutoff) {
+        Number horizonRev = transactionTemplate.execute(status -> (Number) entityManager
+                .createNativeQuery("SELECT MAX(rev) FROM revinfo WHERE revtstmp < :cutoff")
+                .setParameter("cutoff", cutoff.toEpochMilli())
+                .getSingleResult());
+        if (horizonRev == null) {
+            return 0;
+        }
+        long moved = 0;
+        for (RevisionChangeSection section : RevisionChangeSection.values()) {
+            moved += archiveTable(section, horizonRev.longValue());
+        }
+        log.info("Archivage des révisions d'audit jusqu'à la révision {} : {} lignes déplacées", horizonRev, moved);
+        return moved;
+    }
+
+    private long archiveTable(RevisionChangeSection section, long horizonRev) {
+        Number minRev = transactionTemplate.execute(status -> (Number) entityManager
+                .createNativeQuery("SELECT MIN(rev) FROM " + section.getAuditTable())
+                .getSingleResult());
+        if (minRev == null || minRev.longValue() > horizonRev) {
+            return 0;
+        }
+        List<String> columns = transactionTemplate.execute(status -> synchronizeColumns(section));
+        List<RevisionRange> existing = transactionTemplate.execute(status -> partitionBounds(section));
+        String moveSql = moveSql(section, columns);
+        long moved = 0;
+        for (PartitionSlice slice : slices(existing, minRev.longValue(), horizonRev, partitionSize)) {
+            RevisionRange partition = slice.partition();
+            moved += transactionTemplate.execute(status -> {
+                if (slice.create()) {
+                    entityManager.createNativeQuery("CREATE TABLE " + quote(partitionName(section, partition.from()))
+                                    + " PARTITION OF " + section.getArchiveTable()
+                                    + " FOR VALUES FROM (" + partition.from() + ") TO (" + partition.to() + ")")
+                            .executeUpdate();
+                }
+                return entityManager.createNativeQuery(moveSql)
+                        .setParameter("fromRev", partition.from())
+                        .setParameter("toRev", Math.min(partition.to() - 1, horizonRev))
+                        .executeUpdate();
+            });
+        }
+        log.debug("Archivage de {} : {} lignes", section.getAuditTable(), moved);
+        return moved;
+    }
+
+    /** Plages de révisions des partitions existantes de l'archive, lues dans le catalogue. */
+    private List<RevisionRange> partitionBounds(RevisionChangeSection section) {
+        @SuppressWarnings("unchecked")
+        List<Object> bounds = entityManager.createNativeQuery(PARTITION_BOUNDS_SQL)
+                .setParameter("archiveTable", section.getArchiveTable())
+                .getResultList();
+        List<RevisionRange> ranges = new ArrayList<>();
+        for (Object bound : bounds) {
+            Matcher matcher = RANGE_BOUND.matcher(String.valueOf(bound));
+            if (matcher.find()) {
+                ranges.add(new RevisionRange(Long.parseLong(matcher.group(1)), Long.parseLong(matcher.group(2))));
+            }
+        }
+        return ranges;
+    }
+
+    /**
+     * Découpe les révisions {@code minRev} à {@code horizonRev} en partitions : celles qui existent déjà, quelle que
+     * soit leur taille, puis des tranches de {@code partitionSize} révisions raccourcies au contact des partitions
+     * existantes. Les partitions renvoyées ne se chevauchent jamais.
+     */
+    static List<PartitionSlice> slices(List<RevisionRange> existing, long minRev, long horizonRev, long partitionSize) {
+        List<PartitionSlice> slices = new ArrayList<>();
+        long cursor = minRev;
+        while (cursor <= horizonRev) {
+            long rev = cursor;
+            RevisionRange containing = existing.stream().filter(range -> range.contains(rev)).findFirst().orElse(null);
+            if (containing != null) {
+                slices.add(new PartitionSlice(containing, false));
+                cursor = containing.to();
+                continue;
+            }
+            long from = Math.floorDiv(cursor, partitionSize) * partitionSize;
+            long to = from + partitionSize;
+            for (RevisionRange range : existing) {
+                if (range.to() <= cursor && range.to() > from) {
+                    from = range.to();
+                }
+                if (range.from() > cursor && range.from() < to) {
+                    to = range.from();
+                }
+            }
+            slices.add(new PartitionSlice(new RevisionRange(from, to), true));
+            cursor = to;
+        }
+        return slices;
+    }
+
+    /**
+     * Aligne les colonnes de la table d'archive sur celles de la table d'audit (colonnes ajoutées ou élargies
+     * depuis par Hibernate ou Flyway) et renvoie ces colonnes.
+     */
+    private List<String> synchronizeColumns(RevisionChangeSection section) {
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = entityManager.createNativeQuery(COLUMNS_SQL)
+                .setParameter("auditTable", section.getAuditTable())
+                .setParameter("archiveTable", section.getArchiveTable())
+                .getResultList();
+        List<String> columns = new ArrayList<>();
+        for (Object[] row : rows) {
+            String column = quote(row[0].toString());
+            String type = row[1].toString();
+            if (row[2] == null) {
+                entityManager.createNativeQuery("ALTER TABLE " + section.getArchiveTable()
+                        + " ADD COLUMN " + column + " " + type).executeUpdate();
+            } else if (!type.equals(row[2].toString())) {
+                entityManager.createNativeQuery("ALTER TABLE " + section.getArchiveTable()
+                        + " ALTER COLUMN " + column + " TYPE " + type).executeUpdate();
+            }
+            columns.add(column);
+        }
+        return columns;
+    }
+
+    /**
+     * Déplacement des lignes d'une tranche de révisions ({@code :fromRev} à {@code :toRev}) vers l'archive ;
+     * pour {@code entity_aud}, hors dernière ligne de chaque entité.
+     */
+    static String moveSql(RevisionChangeSection section, List<String> columns) {
+        String columnList = String.join(", ", columns);
+        String lastRowKept = section == RevisionChangeSection.ENTITY
+                ? " AND EXISTS (SELECT 1 FROM " + section.getAuditTable() + " n WHERE n.id = a.id AND n.rev > a.rev)"
+                : "";
+        return "WITH moved AS (DELETE FROM " + section.getAuditTable() + " a"
+                + " WHERE a.rev BETWEEN :fromRev AND :toRev" + lastRowKept
+                + " RETURNING " + columns.stream().map(column -> "a." + column).collect(Collectors.joining(", "))
+                + ") INSERT INTO " + section.getArchiveTable() + " (" + columnList + ") SELECT " + columnList + " FROM moved";
+    }
+
+    /** Partition de l'archive commençant à la révision {@code fromRev} ({@code label_aud_archive_r300000}), sans guillemets. */
+    static String partitionName(RevisionChangeSection section, long fromRev) {
+        return section.getArchiveTable().replace("\"", "") + "_r" + fromRev;
+    }
+
+    private static String quote(String identifier) {
+        return "\"" + identifier.replace("\"", "\"\"") + "\"";
+    }
+
+    /** Plage de révisions d'une partition : {@code from} inclus, {@code to} exclu. */
+    record RevisionRange(long from, long to) {
+
+        boolean contains(long rev) {
+            return rev >= from && rev < to;
+        }
+    }
+
+    /** Partition à remplir, à créer au préalable si {@code create}. */
+    record PartitionSlice(RevisionRange partition, boolean create) {
+    }
+}
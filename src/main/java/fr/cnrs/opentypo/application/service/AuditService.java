@@ -1,17 +1,16 @@
 package fr.cnrs.opentypo.application.service;
 
 import fr.cnrs.opentypo.application.dto.EntityRevisionDTO;
+import fr.cnrs.opentypo.application.dto.EntityRevisionStamp;
+import fr.cnrs.opentypo.application.dto.RevisionChangeSection;
 import fr.cnrs.opentypo.domain.entity.*;
 import fr.cnrs.opentypo.infrastructure.persistence.EntityTypeRepository;
 import fr.cnrs.opentypo.infrastructure.persistence.LangueRepository;
 import fr.cnrs.opentypo.infrastructure.persistence.ReferenceOpenthesoRepository;
-import fr.cnrs.opentypo.infrastructure.persistence.RevisionInfoRepository;
 import jakarta.inject.Inject;
 import jakarta.persistence.EntityManager;
 import jakarta.persistence.PersistenceContext;
 import lombok.extern.slf4j.Slf4j;
-import org.hibernate.envers.AuditReader;
-import org.hibernate.envers.AuditReaderFactory;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
@@ -20,6 +19,7 @@ import java.time.Instant;
 import java.time.LocalDateTime;
 import java.time.ZoneId;
 import java.util.*;
+import java.util.function.IntPredicate;
 
 /**
  * Service pour accéder aux données d'audit Hibernate Envers
@@ -29,18 +29,57 @@ import java.util.*;
 @Transactional(readOnly = true)
 public class AuditService {
 
+    /** Identifiants par requête de {@link #findLastRevisions(Collection)} (taille de la liste {@code IN}). */
+    private static final int LAST_REVISION_BATCH_SIZE = 500;
+
+    /**
+     * Dernière révision par entité dans {@code revision_change} (révisions de l'entité et des tables liées :
+     * libellés, descriptions, caractéristiques, références, images, relations parent/enfant), puis horodatage
+     * dans {@code revinfo}.
+     */
+    private static final String LAST_REVISIONS_SQL = """
+            SELECT t.entity_id, t.rev, r.revtstmp
+            FROM (
+              SELECT entity_id, MAX(rev) AS rev FROM revision_change
+              WHERE entity_id IN (:entityIds)
+              GROUP BY entity_id
+            ) t
+            JOIN revinfo r ON r.rev = t.rev
+            """;
+
+    /**
+     * Résumés des révisions de l'entité depuis {@code revision_change} : statut précédent et rang chronologique
+     * calculés sur toutes les révisions de l'entité avant la pagination.
+     */
+    private static final String REVISION_SUMMARIES_SQL = """
+            SELECT c.rev, r.revtstmp, r.modified_by, c.revtype, c.statut, c.previous_statut, c.position, c.changed_fields
+            FROM (
+              SELECT rev, revtype, statut, changed_fields,
+                     LAG(statut) OVER (ORDER BY rev) AS previous_statut,
+                     ROW_NUMBER() OVER (ORDER BY rev) AS position
+              FROM revision_change
+              WHERE entity_id = :entityId
+            ) c
+            LEFT JOIN revinfo r ON r.rev = c.rev
+            ORDER BY c.rev\s""";
+
+    private static final String COUNT_REVISION_CHANGES_SQL = "SELECT COUNT(*) FROM revision_change WHERE entity_id = :entityId";
+
     /**
-     * Table Envers pour {@code reference-opentheso} : le tiret impose des guillemets en SQL PostgreSQL
-     * ({@code reference_opentheso_aud} n'existe pas).
+     * Numéros des révisions touchant l'entité dans les tables d'audit (sections de {@link RevisionChangeSection})
+     * et dans leurs tables d'archive.
      */
-    private static final String REFERENCE_OPENTHESO_AUD_TABLE = "\"reference-opentheso_aud\"";
+    private static final String ENTITY_REVISION_NUMBERS_SQL = entityRevisionNumbersSql();
+
+    /** Révisions de l'entité par ordre croissant, avec horodatage et auteur depuis {@code revinfo}. */
+    private static final String ENTITY_REVISIONS_SQL = "SELECT x.rev, r.revtstmp, r.modified_by FROM ("
+            + ENTITY_REVISION_NUMBERS_SQL + ") x LEFT JOIN revinfo r ON r.rev = x.rev ORDER BY x.rev";
+
+    private static final String COUNT_AUDIT_REVISIONS_SQL = "SELECT COUNT(*) FROM (" + ENTITY_REVISION_NUMBERS_SQL + ") x";
 
     @PersistenceContext
     private EntityManager entityManager;
 
-    @Inject
-    private RevisionInfoRepository revisionInfoRepository;
-
     @Inject
     private EntityTypeRepository entityTypeRepository;
 
@@ -53,772 +92,285 @@ public class AuditService {
     /**
      * Récupère toutes les révisions d'une entité depuis les tables d'audit (entity_aud et tables en relation)
      * Inclut les modifications dans toutes les tables liées (description_aud, label_aud, etc.)
+     * Plus récentes en premier, chacune avec l'état complet de l'entité et celui de la révision précédente.
      * Utilise NOT_SUPPORTED pour suspendre la transaction existante et éviter les rollbacks
      */
     @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public List<EntityRevisionDTO> getEntityRevisions(Long entityId) {
-        List<EntityRevisionDTO> revisions = new ArrayList<>();
-        AuditReader auditReader = null;
-        try {
-            log.debug("Début de la récupération des révisions pour l'entité {}", entityId);
-            // Créer une transaction manuelle pour les opérations de lecture
-            try {
-                auditReader = AuditReaderFactory.get(entityManager);
-            } catch (Exception e) {
-                log.warn("Erreur lors de la création de l'AuditReader: {}", e.getMessage());
-                // Continuer sans AuditReader, utiliser uniquement les requêtes natives
-            }
-            
-            // Récupérer toutes les révisions depuis toutes les tables d'audit liées
-            // Ordre ASCENDANT (plus ancienne d'abord) pour que previousEntityData = révision chronologiquement avant
-            Set<Long> allRevisionNumbers = new TreeSet<>();
-            
-            // 1. Révisions depuis entity_aud
-            collectRevisionsFromTable("entity_aud", "id", entityId, allRevisionNumbers);
-            
-            // 2. Révisions depuis description_aud
-            collectRevisionsFromTable("description_aud", "entity_id", entityId, allRevisionNumbers);
-            
-            // 3. Révisions depuis label_aud
-            collectRevisionsFromTable("label_aud", "entity_id", entityId, allRevisionNumbers);
-            
-            // 4. Révisions depuis description_detail_aud
-            collectRevisionsFromTable("description_detail_aud", "entity_id", entityId, allRevisionNumbers);
-            
-            // 5. Révisions depuis caracteristique_physique_aud
-            collectRevisionsFromTable("caracteristique_physique_aud", "entity_id", entityId, allRevisionNumbers);
-            
-            // 6. Révisions depuis description_pate_aud
-            collectRevisionsFromTable("description_pate_aud", "entity_id", entityId, allRevisionNumbers);
-            
-            // 7. Révisions depuis reference-opentheso_aud (nom avec tiret)
-            collectRevisionsFromTable(REFERENCE_OPENTHESO_AUD_TABLE, "entity_id", entityId, allRevisionNumbers);
-            
-            // 8. Révisions depuis entity_metadata_aud
-            collectRevisionsFromTable("entity_metadata_aud", "entity_id", entityId, allRevisionNumbers);
-            
-            // 9. Révisions depuis image_aud
-            collectRevisionsFromTable("image_aud", "entity_id", entityId, allRevisionNumbers);
-            
-            // 10. Révisions depuis entity_relation_aud (parent OU child)
-            collectRevisionsFromEntityRelation(entityId, allRevisionNumbers);
-            
-            // 11. Révisions depuis description_monnaie_aud
-            collectRevisionsFromTable("description_monnaie_aud", "entity_id", entityId, allRevisionNumbers);
-            
-            // 12. Révisions depuis caracteristique_physique_monnaie_aud
-            collectRevisionsFromTable("caracteristique_physique_monnaie_aud", "entity_id", entityId, allRevisionNumbers);
-            
-            log.info("Total de révisions uniques trouvées pour l'entité {}: {}", entityId, allRevisionNumbers.size());
-            
-            // Si aucune révision trouvée, retourner une liste vide
-            if (allRevisionNumbers.isEmpty()) {
-                log.warn("Aucune révision trouvée pour l'entité {} dans aucune table d'audit", entityId);
-                return new ArrayList<>();
-            }
-            
-            EntityRevisionDTO previousRevision = null;
-            
-            // Pour chaque révision unique, récupérer l'entité complète
-            for (Long revisionNumber : allRevisionNumbers) {
-                try {
-                    // Récupérer l'entité à cette révision (peut être null si la révision vient d'une table liée)
-                    Entity entity = null;
-                    if (auditReader != null) {
-                        try {
-                            entity = auditReader.find(Entity.class, entityId, revisionNumber);
-                        } catch (org.hibernate.envers.exception.RevisionDoesNotExistException e) {
-                            // C'est normal si l'entité n'existe pas à cette révision (modification dans une table liée)
-                            log.debug("Entité {} non trouvée à la révision {} (probablement une modification dans une table liée)", 
-                                     entityId, revisionNumber);
-                        } catch (Exception e) {
-                            // Autre exception - logger mais continuer
-                            log.debug("Exception lors de la recherche de l'entité {} à la révision {}: {}", 
-                                     entityId, revisionNumber, e.getMessage());
-                        }
-                    }
-                    
-                    // Récupérer la date et l'utilisateur depuis la table REVINFO via le repository
-                    LocalDateTime revDate = null;
-                    String modifiedBy = null;
-                    Optional<RevisionInfo> revisionInfo = revisionInfoRepository.findById(revisionNumber);
-                    if (revisionInfo.isPresent()) {
-                        revDate = revisionInfo.get().getRevisionDate();
-                        modifiedBy = revisionInfo.get().getModifiedBy();
-                    }
-                    
-                    // Déterminer le type de révision : ADD(0)=Création, MOD(1)=Modification, DEL(2)=Suppression
-                    String revisionType = "1"; // MOD par défaut
-                    try {
-                        @SuppressWarnings("unchecked")
-                        List<Object[]> revTypeData = entityManager.createNativeQuery(
-                            "SELECT revtype FROM entity_aud WHERE id = :entityId AND rev = :revisionNumber LIMIT 1"
-                        )
-                        .setParameter("entityId", entityId)
-                        .setParameter("revisionNumber", revisionNumber)
-                        .getResultList();
-                        
-                        if (!revTypeData.isEmpty() && revTypeData.get(0)[0] != null) {
-                            revisionType = normalizeRevisionType(revTypeData.get(0)[0]);
-                        } else {
-                            // Pas de ligne dans entity_aud : la révision vient d'une table liée uniquement
-                            // Si c'est la révision la plus ancienne (min) et que l'entité existe, c'était la création
-                            Long minRevision = allRevisionNumbers.stream().min(Long::compareTo).orElse(null);
-                            if (entity != null && minRevision != null && revisionNumber.equals(minRevision)) {
-                                revisionType = "0"; // ADD - première apparition de l'entité
-                            } else {
-                                revisionType = "1"; // MOD - modification dans une table liée
-                            }
-                        }
-                    } catch (Exception e) {
-                        log.debug("Erreur lors de la récupération du type de révision: {}", e.getMessage());
-                    }
-                    
-                    // Extraire les données de l'entité ET de ses relations auditées à cette révision
-                    Map<String, Object> entityData = new HashMap<>();
-                    try {
-                        if (auditReader != null) {
-                            entityData = extractEntityData(auditReader, entity, entityId, revisionNumber);
-                        } else {
-                            // Si pas d'AuditReader, utiliser uniquement les requêtes natives
-                            entityData = extractEntityDataNative(entity, entityId, revisionNumber);
-                        }
-                    } catch (Exception e) {
-                        log.warn("Erreur lors de l'extraction des données pour l'entité {} à la révision {}: {}", 
-                                entityId, revisionNumber, e.getMessage(), e);
-                        // Garder la map vide
-                    }
-                    
-                    Map<String, Object> currentData = entityData != null ? entityData : new HashMap<>();
-                    Map<String, Object> prevData = previousRevision != null ? previousRevision.getEntityData() : null;
-                    Object currentStatut = currentData.get("statut");
-                    Object prevStatut = prevData != null ? prevData.get("statut") : null;
-                    boolean statutChanged = prevData != null && !java.util.Objects.equals(currentStatut, prevStatut);
-
-                    EntityRevisionDTO revisionDTO = EntityRevisionDTO.builder()
-                        .entityId(entityId)
-                        .revisionNumber(revisionNumber)
-                        .revisionType(revisionType)
-                        .revisionDate(revDate)
-                        .modifiedBy(modifiedBy)
-                        .statutChanged(statutChanged)
-                        .statutValue(currentStatut != null ? currentStatut.toString() : null)
-                        .entityData(currentData)
-                        .previousEntityData(prevData)
-                        .build();
-                    
-                    revisions.add(revisionDTO);
-                    previousRevision = revisionDTO;
-                } catch (Throwable t) {
-                    // Catch toutes les exceptions y compris les Error
-                    log.warn("Erreur lors de la récupération de l'entité {} à la révision {}: {}", 
-                             entityId, revisionNumber, t.getMessage(), t);
-                    // Continuer avec la révision suivante
-                }
-            }
-            
-            log.info("Fin de la récupération des révisions pour l'entité {}: {} révisions retournées", entityId, revisions.size());
-            // Inverser pour afficher les plus récentes en premier (previousEntityData est maintenant correct)
-            Collections.reverse(revisions);
-            return revisions;
-        } catch (org.hibernate.envers.exception.AuditException e) {
-            log.warn("Erreur AuditException lors de la récupération des révisions pour l'entité {}: {}", entityId, e.getMessage());
-            // Retourner les révisions déjà collectées ou une liste vide
-            return revisions;
-        } catch (RuntimeException e) {
-            log.error("Erreur RuntimeException lors de la récupération des révisions pour l'entité {}: {}", entityId, e.getMessage(), e);
-            // Log la cause racine si elle existe
-            if (e.getCause() != null) {
-                log.error("Cause racine: {}", e.getCause().getMessage(), e.getCause());
-            }
-            return revisions;
-        } catch (Exception e) {
-            log.error("Erreur Exception lors de la récupération des révisions pour l'entité {}: {}", entityId, e.getMessage(), e);
-            // Log la cause racine si elle existe
-            if (e.getCause() != null) {
-                log.error("Cause racine: {}", e.getCause().getMessage(), e.getCause());
-            }
-            return revisions;
-        } catch (Throwable t) {
-            log.error("Erreur Throwable lors de la récupération des révisions pour l'entité {}: {}", entityId, t.getMessage(), t);
-            return revisions;
-        }
+        List<EntityRevisionDTO> revisions = replayRevisions(entityId, null, false);
+        // Inverser pour afficher les plus récentes en premier (previousEntityData est maintenant correct)
+        Collections.reverse(revisions);
+        return revisions;
     }
 
     /**
-     * Normalise la valeur revtype (ADD=0, MOD=1, DEL=2) depuis un résultat SQL.
-     * Gère Short, Integer, Long, BigDecimal, etc.
+     * Nombre de révisions de l'entité (toutes tables d'audit liées, d'après {@code revision_change}),
+     * pour la pagination de l'historique.
      */
-    private String normalizeRevisionType(Object value) {
-        if (value == null) {
-            return "1";
-        }
-        if (value instanceof Number) {
-            int n = ((Number) value).intValue();
-            return n == 0 ? "0" : (n == 2 ? "2" : "1");
-        }
-        String s = value.toString().trim();
-        if ("0".equals(s) || "ADD".equalsIgnoreCase(s)) return "0";
-        if ("2".equals(s) || "DEL".equalsIgnoreCase(s)) return "2";
-        return "1";
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int countEntityRevisions(Long entityId) {
+        return count(COUNT_REVISION_CHANGES_SQL, entityId);
     }
 
     /**
-     * Collecte les numéros de révision depuis entity_relation_aud (parent_id ou child_id = entityId)
+     * Page de l'historique sous forme de résumés : numéro, date, auteur, statut et champs modifiés
+     * ({@link EntityRevisionDTO#getChangedFields()}), sans état complet de l'entité, lus dans {@code revision_change}.
+     * Une page comprenant des révisions antérieures à cette table (champs modifiés non enregistrés) est
+     * reconstituée depuis les tables d'audit : seuls les états des révisions de la page et de leurs précédentes.
      */
-    private void collectRevisionsFromEntityRelation(Long entityId, Set<Long> allRevisionNumbers) {
-        try {
-            @SuppressWarnings("unchecked")
-            List<Object> results = entityManager.createNativeQuery(
-                "SELECT DISTINCT rev FROM entity_relation_aud WHERE parent_id = :entityId OR child_id = :entityId"
-            )
-            .setParameter("entityId", entityId)
-            .getResultList();
-            
-            int addedCount = 0;
-            for (Object result : results) {
-                try {
-                    if (result instanceof Number) {
-                        allRevisionNumbers.add(((Number) result).longValue());
-                        addedCount++;
-                    } else if (result instanceof Object[]) {
-                        Object[] row = (Object[]) result;
-                        if (row.length > 0 && row[0] instanceof Number) {
-                            allRevisionNumbers.add(((Number) row[0]).longValue());
-                            addedCount++;
-                        }
-                    }
-                } catch (Exception e) {
-                    log.debug("Erreur lors du traitement d'un résultat de entity_relation_aud: {}", e.getMessage());
-                }
-            }
-            if (addedCount > 0) {
-                log.debug("Révisions trouvées dans entity_relation_aud pour l'entité {}: {} ({} ajoutées)", entityId, results.size(), addedCount);
-            }
-        } catch (Exception e) {
-            log.debug("Aucune révision ou erreur dans entity_relation_aud pour l'entité {}: {}", entityId, e.getMessage());
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public List<EntityRevisionDTO> getEntityRevisionSummaries(Long entityId, int first, int pageSize, boolean newestFirst) {
+        if (entityId == null || pageSize <= 0) {
+            return new ArrayList<>();
         }
-    }
-
-    /**
-     * Collecte les numéros de révision depuis une table d'audit spécifique
-     */
-    private void collectRevisionsFromTable(String tableName, String idColumn, Long entityId, Set<Long> allRevisionNumbers) {
+        List<Object[]> rows;
         try {
-            // Vérifier d'abord si la table existe
             @SuppressWarnings("unchecked")
-            List<Object> results = entityManager.createNativeQuery(
-                String.format("SELECT DISTINCT rev FROM %s WHERE %s = :entityId", tableName, idColumn)
-            )
-            .setParameter("entityId", entityId)
-            .getResultList();
-            
-            int addedCount = 0;
-            for (Object result : results) {
-                try {
-                    if (result instanceof Number) {
-                        allRevisionNumbers.add(((Number) result).longValue());
-                        addedCount++;
-                    } else if (result instanceof Object[]) {
-                        Object[] row = (Object[]) result;
-                        if (row.length > 0 && row[0] instanceof Number) {
-                            allRevisionNumbers.add(((Number) row[0]).longValue());
-                            addedCount++;
-                        }
-                    }
-                } catch (Exception e) {
-                    log.debug("Erreur lors du traitement d'un résultat de {}: {}", tableName, e.getMessage());
-                }
-            }
-            if (addedCount > 0) {
-                log.debug("Révisions trouvées dans {} pour l'entité {}: {} ({} ajoutées)", tableName, entityId, results.size(), addedCount);
-            }
-        } catch (Exception e) {
-            // Ne pas logger comme erreur car certaines tables peuvent ne pas exister ou être vides
-            log.debug("Aucune révision ou erreur dans {} pour l'entité {}: {}", tableName, entityId, e.getMessage());
+            List<Object[]> result = entityManager.createNativeQuery(REVISION_SUMMARIES_SQL + (newestFirst ? "DESC" : "ASC"))
+                    .setParameter("entityId", entityId)
+                    .setFirstResult(Math.max(0, first))
+                    .setMaxResults(pageSize)
+                    .getResultList();
+            rows = result;
+        } catch (RuntimeException e) {
+            log.error("Erreur lors de la lecture des résumés de révisions pour l'entité {}: {}", entityId, e.getMessage(), e);
+            return new ArrayList<>();
         }
+        if (rows.isEmpty() || rows.stream().anyMatch(row -> row[7] == null)) {
+            return replayRevisionSummaries(entityId, first, pageSize, newestFirst);
+        }
+        List<EntityRevisionDTO> page = new ArrayList<>(rows.size());
+        for (Object[] row : rows) {
+            long revisionNumber = ((Number) row[0]).longValue();
+            RevisionInfo revisionInfo = new RevisionInfo(revisionNumber,
+                    row[1] != null ? ((Number) row[1]).longValue() : null,
+                    row[2] != null ? row[2].toString() : null);
+            boolean firstRevision = ((Number) row[6]).longValue() == 1L;
+            String statut = row[4] != null ? row[4].toString() : null;
+            String previousStatut = row[5] != null ? row[5].toString() : null;
+            String changedFields = row[7].toString();
+            page.add(EntityRevisionDTO.builder()
+                    .entityId(entityId)
+                    .revisionNumber(revisionNumber)
+                    // MOD par défaut : révision venant d'une table liée (pas de ligne entity_aud)
+                    .revisionType(row[3] != null ? normalizeRevisionType(row[3]) : "1")
+                    .revisionDate(revisionInfo.getRevisionDate())
+                    .modifiedBy(revisionInfo.getModifiedBy())
+                    .statutChanged(!firstRevision && !Objects.equals(statut, previousStatut))
+                    .statutValue(statut)
+                    .firstRevision(firstRevision)
+                    .changedFields(changedFields.isEmpty() ? List.of() : List.of(changedFields.split(",")))
+                    .build());
+        }
+        return page;
     }
 
-    /**
-     * État cumulé des labels à la révision donnée (dernière version connue par langue, hors suppressions).
-     */
-    private Map<String, String> loadLabelsAtRevision(Long entityId, Long revisionNumber) {
-        return loadMultilingualFieldAtRevision(
-                "label_aud", "nom",
-                """
-                SELECT nom, code_langue FROM (
-                    SELECT DISTINCT ON (code_langue) nom, code_langue, revtype
-                    FROM label_aud
-                    WHERE entity_id = :entityId AND rev <= :revisionNumber
-                    ORDER BY code_langue, rev DESC
-                ) latest WHERE revtype <> 2
-                """,
-                entityId, revisionNumber);
-    }
-
-    /**
-     * État cumulé des descriptions à la révision donnée (dernière version connue par langue, hors suppressions).
-     */
-    private Map<String, String> loadDescriptionsAtRevision(Long entityId, Long revisionNumber) {
-        return loadMultilingualFieldAtRevision(
-                "description_aud", "valeur",
-                """
-                SELECT valeur, code_langue FROM (
-                    SELECT DISTINCT ON (code_langue) valeur, code_langue, revtype
-                    FROM description_aud
-                    WHERE entity_id = :entityId AND rev <= :revisionNumber
-                    ORDER BY code_langue, rev DESC
-                ) latest WHERE revtype <> 2
-                """,
-                entityId, revisionNumber);
-    }
-
-    private Map<String, String> loadMultilingualFieldAtRevision(String tableLabel, String valueColumn,
-                                                                 String sql, Long entityId, Long revisionNumber) {
-        Map<String, String> result = new HashMap<>();
-        if (entityId == null || revisionNumber == null) {
-            return result;
+    /** Résumés d'une page reconstitués depuis les tables d'audit (révisions sans champs modifiés enregistrés). */
+    private List<EntityRevisionDTO> replayRevisionSummaries(Long entityId, int first, int pageSize, boolean newestFirst) {
+        Set<Integer> wanted = new HashSet<>();
+        int total = count(COUNT_AUDIT_REVISIONS_SQL, entityId);
+        for (int k = Math.max(0, first); k < Math.min(total, first + pageSize); k++) {
+            wanted.add(newestFirst ? total - 1 - k : k);
         }
-        try {
-            @SuppressWarnings("unchecked")
-            List<Object[]> rows = entityManager.createNativeQuery(sql)
-                    .setParameter("entityId", entityId)
-                    .setParameter("revisionNumber", revisionNumber)
-                    .getResultList();
-            for (Object[] row : rows) {
-                if (row == null || row.length < 2) {
-                    continue;
-                }
-                String value = row[0] != null ? row[0].toString() : "";
-                String langueCode = row[1] != null ? row[1].toString() : "unknown";
-                result.put(langueCode, value);
-            }
-        } catch (Exception e) {
-            log.debug("Erreur lors de la récupération {} à la révision {}: {}", tableLabel, revisionNumber, e.getMessage());
+        if (wanted.isEmpty()) {
+            return new ArrayList<>();
         }
-        return result;
+        List<EntityRevisionDTO> page = replayRevisions(entityId, wanted::contains, true);
+        if (newestFirst) {
+            Collections.reverse(page);
+        }
+        return page;
     }
 
-    /**
-     * Dernière ligne d'audit d'une table liée à entity_id (état cumulé à la révision, hors suppressions).
-     */
-    @SuppressWarnings("unchecked")
-    private List<Object[]> queryLatestAuditRowByEntityId(String table, String selectClause,
-                                                         Long entityId, Long revisionNumber) {
-        if (entityId == null || revisionNumber == null) {
-            return List.of();
+    private int count(String sql, Long entityId) {
+        if (entityId == null) {
+            return 0;
         }
         try {
-            return entityManager.createNativeQuery(
-                            "SELECT " + selectClause + " FROM " + table
-                                    + " WHERE entity_id = :entityId AND rev <= :revisionNumber AND revtype <> 2"
-                                    + " ORDER BY rev DESC LIMIT 1")
+            Object count = entityManager.createNativeQuery(sql)
                     .setParameter("entityId", entityId)
-                    .setParameter("revisionNumber", revisionNumber)
-                    .getResultList();
-        } catch (Exception e) {
-            log.debug("Erreur requête cumulée {} à la révision {}: {}", table, revisionNumber, e.getMessage());
-            return List.of();
+                    .getSingleResult();
+            return ((Number) count).intValue();
+        } catch (RuntimeException e) {
+            log.error("Erreur lors du comptage des révisions pour l'entité {}: {}", entityId, e.getMessage(), e);
+            return 0;
         }
     }
 
     /**
-     * Extrait les données principales d'une entité ET de ses relations auditées depuis les tables d'audit
+     * Une révision avec l'état complet de l'entité et celui de la révision précédente (détail et différences).
      */
-    private Map<String, Object> extractEntityData(AuditReader auditReader, Entity entity, Long entityId, Long revisionNumber) {
-        Map<String, Object> data = new HashMap<>();
-        
-        try {
-            // Si entity est null, essayer de récupérer les données depuis les tables liées uniquement
-            if (entity == null) {
-                if (revisionNumber == null || auditReader == null || entityId == null) {
-                    return data;
-                }
-                extractRelatedDataOnly(auditReader, data, entityId, revisionNumber);
-                return data;
-            }
-            
-            Long actualEntityId = entity.getId() != null ? entity.getId() : entityId;
-            
-            // Données principales de l'entité
-            data.put("id", entity.getId());
-            if (entity.getMetadata() != null) {
-                try {
-                    data.put("code", entity.getMetadata().getCode());
-                } catch (Exception e) {
-                    log.debug("Erreur lors de la récupération du code: {}", e.getMessage());
-                }
-            }
-            
-            // Labels et descriptions : état cumulé à la révision (pas seulement le delta de cette révision)
-            Map<String, String> labelsMap = loadLabelsAtRevision(actualEntityId, revisionNumber);
-            if (!labelsMap.isEmpty()) {
-                data.put("labels", labelsMap);
-            }
-            Map<String, String> descriptionsMap = loadDescriptionsAtRevision(actualEntityId, revisionNumber);
-            if (!descriptionsMap.isEmpty()) {
-                data.put("descriptions", descriptionsMap);
-            }
-            
-            // Données complémentaires : entity_aud, entity_metadata_aud, entités liées, images
-            extractEnrichedData(data, actualEntityId, revisionNumber);
-            
-        } catch (Exception e) {
-            log.warn("Erreur générale lors de l'extraction des données pour l'entité {} à la révision {}: {}", 
-                    entityId, revisionNumber, e.getMessage(), e);
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public Optional<EntityRevisionDTO> getEntityRevision(Long entityId, Long revisionNumber) {
+        if (revisionNumber == null) {
+            return Optional.empty();
         }
-        
-        return data;
+        List<EntityRevisionDTO> found = replayRevisions(entityId, null, false, revisionNumber);
+        return found.stream().filter(r -> revisionNumber.equals(r.getRevisionNumber())).findFirst();
     }
 
-    /**
-     * Extrait uniquement les données des tables liées (sans les données de entity_aud)
-     */
-    private void extractRelatedDataOnly(AuditReader auditReader, Map<String, Object> data, Long entityId, Long revisionNumber) {
-        if (auditReader == null || entityId == null || revisionNumber == null) {
-            return;
-        }
-        
-        try {
-            Map<String, String> labelsMap = loadLabelsAtRevision(entityId, revisionNumber);
-            if (!labelsMap.isEmpty()) {
-                data.put("labels", labelsMap);
-            }
-            Map<String, String> descriptionsMap = loadDescriptionsAtRevision(entityId, revisionNumber);
-            if (!descriptionsMap.isEmpty()) {
-                data.put("descriptions", descriptionsMap);
-            }
-            
-            extractEnrichedData(data, entityId, revisionNumber);
-        } catch (Exception e) {
-            log.warn("Erreur lors de l'extraction des données liées: {}", e.getMessage());
-        }
+    private List<EntityRevisionDTO> replayRevisions(Long entityId, IntPredicate wantedIndex, boolean summaryOnly) {
+        return replayRevisions(entityId, wantedIndex, summaryOnly, null);
     }
 
     /**
-     * Extrait les données enrichies (entity_aud, entity_metadata_aud, entités liées, images)
+     * Rejoue l'historique de l'entité : une requête pour la liste des révisions (avec {@code revinfo}), puis une par
+     * table d'audit ; l'état à chaque révision est reconstitué en mémoire ({@link EntityRevisionTimeline}).
+     * Renvoie, par ordre croissant, les révisions retenues ({@code wantedIndex} sur leur rang, ou {@code revisionNumber},
+     * ou toutes) ; l'état n'est calculé que pour elles et leurs précédentes.
      */
-    private void extractEnrichedData(Map<String, Object> data, Long entityId, Long revisionNumber) {
-        if (entityId == null || revisionNumber == null) {
-            return;
+    private List<EntityRevisionDTO> replayRevisions(Long entityId, IntPredicate wantedIndex, boolean summaryOnly,
+                                                    Long revisionNumberWanted) {
+        List<EntityRevisionDTO> revisions = new ArrayList<>();
+        if (entityId == null) {
+            return revisions;
         }
         try {
-            // entity_aud : statut, id_ark, display_order, categorie_fonctionnelle (période et production = listes reference-opentheso)
-            try {
-                @SuppressWarnings("unchecked")
-                List<Object[]> entityRows = entityManager.createNativeQuery(
-                    "SELECT statut, id_ark, display_order, categorie_fonctionnelle FROM entity_aud "
-                    + "WHERE id = :entityId AND rev <= :revisionNumber AND revtype <> 2 "
-                    + "ORDER BY rev DESC LIMIT 1"
-                )
-                .setParameter("entityId", entityId)
-                .setParameter("revisionNumber", revisionNumber)
-                .getResultList();
-                if (!entityRows.isEmpty() && entityRows.get(0) != null) {
-                    Object[] row = entityRows.get(0);
-                    if (row.length > 0 && row[0] != null) data.put("statut", row[0].toString());
-                    if (row.length > 1 && row[1] != null) data.put("idArk", row[1].toString());
-                    if (row.length > 2 && row[2] != null) data.put("displayOrder", row[2]);
-                    if (row.length > 3 && row[3] != null) resolveAndPutRefValeur(data, "categorieFonctionnelle", (Number) row[3], revisionNumber);
-                }
-            } catch (Exception e) {
-                log.debug("Erreur entity_aud: {}", e.getMessage());
-            }
-            
-            // entity_metadata_aud : code, commentaire, bibliographie, tpq, taq, commentaire_datation, alignement_externe, etc.
-            try {
-                List<Object[]> metaRows = queryLatestAuditRowByEntityId(
-                        "entity_metadata_aud",
-                        "code, commentaire, bibliographie, typologie_scientifique, identifiant_perenne, "
-                                + "ancienne_version, tpq, taq, ateliers, attestations, sites_archeologiques, reference, interne, "
-                                + "commentaire_datation, alignement_externe, rereference_bibliographique, corpus_externe, "
-                                + "denomination_instrumentum, corpus_lies, zotero_item_keys",
-                        entityId, revisionNumber);
-                if (!metaRows.isEmpty() && metaRows.get(0) != null) {
-                    Object[] row = metaRows.get(0);
-                    if (row.length > 0 && row[0] != null) data.put("code", row[0].toString());
-                    if (row.length > 1 && row[1] != null) data.put("commentaireMetadata", row[1].toString());
-                    if (row.length > 2 && row[2] != null) data.put("bibliographie", row[2].toString());
-                    if (row.length > 3 && row[3] != null) data.put("typologieScientifique", row[3].toString());
-                    if (row.length > 4 && row[4] != null) data.put("identifiantPerenne", row[4].toString());
-                    if (row.length > 5 && row[5] != null) data.put("ancienneVersion", row[5].toString());
-                    if (row.length > 6 && row[6] != null) data.put("tpq", row[6]);
-                    if (row.length > 7 && row[7] != null) data.put("taq", row[7]);
-                    if (row.length > 8 && row[8] != null) data.put("ateliers", row[8].toString());
-                    if (row.length > 9 && row[9] != null) data.put("attestations", row[9].toString());
-                    if (row.length > 10 && row[10] != null) data.put("sitesArcheologiques", row[10].toString());
-                    if (row.length > 11 && row[11] != null) data.put("reference", row[11].toString());
-                    if (row.length > 12 && row[12] != null) data.put("interne", row[12].toString());
-                    if (row.length > 13 && row[13] != null) data.put("commentaireDatation", row[13].toString());
-                    if (row.length > 14 && row[14] != null) data.put("alignementExterne", row[14].toString());
-                    if (row.length > 15 && row[15] != null) data.put("rereferenceBibliographique", row[15].toString());
-                    if (row.length > 16 && row[16] != null) data.put("corpusExterne", row[16].toString());
-                    if (row.length > 17 && row[17] != null) data.put("denominationInstrumentum", row[17].toString());
-                    if (row.length > 18 && row[18] != null) data.put("corpusLies", row[18].toString());
-                    if (row.length > 19 && row[19] != null) data.put("zoteroItemKeys", row[19].toString());
-                }
-            } catch (Exception e) {
-                log.debug("Erreur entity_metadata_aud: {}", e.getMessage());
-            }
-            
-            // description_detail_aud : decors, marques, metrologie (fonction → liste sur entity / reference-opentheso)
-            try {
-                List<Object[]> ddRows = queryLatestAuditRowByEntityId(
-                        "description_detail_aud", "decors, marques, metrologie", entityId, revisionNumber);
-                if (!ddRows.isEmpty() && ddRows.get(0) != null) {
-                    Object[] row = ddRows.get(0);
-                    if (row.length > 0 && row[0] != null) data.put("decors", row[0].toString());
-                    if (row.length > 1 && row[1] != null) data.put("marques", row[1].toString());
-                    if (row.length > 2 && row[2] != null) data.put("metrologieDetail", row[2].toString());
-                }
-            } catch (Exception e) {
-                log.debug("Erreur description_detail_aud: {}", e.getMessage());
-            }
-            
-            // description_pate_aud : description (couleur/nature/inclusion/cuisson → listes sur entity)
-            try {
-                List<Object[]> dpRows = queryLatestAuditRowByEntityId(
-                        "description_pate_aud", "description", entityId, revisionNumber);
-                if (!dpRows.isEmpty() && dpRows.get(0) != null) {
-                    Object[] row = dpRows.get(0);
-                    if (row.length > 0 && row[0] != null) data.put("descriptionPate", row[0].toString());
-                }
-            } catch (Exception e) {
-                log.debug("Erreur description_pate_aud: {}", e.getMessage());
-            }
-            
-            // image_aud : url, legende (liste d'images, état cumulé par image)
-            try {
-                @SuppressWarnings("unchecked")
-                List<Object[]> imgRows = entityManager.createNativeQuery(
-                    """
-                    SELECT url, legende FROM (
-                        SELECT DISTINCT ON (id) url, legende, revtype
-                        FROM image_aud
-                        WHERE entity_id = :entityId AND rev <= :revisionNumber
-                        ORDER BY id, rev DESC
-                    ) latest WHERE revtype <> 2
-                    """
-                )
-                .setParameter("entityId", entityId)
-                .setParameter("revisionNumber", revisionNumber)
-                .getResultList();
-                if (!imgRows.isEmpty()) {
-                    List<Map<String, String>> imagesList = new ArrayList<>();
-                    for (Object[] row : imgRows) {
-                        Map<String, String> imgMap = new HashMap<>();
-                        if (row != null && row.length > 0 && row[0] != null) imgMap.put("url", row[0].toString());
-                        if (row != null && row.length > 1 && row[1] != null) imgMap.put("legende", row[1].toString());
-                        if (!imgMap.isEmpty()) imagesList.add(imgMap);
-                    }
-                    if (!imagesList.isEmpty()) data.put("images", imagesList);
-                }
-            } catch (Exception e) {
-                log.debug("Erreur image_aud: {}", e.getMessage());
-            }
-
-            // description_monnaie_aud : droit, legende_droit, revers, legende_revers
-            try {
-                List<Object[]> dmRows = queryLatestAuditRowByEntityId(
-                        "description_monnaie_aud",
-                        "droit, legende_droit, revers, legende_revers",
-                        entityId, revisionNumber);
-                if (!dmRows.isEmpty() && dmRows.get(0) != null) {
-                    Object[] row = dmRows.get(0);
-                    if (row.length > 0 && row[0] != null) data.put("droit", row[0].toString());
-                    if (row.length > 1 && row[1] != null) data.put("legendeDroit", row[1].toString());
-                    if (row.length > 2 && row[2] != null) data.put("revers", row[2].toString());
-                    if (row.length > 3 && row[3] != null) data.put("legendeRevers", row[3].toString());
-                }
-            } catch (Exception e) {
-                log.debug("Erreur description_monnaie_aud: {}", e.getMessage());
-            }
-
-            // caracteristique_physique_aud : metrologie_id, materiaux_id, forme_id, dimensions_id, technique_id (fabrication → liste entity)
-            try {
-                List<Object[]> cpRows = queryLatestAuditRowByEntityId(
-                        "caracteristique_physique_aud",
-                        "metrologie_id, materiaux_id, forme_id, dimensions_id, technique_id",
-                        entityId, revisionNumber);
-                if (!cpRows.isEmpty() && cpRows.get(0) != null) {
-                    Object[] row = cpRows.get(0);
-                    if (row.length > 0 && row[0] != null) resolveAndPutRefValeur(data, "metrologiePhysique", (Number) row[0], revisionNumber);
-                    if (row.length > 1 && row[1] != null) resolveAndPutRefValeur(data, "materiaux", (Number) row[1], revisionNumber);
-                    if (row.length > 2 && row[2] != null) resolveAndPutRefValeur(data, "forme", (Number) row[2], revisionNumber);
-                    if (row.length > 3 && row[3] != null) resolveAndPutRefValeur(data, "dimensions", (Number) row[3], revisionNumber);
-                    if (row.length > 4 && row[4] != null) resolveAndPutRefValeur(data, "technique", (Number) row[4], revisionNumber);
+            log.debug("Début de la récupération des révisions pour l'entité {}", entityId);
+            // Ordre ASCENDANT (plus ancienne d'abord) pour que previousEntityData = révision chronologiquement avant
+            @SuppressWarnings("unchecked")
+            List<Object[]> revisionRows = entityManager.createNativeQuery(ENTITY_REVISIONS_SQL)
+                    .setParameter("entityId", entityId)
+                    .getResultList();
+            if (revisionRows.isEmpty()) {
+                log.warn("Aucune révision trouvée pour l'entité {} dans aucune table d'audit", entityId);
+                return revisions;
+            }
+            IntPredicate wanted = wantedIndex;
+            long lastRevisionWanted = ((Number) revisionRows.get(revisionRows.size() - 1)[0]).longValue();
+            if (revisionNumberWanted != null) {
+                wanted = i -> revisionNumberWanted.equals(((Number) revisionRows.get(i)[0]).longValue());
+                lastRevisionWanted = revisionNumberWanted;
+            } else if (wanted == null) {
+                wanted = i -> true;
+            }
+
+            Map<EntityRevisionTimeline.AuditTable, List<Object[]>> rowsByTable =
+                    new EnumMap<>(EntityRevisionTimeline.AuditTable.class);
+            for (EntityRevisionTimeline.AuditTable table : EntityRevisionTimeline.AuditTable.values()) {
+                if (table != EntityRevisionTimeline.AuditTable.REFERENCE_OPENTHESO) {
+                    rowsByTable.put(table, loadAuditRows(table, entityId, List.of()));
                 }
-            } catch (Exception e) {
-                log.debug("Erreur caracteristique_physique_aud: {}", e.getMessage());
             }
-
-            // caracteristique_physique_monnaie_aud : materiau_id, denomination_id, metrologie, valeur_id, technique_id
-            try {
-                List<Object[]> cpmRows = queryLatestAuditRowByEntityId(
-                        "caracteristique_physique_monnaie_aud",
-                        "materiau_id, denomination_id, metrologie, valeur_id, technique_id",
-                        entityId, revisionNumber);
-                if (!cpmRows.isEmpty() && cpmRows.get(0) != null) {
-                    Object[] row = cpmRows.get(0);
-                    if (row.length > 0 && row[0] != null) resolveAndPutRefValeur(data, "materiauxMonnaie", (Number) row[0], revisionNumber);
-                    if (row.length > 1 && row[1] != null) resolveAndPutRefValeur(data, "denomination", (Number) row[1], revisionNumber);
-                    if (row.length > 2 && row[2] != null) data.put("metrologieMonnaie", row[2].toString());
-                    if (row.length > 3 && row[3] != null) resolveAndPutRefValeur(data, "valeurMonnaie", (Number) row[3], revisionNumber);
-                    if (row.length > 4 && row[4] != null) resolveAndPutRefValeur(data, "techniqueMonnaie", (Number) row[4], revisionNumber);
+            List<Long> referencedIds = EntityRevisionTimeline.referencedOpenthesoIds(
+                    rowsByTable.get(EntityRevisionTimeline.AuditTable.ENTITY),
+                    rowsByTable.get(EntityRevisionTimeline.AuditTable.CARACTERISTIQUE_PHYSIQUE),
+                    rowsByTable.get(EntityRevisionTimeline.AuditTable.CARACTERISTIQUE_PHYSIQUE_MONNAIE));
+            rowsByTable.put(EntityRevisionTimeline.AuditTable.REFERENCE_OPENTHESO,
+                    loadAuditRows(EntityRevisionTimeline.AuditTable.REFERENCE_OPENTHESO, entityId, referencedIds));
+
+            EntityRevisionTimeline timeline = new EntityRevisionTimeline(entityId, rowsByTable);
+            long minRevision = ((Number) revisionRows.get(0)[0]).longValue();
+            Map<String, Object> prevData = null;
+            for (int i = 0; i < revisionRows.size(); i++) {
+                Object[] revisionRow = revisionRows.get(i);
+                long revisionNumber = ((Number) revisionRow[0]).longValue();
+                if (revisionNumber > lastRevisionWanted) {
+                    break;
                 }
-            } catch (Exception e) {
-                log.debug("Erreur caracteristique_physique_monnaie_aud: {}", e.getMessage());
-            }
-
-            // reference-opentheso_aud : aires de circulation (entity_id + code = 'AIRE_CIRCULATION')
-            try {
-                List<Object[]> roRows = loadReferenceOpenthesoRowsAtRevision(entityId, revisionNumber, "AIRE_CIRCULATION");
-                if (!roRows.isEmpty()) {
-                    List<String> aires = new ArrayList<>();
-                    for (Object[] row : roRows) {
-                        if (row != null && row.length > 0 && row[0] != null && !row[0].toString().trim().isEmpty()) {
-                            aires.add(row[0].toString().trim());
-                        }
-                    }
-                    if (!aires.isEmpty()) data.put("airesCirculation", aires);
+                timeline.advanceTo(revisionNumber);
+                boolean isWanted = wanted.test(i);
+                boolean nextWanted = i + 1 < revisionRows.size() && wanted.test(i + 1);
+                if (!isWanted && !nextWanted) {
+                    prevData = null;
+                    continue;
                 }
-            } catch (Exception e) {
-                log.debug("Erreur reference_opentheso_aud airesCirculation: {}", e.getMessage());
-            }
-
-            try {
-                List<Object[]> appRows = loadReferenceOpenthesoRowsAtRevision(entityId, revisionNumber, "APPELLATION_USUELLE");
-                if (!appRows.isEmpty()) {
-                    List<String> apps = new ArrayList<>();
-                    for (Object[] row : appRows) {
-                        if (row != null && row.length > 0 && row[0] != null && !row[0].toString().trim().isEmpty()) {
-                            apps.add(row[0].toString().trim());
-                        }
-                    }
-                    if (!apps.isEmpty()) data.put("appellation", apps);
+                Map<String, Object> currentData = timeline.snapshot();
+                if (isWanted) {
+                    revisions.add(toRevisionDto(entityId, revisionRow, revisionNumber == minRevision, timeline,
+                            currentData, i > 0 ? prevData : null, summaryOnly));
                 }
-            } catch (Exception e) {
-                log.debug("Erreur reference_opentheso_aud appellations: {}", e.getMessage());
+                prevData = currentData;
             }
 
-            putReferenceOpenthesoAudList(data, entityId, revisionNumber, "FONCTION_USAGE", "fonctionUsage");
-            putReferenceOpenthesoAudList(data, entityId, revisionNumber, "FABRICATION_FACONNAGE", "fabricationPhysique");
-            putReferenceOpenthesoAudList(data, entityId, revisionNumber, "COULEUR_PATE", "couleurPate");
-            putReferenceOpenthesoAudList(data, entityId, revisionNumber, "NATURE_PATE", "naturePate");
-            putReferenceOpenthesoAudList(data, entityId, revisionNumber, "INCLUSIONS", "inclusionPate");
-            putReferenceOpenthesoAudList(data, entityId, revisionNumber, "CUISSON_POST_CUISSON", "cuissonPate");
-        } catch (Exception e) {
-            log.debug("Erreur extractEnrichedData: {}", e.getMessage());
+            log.info("Historique de l'entité {} : {} révisions, {} retournées", entityId, revisionRows.size(), revisions.size());
+            return revisions;
+        } catch (RuntimeException e) {
+            log.error("Erreur lors de la récupération des révisions pour l'entité {}: {}", entityId, e.getMessage(), e);
+            return new ArrayList<>();
         }
     }
 
-    /** Liste des valeurs {@code reference-opentheso_aud} pour un code (état cumulé à la révision). */
-    private void putReferenceOpenthesoAudList(Map<String, Object> data, Long entityId, Long revisionNumber,
-                                              String code, String mapKey) {
-        if (entityId == null || revisionNumber == null || code == null || mapKey == null) {
-            return;
-        }
-        try {
-            List<Object[]> roRows = loadReferenceOpenthesoRowsAtRevision(entityId, revisionNumber, code);
-            if (roRows.isEmpty()) {
-                return;
-            }
-            List<String> vals = new ArrayList<>();
-            for (Object[] row : roRows) {
-                if (row != null && row.length > 0 && row[0] != null && !row[0].toString().trim().isEmpty()) {
-                    vals.add(row[0].toString().trim());
-                }
-            }
-            if (!vals.isEmpty()) {
-                data.put(mapKey, vals);
-            }
-        } catch (Exception e) {
-            log.debug("Erreur reference_opentheso_aud {}: {}", mapKey, e.getMessage());
+    private EntityRevisionDTO toRevisionDto(Long entityId, Object[] revisionRow, boolean firstRevision,
+                                            EntityRevisionTimeline timeline, Map<String, Object> currentData,
+                                            Map<String, Object> prevData, boolean summaryOnly) {
+        long revisionNumber = ((Number) revisionRow[0]).longValue();
+        RevisionInfo revisionInfo = new RevisionInfo(revisionNumber,
+                revisionRow[1] != null ? ((Number) revisionRow[1]).longValue() : null,
+                revisionRow[2] != null ? revisionRow[2].toString() : null);
+
+        // Déterminer le type de révision : ADD(0)=Création, MOD(1)=Modification, DEL(2)=Suppression
+        String revisionType;
+        Integer entityRevisionType = timeline.entityRevisionType();
+        if (entityRevisionType != null) {
+            revisionType = normalizeRevisionType(entityRevisionType);
+        } else if (timeline.entityExists() && firstRevision) {
+            // Pas de ligne dans entity_aud : révision la plus ancienne et entité existante → création
+            revisionType = "0";
+        } else {
+            // MOD - modification dans une table liée
+            revisionType = "1";
         }
-    }
 
-    @SuppressWarnings("unchecked")
-    private List<Object[]> loadReferenceOpenthesoRowsAtRevision(Long entityId, Long revisionNumber, String code) {
-        if (entityId == null || revisionNumber == null || code == null) {
-            return List.of();
-        }
-        try {
-            return entityManager.createNativeQuery(
-                            "SELECT valeur FROM ("
-                                    + "SELECT DISTINCT ON (id) valeur, revtype FROM " + REFERENCE_OPENTHESO_AUD_TABLE
-                                    + " WHERE entity_id = :entityId AND rev <= :revisionNumber AND code = :code"
-                                    + " ORDER BY id, rev DESC"
-                                    + ") latest WHERE revtype <> 2")
-                    .setParameter("entityId", entityId)
-                    .setParameter("revisionNumber", revisionNumber)
-                    .setParameter("code", code)
-                    .getResultList();
-        } catch (Exception e) {
-            log.debug("Erreur reference_opentheso_aud {} à la révision {}: {}", code, revisionNumber, e.getMessage());
-            return List.of();
-        }
+        Object currentStatut = currentData.get("statut");
+        Object prevStatut = prevData != null ? prevData.get("statut") : null;
+        boolean statutChanged = prevData != null && !java.util.Objects.equals(currentStatut, prevStatut);
+
+        return EntityRevisionDTO.builder()
+            .entityId(entityId)
+            .revisionNumber(revisionNumber)
+            .revisionType(revisionType)
+            .revisionDate(revisionInfo.getRevisionDate())
+            .modifiedBy(revisionInfo.getModifiedBy())
+            .statutChanged(statutChanged)
+            .statutValue(currentStatut != null ? currentStatut.toString() : null)
+            .firstRevision(firstRevision)
+            .changedFields(EntityRevisionDiff.changedFields(currentData, prevData).keySet().stream().sorted().toList())
+            .entityData(summaryOnly ? null : currentData)
+            .previousEntityData(summaryOnly ? null : prevData)
+            .build();
     }
 
     /**
-     * Résout un ID de ReferenceOpentheso vers sa valeur à la révision donnée et l'ajoute à la map.
+     * Normalise la valeur revtype (ADD=0, MOD=1, DEL=2) depuis un résultat SQL.
+     * Gère Short, Integer, Long, BigDecimal, etc.
      */
-    private void resolveAndPutRefValeur(Map<String, Object> data, String key, Number refId, Long revisionNumber) {
-        if (refId == null || revisionNumber == null) return;
-        try {
-            @SuppressWarnings("unchecked")
-            List<Object[]> results = entityManager.createNativeQuery(
-                "SELECT valeur FROM ("
-                + "SELECT valeur, revtype FROM " + REFERENCE_OPENTHESO_AUD_TABLE
-                + " WHERE id = :refId AND rev <= :revisionNumber"
-                + " ORDER BY rev DESC LIMIT 1"
-                + ") latest WHERE revtype <> 2"
-            )
-            .setParameter("refId", refId.longValue())
-            .setParameter("revisionNumber", revisionNumber)
-            .getResultList();
-            if (!results.isEmpty() && results.get(0) != null && results.get(0)[0] != null
-                    && !results.get(0)[0].toString().trim().isEmpty()) {
-                data.put(key, results.get(0)[0].toString().trim());
-            }
-        } catch (Exception e) {
-            log.debug("Erreur resolve ref {} pour {}: {}", refId, key, e.getMessage());
+    private String normalizeRevisionType(Object value) {
+        if (value == null) {
+            return "1";
         }
+        return switch (EntityRevisionTimeline.revisionType(value)) {
+            case EntityRevisionTimeline.REVTYPE_ADD -> "0";
+            case EntityRevisionTimeline.REVTYPE_DEL -> "2";
+            default -> "1";
+        };
     }
 
     /**
-     * Extrait les données de l'entité en utilisant uniquement des requêtes SQL natives (sans AuditReader)
+     * Toutes les lignes d'une table d'audit et de sa table d'archive pour l'entité ({@code rev, revtype, colonnes…},
+     * par révision croissante). Pour {@code reference-opentheso_aud}, s'y ajoutent les lignes des références
+     * pointées par l'entité. Table absente ou en erreur : aucune ligne (l'historique reste affiché sans ces données).
      */
-    private Map<String, Object> extractEntityDataNative(Entity entity, Long entityId, Long revisionNumber) {
-        Map<String, Object> data = new HashMap<>();
-        
+    @SuppressWarnings("unchecked")
+    private List<Object[]> loadAuditRows(EntityRevisionTimeline.AuditTable table, Long entityId, List<Long> extraIds) {
+        String where = table.entityIdColumn() + " = :entityId" + (extraIds.isEmpty() ? "" : " OR id IN (:extraIds)");
+        String select = "SELECT id AS audit_row_id, rev, revtype, " + table.columns() + " FROM ";
         try {
-            if (entity != null) {
-                data.put("id", entity.getId());
-                if (entity.getMetadata() != null) {
-                    try {
-                        data.put("code", entity.getMetadata().getCode());
-                    } catch (Exception e) {
-                        log.debug("Erreur lors de la récupération du code: {}", e.getMessage());
-                    }
-                }
-            }
-            
-            Map<String, String> labelsMap = loadLabelsAtRevision(entityId, revisionNumber);
-            if (!labelsMap.isEmpty()) {
-                data.put("labels", labelsMap);
-            }
-            Map<String, String> descriptionsMap = loadDescriptionsAtRevision(entityId, revisionNumber);
-            if (!descriptionsMap.isEmpty()) {
-                data.put("descriptions", descriptionsMap);
-            }
-            
-            extractEnrichedData(data, entityId, revisionNumber);
+            var query = entityManager.createNativeQuery(
+                            "SELECT rev, revtype, " + table.columns() + " FROM ("
+                                    + select + table.tableName() + " WHERE " + where
+                                    + " UNION ALL "
+                                    + select + RevisionChangeSection.archiveTableOf(table.tableName()) + " WHERE " + where
+                                    + ") a ORDER BY rev, audit_row_id")
+                    .setParameter("entityId", entityId);
+            if (!extraIds.isEmpty()) {
+                query.setParameter("extraIds", extraIds);
+            }
+            return query.getResultList();
         } catch (Exception e) {
-            log.warn("Erreur générale lors de l'extraction native des données pour l'entité {} à la révision {}: {}", 
-                    entityId, revisionNumber, e.getMessage(), e);
+            log.debug("Aucune révision ou erreur dans {} pour l'entité {}: {}", table.tableName(), entityId, e.getMessage());
+            return List.of();
         }
-        
-        return data;
     }
 
     /**
@@ -830,48 +382,58 @@ public class AuditService {
         if (entityId == null) {
             return Optional.empty();
         }
-        String sql = """
-                SELECT MAX(r.revtstmp) FROM revinfo r
-                WHERE r.rev IN (
-                  SELECT rev FROM entity_aud WHERE id = :entityId
-                  UNION
-                  SELECT rev FROM entity_metadata_aud WHERE entity_id = :entityId
-                  UNION
-                  SELECT rev FROM label_aud WHERE entity_id = :entityId
-                  UNION
-                  SELECT rev FROM description_aud WHERE entity_id = :entityId
-                  UNION
-                  SELECT rev FROM description_detail_aud WHERE entity_id = :entityId
-                  UNION
-                  SELECT rev FROM caracteristique_physique_aud WHERE entity_id = :entityId
-                  UNION
-                  SELECT rev FROM description_pate_aud WHERE entity_id = :entityId
-                  UNION
-                  """
-                + "SELECT rev FROM " + REFERENCE_OPENTHESO_AUD_TABLE + " WHERE entity_id = :entityId "
-                + """
-                  UNION
-                  SELECT rev FROM image_aud WHERE entity_id = :entityId
-                  UNION
-                  SELECT rev FROM entity_relation_aud WHERE parent_id = :entityId OR child_id = :entityId
-                  UNION
-                  SELECT rev FROM description_monnaie_aud WHERE entity_id = :entityId
-                  UNION
-                  SELECT rev FROM caracteristique_physique_monnaie_aud WHERE entity_id = :entityId
-                )
-                """;
+        EntityRevisionStamp stamp;
         try {
-            Object result = entityManager.createNativeQuery(sql)
-                    .setParameter("entityId", entityId)
-                    .getSingleResult();
-            if (result == null) {
-                return Optional.empty();
-            }
-            long ts = ((Number) result).longValue();
-            return Optional.of(LocalDateTime.ofInstant(Instant.ofEpochMilli(ts), ZoneId.systemDefault()));
+            stamp = findLastRevisions(List.of(entityId)).get(entityId);
         } catch (Exception e) {
-            log.debug("findLastModificationDate pour entityId={}: {}", entityId, e.getMessage());
+            log.warn("Date de dernière modification illisible pour entityId={}", entityId, e);
+            return Optional.empty();
+        }
+        if (stamp == null) {
             return Optional.empty();
         }
+        return Optional.of(LocalDateTime.ofInstant(Instant.ofEpochMilli(stamp.timestamp()), ZoneId.systemDefault()));
+    }
+
+    /**
+     * Dernière révision (numéro et horodatage) de chaque entité, d'après {@code revision_change}
+     * (toutes les tables d'audit liées) : une requête par lot de {@value #LAST_REVISION_BATCH_SIZE} identifiants.
+     * Les entités sans révision sont absentes de la map. Une erreur SQL est propagée : l'appelant ne doit pas
+     * la confondre avec une entité sans révision (l'ETag serait omis sans que rien ne le signale).
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED, readOnly = true)
+    public Map<Long, EntityRevisionStamp> findLastRevisions(Collection<Long> entityIds) {
+        if (entityIds == null || entityIds.isEmpty()) {
+            return Map.of();
+        }
+        List<Long> ids = entityIds.stream().filter(Objects::nonNull).distinct().toList();
+        Map<Long, EntityRevisionStamp> stamps = new HashMap<>(ids.size() * 2);
+        for (int from = 0; from < ids.size(); from += LAST_REVISION_BATCH_SIZE) {
+            List<Long> batch = ids.subList(from, Math.min(from + LAST_REVISION_BATCH_SIZE, ids.size()));
+            @SuppressWarnings("unchecked")
+            List<Object[]> rows = entityManager.createNativeQuery(LAST_REVISIONS_SQL)
+                    .setParameter("entityIds", batch)
+                    .getResultList();
+            for (Object[] row : rows) {
+                if (row[2] != null) {
+                    stamps.put(((Number) row[0]).longValue(), new EntityRevisionStamp(
+                            ((Number) row[1]).longValue(), ((Number) row[2]).longValue()));
+                }
+            }
+        }
+        return stamps;
+    }
+
+    /** Union des numéros de révision de chaque table d'audit et de sa table d'archive pour l'entité. */
+    private static String entityRevisionNumbersSql() {
+        StringJoiner union = new StringJoiner("\nUNION\n");
+        for (RevisionChangeSection section : RevisionChangeSection.values()) {
+            for (String column : section.getEntityIdColumns()) {
+                for (String table : List.of(section.getAuditTable(), section.getArchiveTable())) {
+                    union.add("SELECT rev FROM " + table + " WHERE " + column + " = :entityId");
+                }
+            }
+        }
+        return union.toString();
     }
 }
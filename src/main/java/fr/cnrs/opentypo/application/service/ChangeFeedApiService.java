@@ -0,0 +1,250 @@
+package fr.cnrs.opentypo.application.service;
+
+import fr.cnrs.opentypo.application.dto.EntityStatusEnum;
+import fr.cnrs.opentypo.application.dto.api.ApiErrorMessages;
+import fr.cnrs.opentypo.application.dto.api.ChangeFeedDto;
+import fr.cnrs.opentypo.application.dto.api.EntityChangeDto;
+import fr.cnrs.opentypo.application.dto.api.EntityChangeOperation;
+import fr.cnrs.opentypo.domain.entity.Utilisateur;
+import fr.cnrs.opentypo.infrastructure.persistence.UtilisateurRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Isolation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Flux des modifications pour la synchronisation incrémentale ({@code GET /api/v1/changes}) : entités touchées
+ * après une révision Envers, lues dans {@code revision_change} par l'index sur {@code rev}.
+ * <p>
+ * Les numéros de révision sont attribués avant la validation de leur transaction : une révision encore en cours
+ * peut précéder une révision déjà validée, et le client qui passerait celle-ci ne verrait jamais la première. Le
+ * flux s'arrête donc à la dernière révision dont toutes les précédentes sont terminées ({@link #settledRevision}) :
+ * une transaction qui a inséré sa ligne {@code revinfo} garde jusqu'à sa fin un verrou sur la table, visible dans
+ * {@code pg_locks} quelle que soit l'instance ou sa durée. Tant qu'il en reste une, le flux s'arrête avant les
+ * révisions horodatées après son début moins {@code opentypo.api.changes.safety-lag}, marge qui couvre l'écart
+ * d'horloge entre les serveurs d'application et la base. Le rôle de connexion doit voir les sessions des autres
+ * instances dans {@code pg_stat_activity} (même rôle, ou {@code pg_read_all_stats}).
+ * <p>
+ * Les entrées suivent les règles de {@link VisibilityService} pour l'appelant. Une entité qu'il ne voit pas (ou
+ * plus) n'est signalée que si son statut avant la page était PUBLIQUE : elle l'est alors comme {@code DEL}, pour
+ * que le miroir retire sa copie (entité supprimée, refusée ou repassée en privé). Les administrateurs voient tout.
+ * {@code highWaterMark} avance sur toutes les lignes lues, y compris celles écartées.
+ */
+@Service
+public class ChangeFeedApiService {
+
+    private static final int DEFAULT_LIMIT = 500;
+    private static final int MAX_LIMIT = 5000;
+
+    /** Lignes suivant la révision de reprise, dans l'ordre de l'index {@code idx_revision_change_rev}. */
+    private static final String CHANGES_SINCE_SQL = """
+            SELECT entity_id, rev, revtype FROM revision_change
+            WHERE rev > :sinceRev AND rev <= :settledRev
+            ORDER BY rev, entity_id
+            """;
+
+    private static final String REVISION_CHANGES_SQL = """
+            SELECT entity_id, rev, revtype FROM revision_change
+            WHERE rev = :rev
+            ORDER BY entity_id
+            """;
+
+    private static final String LAST_REVISION_SQL = "SELECT COALESCE(MAX(rev), 0) FROM revinfo";
+
+    /**
+     * Début (millisecondes) de la plus ancienne autre transaction qui a inséré une ligne {@code revinfo} sans être
+     * terminée ; {@code NULL} s'il n'y en a pas.
+     */
+    private static final String OLDEST_REVISION_IN_FLIGHT_SQL = """
+            SELECT CAST(EXTRACT(EPOCH FROM MIN(a.xact_start)) * 1000 AS BIGINT)
+            FROM pg_locks l
+            JOIN pg_stat_activity a ON a.pid = l.pid
+            WHERE l.locktype = 'relation' AND l.relation = CAST('revinfo' AS regclass)
+              AND l.mode = 'RowExclusiveLock' AND l.granted AND l.pid <> pg_backend_pid()
+            """;
+
+    /** Dernière révision horodatée avant {@code :startedBefore} (index {@code idx_revinfo_revtstmp}). */
+    private static final String LAST_REVISION_BEFORE_SQL = """
+            SELECT COALESCE(MAX(rev), 0) FROM revinfo
+            WHERE revtstmp < :startedBefore AND rev <= :lastRev
+            """;
+
+    /** Statut de chaque entité à sa dernière révision jusqu'à {@code :sinceRev} (clé primaire {@code (entity_id, rev)}). */
+    private static final String STATUT_BEFORE_SQL = """
+            SELECT DISTINCT ON (entity_id) entity_id, statut FROM revision_change
+            WHERE entity_id IN (:entityIds) AND rev <= :sinceRev
+            ORDER BY entity_id, rev DESC
+            """;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private final VisibilityService visibilityService;
+    private final UtilisateurRepository utilisateurRepository;
+    private final Duration safetyLag;
+
+    public ChangeFeedApiService(VisibilityService visibilityService,
+                                UtilisateurRepository utilisateurRepository,
+                                @Value("${opentypo.api.changes.safety-lag:10s}") Duration safetyLag) {
+        this.visibilityService = visibilityService;
+        this.utilisateurRepository = utilisateurRepository;
+        this.safetyLag = safetyLag;
+    }
+
+    /**
+     * Entités touchées après {@code sinceRev}, au plus {@code limit} lignes de {@code revision_change} par appel.
+     * Une page ne coupe jamais une révision : la dernière révision incomplète est laissée à l'appel suivant, et
+     * une révision plus grande que {@code limit} est renvoyée entière. Une entité touchée par plusieurs révisions
+     * de la page n'apparaît qu'une fois, avec l'effet net ({@link EntityChangeOperation#followedBy}), si
+     * l'appelant peut la voir.
+     */
+    @Transactional(readOnly = true, isolation = Isolation.READ_COMMITTED)
+    public ChangeFeedDto getChangesSince(Long sinceRev, Integer limit) {
+        long since = sinceRev != null ? sinceRev : 0L;
+        if (since < 0) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ApiErrorMessages.SINCE_REV_MIN_ZERO);
+        }
+        int effectiveLimit = resolveLimit(limit);
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = entityManager.createNativeQuery(CHANGES_SINCE_SQL)
+                .setParameter("sinceRev", since)
+                .setParameter("settledRev", settledRevision())
+                .setMaxResults(effectiveLimit + 1)
+                .getResultList();
+        boolean hasMore = rows.size() > effectiveLimit;
+        if (hasMore) {
+            long cutRev = rev(rows.get(effectiveLimit));
+            rows = new ArrayList<>(rows.subList(0, effectiveLimit));
+            rows.removeIf(row -> rev(row) == cutRev);
+            if (rows.isEmpty()) {
+                rows = loadRevision(cutRev);
+            }
+        }
+        long highWaterMark = rows.isEmpty() ? since : rev(rows.getLast());
+        return new ChangeFeedDto(visibleChanges(mergeByEntity(rows), since), highWaterMark, hasMore);
+    }
+
+    /**
+     * Dernière révision dont toutes les précédentes sont validées ou annulées. Ordre des lectures : la dernière
+     * révision validée, puis les transactions en cours ; une révision inférieure terminée entre les deux est
+     * validée avant la lecture des lignes, qui la voit (chaque requête a son instantané : READ COMMITTED).
+     */
+    private long settledRevision() {
+        long lastRev = ((Number) entityManager.createNativeQuery(LAST_REVISION_SQL).getSingleResult()).longValue();
+        Number oldestInFlight = (Number) entityManager.createNativeQuery(OLDEST_REVISION_IN_FLIGHT_SQL)
+                .getSingleResult();
+        if (oldestInFlight == null) {
+            return lastRev;
+        }
+        // La révision de la transaction en cours est attribuée après son début : les révisions horodatées
+        // avant (moins l'écart d'horloge toléré) la précèdent.
+        return ((Number) entityManager.createNativeQuery(LAST_REVISION_BEFORE_SQL)
+                .setParameter("startedBefore", oldestInFlight.longValue() - safetyLag.toMillis())
+                .setParameter("lastRev", lastRev)
+                .getSingleResult()).longValue();
+    }
+
+    /**
+     * Entrées de la page pour l'utilisateur courant (anonyme si son compte est introuvable) : celles qu'il voit,
+     * et en {@code DEL} celles qu'il ne voit pas mais dont le statut avant la page était PUBLIQUE.
+     */
+    private List<EntityChangeDto> visibleChanges(List<EntityChangeDto> changes, long since) {
+        Utilisateur user = resolveCurrentUser();
+        if (changes.isEmpty() || visibilityService.isAdmin(user)) {
+            return changes;
+        }
+        BitSet visible = visibilityService.evaluate(changes.stream().map(EntityChangeDto::entityId).toList(), user);
+        List<Long> hiddenIds = new ArrayList<>();
+        for (int i = 0; i < changes.size(); i++) {
+            if (!visible.get(i)) {
+                hiddenIds.add(changes.get(i).entityId());
+            }
+        }
+        Map<Long, String> statutBefore = statutBefore(hiddenIds, since);
+        List<EntityChangeDto> result = new ArrayList<>(changes.size());
+        for (int i = 0; i < changes.size(); i++) {
+            EntityChangeDto change = changes.get(i);
+            if (visible.get(i)) {
+                result.add(change);
+            } else if (EntityStatusEnum.PUBLIQUE.name().equals(statutBefore.get(change.entityId()))) {
+                result.add(new EntityChangeDto(change.entityId(), EntityChangeOperation.DEL, change.rev()));
+            }
+        }
+        return result;
+    }
+
+    private Map<Long, String> statutBefore(List<Long> entityIds, long since) {
+        Map<Long, String> statutById = new HashMap<>();
+        if (entityIds.isEmpty() || since == 0) {
+            return statutById;
+        }
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = entityManager.createNativeQuery(STATUT_BEFORE_SQL)
+                .setParameter("entityIds", entityIds)
+                .setParameter("sinceRev", since)
+                .getResultList();
+        for (Object[] row : rows) {
+            statutById.put(((Number) row[0]).longValue(), (String) row[1]);
+        }
+        return statutById;
+    }
+
+    private Utilisateur resolveCurrentUser() {
+        Authentication auth = SecurityContextHolder.getContext().getAuthentication();
+        if (auth == null || !auth.isAuthenticated() || auth.getName() == null
+                || "anonymousUser".equals(auth.getPrincipal())) {
+            return null;
+        }
+        return utilisateurRepository.findByEmail(auth.getName()).orElse(null);
+    }
+
+    @SuppressWarnings("unchecked")
+    private List<Object[]> loadRevision(long rev) {
+        return entityManager.createNativeQuery(REVISION_CHANGES_SQL)
+                .setParameter("rev", rev)
+                .getResultList();
+    }
+
+    /** Une entrée par entité (ordre de sa dernière révision), avec l'opération nette des révisions de la page. */
+    private static List<EntityChangeDto> mergeByEntity(List<Object[]> rows) {
+        Map<Long, EntityChangeDto> changes = new LinkedHashMap<>();
+        for (Object[] row : rows) {
+            long entityId = ((Number) row[0]).longValue();
+            EntityChangeOperation operation = EntityChangeOperation.fromRevisionType((Number) row[2]);
+            EntityChangeDto previous = changes.remove(entityId);
+            if (previous != null) {
+                operation = previous.operation().followedBy(operation);
+            }
+            changes.put(entityId, new EntityChangeDto(entityId, operation, rev(row)));
+        }
+        return List.copyOf(changes.values());
+    }
+
+    private static long rev(Object[] row) {
+        return ((Number) row[1]).longValue();
+    }
+
+    private static int resolveLimit(Integer limit) {
+        if (limit == null) {
+            return DEFAULT_LIMIT;
+        }
+        if (limit < 1) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ApiErrorMessages.LIMIT_MIN_ONE);
+        }
+        return Math.min(limit, MAX_LIMIT);
+    }
+}
@@ -1,5 +1,7 @@
 package fr.cnrs.opentypo.application.service;
 
+import fr.cnrs.opentypo.application.dto.EntityRevisionStamp;
+import fr.cnrs.opentypo.application.dto.EntitySearchCriteria;
 import fr.cnrs.opentypo.application.dto.EntityStatusEnum;
 import fr.cnrs.opentypo.common.constant.EntityConstants;
 import fr.cnrs.opentypo.application.dto.api.ApiErrorMessages;
@@ -9,10 +11,13 @@ import fr.cnrs.opentypo.application.dto.api.EntityLabelDto;
 import fr.cnrs.opentypo.application.dto.api.EntityPhysicalCharacteristicsSectionDto;
 import fr.cnrs.opentypo.application.dto.api.EntityResponseDto;
 import fr.cnrs.opentypo.application.dto.api.EntityApiStatutFilter;
+import fr.cnrs.opentypo.application.dto.api.EntityListCursor;
 import fr.cnrs.opentypo.application.dto.api.EntityListOrder;
+import fr.cnrs.opentypo.application.dto.api.EntityListPage;
 import fr.cnrs.opentypo.application.dto.api.EntityTextDescriptionDto;
 import fr.cnrs.opentypo.application.dto.api.EntityUpdateRequest;
 import fr.cnrs.opentypo.application.dto.api.EntityVisibilityRequest;
+import fr.cnrs.opentypo.application.dto.api.ResourceVersion;
 import fr.cnrs.opentypo.application.mapper.EntityApiDetailMapper;
 import fr.cnrs.opentypo.domain.entity.Entity;
 import fr.cnrs.opentypo.domain.entity.EntityRelation;
@@ -26,6 +31,8 @@ import fr.cnrs.opentypo.infrastructure.persistence.EntityRepository;
 import fr.cnrs.opentypo.infrastructure.persistence.EntityTypeRepository;
 import fr.cnrs.opentypo.infrastructure.persistence.ImageRepository;
 import fr.cnrs.opentypo.infrastructure.persistence.LangueRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
 import lombok.RequiredArgsConstructor;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
@@ -41,12 +48,15 @@ import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Locale;
 import java.util.Map;
 import java.util.Optional;
 import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 /**
  * Application service backing the REST API for {@link Entity} CRUD.
@@ -59,6 +69,7 @@ public class EntityApiService {
     private static final int MAX_SEARCH_LIMIT = 1000;
     private static final int DEFAULT_TYPOLOGY_LIMIT = 500;
     private static final int MAX_TYPOLOGY_LIMIT = 5000;
+    private static final int EXPORT_CHUNK_SIZE = 200;
 
     private final ArkIdentifierService arkIdentifierService;
 
@@ -73,12 +84,90 @@ public class EntityApiService {
     private final UtilisateurRepository utilisateurRepository;
     private final EntityStatusCascadeService entityStatusCascadeService;
     private final EntityCodeUniquenessService entityCodeUniquenessService;
+    private final EntitySearchService entitySearchService;
+    private final AuditService auditService;
+    private final EntityDtoCache entityDtoCache;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    /**
+     * Version de {@code GET /api/v1/entities/{id}}, calculée depuis les révisions Envers sans charger le graphe.
+     * Vide si l'entité n'a pas de révision connue : la réponse est alors servie sans GET conditionnel.
+     */
+    @Transactional(readOnly = true)
+    public Optional<ResourceVersion> getEntityVersion(Long id) {
+        return id == null ? Optional.empty() : resourceVersion("entity", List.of(id));
+    }
+
+    /**
+     * Version de {@code GET /api/v1/entities/by-code/{code}} (même représentation que par identifiant).
+     */
+    @Transactional(readOnly = true)
+    public Optional<ResourceVersion> getEntityVersionByCode(String code) {
+        if (code == null || code.isBlank()) {
+            return Optional.empty();
+        }
+        return entityRepository.findIdByMetadataCodeExactIgnoreCase(code.trim())
+                .flatMap(id -> resourceVersion("entity", List.of(id)));
+    }
+
+    /**
+     * Version de {@code GET /api/v1/entities/{id}/children} : révisions du parent (relations) et de chaque enfant.
+     */
+    @Transactional(readOnly = true)
+    public Optional<ResourceVersion> getChildrenVersion(Long id, EntityApiStatutFilter statutFilter, boolean detail) {
+        if (id == null) {
+            return Optional.empty();
+        }
+        List<Long> ids = new ArrayList<>();
+        ids.add(id);
+        for (Object[] row : entityRelationRepository.findChildIdsByParentIds(List.of(id))) {
+            ids.add((Long) row[1]);
+        }
+        return resourceVersion("children|" + statutFilter + "|" + detail, ids);
+    }
+
+    /**
+     * Version de {@code GET /api/v1/typologies} : révisions des collections listées.
+     */
+    @Transactional(readOnly = true)
+    public Optional<ResourceVersion> getCollectionsVersion(EntityApiStatutFilter statutFilter, Integer limit) {
+        List<Long> ids = findCollectionIds(statutFilter, limit);
+        return ids.isEmpty()
+                ? Optional.empty()
+                : resourceVersion("collections|" + statutFilter + "|" + limit, ids);
+    }
+
+    /**
+     * ETag sur la liste ordonnée des entités et de leur dernière révision ; Last-Modified sur la plus récente.
+     * Vide si l'une des entités n'a aucune révision (modification non traçable).
+     */
+    private Optional<ResourceVersion> resourceVersion(String resource, List<Long> entityIds) {
+        Map<Long, EntityRevisionStamp> stamps = auditService.findLastRevisions(entityIds);
+        StringBuilder key = new StringBuilder(resource);
+        long lastModified = 0L;
+        for (Long entityId : entityIds) {
+            EntityRevisionStamp stamp = stamps.get(entityId);
+            if (stamp == null) {
+                return Optional.empty();
+            }
+            key.append('|').append(entityId).append(':').append(stamp.rev());
+            lastModified = Math.max(lastModified, stamp.timestamp());
+        }
+        return Optional.of(ResourceVersion.of(key.toString(), lastModified));
+    }
 
     @Transactional(readOnly = true)
     public EntityResponseDto getById(Long id) {
+        EntityResponseDto cached = entityDtoCache.get(id, true);
+        if (cached != null) {
+            return cached;
+        }
+        long generation = entityDtoCache.generation();
         Entity entity = entityRepository.findByIdForApi(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, ApiErrorMessages.ENTITY_NOT_FOUND));
-        return toDtoList(List.of(entity), true).getFirst();
+        return cacheDetail(toDtoList(List.of(entity), true).getFirst(), generation);
     }
 
     @Transactional(readOnly = true)
@@ -86,19 +175,30 @@ public class EntityApiService {
         if (code == null || code.isBlank()) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ApiErrorMessages.CODE_REQUIRED);
         }
+        long generation = entityDtoCache.generation();
+        Optional<Long> id = entityRepository.findIdByMetadataCodeExactIgnoreCase(code.trim());
+        EntityResponseDto cached = id.map(value -> entityDtoCache.get(value, true)).orElse(null);
+        if (cached != null) {
+            return cached;
+        }
         Entity entity = entityRepository.findByCodeForApi(code.trim())
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, ApiErrorMessages.ENTITY_NOT_FOUND));
-        return toDtoList(List.of(entity), true).getFirst();
+        return cacheDetail(toDtoList(List.of(entity), true).getFirst(), generation);
+    }
+
+    private EntityResponseDto cacheDetail(EntityResponseDto dto, long generationBeforeLoad) {
+        entityDtoCache.put(dto, true, generationBeforeLoad);
+        return dto;
     }
 
     @Transactional(readOnly = true)
-    public List<EntityResponseDto> getChildren(Long id, EntityApiStatutFilter statutFilter) {
+    public List<EntityResponseDto> getChildren(Long id, EntityApiStatutFilter statutFilter, boolean detail) {
         Entity parent = entityRepository.findById(id)
                 .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, ApiErrorMessages.ENTITY_NOT_FOUND));
         List<Long> childIds = entityRelationRepository.findChildrenByParentOrdered(parent).stream()
                 .map(Entity::getId)
                 .toList();
-        return toDtoList(filterByStatut(loadEntitiesInOrder(childIds), statutFilter));
+        return toDtoList(filterByStatut(loadEntitiesInOrder(childIds), statutFilter), detail);
     }
 
     @Transactional(readOnly = true)
@@ -113,9 +213,12 @@ public class EntityApiService {
 
     /**
      * Liste ou recherche d'entités ({@code GET /api/v1/entities}).
+     * En mode liste (sans {@code field}/{@code match}/{@code value}), la page est lue par clé à partir de
+     * {@code cursor} et la réponse porte le curseur de la page suivante.
+     * Avec {@code detail}, chaque entité porte ses rubriques de détail (nombre de requêtes fixe par page).
      */
     @Transactional(readOnly = true)
-    public List<EntityResponseDto> listEntities(
+    public EntityListPage listEntities(
             String field,
             String match,
             String value,
@@ -123,21 +226,37 @@ public class EntityApiService {
             String lang,
             Integer limit,
             String order,
-            Long rootId) {
+            Long rootId,
+            String cursor,
+            boolean detail) {
         EntityApiStatutFilter statutFilter = EntityApiStatutFilter.parse(statut);
         int effectiveLimit = resolveLimit(limit);
-        EntityListOrder listOrder = EntityListOrder.parse(order);
-        Optional<Set<Long>> subtreeScope = resolveSubtreeScope(rootId);
+        // Recherche « contient » sans tri explicite : ordre de pertinence
+        EntityListOrder listOrder = (order == null || order.isBlank()) && match != null
+                && "CONTAINS".equalsIgnoreCase(match.trim())
+                ? EntityListOrder.RELEVANCE
+                : EntityListOrder.parse(order);
+        assertRootExists(rootId);
 
         boolean hasPartialLookup = (field != null || match != null || value != null)
                 && (field == null || match == null || value == null);
         if (hasPartialLookup) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ApiErrorMessages.LOOKUP_PARAMS_INCOMPLETE);
         }
+        boolean hasCursor = cursor != null && !cursor.isBlank();
         if (field != null) {
-            return lookupByField(field, match, value, lang, statutFilter, effectiveLimit, listOrder, subtreeScope);
+            if (hasCursor) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ApiErrorMessages.CURSOR_NOT_SUPPORTED_FOR_LOOKUP);
+            }
+            return new EntityListPage(
+                    lookupByField(field, match, value, lang, statutFilter, effectiveLimit, listOrder, rootId, detail),
+                    null);
         }
-        return listByStatut(statutFilter, effectiveLimit, listOrder, subtreeScope);
+        if (listOrder == EntityListOrder.RELEVANCE) {
+            listOrder = EntityListOrder.DATE_DESC;
+        }
+        EntityListCursor after = hasCursor ? EntityListCursor.decode(cursor, listOrder) : null;
+        return listByStatut(statutFilter, effectiveLimit, listOrder, rootId, after, detail);
     }
 
     /**
@@ -145,15 +264,60 @@ public class EntityApiService {
      */
     @Transactional(readOnly = true)
     public List<EntityResponseDto> listCollections(EntityApiStatutFilter statutFilter, Integer limit) {
+        return toDtoList(loadEntitiesInOrder(findCollectionIds(statutFilter, limit)));
+    }
+
+    private List<Long> findCollectionIds(EntityApiStatutFilter statutFilter, Integer limit) {
         EntityApiStatutFilter effectiveStatut = statutFilter.isFiltered()
                 ? statutFilter
                 : EntityApiStatutFilter.PUBLIQUE;
-        int effectiveLimit = resolveTypologyLimit(limit);
-        List<Long> ids = entityRepository.findIdsByEntityTypeForApi(
+        return entityRepository.findIdsByEntityTypeForApi(
                 EntityConstants.ENTITY_TYPE_COLLECTION,
                 effectiveStatut.statutForQuery(),
-                PageRequest.of(0, effectiveLimit));
-        return toDtoList(loadEntitiesInOrder(ids));
+                PageRequest.of(0, resolveTypologyLimit(limit)));
+    }
+
+    /**
+     * Vérifie que l'entité existe et est une collection (404 sinon), avant d'engager une réponse en flux.
+     */
+    @Transactional(readOnly = true)
+    public void assertCollectionExists(Long id) {
+        if (id == null || !entityRepository.existsByIdAndEntityTypeCode(id, EntityConstants.ENTITY_TYPE_COLLECTION)) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, ApiErrorMessages.COLLECTION_NOT_FOUND);
+        }
+    }
+
+    /**
+     * Export du sous-arbre de {@code rootId} (racine incluse) pour {@code GET /api/v1/typologies/{id}/export}.
+     * Les identifiants sont lus en flux (curseur JDBC), puis chargés et mappés avec les rubriques de détail par lots
+     * de {@value #EXPORT_CHUNK_SIZE} remis à {@code chunkConsumer} ; le contexte de persistance est vidé après
+     * chaque lot, de sorte que la mémoire reste constante quelle que soit la taille de la typologie.
+     */
+    @Transactional(readOnly = true)
+    public void exportSubtree(
+            Long rootId,
+            EntityApiStatutFilter statutFilter,
+            Consumer<List<EntityResponseDto>> chunkConsumer) {
+        try (Stream<Long> ids = entityRepository.streamSubtreeIdsForExport(rootId, statutFilter.statutForQuery())) {
+            List<Long> chunk = new ArrayList<>(EXPORT_CHUNK_SIZE);
+            Iterator<Long> iterator = ids.iterator();
+            while (iterator.hasNext()) {
+                chunk.add(iterator.next());
+                if (chunk.size() == EXPORT_CHUNK_SIZE) {
+                    exportChunk(chunk, chunkConsumer);
+                    chunk.clear();
+                }
+            }
+            if (!chunk.isEmpty()) {
+                exportChunk(chunk, chunkConsumer);
+            }
+        }
+    }
+
+    private void exportChunk(List<Long> ids, Consumer<List<EntityResponseDto>> chunkConsumer) {
+        List<EntityResponseDto> dtos = toDtoList(loadEntitiesInOrder(ids), true);
+        entityManager.clear();
+        chunkConsumer.accept(dtos);
     }
 
     /**
@@ -163,6 +327,7 @@ public class EntityApiService {
      * @param match   {@code EXACT} ou {@code CONTAINS}
      * @param value   texte recherché
      * @param labelLang code langue (obligatoire si field=LABEL, défaut {@code fr})
+     * @param rootId  racine du sous-arbre de recherche (null : toute la base)
      */
     @Transactional(readOnly = true)
     private List<EntityResponseDto> lookupByField(
@@ -173,7 +338,8 @@ public class EntityApiService {
             EntityApiStatutFilter statutFilter,
             int limit,
             EntityListOrder order,
-            Optional<Set<Long>> subtreeScope) {
+            Long rootId,
+            boolean detail) {
         if (value == null || value.isBlank()) {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ApiErrorMessages.VALUE_REQUIRED);
         }
@@ -187,27 +353,39 @@ public class EntityApiService {
             throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ApiErrorMessages.MATCH_MUST_BE_EXACT_OR_CONTAINS);
         }
 
-        List<Long> ids;
-        if ("CODE".equals(f)) {
-            if ("EXACT".equals(m)) {
-                ids = entityRepository.findIdByMetadataCodeExactIgnoreCase(trimmed)
-                        .map(id -> List.of(id))
-                        .orElse(List.of());
-            } else {
-                ids = entityRepository.findIdsByMetadataCodeContaining(trimmed);
-            }
-        } else {
-            String lang = labelLang != null && !labelLang.isBlank() ? labelLang.trim() : "fr";
+        String lang = null;
+        if ("LABEL".equals(f)) {
+            lang = labelLang != null && !labelLang.isBlank() ? labelLang.trim() : "fr";
             if (langueRepository.findByCode(lang) == null) {
                 throw new ResponseStatusException(HttpStatus.BAD_REQUEST, ApiErrorMessages.unknownLanguageCode(lang));
             }
-            if ("EXACT".equals(m)) {
-                ids = entityRepository.findIdsByLabelExactInLang(trimmed, lang);
-            } else {
-                ids = entityRepository.findIdsByLabelContainingInLang(trimmed, lang);
-            }
         }
 
+        if ("CONTAINS".equals(m)) {
+            // Recherche indexée (trigrammes / plein texte) ; statut, sous-arbre et tri en base, avant la limite
+            List<Long> orderedIds = entitySearchService.searchIds(new EntitySearchCriteria(
+                    trimmed,
+                    "CODE".equals(f) ? EntitySearchCriteria.Field.CODE : EntitySearchCriteria.Field.LABEL,
+                    EntitySearchCriteria.MatchMode.CONTAINS,
+                    lang,
+                    rootId,
+                    statutFilter.statutForQuery(),
+                    null,
+                    order.toSearchOrder(),
+                    limit));
+            return toDtoList(loadEntitiesInOrder(orderedIds), detail);
+        }
+
+        List<Long> ids;
+        if ("CODE".equals(f)) {
+            ids = entityRepository.findIdByMetadataCodeExactIgnoreCase(trimmed)
+                    .map(id -> List.of(id))
+                    .orElse(List.of());
+        } else {
+            ids = entityRepository.findIdsByLabelExactInLang(trimmed, lang);
+        }
+        Optional<Set<Long>> subtreeScope = resolveSubtreeScope(rootId);
+
         List<Long> orderedUniqueIds = new ArrayList<>();
         Set<Long> seen = new LinkedHashSet<>();
         for (Long id : ids) {
@@ -218,21 +396,40 @@ public class EntityApiService {
             }
         }
         List<Entity> entities = filterByStatut(loadEntitiesInOrder(orderedUniqueIds), statutFilter);
-        entities = order.sortEntities(entities);
+        entities = order.sortSearchResults(entities);
         if (entities.size() > limit) {
             entities = entities.subList(0, limit);
         }
-        return toDtoList(entities);
+        return toDtoList(entities, detail);
     }
 
+    /**
+     * Page de la liste filtrée par statut (et sous-arbre), lue par clé : une ligne de plus que {@code limit}
+     * est demandée pour savoir s'il existe une page suivante, sans compter ni parcourir les pages précédentes.
+     */
     @Transactional(readOnly = true)
-    public List<EntityResponseDto> listByStatut(
+    public EntityListPage listByStatut(
             EntityApiStatutFilter statutFilter,
             int limit,
             EntityListOrder order,
-            Optional<Set<Long>> subtreeScope) {
-        List<Long> ids = listIdsForApi(statutFilter, limit, order, subtreeScope);
-        return toDtoList(loadEntitiesInOrder(ids));
+            Long rootId,
+            EntityListCursor after,
+            boolean detail) {
+        List<Object[]> keys = listKeysForApi(statutFilter.statutForQuery(), rootId, order, after, limit + 1);
+        boolean hasNext = keys.size() > limit;
+        if (hasNext) {
+            keys = keys.subList(0, limit);
+        }
+        List<Long> ids = keys.stream().map(row -> ((Number) row[0]).longValue()).toList();
+        String nextCursor = null;
+        if (hasNext) {
+            Object[] last = keys.getLast();
+            long lastId = ((Number) last[0]).longValue();
+            nextCursor = (order.sortsByCode()
+                    ? EntityListCursor.ofCode(order, (String) last[1], lastId)
+                    : EntityListCursor.ofDate(order, (LocalDateTime) last[1], lastId)).encode();
+        }
+        return new EntityListPage(toDtoList(loadEntitiesInOrder(ids), detail), nextCursor);
     }
 
     @Transactional
@@ -402,41 +599,44 @@ public class EntityApiService {
         return entities.stream().filter(e -> statutFilter.matches(e.getStatut())).toList();
     }
 
+    private void assertRootExists(Long rootId) {
+        if (rootId != null && !entityRepository.existsById(rootId)) {
+            throw new ResponseStatusException(
+                    HttpStatus.NOT_FOUND, ApiErrorMessages.entityNotFound(rootId));
+        }
+    }
+
     private Optional<Set<Long>> resolveSubtreeScope(Long rootId) {
         if (rootId == null) {
             return Optional.empty();
         }
-        if (!entityRepository.existsById(rootId)) {
-            throw new ResponseStatusException(
-                    HttpStatus.NOT_FOUND, ApiErrorMessages.entityNotFound(rootId));
-        }
         return Optional.of(entityStatusCascadeService.collectSelfAndDescendantIds(rootId));
     }
 
-    private List<Long> listIdsForApi(
-            EntityApiStatutFilter statutFilter,
-            int limit,
+    private List<Object[]> listKeysForApi(
+            String statut,
+            Long rootId,
             EntityListOrder order,
-            Optional<Set<Long>> subtreeScope) {
-        String statut = statutFilter.statutForQuery();
-        Pageable pageable = order.usesJpaSort()
-                ? order.toPageable(limit)
-                : PageRequest.of(0, limit);
-        if (subtreeScope.isPresent()) {
-            Set<Long> entityIds = subtreeScope.get();
-            if (entityIds.isEmpty()) {
-                return List.of();
-            }
+            EntityListCursor after,
+            int fetchSize) {
+        Pageable pageable = PageRequest.of(0, fetchSize);
+        if (after == null) {
             return switch (order) {
-                case CODE_ASC -> entityRepository.listIdsForApiInSubtreeOrderByCodeAsc(entityIds, statut, pageable);
-                case CODE_DESC -> entityRepository.listIdsForApiInSubtreeOrderByCodeDesc(entityIds, statut, pageable);
-                default -> entityRepository.listIdsForApiInSubtree(entityIds, statut, pageable);
+                case CODE_ASC -> entityRepository.listKeysForApiByCodeAsc(statut, rootId, pageable);
+                case CODE_DESC -> entityRepository.listKeysForApiByCodeDesc(statut, rootId, pageable);
+                case DATE_ASC -> entityRepository.listKeysForApiByDateAsc(statut, rootId, pageable);
+                default -> entityRepository.listKeysForApiByDateDesc(statut, rootId, pageable);
             };
         }
         return switch (order) {
-            case CODE_ASC -> entityRepository.listIdsForApiOrderByCodeAsc(statut, pageable);
-            case CODE_DESC -> entityRepository.listIdsForApiOrderByCodeDesc(statut, pageable);
-            default -> entityRepository.listIdsForApi(statut, pageable);
+            case CODE_ASC -> entityRepository.listKeysForApiByCodeAscAfter(
+                    statut, rootId, after.sortValue(), after.id(), pageable);
+            case CODE_DESC -> entityRepository.listKeysForApiByCodeDescAfter(
+                    statut, rootId, after.sortValue(), after.id(), pageable);
+            case DATE_ASC -> entityRepository.listKeysForApiByDateAscAfter(
+                    statut, rootId, after.dateValue(), after.id(), pageable);
+            default -> entityRepository.listKeysForApiByDateDescAfter(
+                    statut, rootId, after.dateValue(), after.id(), pageable);
         };
     }
 
@@ -473,26 +673,22 @@ public class EntityApiService {
         Map<Long, List<Long>> childrenByParent = groupRelationIds(
                 entityRelationRepository.findChildIdsByParentIds(entityIds), 0, 1);
         Map<Long, String> primaryImageUrlByEntity = loadPrimaryImageUrls(entityIds);
+        Map<Long, EntityApiDetailMapper.DetailSections> detailByEntity = includeDetailSections
+                ? entityApiDetailMapper.loadDetailSections(entities)
+                : Map.of();
 
         List<EntityResponseDto> out = new ArrayList<>(entities.size());
         for (Entity entity : entities) {
             Long id = entity.getId();
-            List<EntityTextDescriptionDto> presentationDescriptions = null;
-            EntityDescriptionSectionDto description = null;
-            EntityPhysicalCharacteristicsSectionDto physicalCharacteristics = null;
-            if (includeDetailSections) {
-                presentationDescriptions = entityApiDetailMapper.loadPresentationDescriptions(id);
-                description = entityApiDetailMapper.loadDescriptionSection(id, entity);
-                physicalCharacteristics = entityApiDetailMapper.loadPhysicalCharacteristicsSection(id);
-            }
+            EntityApiDetailMapper.DetailSections detail = detailByEntity.get(id);
             out.add(toDto(
                     entity,
                     parentsByChild.getOrDefault(id, List.of()),
                     childrenByParent.getOrDefault(id, List.of()),
                     primaryImageUrlByEntity.get(id),
-                    presentationDescriptions,
-                    description,
-                    physicalCharacteristics));
+                    detail != null ? detail.presentationDescriptions() : null,
+                    detail != null ? detail.description() : null,
+                    detail != null ? detail.physicalCharacteristics() : null));
         }
         return out;
     }
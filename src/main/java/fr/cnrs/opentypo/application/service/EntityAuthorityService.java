@@ -8,8 +8,6 @@ import fr.cnrs.opentypo.domain.entity.Entity;
 import fr.cnrs.opentypo.domain.entity.Groupe;
 import fr.cnrs.opentypo.domain.entity.Utilisateur;
 import fr.cnrs.opentypo.infrastructure.persistence.EntityRepository;
-import fr.cnrs.opentypo.infrastructure.persistence.UserPermissionRepository;
-import fr.cnrs.opentypo.infrastructure.persistence.UtilisateurRepository;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
@@ -23,8 +21,7 @@ import org.springframework.web.server.ResponseStatusException;
 public class EntityAuthorityService {
 
     private final EntityRepository entityRepository;
-    private final UserPermissionRepository userPermissionRepository;
-    private final UtilisateurRepository utilisateurRepository;
+    private final UserPermissionSnapshotService userPermissionSnapshotService;
     private final TypeService typeService;
     private final GroupService groupService;
     private final CollectionService collectionService;
@@ -145,7 +142,7 @@ public class EntityAuthorityService {
             return true;
         }
         return collection != null && collection.getId() != null
-                && userPermissionRepository.existsByUserIdAndEntityIdAndRole(
+                && userPermissionSnapshotService.hasRole(
                         user.getId(),
                         collection.getId(),
                         PermissionRoleEnum.GESTIONNAIRE_COLLECTION.getLabel());
@@ -163,7 +160,7 @@ public class EntityAuthorityService {
         }
         Entity collection = collectionService.findCollectionIdByEntityId(referentiel.getId());
         return collection != null && collection.getId() != null
-                && userPermissionRepository.existsByUserIdAndEntityIdAndRole(
+                && userPermissionSnapshotService.hasRole(
                         user.getId(),
                         collection.getId(),
                         PermissionRoleEnum.GESTIONNAIRE_COLLECTION.getLabel());
@@ -249,7 +246,7 @@ public class EntityAuthorityService {
     }
 
     private boolean isGestionnaireReferentiel(Utilisateur user, Long referentialId) {
-        return userPermissionRepository.existsByUserIdAndEntityIdAndRole(
+        return userPermissionSnapshotService.hasRole(
                 user.getId(),
                 referentialId,
                 PermissionRoleEnum.GESTIONNAIRE_REFERENTIEL.getLabel());
@@ -264,7 +261,7 @@ public class EntityAuthorityService {
         }
         return groupService.findGroupByEntityId(entityId)
                 .filter(group -> group.getId() != null)
-                .map(group -> userPermissionRepository.existsByUserIdAndEntityIdAndRole(
+                .map(group -> userPermissionSnapshotService.hasRole(
                         user.getId(), group.getId(), PermissionRoleEnum.REDACTEUR.getLabel()))
                 .orElse(false);
     }
@@ -276,13 +273,7 @@ public class EntityAuthorityService {
         if (isAdminGroup(user.getGroupe())) {
             return true;
         }
-        if (user.getId() != null && utilisateurRepository != null) {
-            return utilisateurRepository.findByIdWithGroupe(user.getId())
-                    .map(Utilisateur::getGroupe)
-                    .filter(this::isAdminGroup)
-                    .isPresent();
-        }
-        return false;
+        return user.getId() != null && userPermissionSnapshotService.isAdministrateur(user.getId());
     }
 
     private boolean isAdminGroup(Groupe groupe) {
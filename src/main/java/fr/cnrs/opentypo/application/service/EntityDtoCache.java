@@ -0,0 +1,173 @@
+package fr.cnrs.opentypo.application.service;
+
+import fr.cnrs.opentypo.application.dto.EntityStatusEnum;
+import fr.cnrs.opentypo.application.dto.api.EntityResponseDto;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache en mémoire des {@link EntityResponseDto} publiés ({@code PUBLIQUE}) servis par
+ * {@code GET /api/v1/entities/{id}} et {@code /by-code/{code}}, par entité et niveau de détail.
+ * <p>
+ * Taille bornée (éviction LRU), compteurs de succès / échecs / évictions publiés dans Micrometer
+ * ({@code /actuator/metrics/opentypo.api.entity-cache.gets}, {@code .evictions}, {@code .size}).
+ * Les entrées sont retirées après commit par
+ * {@link fr.cnrs.opentypo.infrastructure.listener.EntityDtoCacheInvalidationListener} dès qu'une ligne
+ * de l'entité ou d'une table rattachée change ; les requêtes {@code @Modifying} (suppressions en masse,
+ * UPDATE natifs) passent par
+ * {@link fr.cnrs.opentypo.infrastructure.listener.EntityDtoCacheBulkModificationInvalidator},
+ * qui appelle {@link #invalidateAllAfterCommit()}.
+ * <p>
+ * Une génération, incrémentée à chaque invalidation, empêche de stocker un DTO construit
+ * avant un commit concurrent (même principe que {@link UserPermissionSnapshotService}).
+ */
+@Slf4j
+@Component
+public class EntityDtoCache implements MeterBinder {
+
+    private record Key(long entityId, boolean detail) {
+    }
+
+    /** Compteurs du cache depuis le démarrage. */
+    public record Stats(long hits, long misses, long evictions, int size, int maxSize) {
+    }
+
+    private final int maxSize;
+    private final Map<Key, EntityResponseDto> entries;
+    private final AtomicLong generation = new AtomicLong();
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private final AtomicLong evictions = new AtomicLong();
+
+    public EntityDtoCache(@Value("${opentypo.api.entity-cache.max-size:2000}") int maxSize) {
+        this.maxSize = Math.max(0, maxSize);
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Key, EntityResponseDto> eldest) {
+                if (size() > EntityDtoCache.this.maxSize) {
+                    evictions.incrementAndGet();
+                    return true;
+                }
+                return false;
+            }
+        };
+    }
+
+    /**
+     * Génération à relever avant de charger un DTO, puis à passer à {@link #put}.
+     */
+    public long generation() {
+        return generation.get();
+    }
+
+    public EntityResponseDto get(Long entityId, boolean detail) {
+        if (entityId == null || maxSize == 0) {
+            return null;
+        }
+        EntityResponseDto dto;
+        synchronized (entries) {
+            dto = entries.get(new Key(entityId, detail));
+        }
+        (dto != null ? hits : misses).incrementAndGet();
+        return dto;
+    }
+
+    /**
+     * Met en cache un DTO publié, sauf si une invalidation a eu lieu depuis {@code generationBeforeLoad}.
+     */
+    public void put(EntityResponseDto dto, boolean detail, long generationBeforeLoad) {
+        if (dto == null || dto.id() == null || maxSize == 0
+                || !EntityStatusEnum.PUBLIQUE.name().equals(dto.statut())) {
+            return;
+        }
+        synchronized (entries) {
+            if (generation.get() == generationBeforeLoad) {
+                entries.put(new Key(dto.id(), detail), dto);
+            }
+        }
+    }
+
+    /**
+     * Retire les DTO des entités indiquées (tous niveaux de détail).
+     */
+    public void invalidate(Collection<Long> entityIds) {
+        if (entityIds == null || entityIds.isEmpty()) {
+            return;
+        }
+        synchronized (entries) {
+            generation.incrementAndGet();
+            Set<Long> ids = new HashSet<>(entityIds);
+            entries.keySet().removeIf(key -> ids.contains(key.entityId()));
+        }
+    }
+
+    public void invalidateAll() {
+        synchronized (entries) {
+            generation.incrementAndGet();
+            entries.clear();
+        }
+        log.debug("Cache des DTO d'entités vidé");
+    }
+
+    /**
+     * Vide le cache après le commit de la transaction courante (immédiatement hors transaction),
+     * pour les écritures en masse qui ne passent pas par les événements Hibernate.
+     * Une seule synchronisation est enregistrée par transaction, quel que soit le nombre d'appels.
+     */
+    public void invalidateAllAfterCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            invalidateAll();
+            return;
+        }
+        boolean registered = TransactionSynchronizationManager.getSynchronizations().stream()
+                .anyMatch(InvalidateAllAfterCompletion.class::isInstance);
+        if (!registered) {
+            TransactionSynchronizationManager.registerSynchronization(new InvalidateAllAfterCompletion());
+        }
+    }
+
+    private final class InvalidateAllAfterCompletion implements TransactionSynchronization {
+        @Override
+        public void afterCompletion(int status) {
+            invalidateAll();
+        }
+    }
+
+    public Stats stats() {
+        synchronized (entries) {
+            return new Stats(hits.get(), misses.get(), evictions.get(), entries.size(), maxSize);
+        }
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        FunctionCounter.builder("opentypo.api.entity-cache.gets", hits, AtomicLong::get)
+                .tag("result", "hit")
+                .description("Lectures du cache des DTO d'entités servies depuis le cache")
+                .register(registry);
+        FunctionCounter.builder("opentypo.api.entity-cache.gets", misses, AtomicLong::get)
+                .tag("result", "miss")
+                .description("Lectures du cache des DTO d'entités sans entrée en cache")
+                .register(registry);
+        FunctionCounter.builder("opentypo.api.entity-cache.evictions", evictions, AtomicLong::get)
+                .description("Entrées retirées par l'éviction LRU")
+                .register(registry);
+        Gauge.builder("opentypo.api.entity-cache.size", this, cache -> cache.stats().size())
+                .description("Nombre de DTO en cache")
+                .register(registry);
+    }
+}
@@ -0,0 +1,167 @@
+package fr.cnrs.opentypo.application.service;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Différences entre deux états d'une entité dans son historique ({@link fr.cnrs.opentypo.application.dto.EntityRevisionDTO#getEntityData()}) :
+ * utilisées pour le résumé des champs modifiés de la liste des révisions et pour le détail d'une révision.
+ */
+public final class EntityRevisionDiff {
+
+    private EntityRevisionDiff() {
+        // Classe utilitaire - pas d'instanciation
+    }
+
+    /**
+     * Calcule les champs modifiés entre la révision actuelle et la précédente
+     * (clé → {@code old} / {@code new} ; labels et descriptions détaillés par langue, ex. {@code labels.fr}).
+     */
+    public static Map<String, Map<String, Object>> changedFields(Map<String, Object> currentData,
+                                                                 Map<String, Object> previousData) {
+        Map<String, Map<String, Object>> changes = new HashMap<>();
+
+        if (currentData == null) {
+            return changes;
+        }
+
+        // Si pas de données précédentes, tous les champs sont nouveaux (création)
+        if (previousData == null || previousData.isEmpty()) {
+            for (Map.Entry<String, Object> entry : currentData.entrySet()) {
+                if ("id".equals(entry.getKey())) continue;  // Ne pas afficher l'ID
+                Object newVal = entry.getValue();
+                // Ne pas afficher null → "" ou null → null (pas de changement réel)
+                if (!isConsideredNoChange(null, newVal)) {
+                    Map<String, Object> change = new HashMap<>();
+                    change.put("old", null);
+                    change.put("new", newVal);
+                    changes.put(entry.getKey(), change);
+                }
+            }
+            return changes;
+        }
+
+        // Comparer tous les champs de currentData
+        for (Map.Entry<String, Object> entry : currentData.entrySet()) {
+            String fieldName = entry.getKey();
+            if ("id".equals(fieldName)) continue;  // Ne pas afficher l'ID
+            Object currentValue = entry.getValue();
+            Object previousValue = previousData.get(fieldName);
+
+            // Vérifier si la valeur a changé (exclure null ↔ "" considéré comme sans changement)
+            if (!areEqual(currentValue, previousValue) && !isConsideredNoChange(previousValue, currentValue)) {
+                Map<String, Object> change = new HashMap<>();
+                change.put("old", previousValue);
+                change.put("new", currentValue);
+                changes.put(fieldName, change);
+            }
+        }
+
+        // Vérifier les champs qui existent seulement dans previousData (supprimés)
+        for (Map.Entry<String, Object> entry : previousData.entrySet()) {
+            String fieldName = entry.getKey();
+            if ("id".equals(fieldName)) continue;  // Ne pas afficher l'ID
+            if (!currentData.containsKey(fieldName)) {
+                Object oldVal = entry.getValue();
+                // Ne pas afficher "" → null ou null → null (pas de changement réel)
+                if (!isConsideredNoChange(oldVal, null)) {
+                    Map<String, Object> change = new HashMap<>();
+                    change.put("old", oldVal);
+                    change.put("new", null);
+                    changes.put(fieldName, change);
+                }
+            }
+        }
+
+        // Gestion spéciale pour les Map (labels, descriptions) - créer des entrées individuelles par langue
+        for (Map.Entry<String, Object> entry : currentData.entrySet()) {
+            String fieldName = entry.getKey();
+            Object currentValue = entry.getValue();
+            
+            if (currentValue instanceof Map) {
+                @SuppressWarnings("unchecked")
+                Map<String, String> currentMap = (Map<String, String>) currentValue;
+                @SuppressWarnings("unchecked")
+                Map<String, String> previousMap = previousData.get(fieldName) instanceof Map ? 
+                    (Map<String, String>) previousData.get(fieldName) : null;
+
+                // Comparer chaque clé de langue
+                for (Map.Entry<String, String> mapEntry : currentMap.entrySet()) {
+                    String languageKey = mapEntry.getKey();
+                    String currentLangValue = mapEntry.getValue();
+                    String previousLangValue = (previousMap != null && previousMap.containsKey(languageKey)) ? 
+                        previousMap.get(languageKey) : null;
+
+                    if (!areEqual(currentLangValue, previousLangValue) && !isConsideredNoChange(previousLangValue, currentLangValue)) {
+                        String granularFieldName = fieldName + "." + languageKey;
+                        Map<String, Object> change = new HashMap<>();
+                        change.put("old", previousLangValue);
+                        change.put("new", currentLangValue);
+                        changes.put(granularFieldName, change);
+                        
+                        // Retirer l'entrée globale si elle existe
+                        changes.remove(fieldName);
+                    }
+                }
+
+                // Vérifier les clés qui existent seulement dans previousMap
+                if (previousMap != null) {
+                    for (Map.Entry<String, String> mapEntry : previousMap.entrySet()) {
+                        String languageKey = mapEntry.getKey();
+                        if (!currentMap.containsKey(languageKey)) {
+                            Object oldVal = mapEntry.getValue();
+                            if (!isConsideredNoChange(oldVal, null)) {
+                                String granularFieldName = fieldName + "." + languageKey;
+                                Map<String, Object> change = new HashMap<>();
+                                change.put("old", oldVal);
+                                change.put("new", null);
+                                changes.put(granularFieldName, change);
+                                
+                                // Retirer l'entrée globale si elle existe
+                                changes.remove(fieldName);
+                            }
+                        }
+                    }
+                }
+            }
+        }
+
+        return changes;
+    }
+
+    /**
+     * Indique si null et chaîne vide ("") sont considérés comme équivalents (aucun changement réel).
+     */
+    private static boolean isConsideredNoChange(Object oldVal, Object newVal) {
+        return isNullOrEmpty(oldVal) && isNullOrEmpty(newVal);
+    }
+
+    private static boolean isNullOrEmpty(Object o) {
+        if (o == null) return true;
+        if (o instanceof String) return ((String) o).trim().isEmpty();
+        return false;
+    }
+
+    /**
+     * Compare deux valeurs pour déterminer si elles sont égales
+     */
+    private static boolean areEqual(Object value1, Object value2) {
+        if (value1 == null && value2 == null) {
+            return true;
+        }
+        if (value1 == null || value2 == null) {
+            return false;
+        }
+        
+        // Comparaison spéciale pour les Map
+        if (value1 instanceof Map && value2 instanceof Map) {
+            @SuppressWarnings("unchecked")
+            Map<?, ?> map1 = (Map<?, ?>) value1;
+            @SuppressWarnings("unchecked")
+            Map<?, ?> map2 = (Map<?, ?>) value2;
+            return map1.equals(map2);
+        }
+        
+        return value1.equals(value2);
+    }
+}
@@ -0,0 +1,417 @@
+package fr.cnrs.opentypo.application.service;
+
+import fr.cnrs.opentypo.domain.entity.CaracteristiquePhysique;
+import fr.cnrs.opentypo.domain.entity.CaracteristiquePhysiqueMonnaie;
+import fr.cnrs.opentypo.domain.entity.DescriptionDetail;
+import fr.cnrs.opentypo.domain.entity.DescriptionPate;
+import fr.cnrs.opentypo.domain.entity.EntityMetadata;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.TreeMap;
+
+/**
+ * Historique d'une entité reconstitué en mémoire : les lignes de chaque table d'audit, chargées en une requête
+ * par table et triées par révision, sont rejouées dans l'ordre ; {@link #snapshot()} donne alors l'état
+ * cumulé à chaque révision, sans requête par révision.
+ * <p>
+ * Les clés de cet état ({@link #ENTITY_PROPERTIES}, {@link #historyKey}, {@link #REFERENCE_LIST_KEYS}) sont aussi
+ * celles des champs modifiés que le listener de révision déduit des écritures Hibernate ({@code revision_change}).
+ */
+public final class EntityRevisionTimeline {
+
+    /** Valeurs Envers de {@code revtype}. */
+    static final int REVTYPE_ADD = 0;
+    static final int REVTYPE_MOD = 1;
+    static final int REVTYPE_DEL = 2;
+
+    /**
+     * Tables d'audit lues pour l'historique : colonne de rattachement à l'entité et colonnes chargées
+     * (après {@code rev, revtype}).
+     */
+    public enum AuditTable {
+        ENTITY("entity_aud", "id", "statut, id_ark, display_order, categorie_fonctionnelle"),
+        METADATA("entity_metadata_aud", "entity_id",
+                "code, commentaire, bibliographie, typologie_scientifique, identifiant_perenne, "
+                        + "ancienne_version, tpq, taq, ateliers, attestations, sites_archeologiques, reference, interne, "
+                        + "commentaire_datation, alignement_externe, rereference_bibliographique, corpus_externe, "
+                        + "denomination_instrumentum, corpus_lies, zotero_item_keys"),
+        LABEL("label_aud", "entity_id", "code_langue, nom"),
+        DESCRIPTION("description_aud", "entity_id", "code_langue, valeur"),
+        DESCRIPTION_DETAIL("description_detail_aud", "entity_id", "decors, marques, metrologie"),
+        DESCRIPTION_PATE("description_pate_aud", "entity_id", "description"),
+        DESCRIPTION_MONNAIE("description_monnaie_aud", "entity_id", "droit, legende_droit, revers, legende_revers"),
+        CARACTERISTIQUE_PHYSIQUE("caracteristique_physique_aud", "entity_id",
+                "metrologie_id, materiaux_id, forme_id, dimensions_id, technique_id"),
+        CARACTERISTIQUE_PHYSIQUE_MONNAIE("caracteristique_physique_monnaie_aud", "entity_id",
+                "materiau_id, denomination_id, metrologie, valeur_id, technique_id"),
+        IMAGE("image_aud", "entity_id", "id, url, legende"),
+        /** Lignes de l'entité et lignes des références pointées par ses caractéristiques (voir {@link #referencedOpenthesoIds}). */
+        REFERENCE_OPENTHESO("\"reference-opentheso_aud\"", "entity_id", "id, entity_id, code, valeur");
+
+        private final String tableName;
+        private final String entityIdColumn;
+        private final String columns;
+
+        AuditTable(String tableName, String entityIdColumn, String columns) {
+            this.tableName = tableName;
+            this.entityIdColumn = entityIdColumn;
+            this.columns = columns;
+        }
+
+        String tableName() {
+            return tableName;
+        }
+
+        String entityIdColumn() {
+            return entityIdColumn;
+        }
+
+        String columns() {
+            return columns;
+        }
+    }
+
+    /** Propriétés de l'entité reprises dans l'état, dans l'ordre des colonnes de {@link AuditTable#ENTITY}. */
+    public static final List<String> ENTITY_PROPERTIES = List.of("statut", "idArk", "displayOrder",
+            "categorieFonctionnelle");
+
+    /** Propriétés de {@link EntityMetadata}, dans l'ordre des colonnes de {@link AuditTable#METADATA}. */
+    private static final List<String> METADATA_PROPERTIES = List.of("code", "commentaire", "bibliographie",
+            "typologieScientifique", "identifiantPerenne", "ancienneVersion", "tpq", "taq", "ateliers", "attestations",
+            "sitesArcheologiques", "reference", "interne", "commentaireDatation", "alignementExterne",
+            "rereferenceBibliographique", "corpusExterne", "denominationInstrumentum", "corpusLies", "zoteroItemKeys");
+
+    /** Propriétés dont la clé dans l'état diffère du nom, par classe (voir {@link #historyKey}). */
+    private static final Map<Class<?>, Map<String, String>> RENAMED_PROPERTIES = Map.of(
+            EntityMetadata.class, Map.of("commentaire", "commentaireMetadata"),
+            DescriptionDetail.class, Map.of("metrologie", "metrologieDetail"),
+            DescriptionPate.class, Map.of("description", "descriptionPate"),
+            CaracteristiquePhysique.class, Map.of("metrologie", "metrologiePhysique"),
+            CaracteristiquePhysiqueMonnaie.class, Map.of(
+                    "materiaux", "materiauxMonnaie",
+                    "metrologie", "metrologieMonnaie",
+                    "valeur", "valeurMonnaie",
+                    "technique", "techniqueMonnaie"));
+
+    /** Listes {@code reference-opentheso} de l'entité : code de la référence → clé dans l'état (ordre d'affichage). */
+    public static final Map<String, String> REFERENCE_LIST_KEYS = referenceListKeys();
+
+    private final long entityId;
+    private final Map<AuditTable, Replay> replays = new EnumMap<>(AuditTable.class);
+
+    /**
+     * Références de l'entité par code : dernière ligne de chaque référence parmi celles rattachées à l'entité
+     * et portant ce code (filtre appliqué avant le choix de la dernière version, comme en SQL).
+     */
+    private final Map<String, Map<Object, AuditRow>> entityReferencesByCode = new HashMap<>();
+    /** Dernière ligne de {@code entity_aud} jusqu'à la révision courante, suppression comprise. */
+    private AuditRow lastEntityRow;
+    private AuditRow entityRowAtRevision;
+
+    /**
+     * @param rowsByTable lignes {@code rev, revtype, colonnes…} de chaque table, triées par révision
+     */
+    public EntityRevisionTimeline(long entityId, Map<AuditTable, List<Object[]>> rowsByTable) {
+        this.entityId = entityId;
+        for (AuditTable table : AuditTable.values()) {
+            replays.put(table, new Replay(rowsByTable.getOrDefault(table, List.of())));
+        }
+    }
+
+    /**
+     * Identifiants {@code reference-opentheso} pointés par {@code entity_aud} et les caractéristiques physiques,
+     * à charger avec les lignes de l'entité pour résoudre leurs valeurs.
+     */
+    static List<Long> referencedOpenthesoIds(List<Object[]> entityRows, List<Object[]> caracteristiqueRows,
+                                             List<Object[]> caracteristiqueMonnaieRows) {
+        List<Long> ids = new ArrayList<>();
+        collectIds(entityRows, ids, 5);
+        collectIds(caracteristiqueRows, ids, 2, 3, 4, 5, 6);
+        collectIds(caracteristiqueMonnaieRows, ids, 2, 3, 5, 6);
+        return ids.stream().distinct().toList();
+    }
+
+    private static void collectIds(List<Object[]> rows, List<Long> ids, int... columns) {
+        for (Object[] row : rows) {
+            for (int column : columns) {
+                if (column < row.length && row[column] instanceof Number n) {
+                    ids.add(n.longValue());
+                }
+            }
+        }
+    }
+
+    /**
+     * Rejoue les lignes jusqu'à {@code rev} inclus (révisions croissantes d'un appel à l'autre).
+     */
+    public void advanceTo(long rev) {
+        entityRowAtRevision = null;
+        for (Map.Entry<AuditTable, Replay> entry : replays.entrySet()) {
+            Replay replay = entry.getValue();
+            while (replay.hasRowUpTo(rev)) {
+                AuditRow row = replay.next();
+                switch (entry.getKey()) {
+                    case ENTITY -> {
+                        lastEntityRow = row;
+                        if (row.rev() == rev) {
+                            entityRowAtRevision = row;
+                        }
+                        replay.keepIfLive(row);
+                    }
+                    case LABEL, DESCRIPTION -> replay.keyed.put(Objects.toString(row.value(0), "unknown"), row);
+                    case IMAGE -> replay.keyed.put(row.value(0), row);
+                    case REFERENCE_OPENTHESO -> {
+                        replay.keyed.put(row.value(0), row);
+                        if (row.value(1) instanceof Number owner && owner.longValue() == entityId && row.value(2) != null) {
+                            entityReferencesByCode.computeIfAbsent(row.value(2).toString(),
+                                    code -> new TreeMap<>(EntityRevisionTimeline::compareKeys)).put(row.value(0), row);
+                        }
+                    }
+                    default -> replay.keepIfLive(row);
+                }
+            }
+        }
+    }
+
+    /** Entité présente à la révision courante (dernière ligne {@code entity_aud} non supprimée). */
+    boolean entityExists() {
+        return lastEntityRow != null && lastEntityRow.revtype() != REVTYPE_DEL;
+    }
+
+    /** {@code revtype} de {@code entity_aud} à la révision courante, {@code null} si la révision ne vient que d'une table liée. */
+    Integer entityRevisionType() {
+        return entityRowAtRevision != null ? entityRowAtRevision.revtype() : null;
+    }
+
+    /**
+     * État cumulé de l'entité à la révision atteinte par {@link #advanceTo(long)}
+     * (mêmes clés que la fiche d'historique).
+     */
+    public Map<String, Object> snapshot() {
+        Map<String, Object> data = new HashMap<>();
+        if (entityExists()) {
+            data.put("id", entityId);
+        }
+        putMultilingual(data, "labels", replays.get(AuditTable.LABEL));
+        putMultilingual(data, "descriptions", replays.get(AuditTable.DESCRIPTION));
+
+        AuditRow entity = replays.get(AuditTable.ENTITY).latestLive;
+        if (entity != null) {
+            putString(data, ENTITY_PROPERTIES.get(0), entity.value(0));
+            putString(data, ENTITY_PROPERTIES.get(1), entity.value(1));
+            putRaw(data, ENTITY_PROPERTIES.get(2), entity.value(2));
+            putReferenceValue(data, ENTITY_PROPERTIES.get(3), entity.value(3));
+        }
+        AuditRow metadata = replays.get(AuditTable.METADATA).latestLive;
+        if (metadata != null) {
+            for (int i = 0; i < METADATA_PROPERTIES.size(); i++) {
+                String property = METADATA_PROPERTIES.get(i);
+                if ("tpq".equals(property) || "taq".equals(property)) {
+                    putRaw(data, property, metadata.value(i));
+                } else {
+                    putString(data, historyKey(EntityMetadata.class, property), metadata.value(i));
+                }
+            }
+        }
+        AuditRow detail = replays.get(AuditTable.DESCRIPTION_DETAIL).latestLive;
+        if (detail != null) {
+            putString(data, "decors", detail.value(0));
+            putString(data, "marques", detail.value(1));
+            putString(data, historyKey(DescriptionDetail.class, "metrologie"), detail.value(2));
+        }
+        AuditRow pate = replays.get(AuditTable.DESCRIPTION_PATE).latestLive;
+        if (pate != null) {
+            putString(data, historyKey(DescriptionPate.class, "description"), pate.value(0));
+        }
+        putImages(data);
+        AuditRow monnaie = replays.get(AuditTable.DESCRIPTION_MONNAIE).latestLive;
+        if (monnaie != null) {
+            putString(data, "droit", monnaie.value(0));
+            putString(data, "legendeDroit", monnaie.value(1));
+            putString(data, "revers", monnaie.value(2));
+            putString(data, "legendeRevers", monnaie.value(3));
+        }
+        AuditRow physique = replays.get(AuditTable.CARACTERISTIQUE_PHYSIQUE).latestLive;
+        if (physique != null) {
+            putReferenceValue(data, historyKey(CaracteristiquePhysique.class, "metrologie"), physique.value(0));
+            putReferenceValue(data, "materiaux", physique.value(1));
+            putReferenceValue(data, "forme", physique.value(2));
+            putReferenceValue(data, "dimensions", physique.value(3));
+            putReferenceValue(data, "technique", physique.value(4));
+        }
+        AuditRow physiqueMonnaie = replays.get(AuditTable.CARACTERISTIQUE_PHYSIQUE_MONNAIE).latestLive;
+        if (physiqueMonnaie != null) {
+            Class<?> type = CaracteristiquePhysiqueMonnaie.class;
+            putReferenceValue(data, historyKey(type, "materiaux"), physiqueMonnaie.value(0));
+            putReferenceValue(data, historyKey(type, "denomination"), physiqueMonnaie.value(1));
+            putString(data, historyKey(type, "metrologie"), physiqueMonnaie.value(2));
+            putReferenceValue(data, historyKey(type, "valeur"), physiqueMonnaie.value(3));
+            putReferenceValue(data, historyKey(type, "technique"), physiqueMonnaie.value(4));
+        }
+        REFERENCE_LIST_KEYS.forEach((code, key) -> putReferenceList(data, code, key));
+        return data;
+    }
+
+    /** Clé dans l'état d'une propriété d'une table liée (nom de la propriété, sauf homonymes entre tables). */
+    public static String historyKey(Class<?> type, String property) {
+        return RENAMED_PROPERTIES.getOrDefault(type, Map.of()).getOrDefault(property, property);
+    }
+
+    private static Map<String, String> referenceListKeys() {
+        Map<String, String> keys = new LinkedHashMap<>();
+        keys.put("AIRE_CIRCULATION", "airesCirculation");
+        keys.put("APPELLATION_USUELLE", "appellation");
+        keys.put("FONCTION_USAGE", "fonctionUsage");
+        keys.put("FABRICATION_FACONNAGE", "fabricationPhysique");
+        keys.put("COULEUR_PATE", "couleurPate");
+        keys.put("NATURE_PATE", "naturePate");
+        keys.put("INCLUSIONS", "inclusionPate");
+        keys.put("CUISSON_POST_CUISSON", "cuissonPate");
+        return Collections.unmodifiableMap(keys);
+    }
+
+    private static void putMultilingual(Map<String, Object> data, String key, Replay replay) {
+        Map<String, String> values = new HashMap<>();
+        replay.keyed.forEach((langue, row) -> {
+            if (row.revtype() != REVTYPE_DEL) {
+                values.put((String) langue, row.value(1) != null ? row.value(1).toString() : "");
+            }
+        });
+        if (!values.isEmpty()) {
+            data.put(key, values);
+        }
+    }
+
+    private void putImages(Map<String, Object> data) {
+        List<Map<String, String>> images = new ArrayList<>();
+        for (AuditRow row : replays.get(AuditTable.IMAGE).keyed.values()) {
+            if (row.revtype() == REVTYPE_DEL) {
+                continue;
+            }
+            Map<String, String> image = new HashMap<>();
+            if (row.value(1) != null) image.put("url", row.value(1).toString());
+            if (row.value(2) != null) image.put("legende", row.value(2).toString());
+            if (!image.isEmpty()) images.add(image);
+        }
+        if (!images.isEmpty()) {
+            data.put("images", images);
+        }
+    }
+
+    /** Valeur d'une référence pointée par son identifiant (dernière version connue, hors suppression). */
+    private void putReferenceValue(Map<String, Object> data, String key, Object refId) {
+        if (!(refId instanceof Number n)) {
+            return;
+        }
+        AuditRow ref = replays.get(AuditTable.REFERENCE_OPENTHESO).keyed.get(n);
+        if (ref == null || ref.revtype() == REVTYPE_DEL) {
+            return;
+        }
+        String valeur = trimToNull(ref.value(3));
+        if (valeur != null) {
+            data.put(key, valeur);
+        }
+    }
+
+    /** Valeurs des références de l'entité pour un code (dernière version de chaque référence, hors suppressions). */
+    private void putReferenceList(Map<String, Object> data, String code, String key) {
+        List<String> values = new ArrayList<>();
+        for (AuditRow row : entityReferencesByCode.getOrDefault(code, Map.of()).values()) {
+            String valeur = trimToNull(row.value(3));
+            if (row.revtype() != REVTYPE_DEL && valeur != null) {
+                values.add(valeur);
+            }
+        }
+        if (!values.isEmpty()) {
+            data.put(key, values);
+        }
+    }
+
+    private static void putString(Map<String, Object> data, String key, Object value) {
+        if (value != null) {
+            data.put(key, value.toString());
+        }
+    }
+
+    private static void putRaw(Map<String, Object> data, String key, Object value) {
+        if (value != null) {
+            data.put(key, value);
+        }
+    }
+
+    private static String trimToNull(Object value) {
+        if (value == null) {
+            return null;
+        }
+        String s = value.toString().trim();
+        return s.isEmpty() ? null : s;
+    }
+
+    static int revisionType(Object value) {
+        if (value instanceof Number n) {
+            return n.intValue();
+        }
+        String s = value != null ? value.toString().trim() : "";
+        if ("0".equals(s) || "ADD".equalsIgnoreCase(s)) return REVTYPE_ADD;
+        if ("2".equals(s) || "DEL".equalsIgnoreCase(s)) return REVTYPE_DEL;
+        return REVTYPE_MOD;
+    }
+
+    /** Ligne d'audit : révision, type et colonnes de la table. */
+    private record AuditRow(long rev, int revtype, Object[] values) {
+
+        static AuditRow of(Object[] row) {
+            Object[] values = new Object[Math.max(0, row.length - 2)];
+            System.arraycopy(row, 2, values, 0, values.length);
+            return new AuditRow(((Number) row[0]).longValue(), revisionType(row[1]), values);
+        }
+
+        Object value(int index) {
+            return index < values.length ? values[index] : null;
+        }
+    }
+
+    /** Curseur sur les lignes d'une table et état cumulé correspondant. */
+    private static final class Replay {
+
+        private final List<AuditRow> rows;
+        private int position;
+        /** Tables 1-1 avec l'entité : dernière ligne non supprimée. */
+        private AuditRow latestLive;
+        /** Tables 1-n : dernière ligne par clé (langue ou identifiant), suppressions comprises ; ordre des identifiants. */
+        private final Map<Object, AuditRow> keyed = new TreeMap<>(EntityRevisionTimeline::compareKeys);
+
+        private Replay(List<Object[]> rows) {
+            this.rows = rows.stream().map(AuditRow::of).toList();
+        }
+
+        boolean hasRowUpTo(long rev) {
+            return position < rows.size() && rows.get(position).rev() <= rev;
+        }
+
+        AuditRow next() {
+            return rows.get(position++);
+        }
+
+        void keepIfLive(AuditRow row) {
+            if (row.revtype() != REVTYPE_DEL) {
+                latestLive = row;
+            }
+        }
+    }
+
+    /** Clés des tables 1-n : identifiants dans l'ordre numérique (comme {@code ORDER BY id}), langues par code. */
+    private static int compareKeys(Object a, Object b) {
+        if (a instanceof Number na && b instanceof Number nb) {
+            return Long.compare(na.longValue(), nb.longValue());
+        }
+        return Objects.toString(a, "").compareTo(Objects.toString(b, ""));
+    }
+}
@@ -0,0 +1,302 @@
+package fr.cnrs.opentypo.application.service;
+
+import fr.cnrs.opentypo.application.dto.EntitySearchCriteria;
+import fr.cnrs.opentypo.domain.entity.Entity;
+import fr.cnrs.opentypo.domain.entity.Label;
+import fr.cnrs.opentypo.infrastructure.persistence.EntityRepository;
+import jakarta.inject.Inject;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import jakarta.persistence.Query;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Recherche textuelle d'entités par code, libellé et description, résultats classés par pertinence.
+ * <p>
+ * Sous PostgreSQL, une seule requête native s'appuie sur les index trigrammes ({@code pg_trgm}) de
+ * {@code lower(entity_metadata.code)} et {@code lower(label.nom)} et sur le document plein texte
+ * {@code entity_search_document} (migration V68). Sur une autre base (H2 en test), la recherche retombe
+ * sur les requêtes JPQL {@code LIKE} d'{@link EntityRepository} et le même classement est appliqué en mémoire ;
+ * le périmètre y est résolu par {@link EntityStatusCascadeService#collectSelfAndDescendantIds}, car
+ * {@code entity_closure} n'est alimentée que par les triggers PostgreSQL.
+ * <p>
+ * Classement : égalité (3) &gt; préfixe (2) &gt; sous-chaîne (1), plus la similarité trigramme ;
+ * les correspondances uniquement plein texte (description, mots fléchis) viennent ensuite.
+ * Les autres ordres ({@link EntitySearchCriteria.Order}) sont appliqués par la requête, avant la limite,
+ * comme les filtres de statut, de type et de périmètre.
+ */
+@Slf4j
+@Service
+@Transactional(readOnly = true)
+public class EntitySearchService {
+
+    private static final Pattern WORD = Pattern.compile("[\\p{L}\\p{N}]+");
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    @Inject
+    private EntityRepository entityRepository;
+
+    @Inject
+    private EntityStatusCascadeService entityStatusCascadeService;
+
+    @Inject
+    private DataSource dataSource;
+
+    private volatile Boolean postgres;
+
+    /**
+     * Identifiants des entités correspondant aux critères, dans l'ordre demandé
+     * (par défaut du plus pertinent au moins pertinent).
+     */
+    public List<Long> searchIds(EntitySearchCriteria criteria) {
+        if (criteria == null || criteria.term() == null || criteria.term().isBlank() || criteria.limit() <= 0) {
+            return List.of();
+        }
+        return isPostgres() ? searchIdsPostgres(criteria) : searchIdsFallback(criteria);
+    }
+
+    /**
+     * Charge les entités trouvées (type, métadonnées et libellés inclus) dans l'ordre de {@link #searchIds}.
+     */
+    public List<Entity> search(EntitySearchCriteria criteria) {
+        List<Long> ids = searchIds(criteria);
+        if (ids.isEmpty()) {
+            return List.of();
+        }
+        List<Entity> loaded = entityRepository.findByIdsForApi(ids);
+        Map<Long, Entity> byId = new HashMap<>(loaded.size() * 2);
+        for (Entity entity : loaded) {
+            byId.put(entity.getId(), entity);
+        }
+        List<Entity> ordered = new ArrayList<>(ids.size());
+        for (Long id : ids) {
+            Entity entity = byId.get(id);
+            if (entity != null) {
+                ordered.add(entity);
+            }
+        }
+        return ordered;
+    }
+
+    private boolean isPostgres() {
+        Boolean value = postgres;
+        if (value == null) {
+            value = false;
+            try (Connection connection = dataSource.getConnection()) {
+                value = "PostgreSQL".equalsIgnoreCase(connection.getMetaData().getDatabaseProductName());
+            } catch (Exception e) {
+                log.warn("Impossible de déterminer le SGBD, recherche JPQL utilisée : {}", e.getMessage());
+            }
+            postgres = value;
+        }
+        return value;
+    }
+
+    // --- PostgreSQL : trigrammes + plein texte ---
+
+    private List<Long> searchIdsPostgres(EntitySearchCriteria criteria) {
+        String term = criteria.term().trim().toLowerCase(Locale.ROOT);
+        String escaped = escapeLike(term);
+        String pattern = switch (criteria.matchMode()) {
+            case EXACT -> escaped;
+            case STARTS_WITH -> escaped + "%";
+            case CONTAINS -> "%" + escaped + "%";
+        };
+        String tsQuery = criteria.matchMode() == EntitySearchCriteria.MatchMode.CONTAINS
+                ? toTsQuery(term, criteria.field())
+                : null;
+        boolean searchCode = criteria.field() != EntitySearchCriteria.Field.LABEL;
+        boolean searchLabel = criteria.field() != EntitySearchCriteria.Field.CODE;
+
+        List<String> parts = new ArrayList<>();
+        if (searchCode) {
+            parts.add("SELECT m.entity_id, " + scoreExpression("lower(m.code)") + " AS score "
+                    + "FROM entity_metadata m WHERE lower(m.code) LIKE :pattern");
+        }
+        if (searchLabel) {
+            parts.add("SELECT l.entity_id, " + scoreExpression("lower(l.nom)") + " AS score "
+                    + "FROM label l WHERE l.code_langue = :lang AND lower(l.nom) LIKE :pattern");
+        }
+        if (searchLabel && tsQuery != null) {
+            parts.add("SELECT d.entity_id, ts_rank(d.document, to_tsquery(entity_search_config(:lang), :tsQuery)) AS score "
+                    + "FROM entity_search_document d WHERE d.code_langue = :lang "
+                    + "AND d.document @@ to_tsquery(entity_search_config(:lang), :tsQuery)");
+        }
+
+        EntitySearchCriteria.Order order = criteria.order();
+        boolean byCode = order == EntitySearchCriteria.Order.CODE_ASC || order == EntitySearchCriteria.Order.CODE_DESC;
+        StringBuilder sql = new StringBuilder("SELECT h.entity_id FROM (")
+                .append(String.join(" UNION ALL ", parts))
+                .append(") h JOIN entity e ON e.id = h.entity_id");
+        if (byCode) {
+            sql.append(" LEFT JOIN entity_metadata em ON em.entity_id = e.id");
+        }
+        if (criteria.entityTypeCode() != null) {
+            sql.append(" JOIN entity_type et ON et.id = e.entity_type_id AND et.code = :typeCode");
+        }
+        sql.append(" WHERE 1 = 1");
+        if (criteria.statut() != null) {
+            sql.append(" AND e.statut = :statut");
+        }
+        if (criteria.scopeRootId() != null) {
+            sql.append(" AND (e.id = :rootId OR EXISTS (SELECT 1 FROM entity_closure ec "
+                    + "WHERE ec.ancestor_id = :rootId AND ec.descendant_id = e.id))");
+        }
+        sql.append(" GROUP BY h.entity_id, e.create_date");
+        if (byCode) {
+            sql.append(", em.code");
+        }
+        sql.append(" ORDER BY ").append(switch (order) {
+            case RELEVANCE -> "MAX(h.score) DESC, h.entity_id DESC";
+            case DATE_DESC -> "e.create_date DESC, h.entity_id DESC";
+            case DATE_ASC -> "e.create_date ASC, h.entity_id ASC";
+            case CODE_ASC -> "lower(COALESCE(em.code, '')) ASC, h.entity_id ASC";
+            case CODE_DESC -> "lower(COALESCE(em.code, '')) DESC, h.entity_id DESC";
+        }).append(" LIMIT :limit");
+
+        Query query = entityManager.createNativeQuery(sql.toString());
+        query.setParameter("pattern", pattern);
+        query.setParameter("term", term);
+        query.setParameter("prefix", escaped + "%");
+        if (searchLabel) {
+            query.setParameter("lang", criteria.langCode());
+        }
+        if (searchLabel && tsQuery != null) {
+            query.setParameter("tsQuery", tsQuery);
+        }
+        if (criteria.entityTypeCode() != null) {
+            query.setParameter("typeCode", criteria.entityTypeCode());
+        }
+        if (criteria.statut() != null) {
+            query.setParameter("statut", criteria.statut());
+        }
+        if (criteria.scopeRootId() != null) {
+            query.setParameter("rootId", criteria.scopeRootId());
+        }
+        query.setParameter("limit", criteria.limit());
+
+        List<Long> ids = new ArrayList<>();
+        for (Object row : query.getResultList()) {
+            ids.add(((Number) row).longValue());
+        }
+        return ids;
+    }
+
+    private static String scoreExpression(String column) {
+        return "(CASE WHEN " + column + " = :term THEN 3 WHEN " + column + " LIKE :prefix THEN 2 ELSE 1 END"
+                + " + similarity(" + column + ", :term))";
+    }
+
+    /**
+     * Requête plein texte « tous les mots » ; restreinte aux libellés (poids A) pour {@code field=LABEL}.
+     * Null si le texte ne contient aucun mot.
+     */
+    private static String toTsQuery(String term, EntitySearchCriteria.Field field) {
+        String weight = field == EntitySearchCriteria.Field.LABEL ? ":A" : "";
+        List<String> words = new ArrayList<>();
+        Matcher matcher = WORD.matcher(term);
+        while (matcher.find()) {
+            words.add(matcher.group() + weight);
+        }
+        return words.isEmpty() ? null : String.join(" & ", words);
+    }
+
+    private static String escapeLike(String value) {
+        return value.replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+    }
+
+    // --- Repli JPQL (H2, autres SGBD) ---
+
+    private List<Long> searchIdsFallback(EntitySearchCriteria criteria) {
+        String term = criteria.term().trim();
+        String lang = criteria.langCode();
+        List<Entity> candidates = switch (criteria.matchMode()) {
+            case EXACT -> entityRepository.searchByCodeOrLabelExact(term, lang);
+            case STARTS_WITH -> entityRepository.searchByCodeOrLabelStartsWith(term, lang);
+            case CONTAINS -> entityRepository.searchByCodeOrLabelContains(term, lang);
+        };
+        Set<Long> scope = criteria.scopeRootId() != null
+                ? entityStatusCascadeService.collectSelfAndDescendantIds(criteria.scopeRootId())
+                : null;
+
+        String lowerTerm = term.toLowerCase(Locale.ROOT);
+        record Ranked(Entity entity, int score) {
+        }
+        List<Ranked> ranked = new ArrayList<>();
+        for (Entity entity : candidates) {
+            if (entity == null || entity.getId() == null
+                    || (criteria.statut() != null && !criteria.statut().equals(entity.getStatut()))
+                    || (criteria.entityTypeCode() != null && (entity.getEntityType() == null
+                        || !criteria.entityTypeCode().equals(entity.getEntityType().getCode())))
+                    || (scope != null && !scope.contains(entity.getId()))) {
+                continue;
+            }
+            int score = 0;
+            if (criteria.field() != EntitySearchCriteria.Field.LABEL) {
+                score = Math.max(score, score(entity.getCode(), lowerTerm, criteria.matchMode()));
+            }
+            if (criteria.field() != EntitySearchCriteria.Field.CODE && entity.getLabels() != null) {
+                for (Label label : entity.getLabels()) {
+                    if (label.getLangue() != null && lang != null && lang.equals(label.getLangue().getCode())) {
+                        score = Math.max(score, score(label.getNom(), lowerTerm, criteria.matchMode()));
+                    }
+                }
+            }
+            if (score > 0) {
+                ranked.add(new Ranked(entity, score));
+            }
+        }
+        Comparator<Entity> byId = Comparator.comparing(Entity::getId);
+        Comparator<Entity> byCode = Comparator.comparing(
+                (Entity e) -> e.getCode() != null ? e.getCode() : "", String.CASE_INSENSITIVE_ORDER);
+        Comparator<Entity> byDate = Comparator.comparing(
+                Entity::getCreateDate, Comparator.nullsLast(Comparator.<LocalDateTime>naturalOrder()));
+        Comparator<Ranked> comparator = switch (criteria.order()) {
+            case RELEVANCE -> Comparator.comparingInt(Ranked::score).reversed()
+                    .thenComparing(Ranked::entity, byId.reversed());
+            case DATE_DESC -> Comparator.comparing(Ranked::entity, byDate.thenComparing(byId).reversed());
+            case DATE_ASC -> Comparator.comparing(Ranked::entity, byDate.thenComparing(byId));
+            case CODE_ASC -> Comparator.comparing(Ranked::entity, byCode.thenComparing(byId));
+            case CODE_DESC -> Comparator.comparing(Ranked::entity, byCode.thenComparing(byId).reversed());
+        };
+        return ranked.stream()
+                .sorted(comparator)
+                .limit(criteria.limit())
+                .map(r -> r.entity().getId())
+                .toList();
+    }
+
+    private static int score(String value, String lowerTerm, EntitySearchCriteria.MatchMode matchMode) {
+        if (value == null) {
+            return 0;
+        }
+        String lower = value.toLowerCase(Locale.ROOT);
+        if (lower.equals(lowerTerm)) {
+            return 3;
+        }
+        if (matchMode == EntitySearchCriteria.MatchMode.EXACT) {
+            return 0;
+        }
+        if (lower.startsWith(lowerTerm)) {
+            return 2;
+        }
+        return matchMode == EntitySearchCriteria.MatchMode.CONTAINS && lower.contains(lowerTerm) ? 1 : 0;
+    }
+}
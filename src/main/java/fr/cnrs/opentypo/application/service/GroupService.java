@@ -59,7 +59,7 @@ public class GroupService implements Serializable {
     /**
      * Retourne le groupe auquel l'entité d'ID donné est rattachée.
      * Si l'entité passée en paramètre est elle-même un groupe, on retourne cette entité.
-     * Sinon, on remonte l'arbre des relations parent-enfant jusqu'à trouver un ancêtre de type GROUPE.
+     * Sinon, l'ancêtre de type GROUPE le plus proche est lu dans la table de fermeture.
      *
      * @param entityId identifiant de l'entité de départ
      * @return le groupe rattaché à l'entité, ou Optional.empty() si non trouvé
@@ -74,19 +74,10 @@ public class GroupService implements Serializable {
             return Optional.empty();
         }
 
-        while (current != null) {
-            if (current.getEntityType() != null
-                    && EntityConstants.ENTITY_TYPE_GROUP.equals(current.getEntityType().getCode())) {
-                return Optional.of(current);
-            }
-
-            List<Entity> parents = entityRelationRepository.findParentsByChild(current);
-            if (parents == null || parents.isEmpty()) {
-                break;
-            }
-            current = parents.get(0);
+        if (current.getEntityType() != null
+                && EntityConstants.ENTITY_TYPE_GROUP.equals(current.getEntityType().getCode())) {
+            return Optional.of(current);
         }
-
-        return Optional.empty();
+        return entityRepository.findNearestAncestorOfType(entityId, EntityConstants.ENTITY_TYPE_GROUP);
     }
 }
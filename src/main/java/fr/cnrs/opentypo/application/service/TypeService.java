@@ -141,17 +141,13 @@ public class TypeService implements Serializable {
     /** Retourne le référentiel ancêtre d'une entité (pour vérification des permissions). */
     public Entity findReferenceAncestor(Entity entity) {
         if (entity == null) return null;
-        Entity current = entity;
-        while (current != null) {
-            if (current.getEntityType() != null
-                    && EntityConstants.ENTITY_TYPE_REFERENCE.equals(current.getEntityType().getCode())) {
-                return current;
-            }
-            List<Entity> parents = entityRelationRepository.findParentsByChild(current);
-            if (parents == null || parents.isEmpty()) break;
-            current = parents.get(0);
+        if (entity.getEntityType() != null
+                && EntityConstants.ENTITY_TYPE_REFERENCE.equals(entity.getEntityType().getCode())) {
+            return entity;
         }
-        return null;
+        if (entity.getId() == null) return null;
+        return entityRepository.findNearestAncestorOfType(entity.getId(), EntityConstants.ENTITY_TYPE_REFERENCE)
+                .orElse(null);
     }
 
     /**
@@ -563,6 +559,7 @@ public class TypeService implements Serializable {
 
     /**
      * Change le parent d'un type : supprime l'ancienne relation et crée la nouvelle.
+     * La table {@code entity_closure} est recalculée par trigger dans la même transaction.
      */
     public void changeTypeParent(Entity type, Entity newParent) {
         if (type == null || newParent == null) return;
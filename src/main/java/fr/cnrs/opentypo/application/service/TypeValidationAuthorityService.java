@@ -6,7 +6,6 @@ import fr.cnrs.opentypo.common.constant.EntityConstants;
 import fr.cnrs.opentypo.domain.entity.Entity;
 import fr.cnrs.opentypo.domain.entity.Utilisateur;
 import fr.cnrs.opentypo.infrastructure.persistence.EntityRepository;
-import fr.cnrs.opentypo.infrastructure.persistence.UserPermissionRepository;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 
@@ -29,7 +28,7 @@ public class TypeValidationAuthorityService {
     private TypeService typeService;
 
     @Autowired
-    private UserPermissionRepository userPermissionRepository;
+    private UserPermissionSnapshotService userPermissionSnapshotService;
 
     /**
      * @param typeEntityId identifiant de l’entité de type TYPE (la fiche type)
@@ -50,20 +49,20 @@ public class TypeValidationAuthorityService {
 
         Long userId = user.getId();
 
-        if (userPermissionRepository.existsByUserIdAndEntityIdAndRole(
+        if (userPermissionSnapshotService.hasRole(
                 userId, typeEntityId, PermissionRoleEnum.VALIDEUR.getLabel())) {
             return true;
         }
 
         Optional<Entity> group = groupService.findGroupByEntityId(typeEntityId);
-        if (group.isPresent() && userPermissionRepository.existsByUserIdAndEntityIdAndRole(
+        if (group.isPresent() && userPermissionSnapshotService.hasRole(
                 userId, group.get().getId(), PermissionRoleEnum.VALIDEUR.getLabel())) {
             return true;
         }
 
         Entity reference = typeService.findReferenceAncestor(typeEntity);
         return reference != null && reference.getId() != null
-                && userPermissionRepository.existsByUserIdAndEntityIdAndRole(
+                && userPermissionSnapshotService.hasRole(
                         userId, reference.getId(), PermissionRoleEnum.GESTIONNAIRE_REFERENTIEL.getLabel());
     }
 
@@ -0,0 +1,115 @@
+package fr.cnrs.opentypo.application.service;
+
+import fr.cnrs.opentypo.application.dto.UserPermissionSnapshot;
+import fr.cnrs.opentypo.domain.entity.Groupe;
+import fr.cnrs.opentypo.infrastructure.persistence.UserPermissionRepository;
+import fr.cnrs.opentypo.infrastructure.persistence.UtilisateurRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Instantané des permissions ({@code user_permission} et groupe) de l'utilisateur, chargé en une fois
+ * puis conservé dans la session HTTP (ou la requête s'il n'y a pas de session).
+ * Toute modification de permissions doit appeler {@link #invalidate()} : les instantanés déjà en session
+ * sont alors rechargés au prochain accès.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class UserPermissionSnapshotService {
+
+    private static final String ATTRIBUTE_PREFIX = "opentypo_permission_snapshot_";
+
+    /** Génération courante des permissions ; incrémentée à chaque modification. */
+    private static final AtomicLong GENERATION = new AtomicLong();
+
+    private final UserPermissionRepository userPermissionRepository;
+    private final UtilisateurRepository utilisateurRepository;
+
+    /**
+     * Instantané des permissions de l'utilisateur, rechargé uniquement si les permissions ont changé
+     * depuis le dernier chargement.
+     *
+     * @param userId identifiant de l'utilisateur (null : instantané vide)
+     */
+    public UserPermissionSnapshot snapshotFor(Long userId) {
+        if (userId == null) {
+            return UserPermissionSnapshot.EMPTY;
+        }
+        long generation = GENERATION.get();
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return load(userId, generation);
+        }
+        int scope = hasSession(attributes) ? RequestAttributes.SCOPE_SESSION : RequestAttributes.SCOPE_REQUEST;
+        String key = ATTRIBUTE_PREFIX + userId;
+        Object cached = attributes.getAttribute(key, scope);
+        if (cached instanceof UserPermissionSnapshot snapshot && snapshot.getGeneration() == generation) {
+            return snapshot;
+        }
+        UserPermissionSnapshot snapshot = load(userId, generation);
+        attributes.setAttribute(key, snapshot, scope);
+        return snapshot;
+    }
+
+    /**
+     * Vérifie si l'utilisateur a le rôle indiqué sur l'entité (sans requête si l'instantané est à jour).
+     */
+    public boolean hasRole(Long userId, Long entityId, String roleLabel) {
+        return snapshotFor(userId).hasRole(entityId, roleLabel);
+    }
+
+    /**
+     * Vérifie si l'utilisateur a au moins une permission (tous rôles) sur l'entité.
+     */
+    public boolean hasAnyRole(Long userId, Long entityId) {
+        return snapshotFor(userId).hasAnyRole(entityId);
+    }
+
+    /**
+     * Vérifie si l'utilisateur appartient à un groupe administrateur (technique ou fonctionnel).
+     */
+    public boolean isAdministrateur(Long userId) {
+        return snapshotFor(userId).isAdministrateur();
+    }
+
+    /**
+     * À appeler après toute écriture dans {@code user_permission} ou tout changement de groupe d'un utilisateur.
+     * Dans une transaction, la génération n'est incrémentée qu'après le commit : une requête concurrente
+     * ne peut pas mettre en cache, sous la nouvelle génération, les permissions d'avant le commit.
+     */
+    public void invalidate() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            GENERATION.incrementAndGet();
+            return;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                GENERATION.incrementAndGet();
+            }
+        });
+    }
+
+    private UserPermissionSnapshot load(Long userId, long generation) {
+        String groupeNom = utilisateurRepository.findByIdWithGroupe(userId)
+                .map(u -> u.getGroupe())
+                .map(Groupe::getNom)
+                .orElse(null);
+        return UserPermissionSnapshot.of(userId, groupeNom,
+                userPermissionRepository.findEntityIdAndRoleByUserId(userId), generation);
+    }
+
+    private static boolean hasSession(RequestAttributes attributes) {
+        return attributes instanceof ServletRequestAttributes servletAttributes
+                && servletAttributes.getRequest().getSession(false) != null;
+    }
+}
@@ -0,0 +1,228 @@
+package fr.cnrs.opentypo.application.service;
+
+import fr.cnrs.opentypo.application.dto.EntityStatusEnum;
+import fr.cnrs.opentypo.application.dto.GroupEnum;
+import fr.cnrs.opentypo.common.constant.EntityConstants;
+import fr.cnrs.opentypo.domain.entity.Entity;
+import fr.cnrs.opentypo.domain.entity.Groupe;
+import fr.cnrs.opentypo.domain.entity.Utilisateur;
+import fr.cnrs.opentypo.infrastructure.persistence.EntityRepository;
+import fr.cnrs.opentypo.infrastructure.persistence.UserPermissionRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * Visibilité des entités pour un utilisateur, évaluée par lots.
+ * Mêmes règles que l'évaluation unitaire historique de {@code ApplicationBean} :
+ * <ul>
+ *   <li>administrateur technique ou fonctionnel : tout est visible ;</li>
+ *   <li>statut REFUSED : jamais visible ;</li>
+ *   <li>non connecté : statut PUBLIQUE uniquement ;</li>
+ *   <li>connecté : collections, éléments d'une collection PUBLIQUE, éléments d'une collection autorisée
+ *       via {@code user_permission}.</li>
+ * </ul>
+ * Le coût est constant en nombre de requêtes : collections autorisées de l'utilisateur (une requête)
+ * et collection ancêtre de toutes les entités demandées (une requête sur {@code entity_closure}).
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class VisibilityService {
+
+    private final EntityRepository entityRepository;
+    private final UserPermissionRepository userPermissionRepository;
+
+    /**
+     * Visibilité d'une liste d'identifiants : le bit {@code i} vaut {@code true} si {@code entityIds.get(i)} est visible.
+     * Un identifiant null ou inconnu n'est pas visible.
+     *
+     * @param entityIds identifiants à évaluer
+     * @param user      utilisateur connecté, ou null pour un visiteur anonyme
+     */
+    public BitSet evaluate(List<Long> entityIds, Utilisateur user) {
+        BitSet visible = new BitSet(entityIds != null ? entityIds.size() : 0);
+        if (entityIds == null || entityIds.isEmpty()) {
+            return visible;
+        }
+        Set<Long> distinctIds = entityIds.stream().filter(Objects::nonNull).collect(Collectors.toSet());
+        if (distinctIds.isEmpty()) {
+            return visible;
+        }
+
+        Map<Long, String[]> statutAndTypeById = new HashMap<>();
+        for (Object[] row : entityRepository.findStatutAndTypeCodeByIds(distinctIds)) {
+            statutAndTypeById.put(((Number) row[0]).longValue(), new String[]{(String) row[1], (String) row[2]});
+        }
+
+        VisibilityPredicate predicate = newPredicate(user);
+        predicate.prefetchIds(statutAndTypeById.keySet());
+        for (int i = 0; i < entityIds.size(); i++) {
+            Long id = entityIds.get(i);
+            String[] statutAndType = id != null ? statutAndTypeById.get(id) : null;
+            if (statutAndType != null && predicate.isVisible(id, statutAndType[0], statutAndType[1])) {
+                visible.set(i);
+            }
+        }
+        return visible;
+    }
+
+    /**
+     * Prédicat de visibilité réutilisable (typiquement pendant une requête JSF).
+     * Les collections autorisées et les collections ancêtres sont mémorisées ; appeler
+     * {@link VisibilityPredicate#prefetch(Collection)} avant de filtrer une liste pour tout charger en une requête.
+     *
+     * @param user utilisateur connecté, ou null pour un visiteur anonyme
+     */
+    public VisibilityPredicate newPredicate(Utilisateur user) {
+        return new VisibilityPredicate(user);
+    }
+
+    /**
+     * Administrateur technique ou fonctionnel : voit toutes les entités.
+     *
+     * @param user utilisateur connecté, ou null pour un visiteur anonyme
+     */
+    public boolean isAdmin(Utilisateur user) {
+        return user != null && isAdminGroup(user.getGroupe());
+    }
+
+    private static boolean isAdminGroup(Groupe groupe) {
+        if (groupe == null || groupe.getNom() == null) {
+            return false;
+        }
+        String groupeNom = groupe.getNom();
+        return GroupEnum.ADMINISTRATEUR_TECHNIQUE.getLabel().equalsIgnoreCase(groupeNom)
+                || GroupEnum.ADMINISTRATEUR_FONCTIONNEL.getLabel().equalsIgnoreCase(groupeNom);
+    }
+
+    /**
+     * Prédicat de visibilité pour un utilisateur donné. Le statut et le type sont lus sur l'entité en mémoire ;
+     * seule la collection ancêtre est résolue en base (par lot via {@link #prefetch(Collection)}).
+     */
+    public final class VisibilityPredicate implements Predicate<Entity> {
+
+        /** Marqueur « aucune collection ancêtre » dans le cache. */
+        private static final CollectionAncestor NO_COLLECTION = new CollectionAncestor(null, null);
+
+        private final Utilisateur user;
+        private final boolean admin;
+        private final Map<Long, CollectionAncestor> collectionAncestorById = new HashMap<>();
+        private Set<Long> allowedCollectionIds;
+
+        private VisibilityPredicate(Utilisateur user) {
+            this.user = user;
+            this.admin = user != null && isAdminGroup(user.getGroupe());
+        }
+
+        @Override
+        public boolean test(Entity entity) {
+            if (entity == null) {
+                return false;
+            }
+            String typeCode = entity.getEntityType() != null ? entity.getEntityType().getCode() : null;
+            return isVisible(entity.getId(), entity.getStatut(), typeCode);
+        }
+
+        /**
+         * Charge en une requête la collection ancêtre des entités données (utile avant un {@code filter}).
+         */
+        public VisibilityPredicate prefetch(Collection<Entity> entities) {
+            if (entities == null || entities.isEmpty() || !needsCollectionAncestors()) {
+                return this;
+            }
+            Set<Long> ids = new HashSet<>();
+            for (Entity entity : entities) {
+                if (entity != null && entity.getId() != null) {
+                    ids.add(entity.getId());
+                }
+            }
+            return prefetchIds(ids);
+        }
+
+        private VisibilityPredicate prefetchIds(Collection<Long> ids) {
+            if (!needsCollectionAncestors()) {
+                return this;
+            }
+            Set<Long> missing = new HashSet<>();
+            for (Long id : ids) {
+                if (id != null && !collectionAncestorById.containsKey(id)) {
+                    missing.add(id);
+                }
+            }
+            if (missing.isEmpty()) {
+                return this;
+            }
+            for (Object[] row : entityRepository.findCollectionAncestorsByIds(missing)) {
+                Long descendantId = ((Number) row[0]).longValue();
+                Long collectionId = ((Number) row[1]).longValue();
+                collectionAncestorById.put(descendantId, new CollectionAncestor(collectionId, (String) row[2]));
+            }
+            for (Long id : missing) {
+                collectionAncestorById.putIfAbsent(id, NO_COLLECTION);
+            }
+            return this;
+        }
+
+        private boolean isVisible(Long entityId, String statut, String typeCode) {
+            if (admin) {
+                return true;
+            }
+            if (EntityStatusEnum.REFUSE.name().equals(statut)) {
+                return false;
+            }
+            if (user == null) {
+                return EntityStatusEnum.PUBLIQUE.name().equals(statut);
+            }
+            if (EntityConstants.ENTITY_TYPE_COLLECTION.equals(typeCode)) {
+                return true;
+            }
+            CollectionAncestor collection = collectionAncestor(entityId);
+            if (collection.id() == null) {
+                return false;
+            }
+            if (EntityStatusEnum.PUBLIQUE.name().equals(collection.statut())) {
+                return true;
+            }
+            return allowedCollectionIds().contains(collection.id());
+        }
+
+        private boolean needsCollectionAncestors() {
+            return !admin && user != null;
+        }
+
+        private CollectionAncestor collectionAncestor(Long entityId) {
+            if (entityId == null) {
+                return NO_COLLECTION;
+            }
+            if (!collectionAncestorById.containsKey(entityId)) {
+                prefetchIds(List.of(entityId));
+            }
+            return collectionAncestorById.getOrDefault(entityId, NO_COLLECTION);
+        }
+
+        private Set<Long> allowedCollectionIds() {
+            if (allowedCollectionIds == null) {
+                allowedCollectionIds = user.getId() == null
+                        ? Set.of()
+                        : new HashSet<>(userPermissionRepository.findEntityIdsByUserIdAndEntityTypeCode(
+                                user.getId(), EntityConstants.ENTITY_TYPE_COLLECTION));
+            }
+            return allowedCollectionIds;
+        }
+    }
+
+    private record CollectionAncestor(Long id, String statut) {
+    }
+}
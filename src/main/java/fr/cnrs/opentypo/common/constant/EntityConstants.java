@@ -17,6 +17,12 @@ public final class EntityConstants {
     public static final String ENTITY_TYPE_SERIES = "SERIE";
     public static final String ENTITY_TYPE_TYPE = "TYPE";
 
+    /**
+     * Identifiants réservés par appel de séquence pour les tables écrites en masse par l'import CSV
+     * (pas d'INCREMENT BY de la séquence, voir migration V71) : les INSERT peuvent alors être envoyés par lots JDBC.
+     */
+    public static final int ID_ALLOCATION_SIZE = 50;
+
     /** Longueur max des colonnes VARCHAR en base (voir migration V61). */
     public static final int VARCHAR_COLUMN_MAX_LENGTH = 1000;
 
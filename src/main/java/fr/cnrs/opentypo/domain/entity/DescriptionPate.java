@@ -24,7 +24,8 @@ import java.io.Serializable;
 public class DescriptionPate implements Serializable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "description_pate_id_seq")
+    @SequenceGenerator(name = "description_pate_id_seq", sequenceName = "description_pate_id_seq", allocationSize = EntityConstants.ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(name = "description", length = EntityConstants.VARCHAR_COLUMN_MAX_LENGTH)
@@ -13,6 +13,7 @@ import jakarta.persistence.ManyToMany;
 import jakarta.persistence.ManyToOne;
 import jakarta.persistence.OneToMany;
 import jakarta.persistence.OneToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AccessLevel;
 import lombok.Getter;
@@ -44,7 +45,8 @@ import java.util.stream.Collectors;
 public class Entity implements Serializable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "entity_id_seq")
+    @SequenceGenerator(name = "entity_id_seq", sequenceName = "entity_id_seq", allocationSize = EntityConstants.ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(name = "statut", length = EntityConstants.VARCHAR_COLUMN_MAX_LENGTH)
@@ -104,7 +106,9 @@ public class Entity implements Serializable {
     @OneToMany(mappedBy = "entity", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<ReferenceOpentheso> airesCirculation = new ArrayList<>();
 
+    // BatchSize : appellation lue pour chaque entité d'une liste API (évite N+1)
     @SQLRestriction("code = 'APPELLATION_USUELLE'")
+    @BatchSize(size = 50)
     @OneToMany(mappedBy = "entity", cascade = CascadeType.ALL, orphanRemoval = true)
     private List<ReferenceOpentheso> appellationsUsuelles = new ArrayList<>();
 
@@ -0,0 +1,51 @@
+package fr.cnrs.opentypo.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Embeddable;
+import jakarta.persistence.EmbeddedId;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import org.hibernate.annotations.Immutable;
+import org.hibernate.annotations.Subselect;
+import org.hibernate.annotations.Synchronize;
+
+import java.io.Serializable;
+
+/**
+ * Vue en lecture seule de la table de fermeture {@code entity_closure} (couples ancêtre / descendant).
+ * La table est créée et maintenue en base (migration Flyway et triggers sur {@code entity_relation}) ;
+ * ce mapping sert uniquement à restreindre une requête JPQL au sous-arbre d'une entité.
+ */
+@jakarta.persistence.Entity
+@Immutable
+@Subselect("SELECT ancestor_id, descendant_id, depth, ancestor_type_code FROM entity_closure")
+@Synchronize("entity_closure")
+@Getter
+@NoArgsConstructor
+public class EntityClosure implements Serializable {
+
+    @EmbeddedId
+    private EntityClosureId id;
+
+    @Column(name = "depth")
+    private Integer depth;
+
+    @Column(name = "ancestor_type_code")
+    private String ancestorTypeCode;
+
+    /**
+     * Clé composite pour EntityClosure
+     */
+    @Embeddable
+    @Getter
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class EntityClosureId implements Serializable {
+        @Column(name = "ancestor_id")
+        private Long ancestorId;
+
+        @Column(name = "descendant_id")
+        private Long descendantId;
+    }
+}
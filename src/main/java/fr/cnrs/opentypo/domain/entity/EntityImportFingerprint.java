@@ -0,0 +1,45 @@
+package fr.cnrs.opentypo.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Empreinte de la ligne CSV qui a écrit une entité lors du dernier import de typologie (import différentiel).
+ * <p>
+ * {@code rev} est la révision Envers du lot d'import qui a écrit l'empreinte, prise dans sa transaction :
+ * une révision plus récente de l'entité ou de l'une de ses tables liées ({@code revision_change}, modification
+ * depuis l'application) rend l'empreinte caduque et la ligne est réappliquée au prochain import.
+ */
+@jakarta.persistence.Entity
+@Table(name = "entity_import_fingerprint")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class EntityImportFingerprint implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    @Id
+    @Column(name = "entity_id")
+    private Long entityId;
+
+    /** SHA-256 hexadécimal de la ligne CSV. */
+    @Column(name = "fingerprint", nullable = false, length = 64)
+    private String fingerprint;
+
+    /** Révision du lot d'import ({@code null} pour les empreintes antérieures : toujours réappliquées). */
+    @Column(name = "rev")
+    private Long rev;
+
+    @Column(name = "imported_at", nullable = false)
+    private LocalDateTime importedAt;
+}
@@ -10,7 +10,8 @@ import org.hibernate.envers.Audited;
 import java.io.Serializable;
 
 /**
- * Entité de relation pour les relations parent-enfant entre entités
+ * Entité de relation pour les relations parent-enfant entre entités.
+ * La fermeture transitive ({@code entity_closure}) est maintenue par triggers sur cette table (migration V67).
  */
 @jakarta.persistence.Entity
 @Audited
@@ -0,0 +1,47 @@
+package fr.cnrs.opentypo.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Résultat de la dernière vérification réseau d'une URL d'image (analyse d'import CSV),
+ * réutilisé par les imports suivants tant qu'il n'est pas périmé.
+ */
+@jakarta.persistence.Entity
+@Table(name = "image_url_validation")
+@Getter
+@Setter
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImageUrlValidation implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    /** SHA-256 hexadécimal de l'URL. */
+    @Id
+    @Column(name = "url_hash", length = 64)
+    private String urlHash;
+
+    @Column(name = "url", nullable = false, columnDefinition = "TEXT")
+    private String url;
+
+    @Column(name = "valid", nullable = false)
+    private boolean valid;
+
+    @Column(name = "http_status", nullable = false)
+    private int httpStatus;
+
+    @Column(name = "content_type")
+    private String contentType;
+
+    @Column(name = "checked_at", nullable = false)
+    private LocalDateTime checkedAt;
+}
@@ -0,0 +1,109 @@
+package fr.cnrs.opentypo.domain.entity;
+
+import jakarta.persistence.Column;
+import jakarta.persistence.EnumType;
+import jakarta.persistence.Enumerated;
+import jakarta.persistence.GeneratedValue;
+import jakarta.persistence.GenerationType;
+import jakarta.persistence.Id;
+import jakarta.persistence.Table;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+import lombok.Setter;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+
+/**
+ * Import CSV de typologie soumis à la file d'exécution : fichier déposé, état et avancement
+ * (lignes validées lot par lot), conservés pour reprendre l'import après annulation, échec ou redémarrage.
+ */
+@jakarta.persistence.Entity
+@Table(name = "import_job")
+@Getter
+@Setter
+@NoArgsConstructor
+public class ImportJob implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    public enum Status {
+        QUEUED,
+        RUNNING,
+        COMPLETED,
+        PARTIAL,
+        CANCELLED,
+        FAILED;
+
+        public boolean isTerminal() {
+            return this != QUEUED && this != RUNNING;
+        }
+
+        /** Import arrêté avant la fin : peut reprendre après la dernière ligne validée. */
+        public boolean isResumable() {
+            return this == PARTIAL || this == CANCELLED || this == FAILED;
+        }
+    }
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "reference_id", nullable = false)
+    private Long referenceId;
+
+    @Column(name = "collection_profile", nullable = false, length = 20)
+    private String collectionProfile;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "status", nullable = false, length = 20)
+    private Status status;
+
+    /** Copie du CSV propre au job (répertoire opentypo.import.jobs.directory). */
+    @Column(name = "csv_path", nullable = false, columnDefinition = "TEXT")
+    private String csvPath;
+
+    @Column(name = "file_name")
+    private String fileName;
+
+    @Column(name = "user_id")
+    private Long userId;
+
+    @Column(name = "create_by")
+    private String createBy;
+
+    /** Lignes à importer (connu au démarrage). */
+    @Column(name = "planned_count", nullable = false)
+    private int plannedCount;
+
+    /** Lignes enregistrées par les lots validés : point de reprise. */
+    @Column(name = "imported_count", nullable = false)
+    private int importedCount;
+
+    @Column(name = "last_csv_row")
+    private Integer lastCsvRow;
+
+    @Column(name = "message", columnDefinition = "TEXT")
+    private String message;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+
+    @Column(name = "started_at")
+    private LocalDateTime startedAt;
+
+    @Column(name = "finished_at")
+    private LocalDateTime finishedAt;
+
+    /** Instance qui exécute le job (statut RUNNING) ; null sinon. */
+    @Column(name = "lease_owner")
+    private String leaseOwner;
+
+    /** Dernier renouvellement du bail par {@link #leaseOwner} : au-delà du délai, le job est remis en file. */
+    @Column(name = "lease_heartbeat")
+    private LocalDateTime leaseHeartbeat;
+
+    /** Annulation demandée, quelle que soit l'instance : lue avant chaque lot par celle qui exécute le job. */
+    @Column(name = "cancel_requested", nullable = false)
+    private boolean cancelRequested;
+}
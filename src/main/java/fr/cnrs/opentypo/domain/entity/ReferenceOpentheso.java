@@ -9,6 +9,7 @@ import jakarta.persistence.GenerationType;
 import jakarta.persistence.Id;
 import jakarta.persistence.JoinColumn;
 import jakarta.persistence.ManyToOne;
+import jakarta.persistence.SequenceGenerator;
 import jakarta.persistence.Table;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
@@ -31,7 +32,8 @@ import java.io.Serializable;
 public class ReferenceOpentheso implements Serializable {
 
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "reference_opentheso_id_seq")
+    @SequenceGenerator(name = "reference_opentheso_id_seq", sequenceName = "\"reference-opentheso_id_seq\"", allocationSize = EntityConstants.ID_ALLOCATION_SIZE)
     private Long id;
 
     @Column(name = "code", nullable = false, length = EntityConstants.VARCHAR_COLUMN_MAX_LENGTH)
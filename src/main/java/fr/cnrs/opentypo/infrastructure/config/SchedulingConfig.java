@@ -0,0 +1,12 @@
+package fr.cnrs.opentypo.infrastructure.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Tâches planifiées ({@code @Scheduled}) : archivage des révisions d'audit, bail des imports CSV en cours.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
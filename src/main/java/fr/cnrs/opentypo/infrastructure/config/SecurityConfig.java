@@ -273,7 +273,9 @@ public class SecurityConfig {
         // Headers exposés au client
         configuration.setExposedHeaders(Arrays.asList(
             "Access-Control-Allow-Origin",
-            "Access-Control-Allow-Credentials"
+            "Access-Control-Allow-Credentials",
+            "X-Next-Cursor",
+            "Link"
         ));
 
         // Autoriser l'envoi de credentials (cookies, auth headers)
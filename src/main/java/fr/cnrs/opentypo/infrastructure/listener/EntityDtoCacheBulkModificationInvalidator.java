@@ -0,0 +1,62 @@
+package fr.cnrs.opentypo.infrastructure.listener;
+
+import fr.cnrs.opentypo.application.service.EntityDtoCache;
+import fr.cnrs.opentypo.domain.entity.EntityImportFingerprint;
+import fr.cnrs.opentypo.domain.entity.ImageUrlValidation;
+import fr.cnrs.opentypo.domain.entity.ImportJob;
+import fr.cnrs.opentypo.domain.entity.UserPermission;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.stereotype.Component;
+
+import java.util.Set;
+
+/**
+ * Complète {@link EntityDtoCacheInvalidationListener} pour les requêtes {@link Modifying} (JPQL ou natives :
+ * {@code deleteByEntityId}, {@code deleteByIdDirect}, {@code UPDATE entity SET categorie_fonctionnelle = NULL}…),
+ * qui ne déclenchent aucun événement Hibernate : après chacune, {@link EntityDtoCache} est vidé
+ * à la fin de la transaction.
+ * <p>
+ * Les dépôts dont les tables n'entrent pas dans les DTO REST (travaux d'import, empreintes, vérification
+ * des URL d'images, permissions) sont exclus, notamment {@code ImportJobRepository#updateProgress},
+ * appelé en continu pendant un import.
+ */
+@Component
+public class EntityDtoCacheBulkModificationInvalidator implements BeanPostProcessor {
+
+    private static final Set<Class<?>> IGNORED_DOMAIN_TYPES = Set.of(
+            ImportJob.class, EntityImportFingerprint.class, ImageUrlValidation.class, UserPermission.class);
+
+    private final ObjectProvider<EntityDtoCache> entityDtoCache;
+
+    public EntityDtoCacheBulkModificationInvalidator(ObjectProvider<EntityDtoCache> entityDtoCache) {
+        this.entityDtoCache = entityDtoCache;
+    }
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> factoryBean) {
+            factoryBean.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                    (proxyFactory, repositoryInformation) -> {
+                        if (!IGNORED_DOMAIN_TYPES.contains(repositoryInformation.getDomainType())) {
+                            proxyFactory.addAdvice(invalidateAfterModifyingQuery());
+                        }
+                    }));
+        }
+        return bean;
+    }
+
+    private MethodInterceptor invalidateAfterModifyingQuery() {
+        return invocation -> {
+            Object result = invocation.proceed();
+            if (AnnotatedElementUtils.hasAnnotation(invocation.getMethod(), Modifying.class)) {
+                entityDtoCache.getObject().invalidateAllAfterCommit();
+            }
+            return result;
+        };
+    }
+}
@@ -0,0 +1,100 @@
+package fr.cnrs.opentypo.infrastructure.listener;
+
+import fr.cnrs.opentypo.application.service.EntityDtoCache;
+import fr.cnrs.opentypo.domain.entity.Entity;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostCommitDeleteEventListener;
+import org.hibernate.event.spi.PostCommitInsertEventListener;
+import org.hibernate.event.spi.PostCommitUpdateEventListener;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Listener Hibernate post-commit qui invalide {@link EntityDtoCache} : pour chaque ligne insérée,
+ * modifiée ou supprimée, l'entité elle-même ou les entités qu'elle référence (libellé, description,
+ * métadonnées, caractéristiques, image, relation parent / enfant, référence OpenTheso…) sont retirées du cache.
+ * Les mêmes écritures produisent les révisions Envers d'{@link OpentypoRevisionListener}.
+ */
+@Component
+@RequiredArgsConstructor
+public class EntityDtoCacheInvalidationListener implements PostCommitInsertEventListener,
+        PostCommitUpdateEventListener, PostCommitDeleteEventListener {
+
+    private final EntityManagerFactory entityManagerFactory;
+    private final EntityDtoCache entityDtoCache;
+
+    @PostConstruct
+    void register() {
+        EventListenerRegistry registry = entityManagerFactory.unwrap(SessionFactoryImplementor.class)
+                .getServiceRegistry()
+                .requireService(EventListenerRegistry.class);
+        registry.appendListeners(EventType.POST_COMMIT_INSERT, this);
+        registry.appendListeners(EventType.POST_COMMIT_UPDATE, this);
+        registry.appendListeners(EventType.POST_COMMIT_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        invalidate(event.getEntity(), event.getState());
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        invalidate(event.getEntity(), event.getState(), event.getOldState());
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        invalidate(event.getEntity(), event.getDeletedState());
+    }
+
+    @Override
+    public void onPostInsertCommitFailed(PostInsertEvent event) {
+        // rien n'a été écrit : le cache reste valide
+    }
+
+    @Override
+    public void onPostUpdateCommitFailed(PostUpdateEvent event) {
+        // rien n'a été écrit : le cache reste valide
+    }
+
+    @Override
+    public void onPostDeleteCommitFailed(PostDeleteEvent event) {
+        // rien n'a été écrit : le cache reste valide
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return true;
+    }
+
+    private void invalidate(Object changed, Object[]... states) {
+        Set<Long> entityIds = new HashSet<>();
+        collect(changed, entityIds);
+        for (Object[] state : states) {
+            if (state != null) {
+                for (Object value : state) {
+                    collect(value, entityIds);
+                }
+            }
+        }
+        entityDtoCache.invalidate(entityIds);
+    }
+
+    private static void collect(Object value, Set<Long> entityIds) {
+        if (value instanceof Entity entity && entity.getId() != null) {
+            entityIds.add(entity.getId());
+        }
+    }
+}
@@ -0,0 +1,238 @@
+package fr.cnrs.opentypo.infrastructure.listener;
+
+import fr.cnrs.opentypo.application.service.EntityRevisionTimeline;
+import fr.cnrs.opentypo.domain.entity.CaracteristiquePhysique;
+import fr.cnrs.opentypo.domain.entity.CaracteristiquePhysiqueMonnaie;
+import fr.cnrs.opentypo.domain.entity.Description;
+import fr.cnrs.opentypo.domain.entity.DescriptionDetail;
+import fr.cnrs.opentypo.domain.entity.DescriptionMonnaie;
+import fr.cnrs.opentypo.domain.entity.DescriptionPate;
+import fr.cnrs.opentypo.domain.entity.Entity;
+import fr.cnrs.opentypo.domain.entity.EntityMetadata;
+import fr.cnrs.opentypo.domain.entity.EntityRelation;
+import fr.cnrs.opentypo.domain.entity.Image;
+import fr.cnrs.opentypo.domain.entity.Label;
+import fr.cnrs.opentypo.domain.entity.Langue;
+import fr.cnrs.opentypo.domain.entity.ReferenceOpentheso;
+import org.hibernate.Hibernate;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.TreeSet;
+
+/**
+ * Champs modifiés par une transaction, par entité, déduits des écritures Hibernate (insertion, mise à jour,
+ * suppression) : mêmes clés que l'état reconstitué pour l'historique, définies par {@link EntityRevisionTimeline}
+ * ({@code code}, {@code labels.fr}, {@code airesCirculation}…). Seul l'effet net compte : une ligne supprimée puis recréée avec
+ * les mêmes valeurs (réécriture des références par l'import, par exemple) ne modifie aucun champ.
+ */
+final class RevisionChangeFields {
+
+    /** Associations 1-1 de {@link Entity} écrites dans leur propre table (et leurs propres événements). */
+    private static final List<Class<?>> OWN_ROW_ASSOCIATIONS = List.of(EntityMetadata.class, DescriptionDetail.class,
+            DescriptionPate.class, DescriptionMonnaie.class, CaracteristiquePhysique.class,
+            CaracteristiquePhysiqueMonnaie.class);
+
+    /** Champs à valeur unique : valeur avant la transaction (première vue) et valeur après (dernière écrite). */
+    private final Map<Long, Map<String, Object[]>> values = new HashMap<>();
+    /** Listes (références, images) : solde des valeurs ajoutées (+1) et retirées (-1) par clé. */
+    private final Map<Long, Map<String, Map<String, Integer>>> lists = new HashMap<>();
+    private final Set<Long> createdEntities = new HashSet<>();
+
+    void inserted(Object changed, String[] propertyNames, Object[] state) {
+        if (changed instanceof Entity entity && entity.getId() != null) {
+            createdEntities.add(entity.getId());
+        }
+        write(changed, propertyNames, null, state, null);
+    }
+
+    /**
+     * @param properties indices des propriétés modifiées, {@code null} pour toutes
+     */
+    void updated(Object changed, String[] propertyNames, Object[] oldState, Object[] state, int[] properties) {
+        write(changed, propertyNames, oldState, state, properties);
+    }
+
+    void deleted(Object changed, String[] propertyNames, Object[] deletedState) {
+        write(changed, propertyNames, deletedState, null, null);
+    }
+
+    /**
+     * Champs modifiés par entité (ensemble vide : entité écrite sans effet sur l'état d'historique). Pour une entité
+     * créée dans la transaction, libellés et descriptions sont regroupés ({@code labels}) comme à la première révision.
+     */
+    Map<Long, Set<String>> changedFields() {
+        Map<Long, Set<String>> changed = new HashMap<>();
+        Set<Long> entityIds = new HashSet<>(values.keySet());
+        entityIds.addAll(lists.keySet());
+        for (Long entityId : entityIds) {
+            Set<String> fields = new TreeSet<>();
+            values.getOrDefault(entityId, Map.of()).forEach((key, beforeAfter) -> {
+                if (!Objects.equals(normalize(beforeAfter[0]), normalize(beforeAfter[1]))) {
+                    fields.add(createdEntities.contains(entityId) ? key.replaceFirst("\\..*$", "") : key);
+                }
+            });
+            lists.getOrDefault(entityId, Map.of()).forEach((key, balance) -> {
+                if (balance.values().stream().anyMatch(count -> count != 0)) {
+                    fields.add(key);
+                }
+            });
+            changed.put(entityId, fields);
+        }
+        return changed;
+    }
+
+    private void write(Object changed, String[] propertyNames, Object[] before, Object[] after, int[] properties) {
+        if (changed == null || propertyNames == null || (before == null && after == null)) {
+            return;
+        }
+        if (changed instanceof EntityRelation) {
+            // Relation parent / enfant : révision des deux entités, sans champ de l'état d'historique
+            owner(propertyNames, before, after, "parent");
+            owner(propertyNames, before, after, "child");
+            return;
+        }
+        Long entityId = changed instanceof Entity entity ? entity.getId() : owner(propertyNames, before, after, "entity");
+        if (entityId == null) {
+            return;
+        }
+        if (changed instanceof Label || changed instanceof Description) {
+            String key = (changed instanceof Label ? "labels." : "descriptions.")
+                    + languageCode(value(propertyNames, after != null ? after : before, "langue"));
+            String property = changed instanceof Label ? "nom" : "valeur";
+            track(entityId, key, value(propertyNames, before, property), value(propertyNames, after, property));
+        } else if (changed instanceof Image) {
+            balance(entityId, "images", imageValue(propertyNames, before), -1);
+            balance(entityId, "images", imageValue(propertyNames, after), 1);
+        } else if (changed instanceof ReferenceOpentheso) {
+            balance(entityId, referenceKey(value(propertyNames, before, "code")),
+                    normalize(value(propertyNames, before, "valeur")), -1);
+            balance(entityId, referenceKey(value(propertyNames, after, "code")),
+                    normalize(value(propertyNames, after, "valeur")), 1);
+        } else {
+            for (int index = 0; index < propertyNames.length; index++) {
+                if (properties != null && !contains(properties, index)) {
+                    continue;
+                }
+                Object beforeValue = before != null ? before[index] : null;
+                Object afterValue = after != null ? after[index] : null;
+                if (isHistoryProperty(changed, propertyNames[index], beforeValue != null ? beforeValue : afterValue)) {
+                    track(entityId, EntityRevisionTimeline.historyKey(changed.getClass(), propertyNames[index]),
+                            beforeValue, afterValue);
+                }
+            }
+        }
+    }
+
+    /**
+     * Clé d'historique d'une référence rattachée à l'entité : clé de sa liste ({@code AIRE_CIRCULATION} →
+     * {@code airesCirculation}), sinon le code en camelCase ({@code CATEGORIE_FONCTIONNELLE}).
+     */
+    static String referenceKey(Object code) {
+        if (code == null) {
+            return null;
+        }
+        String key = EntityRevisionTimeline.REFERENCE_LIST_KEYS.get(code.toString());
+        if (key != null) {
+            return key;
+        }
+        StringBuilder camel = new StringBuilder();
+        for (String part : code.toString().toLowerCase().split("_")) {
+            if (part.isEmpty()) {
+                continue;
+            }
+            camel.append(camel.isEmpty() ? part : Character.toUpperCase(part.charAt(0)) + part.substring(1));
+        }
+        return camel.toString();
+    }
+
+    /**
+     * Propriété de l'état d'historique : hors identifiant, lien vers l'entité et associations dont les lignes ont
+     * leurs propres écritures (collections, métadonnées, descriptions et caractéristiques 1-1) ;
+     * pour {@link Entity}, seules les propriétés affichées par l'historique.
+     */
+    private static boolean isHistoryProperty(Object owner, String propertyName, Object value) {
+        if (owner instanceof Entity) {
+            return EntityRevisionTimeline.ENTITY_PROPERTIES.contains(propertyName);
+        }
+        return !"entity".equals(propertyName) && !"id".equals(propertyName) && !(value instanceof Collection<?>)
+                && OWN_ROW_ASSOCIATIONS.stream().noneMatch(type -> type.isInstance(value));
+    }
+
+    private void track(Long entityId, String key, Object before, Object after) {
+        Object[] beforeAfter = values.computeIfAbsent(entityId, id -> new HashMap<>())
+                .computeIfAbsent(key, k -> new Object[]{before, null});
+        beforeAfter[1] = after;
+    }
+
+    private void balance(Long entityId, String key, Object value, int delta) {
+        Map<String, Map<String, Integer>> balances = lists.computeIfAbsent(entityId, id -> new HashMap<>());
+        if (key != null && value != null) {
+            balances.computeIfAbsent(key, k -> new HashMap<>()).merge(value.toString(), delta, Integer::sum);
+        }
+    }
+
+    private Long owner(String[] propertyNames, Object[] before, Object[] after, String propertyName) {
+        Object owner = value(propertyNames, after, propertyName);
+        if (owner == null) {
+            owner = value(propertyNames, before, propertyName);
+        }
+        if (owner instanceof Entity entity && entity.getId() != null) {
+            values.computeIfAbsent(entity.getId(), id -> new HashMap<>());
+            return entity.getId();
+        }
+        return null;
+    }
+
+    /** Valeur comparable : chaîne sans espaces superflus (vide = absente), référence par son libellé. */
+    private static Object normalize(Object value) {
+        if (value instanceof ReferenceOpentheso reference) {
+            if (!Hibernate.isInitialized(reference)) {
+                return "#" + reference.getId();
+            }
+            value = reference.getValeur();
+        }
+        if (value instanceof String s) {
+            String trimmed = s.trim();
+            return trimmed.isEmpty() ? null : trimmed;
+        }
+        return value;
+    }
+
+    private static String imageValue(String[] propertyNames, Object[] state) {
+        if (state == null) {
+            return null;
+        }
+        return normalize(value(propertyNames, state, "url")) + "|" + normalize(value(propertyNames, state, "legende"));
+    }
+
+    private static String languageCode(Object langue) {
+        return langue instanceof Langue l && l.getCode() != null ? l.getCode() : "unknown";
+    }
+
+    private static boolean contains(int[] properties, int index) {
+        for (int property : properties) {
+            if (property == index) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static Object value(String[] propertyNames, Object[] state, String propertyName) {
+        if (state == null) {
+            return null;
+        }
+        for (int i = 0; i < propertyNames.length; i++) {
+            if (propertyName.equals(propertyNames[i])) {
+                return state[i];
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,206 @@
+package fr.cnrs.opentypo.infrastructure.listener;
+
+import fr.cnrs.opentypo.application.dto.RevisionChangeSection;
+import fr.cnrs.opentypo.domain.entity.RevisionInfo;
+import jakarta.annotation.PostConstruct;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Transaction;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionFactoryImplementor;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.envers.AuditReaderFactory;
+import org.hibernate.envers.boot.internal.EnversService;
+import org.hibernate.event.service.spi.EventListenerRegistry;
+import org.hibernate.event.spi.EventSource;
+import org.hibernate.event.spi.EventType;
+import org.hibernate.event.spi.PostDeleteEvent;
+import org.hibernate.event.spi.PostDeleteEventListener;
+import org.hibernate.event.spi.PostInsertEvent;
+import org.hibernate.event.spi.PostInsertEventListener;
+import org.hibernate.event.spi.PostUpdateEvent;
+import org.hibernate.event.spi.PostUpdateEventListener;
+import org.hibernate.persister.entity.EntityPersister;
+import org.springframework.stereotype.Component;
+
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Listener Hibernate qui alimente {@code revision_change} : une ligne par révision Envers et par entité touchée,
+ * avec les sections (tables d'audit) et les champs modifiés, le type de révision d'{@code entity_aud} et le statut
+ * de l'entité après la révision. L'historique, le flux des modifications et la date de dernière modification
+ * lisent cette table au lieu de rejouer les tables d'audit.
+ * <p>
+ * Les champs sont relevés à chaque flush ({@link RevisionChangeFields}) ; les lignes sont écrites avant la fin de
+ * la transaction, après les lignes d'audit d'{@link OpentypoRevisionListener} : les entités et sections sont lues
+ * dans les tables d'audit de la révision, ce qui couvre aussi les écritures sans événement suivi (collections).
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class RevisionChangeListener implements PostInsertEventListener, PostUpdateEventListener,
+        PostDeleteEventListener {
+
+    /** Entités de la révision {@code ?} dans les tables d'audit : type {@code entity_aud}, statut, masque de sections. */
+    static final String CHANGED_ENTITIES_SQL = changedEntitiesSql();
+
+    private static final int CHANGED_ENTITIES_PARAMETERS = (int) CHANGED_ENTITIES_SQL.chars().filter(c -> c == '?').count();
+
+    private static final String INSERT_SQL = "INSERT INTO revision_change "
+            + "(entity_id, rev, revtype, statut, changed_sections, changed_fields) VALUES (?, ?, ?, ?, ?, ?)";
+
+    private final EntityManagerFactory entityManagerFactory;
+
+    /** Champs relevés par transaction en cours (comme les processus d'audit Envers). */
+    private final Map<Transaction, RevisionChangeFields> pendingChanges = new ConcurrentHashMap<>();
+
+    private EnversService enversService;
+
+    @PostConstruct
+    void register() {
+        SessionFactoryImplementor sessionFactory = entityManagerFactory.unwrap(SessionFactoryImplementor.class);
+        enversService = sessionFactory.getServiceRegistry().requireService(EnversService.class);
+        EventListenerRegistry registry = sessionFactory.getServiceRegistry().requireService(EventListenerRegistry.class);
+        // Ajoutés après les listeners Envers : le processus d'audit de la transaction est enregistré avant le nôtre
+        registry.appendListeners(EventType.POST_INSERT, this);
+        registry.appendListeners(EventType.POST_UPDATE, this);
+        registry.appendListeners(EventType.POST_DELETE, this);
+    }
+
+    @Override
+    public void onPostInsert(PostInsertEvent event) {
+        RevisionChangeFields fields = pendingFields(event.getSession(), event.getPersister());
+        if (fields != null) {
+            fields.inserted(event.getEntity(), event.getPersister().getPropertyNames(), event.getState());
+        }
+    }
+
+    @Override
+    public void onPostUpdate(PostUpdateEvent event) {
+        RevisionChangeFields fields = pendingFields(event.getSession(), event.getPersister());
+        if (fields != null) {
+            fields.updated(event.getEntity(), event.getPersister().getPropertyNames(), event.getOldState(),
+                    event.getState(), event.getOldState() != null ? event.getDirtyProperties() : null);
+        }
+    }
+
+    @Override
+    public void onPostDelete(PostDeleteEvent event) {
+        RevisionChangeFields fields = pendingFields(event.getSession(), event.getPersister());
+        if (fields != null) {
+            fields.deleted(event.getEntity(), event.getPersister().getPropertyNames(), event.getDeletedState());
+        }
+    }
+
+    @Override
+    public boolean requiresPostCommitHandling(EntityPersister persister) {
+        return false;
+    }
+
+    /** Champs de la transaction en cours pour une écriture auditée ({@code null} pour une entité non auditée). */
+    private RevisionChangeFields pendingFields(EventSource session, EntityPersister persister) {
+        if (!enversService.getEntitiesConfigurations().isVersioned(persister.getEntityName())) {
+            return null;
+        }
+        return pendingChanges.computeIfAbsent(session.accessTransaction(), tx -> {
+            session.getActionQueue().registerProcess(new WriteRevisionChanges(tx, false));
+            session.getActionQueue().registerProcess((success, s) -> pendingChanges.remove(tx));
+            return new RevisionChangeFields();
+        });
+    }
+
+    /**
+     * Écrit les lignes de la révision de la transaction. Exécuté après le processus d'audit Envers ; s'il a été
+     * enregistré plus tard (première écriture de la transaction hors audit), le nôtre se replace une fois derrière lui.
+     */
+    private final class WriteRevisionChanges implements BeforeTransactionCompletionProcess {
+
+        private final Transaction transaction;
+        private final boolean requeued;
+
+        private WriteRevisionChanges(Transaction transaction, boolean requeued) {
+            this.transaction = transaction;
+            this.requeued = requeued;
+        }
+
+        @Override
+        public void doBeforeTransactionCompletion(SessionImplementor session) {
+            RevisionInfo revision = AuditReaderFactory.get(session).getCurrentRevision(RevisionInfo.class, false);
+            if (revision.getRev() == null) {
+                if (!requeued) {
+                    session.getActionQueue().registerProcess(new WriteRevisionChanges(transaction, true));
+                }
+                return;
+            }
+            RevisionChangeFields pending = pendingChanges.get(transaction);
+            Map<Long, Set<String>> fieldsByEntity = pending != null ? pending.changedFields() : Map.of();
+            long rev = revision.getRev();
+            session.doWork(connection -> {
+                List<Object[]> rows = new ArrayList<>();
+                try (PreparedStatement select = connection.prepareStatement(CHANGED_ENTITIES_SQL)) {
+                    for (int i = 1; i <= CHANGED_ENTITIES_PARAMETERS; i++) {
+                        select.setLong(i, rev);
+                    }
+                    try (ResultSet rs = select.executeQuery()) {
+                        while (rs.next()) {
+                            rows.add(new Object[]{rs.getLong(1), rs.getObject(2), rs.getString(3), rs.getInt(4)});
+                        }
+                    }
+                }
+                try (PreparedStatement insert = connection.prepareStatement(INSERT_SQL)) {
+                    for (Object[] row : rows) {
+                        long entityId = (Long) row[0];
+                        Set<String> fields = fieldsByEntity.get(entityId);
+                        insert.setLong(1, entityId);
+                        insert.setLong(2, rev);
+                        if (row[1] instanceof Number revtype) {
+                            insert.setShort(3, revtype.shortValue());
+                        } else {
+                            insert.setNull(3, Types.SMALLINT);
+                        }
+                        insert.setString(4, (String) row[2]);
+                        insert.setInt(5, (Integer) row[3]);
+                        insert.setString(6, fields != null ? String.join(",", fields) : null);
+                        insert.addBatch();
+                    }
+                    if (!rows.isEmpty()) {
+                        insert.executeBatch();
+                    }
+                }
+            });
+            log.debug("Révision {} : {} entités enregistrées dans revision_change", rev, fieldsByEntity.size());
+        }
+    }
+
+    /**
+     * Union des tables d'audit à une révision (un paramètre par sous-requête), regroupée par entité. Le statut est
+     * celui de la dernière ligne {@code entity_aud} non supprimée jusqu'à la révision (état affiché par l'historique).
+     */
+    private static String changedEntitiesSql() {
+        StringBuilder union = new StringBuilder();
+        for (RevisionChangeSection section : RevisionChangeSection.values()) {
+            for (String column : section.getEntityIdColumns()) {
+                if (!union.isEmpty()) {
+                    union.append(" UNION ALL ");
+                }
+                union.append("SELECT ").append(column).append(" AS entity_id, rev, ")
+                        .append(section == RevisionChangeSection.ENTITY ? "revtype" : "NULL")
+                        .append(" AS entity_revtype, ").append(section.bit()).append(" AS section FROM ")
+                        .append(section.getAuditTable()).append(" WHERE rev = ? AND ").append(column).append(" IS NOT NULL");
+            }
+        }
+        return "SELECT x.entity_id, MAX(x.entity_revtype), "
+                + "(SELECT ea.statut FROM entity_aud ea WHERE ea.id = x.entity_id AND ea.rev <= x.rev AND ea.revtype <> 2 "
+                + "ORDER BY ea.rev DESC LIMIT 1), "
+                + "SUM(DISTINCT x.section) "
+                + "FROM (" + union + ") x GROUP BY x.entity_id, x.rev";
+    }
+}
@@ -5,6 +5,8 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -26,6 +28,17 @@ public interface CaracteristiquePhysiqueMonnaieRepository extends JpaRepository<
             + "WHERE cpm.entity.id = :entityId")
     Optional<CaracteristiquePhysiqueMonnaie> findByEntityIdForApi(@Param("entityId") Long entityId);
 
+    /**
+     * Même graphe que {@link #findByEntityIdForApi(Long)} pour plusieurs entités. Ne pas appeler avec une collection vide.
+     */
+    @Query("SELECT cpm FROM CaracteristiquePhysiqueMonnaie cpm "
+            + "LEFT JOIN FETCH cpm.materiaux "
+            + "LEFT JOIN FETCH cpm.denomination "
+            + "LEFT JOIN FETCH cpm.valeur "
+            + "LEFT JOIN FETCH cpm.technique "
+            + "WHERE cpm.entity.id IN :entityIds")
+    List<CaracteristiquePhysiqueMonnaie> findByEntityIdsForApi(@Param("entityIds") Collection<Long> entityIds);
+
     @Modifying
     @Transactional
     @Query("DELETE FROM CaracteristiquePhysiqueMonnaie cpm WHERE cpm.entity.id = :entityId")
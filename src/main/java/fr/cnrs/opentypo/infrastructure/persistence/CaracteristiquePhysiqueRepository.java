@@ -5,6 +5,8 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -27,6 +29,18 @@ public interface CaracteristiquePhysiqueRepository extends JpaRepository<Caracte
             + "WHERE cp.entity.id = :entityId")
     Optional<CaracteristiquePhysique> findByEntityIdForApi(@Param("entityId") Long entityId);
 
+    /**
+     * Même graphe que {@link #findByEntityIdForApi(Long)} pour plusieurs entités. Ne pas appeler avec une collection vide.
+     */
+    @Query("SELECT cp FROM CaracteristiquePhysique cp "
+            + "LEFT JOIN FETCH cp.forme "
+            + "LEFT JOIN FETCH cp.metrologie "
+            + "LEFT JOIN FETCH cp.materiaux "
+            + "LEFT JOIN FETCH cp.dimensions "
+            + "LEFT JOIN FETCH cp.technique "
+            + "WHERE cp.entity.id IN :entityIds")
+    List<CaracteristiquePhysique> findByEntityIdsForApi(@Param("entityIds") Collection<Long> entityIds);
+
     @Modifying
     @Transactional
     @Query("DELETE FROM CaracteristiquePhysique cp WHERE cp.entity.id = :entityId")
@@ -3,6 +3,8 @@ package fr.cnrs.opentypo.infrastructure.persistence;
 import fr.cnrs.opentypo.domain.entity.DescriptionMonnaie;
 import org.springframework.data.jpa.repository.JpaRepository;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -18,6 +20,8 @@ public interface DescriptionMonnaieRepository extends JpaRepository<DescriptionM
 
     Optional<DescriptionMonnaie> findByEntity_Id(Long entityId);
 
+    List<DescriptionMonnaie> findByEntity_IdIn(Collection<Long> entityIds);
+
     @Modifying
     @Transactional
     @Query("DELETE FROM DescriptionMonnaie dm WHERE dm.entity.id = :entityId")
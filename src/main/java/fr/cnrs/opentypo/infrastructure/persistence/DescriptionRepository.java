@@ -5,6 +5,7 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 
+import java.util.Collection;
 import java.util.List;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -21,6 +22,12 @@ public interface DescriptionRepository extends JpaRepository<Description, Long>
     @Query("SELECT d FROM Description d LEFT JOIN FETCH d.langue WHERE d.entity.id = :entityId")
     List<Description> findByEntityIdWithLangue(@Param("entityId") Long entityId);
 
+    /**
+     * Descriptions (avec langue) de plusieurs entités en une requête. Ne pas appeler avec une collection vide.
+     */
+    @Query("SELECT d FROM Description d LEFT JOIN FETCH d.langue WHERE d.entity.id IN :entityIds")
+    List<Description> findByEntityIdsWithLangue(@Param("entityIds") Collection<Long> entityIds);
+
     @Modifying
     @Transactional
     @Query("DELETE FROM Description d WHERE d.entity.id = :entityId")
@@ -0,0 +1,30 @@
+package fr.cnrs.opentypo.infrastructure.persistence;
+
+import fr.cnrs.opentypo.domain.entity.EntityImportFingerprint;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository des empreintes de ligne CSV par entité (import différentiel).
+ */
+@Repository
+public interface EntityImportFingerprintRepository extends JpaRepository<EntityImportFingerprint, Long> {
+
+    /**
+     * Entités dont l'empreinte est encore valable : aucune révision de l'entité postérieure à celle du lot
+     * d'import qui l'a enregistrée, quelle que soit la table touchée (libellés, descriptions, images, références,
+     * caractéristiques, relations…), d'après {@code revision_change} (clé primaire {@code (entity_id, rev)}).
+     * Une relation compte pour le parent comme pour l'enfant : la ligne d'un parent dont des enfants ont été
+     * créés après son lot est réappliquée (sans écriture si rien n'a changé).
+     */
+    @Query(value = "SELECT f.entity_id FROM entity_import_fingerprint f "
+            + "WHERE f.entity_id IN (:entityIds) AND f.rev IS NOT NULL "
+            + "AND f.rev >= COALESCE((SELECT MAX(rc.rev) FROM revision_change rc WHERE rc.entity_id = f.entity_id), 0)",
+            nativeQuery = true)
+    List<Long> findUpToDateEntityIds(@Param("entityIds") Collection<Long> entityIds);
+}
@@ -101,20 +101,54 @@ public interface EntityRelationRepository extends JpaRepository<EntityRelation,
 
     /**
      * Retourne toutes les relations (parent_id, child_id, display_order) du sous-arbre dont la racine est l'entité donnée.
-     * Utilise une CTE récursive (PostgreSQL). Chaque ligne est (parent_id, child_id, display_order).
+     * Lecture de la table de fermeture {@code entity_closure} (voir migration V67) : une jointure indexée
+     * au lieu d'une CTE récursive. Chaque ligne est (parent_id, child_id, display_order).
      * display_order NULL est retourné comme 999999 pour le tri.
      */
     @Query(value = """
-        WITH RECURSIVE subtree AS (
-            SELECT parent_id, child_id, display_order FROM entity_relation WHERE parent_id = :rootId
-            UNION ALL
-            SELECT r.parent_id, r.child_id, r.display_order FROM entity_relation r
-            INNER JOIN subtree s ON r.parent_id = s.child_id
-        )
-        SELECT parent_id, child_id, COALESCE(display_order, 999999) FROM subtree
+        SELECT r.parent_id, r.child_id, COALESCE(r.display_order, 999999)
+        FROM entity_closure ec
+        INNER JOIN entity_relation r ON r.child_id = ec.descendant_id
+        WHERE ec.ancestor_id = :rootId
+        AND (r.parent_id = :rootId OR EXISTS (
+            SELECT 1 FROM entity_closure p WHERE p.ancestor_id = :rootId AND p.descendant_id = r.parent_id))
         """, nativeQuery = true)
     List<Object[]> findAllDescendantRelations(@Param("rootId") Long rootId);
 
+    /**
+     * Arborescence typologique d'un référentiel en projection légère, sans charger d'entité : une ligne
+     * (child_id, parent_id, code du type, code métier) par relation dont l'enfant est une catégorie, un groupe,
+     * une série ou un type du sous-arbre ({@code entity_closure}). Ordre d'affichage des listes catalogue
+     * (display_order, NULL en dernier, puis code).
+     */
+    @Query(value = """
+        SELECT r.child_id, r.parent_id, et.code, em.code
+        FROM entity_relation r
+        INNER JOIN entity e ON e.id = r.child_id
+        INNER JOIN entity_type et ON et.id = e.entity_type_id
+        LEFT JOIN entity_metadata em ON em.entity_id = e.id
+        WHERE et.code IN ('CATEGORIE', 'GROUPE', 'SERIE', 'TYPE')
+        AND EXISTS (SELECT 1 FROM entity_closure ec
+                    WHERE ec.ancestor_id = :referenceId AND ec.descendant_id = r.child_id)
+        ORDER BY COALESCE(r.display_order, 999999) ASC, LOWER(COALESCE(em.code, '')) ASC
+        """, nativeQuery = true)
+    List<Object[]> findTypologyTreeRows(@Param("referenceId") Long referenceId);
+
+    /**
+     * Identifiants de tous les descendants (racine exclue) de l'entité donnée, via {@code entity_closure}.
+     */
+    @Query(value = "SELECT ec.descendant_id FROM entity_closure ec WHERE ec.ancestor_id = :rootId", nativeQuery = true)
+    List<Long> findDescendantIds(@Param("rootId") Long rootId);
+
+    /**
+     * Vérifie si {@code descendantId} appartient au sous-arbre de {@code ancestorId} (racine exclue), via {@code entity_closure}.
+     */
+    @Query(value = """
+        SELECT EXISTS (SELECT 1 FROM entity_closure ec
+                       WHERE ec.ancestor_id = :ancestorId AND ec.descendant_id = :descendantId)
+        """, nativeQuery = true)
+    boolean isDescendantOf(@Param("ancestorId") Long ancestorId, @Param("descendantId") Long descendantId);
+
     /**
      * Pairs (childId, parentId) for batch REST enrichment.
      */
@@ -1,17 +1,22 @@
 package fr.cnrs.opentypo.infrastructure.persistence;
 
 import fr.cnrs.opentypo.domain.entity.Entity;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Repository Spring Data JPA pour l'entité Entity
@@ -32,17 +37,6 @@ public interface EntityRepository extends JpaRepository<Entity, Long> {
             + "WHERE LOWER(CAST(m.code AS string)) = LOWER(CAST(:code AS string))")
     Optional<Long> findIdByMetadataCodeExactIgnoreCase(@Param("code") String code);
 
-    /**
-     * Recherche par code métier (metadata), sous-chaîne (contient), insensible à la casse.
-     * <p>
-     * {@code GROUP BY} au lieu de {@code DISTINCT … ORDER BY createDate} : PostgreSQL exige que les expressions
-     * du {@code ORDER BY} figurent dans le {@code SELECT} lorsque {@code DISTINCT} est utilisé sur l’id seul.
-     */
-    @Query("SELECT e.id FROM Entity e JOIN e.metadata m "
-            + "WHERE LOWER(CAST(m.code AS string)) LIKE LOWER(CAST(CONCAT('%', CAST(:q AS string), '%') AS string)) "
-            + "GROUP BY e.id, e.createDate ORDER BY e.createDate DESC")
-    List<Long> findIdsByMetadataCodeContaining(@Param("q") String q);
-
     /**
      * Recherche par libellé dans une langue donnée, égalité insensible à la casse.
      */
@@ -53,58 +47,119 @@ public interface EntityRepository extends JpaRepository<Entity, Long> {
     List<Long> findIdsByLabelExactInLang(@Param("nom") String nom, @Param("langCode") String langCode);
 
     /**
-     * Recherche par libellé dans une langue donnée, sous-chaîne (contient), insensible à la casse.
+     * Liste paginée pour l'API par clé (keyset) : lignes {@code [id, createDate]} triées par date de création
+     * puis identifiant. Les variantes {@code After} reprennent strictement après la dernière clé reçue,
+     * ce qui rend le coût d'une page indépendant de sa profondeur. Statut et racine de sous-arbre optionnels.
      */
-    @Query("SELECT e.id FROM Entity e JOIN e.labels l JOIN l.langue lang "
-            + "WHERE lang.code = :langCode "
-            + "AND LOWER(CAST(l.nom AS string)) LIKE LOWER(CAST(CONCAT('%', CAST(:q AS string), '%') AS string)) "
-            + "GROUP BY e.id, e.createDate ORDER BY e.createDate DESC")
-    List<Long> findIdsByLabelContainingInLang(@Param("q") String q, @Param("langCode") String langCode);
+    @Query("SELECT e.id, e.createDate FROM Entity e "
+            + "WHERE (:statut IS NULL OR e.statut = :statut) "
+            + "AND (:rootId IS NULL OR e.id = :rootId OR e.id IN "
+            + "(SELECT c.id.descendantId FROM EntityClosure c WHERE c.id.ancestorId = :rootId)) "
+            + "ORDER BY e.createDate DESC, e.id DESC")
+    List<Object[]> listKeysForApiByDateDesc(
+            @Param("statut") String statut,
+            @Param("rootId") Long rootId,
+            Pageable pageable);
 
-    /**
-     * Liste paginée d'identifiants pour l'API (filtre statut optionnel, tri par date de création via {@link Pageable}).
-     */
-    @Query("SELECT e.id FROM Entity e WHERE (:statut IS NULL OR e.statut = :statut)")
-    List<Long> listIdsForApi(@Param("statut") String statut, Pageable pageable);
+    @Query("SELECT e.id, e.createDate FROM Entity e "
+            + "WHERE (:statut IS NULL OR e.statut = :statut) "
+            + "AND (:rootId IS NULL OR e.id = :rootId OR e.id IN "
+            + "(SELECT c.id.descendantId FROM EntityClosure c WHERE c.id.ancestorId = :rootId)) "
+            + "AND (e.createDate < :afterDate OR (e.createDate = :afterDate AND e.id < :afterId)) "
+            + "ORDER BY e.createDate DESC, e.id DESC")
+    List<Object[]> listKeysForApiByDateDescAfter(
+            @Param("statut") String statut,
+            @Param("rootId") Long rootId,
+            @Param("afterDate") LocalDateTime afterDate,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
 
-    /**
-     * Liste paginée triée par code métier (croissant).
-     */
-    @Query("SELECT e.id FROM Entity e JOIN e.metadata m "
+    @Query("SELECT e.id, e.createDate FROM Entity e "
+            + "WHERE (:statut IS NULL OR e.statut = :statut) "
+            + "AND (:rootId IS NULL OR e.id = :rootId OR e.id IN "
+            + "(SELECT c.id.descendantId FROM EntityClosure c WHERE c.id.ancestorId = :rootId)) "
+            + "ORDER BY e.createDate ASC, e.id ASC")
+    List<Object[]> listKeysForApiByDateAsc(
+            @Param("statut") String statut,
+            @Param("rootId") Long rootId,
+            Pageable pageable);
+
+    @Query("SELECT e.id, e.createDate FROM Entity e "
             + "WHERE (:statut IS NULL OR e.statut = :statut) "
-            + "ORDER BY LOWER(CAST(m.code AS string)) ASC")
-    List<Long> listIdsForApiOrderByCodeAsc(@Param("statut") String statut, Pageable pageable);
+            + "AND (:rootId IS NULL OR e.id = :rootId OR e.id IN "
+            + "(SELECT c.id.descendantId FROM EntityClosure c WHERE c.id.ancestorId = :rootId)) "
+            + "AND (e.createDate > :afterDate OR (e.createDate = :afterDate AND e.id > :afterId)) "
+            + "ORDER BY e.createDate ASC, e.id ASC")
+    List<Object[]> listKeysForApiByDateAscAfter(
+            @Param("statut") String statut,
+            @Param("rootId") Long rootId,
+            @Param("afterDate") LocalDateTime afterDate,
+            @Param("afterId") Long afterId,
+            Pageable pageable);
 
     /**
-     * Liste paginée triée par code métier (décroissant).
+     * Liste paginée pour l'API par clé (keyset) : lignes {@code [id, lower(code)]} triées par code métier
+     * (insensible à la casse) puis identifiant.
      */
-    @Query("SELECT e.id FROM Entity e JOIN e.metadata m "
+    @Query("SELECT e.id, LOWER(CAST(m.code AS string)) FROM Entity e JOIN e.metadata m "
             + "WHERE (:statut IS NULL OR e.statut = :statut) "
-            + "ORDER BY LOWER(CAST(m.code AS string)) DESC")
-    List<Long> listIdsForApiOrderByCodeDesc(@Param("statut") String statut, Pageable pageable);
+            + "AND (:rootId IS NULL OR e.id = :rootId OR e.id IN "
+            + "(SELECT c.id.descendantId FROM EntityClosure c WHERE c.id.ancestorId = :rootId)) "
+            + "ORDER BY LOWER(CAST(m.code AS string)) ASC, e.id ASC")
+    List<Object[]> listKeysForApiByCodeAsc(
+            @Param("statut") String statut,
+            @Param("rootId") Long rootId,
+            Pageable pageable);
 
-    @Query("SELECT e.id FROM Entity e WHERE e.id IN :entityIds AND (:statut IS NULL OR e.statut = :statut)")
-    List<Long> listIdsForApiInSubtree(
-            @Param("entityIds") Collection<Long> entityIds,
+    @Query("SELECT e.id, LOWER(CAST(m.code AS string)) FROM Entity e JOIN e.metadata m "
+            + "WHERE (:statut IS NULL OR e.statut = :statut) "
+            + "AND (:rootId IS NULL OR e.id = :rootId OR e.id IN "
+            + "(SELECT c.id.descendantId FROM EntityClosure c WHERE c.id.ancestorId = :rootId)) "
+            + "AND (LOWER(CAST(m.code AS string)) > :afterCode OR (LOWER(CAST(m.code AS string)) = :afterCode AND e.id > :afterId)) "
+            + "ORDER BY LOWER(CAST(m.code AS string)) ASC, e.id ASC")
+    List<Object[]> listKeysForApiByCodeAscAfter(
             @Param("statut") String statut,
+            @Param("rootId") Long rootId,
+            @Param("afterCode") String afterCode,
+            @Param("afterId") Long afterId,
             Pageable pageable);
 
-    @Query("SELECT e.id FROM Entity e JOIN e.metadata m "
-            + "WHERE e.id IN :entityIds AND (:statut IS NULL OR e.statut = :statut) "
-            + "ORDER BY LOWER(CAST(m.code AS string)) ASC")
-    List<Long> listIdsForApiInSubtreeOrderByCodeAsc(
-            @Param("entityIds") Collection<Long> entityIds,
+    @Query("SELECT e.id, LOWER(CAST(m.code AS string)) FROM Entity e JOIN e.metadata m "
+            + "WHERE (:statut IS NULL OR e.statut = :statut) "
+            + "AND (:rootId IS NULL OR e.id = :rootId OR e.id IN "
+            + "(SELECT c.id.descendantId FROM EntityClosure c WHERE c.id.ancestorId = :rootId)) "
+            + "ORDER BY LOWER(CAST(m.code AS string)) DESC, e.id DESC")
+    List<Object[]> listKeysForApiByCodeDesc(
             @Param("statut") String statut,
+            @Param("rootId") Long rootId,
             Pageable pageable);
 
-    @Query("SELECT e.id FROM Entity e JOIN e.metadata m "
-            + "WHERE e.id IN :entityIds AND (:statut IS NULL OR e.statut = :statut) "
-            + "ORDER BY LOWER(CAST(m.code AS string)) DESC")
-    List<Long> listIdsForApiInSubtreeOrderByCodeDesc(
-            @Param("entityIds") Collection<Long> entityIds,
+    @Query("SELECT e.id, LOWER(CAST(m.code AS string)) FROM Entity e JOIN e.metadata m "
+            + "WHERE (:statut IS NULL OR e.statut = :statut) "
+            + "AND (:rootId IS NULL OR e.id = :rootId OR e.id IN "
+            + "(SELECT c.id.descendantId FROM EntityClosure c WHERE c.id.ancestorId = :rootId)) "
+            + "AND (LOWER(CAST(m.code AS string)) < :afterCode OR (LOWER(CAST(m.code AS string)) = :afterCode AND e.id < :afterId)) "
+            + "ORDER BY LOWER(CAST(m.code AS string)) DESC, e.id DESC")
+    List<Object[]> listKeysForApiByCodeDescAfter(
             @Param("statut") String statut,
+            @Param("rootId") Long rootId,
+            @Param("afterCode") String afterCode,
+            @Param("afterId") Long afterId,
             Pageable pageable);
 
+    /**
+     * Identifiants du sous-arbre de {@code rootId} (racine incluse, puis par profondeur croissante) pour l'export,
+     * lus en flux avec un curseur JDBC en avant seulement : le résultat n'est jamais chargé entier en mémoire.
+     * À consommer dans une transaction (curseur serveur PostgreSQL) et à fermer après usage.
+     */
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"))
+    @Query("SELECT e.id FROM Entity e "
+            + "LEFT JOIN EntityClosure c ON c.id.descendantId = e.id AND c.id.ancestorId = :rootId "
+            + "WHERE (e.id = :rootId OR c.id.ancestorId IS NOT NULL) "
+            + "AND (:statut IS NULL OR e.statut = :statut) "
+            + "ORDER BY COALESCE(c.depth, 0), e.id")
+    Stream<Long> streamSubtreeIdsForExport(@Param("rootId") Long rootId, @Param("statut") String statut);
+
     /**
      * Collections (ou autre type) avec filtre statut optionnel et pagination.
      */
@@ -119,11 +174,15 @@ public interface EntityRepository extends JpaRepository<Entity, Long> {
 
     /**
      * Loads an entity with type, metadata and labels (REST API / detail views).
+     * The one-to-one detail rows (inverse side, hence eager) are joined here rather than selected one by one.
      */
     @Query("SELECT DISTINCT e FROM Entity e "
             + "LEFT JOIN FETCH e.entityType "
             + "LEFT JOIN FETCH e.metadata "
             + "LEFT JOIN FETCH e.categorieFonctionnelle "
+            + "LEFT JOIN FETCH e.descriptionDetail LEFT JOIN FETCH e.descriptionMonnaie "
+            + "LEFT JOIN FETCH e.descriptionPate LEFT JOIN FETCH e.caracteristiquePhysique "
+            + "LEFT JOIN FETCH e.caracteristiquePhysiqueMonnaie "
             + "LEFT JOIN FETCH e.labels l LEFT JOIN FETCH l.langue "
             + "WHERE e.id = :id")
     Optional<Entity> findByIdForApi(@Param("id") Long id);
@@ -136,6 +195,9 @@ public interface EntityRepository extends JpaRepository<Entity, Long> {
             + "LEFT JOIN FETCH e.entityType "
             + "LEFT JOIN FETCH e.metadata "
             + "LEFT JOIN FETCH e.categorieFonctionnelle "
+            + "LEFT JOIN FETCH e.descriptionDetail LEFT JOIN FETCH e.descriptionMonnaie "
+            + "LEFT JOIN FETCH e.descriptionPate LEFT JOIN FETCH e.caracteristiquePhysique "
+            + "LEFT JOIN FETCH e.caracteristiquePhysiqueMonnaie "
             + "LEFT JOIN FETCH e.labels l LEFT JOIN FETCH l.langue "
             + "WHERE e.id IN :ids")
     List<Entity> findByIdsForApi(@Param("ids") Collection<Long> ids);
@@ -147,6 +209,9 @@ public interface EntityRepository extends JpaRepository<Entity, Long> {
             + "LEFT JOIN FETCH e.entityType "
             + "LEFT JOIN FETCH e.metadata m "
             + "LEFT JOIN FETCH e.categorieFonctionnelle "
+            + "LEFT JOIN FETCH e.descriptionDetail LEFT JOIN FETCH e.descriptionMonnaie "
+            + "LEFT JOIN FETCH e.descriptionPate LEFT JOIN FETCH e.caracteristiquePhysique "
+            + "LEFT JOIN FETCH e.caracteristiquePhysiqueMonnaie "
             + "LEFT JOIN FETCH e.labels l LEFT JOIN FETCH l.langue "
             + "WHERE LOWER(CAST(m.code AS string)) = LOWER(CAST(:code AS string))")
     Optional<Entity> findByCodeForApi(@Param("code") String code);
@@ -212,11 +277,10 @@ public interface EntityRepository extends JpaRepository<Entity, Long> {
      */
     @Query(
             value = """
-            WITH RECURSIVE subtree AS (
+            WITH subtree AS (
                 SELECT CAST(:rootId AS bigint) AS entity_id
                 UNION ALL
-                SELECT er.child_id FROM entity_relation er
-                INNER JOIN subtree s ON er.parent_id = s.entity_id
+                SELECT ec.descendant_id FROM entity_closure ec WHERE ec.ancestor_id = :rootId
             )
             SELECT e.id FROM entity e
             INNER JOIN entity_type et ON e.entity_type_id = et.id
@@ -237,11 +301,10 @@ public interface EntityRepository extends JpaRepository<Entity, Long> {
      */
     @Query(
             value = """
-            WITH RECURSIVE subtree AS (
+            WITH subtree AS (
                 SELECT CAST(:rootId AS bigint) AS entity_id
                 UNION ALL
-                SELECT er.child_id FROM entity_relation er
-                INNER JOIN subtree s ON er.parent_id = s.entity_id
+                SELECT ec.descendant_id FROM entity_closure ec WHERE ec.ancestor_id = :rootId
             )
             SELECT e.id FROM entity e
             INNER JOIN entity_type et ON e.entity_type_id = et.id
@@ -259,6 +322,68 @@ public interface EntityRepository extends JpaRepository<Entity, Long> {
             @Param("code") String code,
             @Param("excludeEntityId") Long excludeEntityId);
 
+    /**
+     * Codes métier déjà pris par des entités d'un type donné dans les sous-arbres de plusieurs racines
+     * (variante ensembliste de {@link #findEntityIdByTypedCodeInSubtree}) : lignes (racine, code en minuscules).
+     * Ne pas appeler avec des collections vides.
+     */
+    @Query(
+            value = """
+            SELECT DISTINCT ec.ancestor_id, LOWER(em.code) FROM entity_closure ec
+            INNER JOIN entity e ON e.id = ec.descendant_id
+            INNER JOIN entity_type et ON e.entity_type_id = et.id
+            INNER JOIN entity_metadata em ON e.id = em.entity_id
+            WHERE ec.ancestor_id IN (:rootIds)
+            AND et.code = :entityTypeCode
+            AND LOWER(em.code) IN (:codes)
+            """,
+            nativeQuery = true)
+    List<Object[]> findTakenTypedCodesInSubtrees(
+            @Param("rootIds") Collection<Long> rootIds,
+            @Param("entityTypeCode") String entityTypeCode,
+            @Param("codes") Collection<String> codes);
+
+    /**
+     * Ancêtre le plus proche d'un type donné (entité elle-même exclue), lu dans la table de fermeture
+     * {@code entity_closure} : une seule lecture indexée, quelle que soit la profondeur.
+     */
+    @Query(
+            value = """
+            SELECT e.* FROM entity e
+            INNER JOIN entity_closure ec ON ec.ancestor_id = e.id
+            WHERE ec.descendant_id = :descendantId
+            AND ec.ancestor_type_code = :typeCode
+            ORDER BY ec.depth ASC
+            LIMIT 1
+            """,
+            nativeQuery = true)
+    Optional<Entity> findNearestAncestorOfType(
+            @Param("descendantId") Long descendantId,
+            @Param("typeCode") String typeCode);
+
+    /**
+     * Collection ancêtre la plus proche de chaque entité donnée : lignes (descendant_id, collection_id, statut).
+     * Les entités sans collection ancêtre n'apparaissent pas. Ne pas appeler avec une collection vide.
+     */
+    @Query(
+            value = """
+            SELECT DISTINCT ON (ec.descendant_id) ec.descendant_id, c.id, c.statut
+            FROM entity_closure ec
+            INNER JOIN entity c ON c.id = ec.ancestor_id
+            WHERE ec.descendant_id IN (:ids)
+            AND ec.ancestor_type_code = 'COLLECTION'
+            ORDER BY ec.descendant_id, ec.depth ASC
+            """,
+            nativeQuery = true)
+    List<Object[]> findCollectionAncestorsByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Statut et code de type des entités données : lignes (id, statut, code du type).
+     * Ne pas appeler avec une collection vide.
+     */
+    @Query("SELECT e.id, e.statut, et.code FROM Entity e JOIN e.entityType et WHERE e.id IN :ids")
+    List<Object[]> findStatutAndTypeCodeByIds(@Param("ids") Collection<Long> ids);
+
     /**
      * Vérifie si une entité existe avec le code donné (via metadata)
      */
@@ -286,6 +411,12 @@ public interface EntityRepository extends JpaRepository<Entity, Long> {
     boolean existsByLabelNomAndLangueCodeAndEntityTypeCode(@Param("nom") String nom, @Param("langueCode") String langueCode,
                                                           @Param("entityTypeCode") String entityTypeCode);
 
+    /**
+     * Vérifie si l'entité d'identifiant donné existe et est du type donné.
+     */
+    @Query("SELECT COUNT(e) > 0 FROM Entity e JOIN e.entityType et WHERE e.id = :id AND et.code = :entityTypeCode")
+    boolean existsByIdAndEntityTypeCode(@Param("id") Long id, @Param("entityTypeCode") String entityTypeCode);
+
     /**
      * Trouve toutes les entités d'un type par le code du type
      */
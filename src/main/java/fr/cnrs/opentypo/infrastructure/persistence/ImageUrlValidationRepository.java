@@ -0,0 +1,27 @@
+package fr.cnrs.opentypo.infrastructure.persistence;
+
+import fr.cnrs.opentypo.domain.entity.ImageUrlValidation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository des vérifications d'URL d'image conservées entre deux imports.
+ */
+@Repository
+public interface ImageUrlValidationRepository extends JpaRepository<ImageUrlValidation, String> {
+
+    @Query("SELECT v FROM ImageUrlValidation v WHERE v.urlHash IN :hashes AND v.checkedAt >= :checkedAfter")
+    List<ImageUrlValidation> findFresh(@Param("hashes") Collection<String> hashes,
+                                       @Param("checkedAfter") LocalDateTime checkedAfter);
+
+    @Modifying
+    @Query("DELETE FROM ImageUrlValidation v WHERE v.checkedAt < :checkedBefore")
+    int deleteCheckedBefore(@Param("checkedBefore") LocalDateTime checkedBefore);
+}
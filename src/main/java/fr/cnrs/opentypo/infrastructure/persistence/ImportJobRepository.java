@@ -0,0 +1,119 @@
+package fr.cnrs.opentypo.infrastructure.persistence;
+
+import fr.cnrs.opentypo.domain.entity.ImportJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+/**
+ * Repository des imports CSV de typologie soumis à la file d'exécution.
+ */
+@Repository
+public interface ImportJobRepository extends JpaRepository<ImportJob, Long> {
+
+    List<ImportJob> findByStatusInOrderByIdAsc(Collection<ImportJob.Status> statuses);
+
+    /**
+     * Enregistre l'avancement après la validation d'un lot (sans relire le job).
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE ImportJob j SET j.importedCount = :importedCount, j.plannedCount = :plannedCount, "
+            + "j.lastCsvRow = :lastCsvRow WHERE j.id = :id")
+    int updateProgress(@Param("id") Long id,
+                       @Param("importedCount") int importedCount,
+                       @Param("plannedCount") int plannedCount,
+                       @Param("lastCsvRow") int lastCsvRow);
+
+    /**
+     * Prend un job en attente pour l'instance {@code owner} (statut {@code running}, bail renouvelé à {@code now}),
+     * sauf si son annulation est demandée ou si un autre import du même référentiel est en cours ou attend depuis
+     * plus longtemps, quelle que soit l'instance qui l'a mis en file.
+     *
+     * @return 1 si le job a été pris, 0 sinon
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE ImportJob j SET j.status = :running, j.leaseOwner = :owner, j.leaseHeartbeat = :now, "
+            + "j.startedAt = :now WHERE j.id = :id AND j.status = :queued AND j.cancelRequested = false "
+            + "AND NOT EXISTS ("
+            + "SELECT o.id FROM ImportJob o WHERE o.referenceId = j.referenceId "
+            + "AND (o.status = :running OR (o.status = :queued AND o.id < j.id)))")
+    int claim(@Param("id") Long id,
+              @Param("owner") String owner,
+              @Param("now") LocalDateTime now,
+              @Param("queued") ImportJob.Status queued,
+              @Param("running") ImportJob.Status running);
+
+    /**
+     * Annulation demandée pour le job, lue avant chaque lot par l'instance qui l'exécute.
+     */
+    boolean existsByIdAndCancelRequestedTrue(Long id);
+
+    /**
+     * Enregistre la demande d'annulation d'un job en attente ou en cours, quelle que soit l'instance qui le porte.
+     *
+     * @return 1 si la demande est enregistrée, 0 si le job n'est ni en attente ni en cours
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE ImportJob j SET j.cancelRequested = true WHERE j.id = :id AND j.status IN (:queued, :running)")
+    int requestCancel(@Param("id") Long id,
+                      @Param("queued") ImportJob.Status queued,
+                      @Param("running") ImportJob.Status running);
+
+    /**
+     * Termine ({@code cancelled}) les jobs en attente dont l'annulation est demandée, y compris ceux remis en file
+     * après leur annulation en cours (instance arrêtée avant le lot suivant).
+     *
+     * @return nombre de jobs annulés
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE ImportJob j SET j.status = :cancelled, j.message = :message, j.finishedAt = :now "
+            + "WHERE j.status = :queued AND j.cancelRequested = true")
+    int cancelQueued(@Param("message") String message,
+                     @Param("now") LocalDateTime now,
+                     @Param("queued") ImportJob.Status queued,
+                     @Param("cancelled") ImportJob.Status cancelled);
+
+    /**
+     * Renouvelle le bail des jobs en cours sur l'instance {@code owner}.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE ImportJob j SET j.leaseHeartbeat = :now WHERE j.leaseOwner = :owner AND j.status = :running")
+    int renewLeases(@Param("owner") String owner,
+                    @Param("now") LocalDateTime now,
+                    @Param("running") ImportJob.Status running);
+
+    /**
+     * Remet en file les jobs restés en cours sur l'instance {@code owner} (redémarrage de cette instance).
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE ImportJob j SET j.status = :queued, j.leaseOwner = NULL, j.leaseHeartbeat = NULL "
+            + "WHERE j.status = :running AND j.leaseOwner = :owner")
+    int releaseLeasesOf(@Param("owner") String owner,
+                        @Param("queued") ImportJob.Status queued,
+                        @Param("running") ImportJob.Status running);
+
+    /**
+     * Remet en file les jobs en cours dont le bail n'a pas été renouvelé depuis {@code expiredBefore}
+     * (instance arrêtée brutalement) ou qui n'ont pas de bail.
+     */
+    @Modifying
+    @Transactional
+    @Query("UPDATE ImportJob j SET j.status = :queued, j.leaseOwner = NULL, j.leaseHeartbeat = NULL "
+            + "WHERE j.status = :running AND (j.leaseHeartbeat IS NULL OR j.leaseHeartbeat < :expiredBefore)")
+    int releaseExpiredLeases(@Param("expiredBefore") LocalDateTime expiredBefore,
+                             @Param("queued") ImportJob.Status queued,
+                             @Param("running") ImportJob.Status running);
+}
@@ -8,6 +8,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -46,6 +47,12 @@ public interface ReferenceOpenthesoRepository extends JpaRepository<ReferenceOpe
     @Query("SELECT r FROM ReferenceOpentheso r WHERE r.entity.id = :entityId")
     List<ReferenceOpentheso> findByEntityId(@Param("entityId") Long entityId);
 
+    /**
+     * Toutes les références de plusieurs entités en une requête. Ne pas appeler avec une collection vide.
+     */
+    @Query("SELECT r FROM ReferenceOpentheso r WHERE r.entity.id IN :entityIds")
+    List<ReferenceOpentheso> findByEntityIds(@Param("entityIds") Collection<Long> entityIds);
+
     @Modifying
     @Transactional
     @Query("DELETE FROM ReferenceOpentheso ref WHERE ref.entity.id = :idEntity")
@@ -41,6 +41,22 @@ public interface UserPermissionRepository extends JpaRepository<UserPermission,
     @Query("SELECT up.id.userId FROM UserPermission up WHERE up.id.entityId = :entityId AND up.role = :role")
     List<Long> findUserIdsByEntityIdAndRole(@Param("entityId") Long entityId, @Param("role") String role);
 
+    /**
+     * Identifiants des entités d'un type donné sur lesquelles l'utilisateur a une permission (tous rôles).
+     */
+    @Query("SELECT up.id.entityId FROM UserPermission up " +
+           "JOIN up.entity e " +
+           "JOIN e.entityType et " +
+           "WHERE up.id.userId = :userId AND et.code = :entityTypeCode")
+    List<Long> findEntityIdsByUserIdAndEntityTypeCode(@Param("userId") Long userId,
+                                                      @Param("entityTypeCode") String entityTypeCode);
+
+    /**
+     * Couples (entityId, rôle) de toutes les permissions d'un utilisateur, sans charger les entités.
+     */
+    @Query("SELECT up.id.entityId, up.role FROM UserPermission up WHERE up.id.userId = :userId")
+    List<Object[]> findEntityIdAndRoleByUserId(@Param("userId") Long userId);
+
     /**
      * Vérifie si un utilisateur a un rôle donné sur une entité
      */
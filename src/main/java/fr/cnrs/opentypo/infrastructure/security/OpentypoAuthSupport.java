@@ -19,6 +19,9 @@ import java.util.stream.Collectors;
 @Component
 public class OpentypoAuthSupport {
 
+    /** Autorité des administrateurs technique et fonctionnel. */
+    public static final String ROLE_ADMIN = "ROLE_ADMIN";
+
     public List<GrantedAuthority> buildAuthorities(Utilisateur utilisateur) {
         List<GrantedAuthority> authorities = new ArrayList<>();
         authorities.add(new SimpleGrantedAuthority("ROLE_USER"));
@@ -26,7 +29,7 @@ public class OpentypoAuthSupport {
             String groupeNom = utilisateur.getGroupe().getNom();
             if (GroupEnum.ADMINISTRATEUR_TECHNIQUE.getLabel().equalsIgnoreCase(groupeNom)
                     || GroupEnum.ADMINISTRATEUR_FONCTIONNEL.getLabel().equalsIgnoreCase(groupeNom)) {
-                authorities.add(new SimpleGrantedAuthority("ROLE_ADMIN"));
+                authorities.add(new SimpleGrantedAuthority(ROLE_ADMIN));
             }
         }
         return authorities;
@@ -14,6 +14,8 @@ import fr.cnrs.opentypo.application.service.GroupService;
 import fr.cnrs.opentypo.application.service.ReferenceService;
 import fr.cnrs.opentypo.application.service.SerieService;
 import fr.cnrs.opentypo.application.service.TypeService;
+import fr.cnrs.opentypo.application.service.UserPermissionSnapshotService;
+import fr.cnrs.opentypo.application.service.VisibilityService;
 import fr.cnrs.opentypo.application.dto.zotero.ZoteroSearchHit;
 import fr.cnrs.opentypo.application.service.ZoteroApiService;
 import fr.cnrs.opentypo.common.constant.EntityConstants;
@@ -24,7 +26,6 @@ import fr.cnrs.opentypo.domain.entity.Image;
 import fr.cnrs.opentypo.domain.entity.Label;
 import fr.cnrs.opentypo.domain.entity.Langue;
 import fr.cnrs.opentypo.domain.entity.Parametrage;
-import fr.cnrs.opentypo.domain.entity.UserPermission;
 import fr.cnrs.opentypo.domain.entity.Utilisateur;
 import fr.cnrs.opentypo.infrastructure.persistence.AuteurRepository;
 import fr.cnrs.opentypo.infrastructure.persistence.CaracteristiquePhysiqueMonnaieRepository;
@@ -45,7 +46,6 @@ import fr.cnrs.opentypo.infrastructure.persistence.LabelRepository;
 import fr.cnrs.opentypo.infrastructure.persistence.LangueRepository;
 import fr.cnrs.opentypo.infrastructure.persistence.ParametrageRepository;
 import fr.cnrs.opentypo.infrastructure.persistence.ReferenceOpenthesoRepository;
-import fr.cnrs.opentypo.infrastructure.persistence.UserPermissionRepository;
 import fr.cnrs.opentypo.infrastructure.persistence.UtilisateurRepository;
 import fr.cnrs.opentypo.presentation.bean.candidats.CandidatBean;
 import fr.cnrs.opentypo.presentation.bean.candidats.service.CandidatReferenceTreeService;
@@ -111,6 +111,9 @@ public class ApplicationBean implements Serializable {
     @Inject
     private transient EntityStatusCascadeService entityStatusCascadeService;
 
+    @Inject
+    private transient VisibilityService visibilityService;
+
     @Inject
     private transient ReferenceService referenceService;
 
@@ -133,7 +136,7 @@ public class ApplicationBean implements Serializable {
     private transient LoginBean loginBean;
 
     @Inject
-    private UserPermissionRepository userPermissionRepository;
+    private transient UserPermissionSnapshotService userPermissionSnapshotService;
 
     @Inject
     private InternalAlignmentRepository internalAlignmentRepository;
@@ -434,100 +437,40 @@ public class ApplicationBean implements Serializable {
     }
 
     /**
-     * Retourne l'ensemble des IDs de collections que l'utilisateur connecté est autorisé à consulter
-     * (via la table user_permission). Pour un utilisateur non connecté, l'ensemble est vide.
+     * Prédicat de visibilité de l'utilisateur connecté, partagé pendant la requête JSF courante
+     * (collections autorisées et collections ancêtres mémorisées). Appeler
+     * {@code prefetch(liste)} avant de filtrer une liste pour résoudre toutes les entités en une requête.
      */
-    private Set<Long> getAllowedCollectionIdsForCurrentUser() {
-        if (loginBean == null || !loginBean.isAuthenticated() || loginBean.getCurrentUser() == null) {
-            return new HashSet<>();
+    public VisibilityService.VisibilityPredicate getVisibilityPredicate() {
+        Utilisateur principal = loginBean != null && loginBean.isAuthenticated() ? loginBean.getCurrentUser() : null;
+        FacesContext fc = FacesContext.getCurrentInstance();
+        if (fc == null) {
+            return visibilityService.newPredicate(principal);
         }
-        Utilisateur current = loginBean.getCurrentUser();
-        List<UserPermission> permissions = userPermissionRepository.findByUtilisateur(current);
-        Set<Long> ids = new HashSet<>();
-        if (permissions == null) {
-            return ids;
+        String cacheKey = "opentypo_visibility_" + (principal != null ? principal.getId() : "anonymous");
+        Map<String, Object> requestMap = fc.getExternalContext().getRequestMap();
+        Object cached = requestMap.get(cacheKey);
+        if (cached instanceof VisibilityService.VisibilityPredicate predicate) {
+            return predicate;
         }
-        for (UserPermission permission : permissions) {
-            if (permission == null || permission.getEntity() == null) {
-                continue;
-            }
-            Entity e = permission.getEntity();
-            if (e.getEntityType() != null
-                    && EntityConstants.ENTITY_TYPE_COLLECTION.equals(e.getEntityType().getCode())
-                    && e.getId() != null) {
-                ids.add(e.getId());
-            }
-        }
-        return ids;
+        VisibilityService.VisibilityPredicate predicate = visibilityService.newPredicate(principal);
+        requestMap.put(cacheKey, predicate);
+        return predicate;
     }
 
     /**
      * Indique si une entité est visible pour l'utilisateur actuel, selon les règles métier :
      * - Jamais d'entités avec statut REFUSED.
-     * - Utilisateur non connecté : uniquement les entités avec le champ publique = true.
-     * - Utilisateur connecté : entités avec publique = true ou false selon les règles ci-dessous :
+     * - Utilisateur non connecté : uniquement les entités avec le statut PUBLIQUE.
+     * - Utilisateur connecté :
+     *   - Collections : toutes visibles.
      *   - Collections publiques : toutes les entités rattachées sont visibles.
-     *   - Administrateur technique : toutes les entités sauf REFUSED.
+     *   - Administrateur technique : toutes les entités.
      *   - Autres groupes : collections autorisées via user_permission et entités rattachées.
+     * Les règles sont évaluées par {@link VisibilityService} (voir {@link #getVisibilityPredicate()}).
      */
     public boolean isEntityVisibleForCurrentUser(Entity entity) {
-        if (entity == null) {
-            return false;
-        }
-
-        // 0) Administrateur technique : voit tous les éléments (y compris REFUSED)
-        if (loginBean.isAdminTechniqueOrFonctionnel()) {
-            return true;
-        }
-
-        // 1) Ne jamais afficher les entités au statut REFUSED (pour les non-admin)
-        if (EntityStatusEnum.REFUSE.name().equals(entity.getStatut())) {
-            return false;
-        }
-
-        // 2) Utilisateur non connecté (offline) : uniquement les entités statut = PUBLIQUE
-        //    et statut différent de REFUSED et PROPOSITION
-        if (!loginBean.isAuthenticated()) {
-            return entity.getStatut() != null && EntityStatusEnum.PUBLIQUE.name().equals(entity.getStatut());
-        }
-
-        // 2b) Utilisateur connecté : pour les collections, afficher toutes
-        if (entity.getEntityType() != null
-                && EntityConstants.ENTITY_TYPE_COLLECTION.equals(entity.getEntityType().getCode())) {
-            return true;
-        }
-
-        // 3) Utilisateur connecté : règle des collections publiques — toutes les collections
-        //    avec statut PUBLIQUE et tous leurs éléments sont visibles.
-        Entity collectionAncestorForPublicRule = null;
-        if (entity.getEntityType() != null
-                && EntityConstants.ENTITY_TYPE_COLLECTION.equals(entity.getEntityType().getCode())) {
-            collectionAncestorForPublicRule = entity;
-        } else {
-            collectionAncestorForPublicRule = findAncestorOfType(entity, EntityConstants.ENTITY_TYPE_COLLECTION);
-        }
-        if (collectionAncestorForPublicRule != null
-                && EntityStatusEnum.PUBLIQUE.name().equals(collectionAncestorForPublicRule.getStatut())) {
-            return true;
-        }
-
-        // 4) Autres groupes connectés : filtrer par collections autorisées
-        Set<Long> allowedCollectionIds = getAllowedCollectionIdsForCurrentUser();
-        if (allowedCollectionIds == null || allowedCollectionIds.isEmpty()) {
-            return false;
-        }
-
-        Entity collectionAncestor = null;
-        if (entity.getEntityType() != null
-                && EntityConstants.ENTITY_TYPE_COLLECTION.equals(entity.getEntityType().getCode())) {
-            collectionAncestor = entity;
-        } else {
-            collectionAncestor = findAncestorOfType(entity, EntityConstants.ENTITY_TYPE_COLLECTION);
-        }
-
-        return collectionAncestor != null
-                && collectionAncestor.getId() != null
-                && allowedCollectionIds.contains(collectionAncestor.getId());
+        return entity != null && getVisibilityPredicate().test(entity);
     }
 
     /**
@@ -538,7 +481,7 @@ public class ApplicationBean implements Serializable {
                 || reference == null || reference.getId() == null) {
             return false;
         }
-        return userPermissionRepository.existsByUserIdAndEntityIdAndRole(
+        return userPermissionSnapshotService.hasRole(
                 loginBean.getCurrentUser().getId(),
                 reference.getId(),
                 PermissionRoleEnum.GESTIONNAIRE_REFERENTIEL.getLabel());
@@ -552,7 +495,7 @@ public class ApplicationBean implements Serializable {
                 || group == null || group.getId() == null) {
             return false;
         }
-        return userPermissionRepository.existsByUserIdAndEntityId(
+        return userPermissionSnapshotService.hasAnyRole(
                 loginBean.getCurrentUser().getId(),
                 group.getId());
     }
@@ -651,20 +594,16 @@ public class ApplicationBean implements Serializable {
     }
 
     /**
-     * Retourne l'ancêtre de type donné en remontant l'arbre des relations parent-enfant.
+     * Retourne l'entité elle-même si elle est du type donné, sinon son ancêtre le plus proche de ce type
+     * (une lecture dans la table de fermeture {@code entity_closure}).
      */
     private Entity findAncestorOfType(Entity entity, String typeCode) {
         if (entity == null || typeCode == null) return null;
-        Entity current = entity;
-        while (current != null) {
-            if (current.getEntityType() != null && typeCode.equals(current.getEntityType().getCode())) {
-                return current;
-            }
-            List<Entity> parents = entityRelationRepository.findParentsByChild(current);
-            if (parents == null || parents.isEmpty()) break;
-            current = parents.get(0);
+        if (entity.getEntityType() != null && typeCode.equals(entity.getEntityType().getCode())) {
+            return entity;
         }
-        return null;
+        if (entity.getId() == null) return null;
+        return entityRepository.findNearestAncestorOfType(entity.getId(), typeCode).orElse(null);
     }
 
     /**
@@ -841,6 +780,7 @@ public class ApplicationBean implements Serializable {
 
     private List<Entity> filterChildsByTypeWithVisibility(String entityTypeCode) {
         if (childs == null) return new ArrayList<>();
+        getVisibilityPredicate().prefetch(childs);
         var filtered = childs.stream()
                 .filter(e -> e != null && e.getEntityType() != null
                         && entityTypeCode.equals(e.getEntityType().getCode())
@@ -1581,7 +1521,7 @@ public class ApplicationBean implements Serializable {
             references = entityRepository.findByEntityTypeCode(EntityConstants.ENTITY_TYPE_REFERENCE);
             // Filtrer selon les droits de l'utilisateur (publique / groupe / user_permission / statut REFUSED)
             references = references.stream()
-                    .filter(this::isEntityVisibleForCurrentUser)
+                    .filter(getVisibilityPredicate().prefetch(references))
                     .collect(Collectors.toList());
         } catch (Exception e) {
             log.error("Erreur lors du chargement des référentiels depuis la base de données", e);
@@ -2243,25 +2183,25 @@ public class ApplicationBean implements Serializable {
         Long userId = loginBean.getCurrentUser().getId();
         Entity collection = getSelectedCollection();
         if (collection != null && collection.getId() != null
-                && userPermissionRepository.existsByUserIdAndEntityIdAndRole(userId, collection.getId(),
+                && userPermissionSnapshotService.hasRole(userId, collection.getId(),
                 PermissionRoleEnum.GESTIONNAIRE_COLLECTION.getLabel())) {
             return true;
         }
         Entity reference = getSelectedReference();
         if (reference != null && reference.getId() != null
-                && userPermissionRepository.existsByUserIdAndEntityIdAndRole(userId, reference.getId(),
+                && userPermissionSnapshotService.hasRole(userId, reference.getId(),
                 PermissionRoleEnum.GESTIONNAIRE_REFERENTIEL.getLabel())) {
             return true;
         }
-        if (userPermissionRepository.existsByUserIdAndEntityIdAndRole(userId, selectedEntity.getId(),
+        if (userPermissionSnapshotService.hasRole(userId, selectedEntity.getId(),
                 PermissionRoleEnum.REDACTEUR.getLabel())) {
             return true;
         }
-        if (userPermissionRepository.existsByUserIdAndEntityIdAndRole(userId, selectedEntity.getId(),
+        if (userPermissionSnapshotService.hasRole(userId, selectedEntity.getId(),
                 PermissionRoleEnum.RELECTEUR.getLabel())) {
             return true;
         }
-        if (userPermissionRepository.existsByUserIdAndEntityIdAndRole(userId, selectedEntity.getId(),
+        if (userPermissionSnapshotService.hasRole(userId, selectedEntity.getId(),
                 PermissionRoleEnum.VALIDEUR.getLabel())) {
             return true;
         }
@@ -2290,25 +2230,25 @@ public class ApplicationBean implements Serializable {
         Long userId = loginBean.getCurrentUser().getId();
         Entity collection = getSelectedCollection();
         if (collection != null && collection.getId() != null
-                && userPermissionRepository.existsByUserIdAndEntityIdAndRole(userId, collection.getId(),
+                && userPermissionSnapshotService.hasRole(userId, collection.getId(),
                 PermissionRoleEnum.GESTIONNAIRE_COLLECTION.getLabel())) {
             return true;
         }
         Entity reference = getSelectedReference();
         if (reference != null && reference.getId() != null
-                && userPermissionRepository.existsByUserIdAndEntityIdAndRole(userId, reference.getId(),
+                && userPermissionSnapshotService.hasRole(userId, reference.getId(),
                 PermissionRoleEnum.GESTIONNAIRE_REFERENTIEL.getLabel())) {
             return true;
         }
         Entity group = getSelectedGroup();
         if (group != null && group.getId() != null) {
-            if (userPermissionRepository.existsByUserIdAndEntityIdAndRole(userId, group.getId(), PermissionRoleEnum.REDACTEUR.getLabel())) {
+            if (userPermissionSnapshotService.hasRole(userId, group.getId(), PermissionRoleEnum.REDACTEUR.getLabel())) {
                 return true;
             }
-            if (userPermissionRepository.existsByUserIdAndEntityIdAndRole(userId, group.getId(), PermissionRoleEnum.RELECTEUR.getLabel())) {
+            if (userPermissionSnapshotService.hasRole(userId, group.getId(), PermissionRoleEnum.RELECTEUR.getLabel())) {
                 return true;
             }
-            if (userPermissionRepository.existsByUserIdAndEntityIdAndRole(userId, group.getId(), PermissionRoleEnum.VALIDEUR.getLabel())) {
+            if (userPermissionSnapshotService.hasRole(userId, group.getId(), PermissionRoleEnum.VALIDEUR.getLabel())) {
                 return true;
             }
         }
@@ -2337,25 +2277,25 @@ public class ApplicationBean implements Serializable {
         Long userId = loginBean.getCurrentUser().getId();
         Entity collection = getSelectedCollection();
         if (collection != null && collection.getId() != null
-                && userPermissionRepository.existsByUserIdAndEntityIdAndRole(userId, collection.getId(),
+                && userPermissionSnapshotService.hasRole(userId, collection.getId(),
                 PermissionRoleEnum.GESTIONNAIRE_COLLECTION.getLabel())) {
             return true;
         }
         Entity reference = getSelectedReference();
         if (reference != null && reference.getId() != null
-                && userPermissionRepository.existsByUserIdAndEntityIdAndRole(userId, reference.getId(),
+                && userPermissionSnapshotService.hasRole(userId, reference.getId(),
                 PermissionRoleEnum.GESTIONNAIRE_REFERENTIEL.getLabel())) {
             return true;
         }
         Entity group = getSelectedGroup();
         if (group != null && group.getId() != null) {
-            if (userPermissionRepository.existsByUserIdAndEntityIdAndRole(userId, group.getId(), PermissionRoleEnum.REDACTEUR.getLabel())) {
+            if (userPermissionSnapshotService.hasRole(userId, group.getId(), PermissionRoleEnum.REDACTEUR.getLabel())) {
                 return true;
             }
-            if (userPermissionRepository.existsByUserIdAndEntityIdAndRole(userId, group.getId(), PermissionRoleEnum.RELECTEUR.getLabel())) {
+            if (userPermissionSnapshotService.hasRole(userId, group.getId(), PermissionRoleEnum.RELECTEUR.getLabel())) {
                 return true;
             }
-            if (userPermissionRepository.existsByUserIdAndEntityIdAndRole(userId, group.getId(), PermissionRoleEnum.VALIDEUR.getLabel())) {
+            if (userPermissionSnapshotService.hasRole(userId, group.getId(), PermissionRoleEnum.VALIDEUR.getLabel())) {
                 return true;
             }
         }
@@ -3022,17 +2962,17 @@ public class ApplicationBean implements Serializable {
 
         Entity collection = getSelectedCollection();
         if (collection != null && collection.getId() != null
-                && userPermissionRepository.existsByUserIdAndEntityIdAndRole(userId, collection.getId(),
+                && userPermissionSnapshotService.hasRole(userId, collection.getId(),
                 PermissionRoleEnum.GESTIONNAIRE_COLLECTION.getLabel())) {
             return true;
         }
-        if (userPermissionRepository.existsByUserIdAndEntityIdAndRole(userId, selectedEntity.getId(),
+        if (userPermissionSnapshotService.hasRole(userId, selectedEntity.getId(),
                 PermissionRoleEnum.VALIDEUR.getLabel())) {
             return true;
         }
         Entity reference = getSelectedReference();
         if (reference != null && reference.getId() != null
-                && userPermissionRepository.existsByUserIdAndEntityIdAndRole(userId, reference.getId(),
+                && userPermissionSnapshotService.hasRole(userId, reference.getId(),
                 PermissionRoleEnum.GESTIONNAIRE_REFERENTIEL.getLabel())) {
             return true;
         }
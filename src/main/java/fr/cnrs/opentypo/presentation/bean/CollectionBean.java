@@ -20,6 +20,7 @@ import fr.cnrs.opentypo.infrastructure.persistence.EntityTypeRepository;
 import fr.cnrs.opentypo.infrastructure.persistence.LangueRepository;
 import fr.cnrs.opentypo.infrastructure.persistence.UserPermissionRepository;
 import fr.cnrs.opentypo.application.service.EntityAuthorityService;
+import fr.cnrs.opentypo.application.service.UserPermissionSnapshotService;
 import fr.cnrs.opentypo.presentation.i18n.JsfMessages;
 import fr.cnrs.opentypo.infrastructure.persistence.UtilisateurRepository;
 
@@ -64,6 +65,9 @@ public class CollectionBean implements Serializable {
     @Autowired
     private UserPermissionRepository userPermissionRepository;
 
+    @Autowired
+    private UserPermissionSnapshotService userPermissionSnapshotService;
+
     @Autowired
     private EntityAuthorityService entityAuthorityService;
 
@@ -584,6 +588,7 @@ public class CollectionBean implements Serializable {
                 }
             }
         }
+        userPermissionSnapshotService.invalidate();
         invalidateCollectionGestionnairesCache(savedCollection.getId());
     }
 
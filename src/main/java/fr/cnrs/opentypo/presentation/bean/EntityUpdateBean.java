@@ -1,12 +1,14 @@
 package fr.cnrs.opentypo.presentation.bean;
 
 import fr.cnrs.opentypo.application.dto.DescriptionItem;
+import fr.cnrs.opentypo.application.dto.EntitySearchCriteria;
 import fr.cnrs.opentypo.application.dto.GroupEnum;
 import fr.cnrs.opentypo.application.dto.NameItem;
 import fr.cnrs.opentypo.application.dto.PermissionRoleEnum;
 import fr.cnrs.opentypo.application.dto.ReferenceOpenthesoEnum;
 import fr.cnrs.opentypo.application.dto.pactols.PactolsConcept;
 import fr.cnrs.opentypo.application.dto.zotero.ZoteroSearchHit;
+import fr.cnrs.opentypo.application.service.UserPermissionSnapshotService;
 import fr.cnrs.opentypo.application.service.ZoteroApiService;
 import fr.cnrs.opentypo.common.constant.EntityConstants;
 import fr.cnrs.opentypo.presentation.i18n.JsfMessages;
@@ -35,6 +37,7 @@ import fr.cnrs.opentypo.infrastructure.persistence.DescriptionDetailRepository;
 import fr.cnrs.opentypo.infrastructure.persistence.DescriptionMonnaieRepository;
 import fr.cnrs.opentypo.application.service.EntityAuthorityService;
 import fr.cnrs.opentypo.application.service.EntityImageService;
+import fr.cnrs.opentypo.application.service.EntitySearchService;
 import fr.cnrs.opentypo.infrastructure.persistence.DescriptionPateRepository;
 import fr.cnrs.opentypo.infrastructure.persistence.EntityMetadataRepository;
 import fr.cnrs.opentypo.infrastructure.persistence.EntityRelationRepository;
@@ -95,6 +98,9 @@ import java.util.stream.Collectors;
 @Slf4j
 public class EntityUpdateBean implements Serializable {
 
+    /** Candidats examinés pour l'autocomplétion des alignements internes (filtrés ensuite sur les types). */
+    private static final int INTERNAL_ALIGNMENT_CANDIDATE_LIMIT = 200;
+
     private final ReferenceBean referenceBean;
     @Autowired
     private LoginBean loginBean;
@@ -120,6 +126,12 @@ public class EntityUpdateBean implements Serializable {
     @Autowired
     private UserPermissionRepository userPermissionRepository;
 
+    @Autowired
+    private EntitySearchService entitySearchService;
+
+    @Autowired
+    private UserPermissionSnapshotService userPermissionSnapshotService;
+
     @Autowired
     private EntityAuthorityService entityAuthorityService;
 
@@ -720,7 +732,7 @@ public class EntityUpdateBean implements Serializable {
         if (reference == null || reference.getId() == null || userPermissionRepository == null) {
             return false;
         }
-        return userPermissionRepository.existsByUserIdAndEntityIdAndRole(
+        return userPermissionSnapshotService.hasRole(
                 loginBean.getCurrentUser().getId(),
                 reference.getId(),
                 PermissionRoleEnum.GESTIONNAIRE_REFERENTIEL.getLabel());
@@ -1185,7 +1197,9 @@ public class EntityUpdateBean implements Serializable {
         }
         String langCode = (searchBean != null && StringUtils.hasText(searchBean.getLangSelected()))
                 ? searchBean.getLangSelected() : "fr";
-        List<Entity> candidates = entityRepository.searchByCodeOrLabelContains(q, langCode);
+        List<Entity> candidates = entitySearchService.search(new EntitySearchCriteria(
+                q, EntitySearchCriteria.Field.ANY, EntitySearchCriteria.MatchMode.CONTAINS, langCode,
+                null, null, INTERNAL_ALIGNMENT_CANDIDATE_LIMIT));
         Long currentId = applicationBean != null && applicationBean.getSelectedEntity() != null
                 ? applicationBean.getSelectedEntity().getId() : null;
         Set<Long> alreadySelectedIds = internalAlignments == null ? new HashSet<>()
@@ -2341,6 +2355,7 @@ public class EntityUpdateBean implements Serializable {
         userPermissionRepository.deleteByEntityIdAndRole(savedGroup.getId(), PermissionRoleEnum.REDACTEUR.getLabel());
         userPermissionRepository.deleteByEntityIdAndRole(savedGroup.getId(), PermissionRoleEnum.VALIDEUR.getLabel());
         userPermissionRepository.deleteByEntityIdAndRole(savedGroup.getId(), PermissionRoleEnum.RELECTEUR.getLabel());
+        userPermissionSnapshotService.invalidate();
         Set<Long> alreadyAssigned = new HashSet<>();
         if (assignedRedacteurIds != null) {
             for (Long userId : assignedRedacteurIds) {
@@ -2380,6 +2395,7 @@ public class EntityUpdateBean implements Serializable {
             permission.setRole(role);
             permission.setCreateDate(LocalDateTime.now());
             userPermissionRepository.save(permission);
+            userPermissionSnapshotService.invalidate();
         }
     }
 
@@ -25,6 +25,7 @@ import fr.cnrs.opentypo.infrastructure.persistence.UtilisateurRepository;
 import fr.cnrs.opentypo.application.service.EntityAuthorityService;
 import fr.cnrs.opentypo.application.service.EntityCodeUniquenessService;
 import fr.cnrs.opentypo.application.service.TypeService;
+import fr.cnrs.opentypo.application.service.UserPermissionSnapshotService;
 import fr.cnrs.opentypo.presentation.bean.candidats.CandidatBean;
 import fr.cnrs.opentypo.presentation.bean.candidats.model.CategoryDescriptionItem;
 import fr.cnrs.opentypo.presentation.bean.candidats.model.CategoryLabelItem;
@@ -79,6 +80,9 @@ public class GroupBean implements Serializable {
     @Autowired
     private UserPermissionRepository userPermissionRepository;
 
+    @Autowired
+    private UserPermissionSnapshotService userPermissionSnapshotService;
+
     @Autowired
     private ApplicationBean applicationBean;
 
@@ -505,6 +509,7 @@ public class GroupBean implements Serializable {
             permission.setRole(role);
             permission.setCreateDate(LocalDateTime.now());
             userPermissionRepository.save(permission);
+            userPermissionSnapshotService.invalidate();
         }
     }
 
@@ -788,11 +793,11 @@ public class GroupBean implements Serializable {
         Long userId = loginBean.getCurrentUser().getId();
         Entity reference = typeService.findReferenceAncestor(group);
         if (reference != null && reference.getId() != null
-                && userPermissionRepository.existsByUserIdAndEntityIdAndRole(
+                && userPermissionSnapshotService.hasRole(
                         userId, reference.getId(), PermissionRoleEnum.GESTIONNAIRE_REFERENTIEL.getLabel())) {
             return true;
         }
-        return userPermissionRepository.existsByUserIdAndEntityIdAndRole(
+        return userPermissionSnapshotService.hasRole(
                 userId, group.getId(), PermissionRoleEnum.REDACTEUR.getLabel());
     }
 
@@ -825,17 +830,17 @@ public class GroupBean implements Serializable {
         if (userId == null) return false;
 
         if (applicationBean.getSelectedCollection() != null && applicationBean.getSelectedCollection().getId() != null
-                && userPermissionRepository.existsByUserIdAndEntityIdAndRole(userId, applicationBean.getSelectedCollection().getId(),
+                && userPermissionSnapshotService.hasRole(userId, applicationBean.getSelectedCollection().getId(),
                 PermissionRoleEnum.GESTIONNAIRE_COLLECTION.getLabel())) {
             return true;
         }
-        if (userPermissionRepository.existsByUserIdAndEntityIdAndRole(userId, applicationBean.getSelectedEntity().getId(),
+        if (userPermissionSnapshotService.hasRole(userId, applicationBean.getSelectedEntity().getId(),
                 PermissionRoleEnum.VALIDEUR.getLabel())) {
             return true;
         }
 
         if (applicationBean.getSelectedReference() != null && applicationBean.getSelectedReference().getId() != null
-                && userPermissionRepository.existsByUserIdAndEntityIdAndRole(userId, applicationBean.getSelectedReference().getId(),
+                && userPermissionSnapshotService.hasRole(userId, applicationBean.getSelectedReference().getId(),
                 PermissionRoleEnum.GESTIONNAIRE_REFERENTIEL.getLabel())) {
             return true;
         }
@@ -2,6 +2,7 @@ package fr.cnrs.opentypo.presentation.bean;
 
 import fr.cnrs.opentypo.application.dto.EntityRevisionDTO;
 import fr.cnrs.opentypo.application.service.AuditService;
+import fr.cnrs.opentypo.application.service.EntityRevisionDiff;
 import fr.cnrs.opentypo.common.constant.EntityConstants;
 import fr.cnrs.opentypo.domain.entity.Entity;
 import fr.cnrs.opentypo.presentation.i18n.JsfMessages;
@@ -12,12 +13,15 @@ import jakarta.inject.Named;
 import lombok.Getter;
 import lombok.Setter;
 import lombok.extern.slf4j.Slf4j;
+import org.primefaces.model.FilterMeta;
+import org.primefaces.model.LazyDataModel;
+import org.primefaces.model.SortMeta;
+import org.primefaces.model.SortOrder;
 
 import java.io.IOException;
 import java.io.Serializable;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
-import java.util.ArrayList;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -41,8 +45,8 @@ public class HistoryBean implements Serializable {
     // Entité sélectionnée pour laquelle on affiche l'historique
     private Entity selectedEntity;
 
-    // Liste des révisions de l'entité
-    private List<EntityRevisionDTO> revisions = new ArrayList<>();
+    // Révisions de l'entité, chargées page par page (résumés sans état complet)
+    private RevisionDataModel revisionModel;
 
     // Révision actuellement sélectionnée pour afficher les détails
     private EntityRevisionDTO selectedRevision;
@@ -63,12 +67,12 @@ public class HistoryBean implements Serializable {
         }
 
         this.selectedEntity = entity;
-        this.revisions = auditService.getEntityRevisions(entity.getId());
+        this.revisionModel = new RevisionDataModel(entity.getId());
         this.selectedRevision = null;
         this.changedFields = null;
 
         log.info("Historique chargé pour l'entité {} : {} révisions trouvées",
-                entity.getCode(), revisions.size());
+                entity.getCode(), revisionModel.getRowCount());
 
         return "/history/history-list.xhtml?faces-redirect=true";
     }
@@ -83,11 +87,8 @@ public class HistoryBean implements Serializable {
                 return null;
             }
 
-            // Trouver la révision dans la liste
-            selectedRevision = revisions.stream()
-                    .filter(r -> r.getRevisionNumber().equals(revisionNumber))
-                    .findFirst()
-                    .orElse(null);
+            // Charger l'état complet de la révision (et de la précédente) à l'ouverture seulement
+            selectedRevision = auditService.getEntityRevision(selectedEntity.getId(), revisionNumber).orElse(null);
 
             if (selectedRevision == null) {
                 log.warn("Révision {} non trouvée pour l'entité {}", revisionNumber, selectedEntity.getId());
@@ -95,7 +96,8 @@ public class HistoryBean implements Serializable {
             }
 
             // Calculer les champs modifiés
-            changedFields = calculateChangedFields(selectedRevision);
+            changedFields = EntityRevisionDiff.changedFields(
+                    selectedRevision.getEntityData(), selectedRevision.getPreviousEntityData());
             
             log.info("Détails de la révision {} chargés pour l'entité {} : {} champs modifiés", 
                     revisionNumber, selectedEntity.getId(), changedFields.size());
@@ -169,15 +171,24 @@ public class HistoryBean implements Serializable {
         };
     }
 
+    /**
+     * Nombre total de révisions de l'entité affichée.
+     */
+    public int getRevisionCount() {
+        return revisionModel != null ? revisionModel.getRowCount() : 0;
+    }
+
     /**
      * Retourne les noms des champs modifiés pour l'affichage (ex: "Code, TPQ, Statut").
      */
     public String getChangedFieldsDisplay(EntityRevisionDTO revision) {
         if (revision == null) return "—";
-        Map<String, Map<String, Object>> changes = calculateChangedFields(revision);
+        List<String> changes = revision.getChangedFields() != null
+                ? revision.getChangedFields()
+                : EntityRevisionDiff.changedFields(revision.getEntityData(), revision.getPreviousEntityData())
+                        .keySet().stream().sorted().toList();
         if (changes.isEmpty()) return "—";
-        return changes.keySet().stream()
-                .sorted()
+        return changes.stream()
                 .map(this::getFieldLabel)
                 .collect(java.util.stream.Collectors.joining(", "));
     }
@@ -186,13 +197,7 @@ public class HistoryBean implements Serializable {
      * Indique si cette révision est la création (chronologiquement la première).
      */
     public boolean isCreationRevision(EntityRevisionDTO revision) {
-        if (revision == null || revisions == null || revisions.isEmpty()) return false;
-        Long minRev = revisions.stream()
-                .map(EntityRevisionDTO::getRevisionNumber)
-                .filter(java.util.Objects::nonNull)
-                .min(Long::compareTo)
-                .orElse(null);
-        return minRev != null && minRev.equals(revision.getRevisionNumber());
+        return revision != null && revision.isFirstRevision();
     }
 
     /**
@@ -685,156 +690,49 @@ public class HistoryBean implements Serializable {
         return withoutTags.replaceAll("\\s+", " ").trim();
     }
 
+    private boolean isNullOrEmpty(Object o) {
+        if (o == null) return true;
+        if (o instanceof String) return ((String) o).trim().isEmpty();
+        return false;
+    }
+
     /**
-     * Calcule les champs modifiés entre la révision actuelle et la précédente
+     * Modèle paresseux de la liste d'historique : chaque page est demandée à {@link AuditService}
+     * (résumés uniquement), du plus récent au plus ancien sauf tri croissant explicite sur la date.
      */
-    private Map<String, Map<String, Object>> calculateChangedFields(EntityRevisionDTO revision) {
-        Map<String, Map<String, Object>> changes = new HashMap<>();
-        
-        if (revision == null || revision.getEntityData() == null) {
-            return changes;
-        }
+    public class RevisionDataModel extends LazyDataModel<EntityRevisionDTO> {
 
-        Map<String, Object> currentData = revision.getEntityData();
-        Map<String, Object> previousData = revision.getPreviousEntityData();
-
-        // Si pas de données précédentes, tous les champs sont nouveaux (création)
-        if (previousData == null || previousData.isEmpty()) {
-            for (Map.Entry<String, Object> entry : currentData.entrySet()) {
-                if ("id".equals(entry.getKey())) continue;  // Ne pas afficher l'ID
-                Object newVal = entry.getValue();
-                // Ne pas afficher null → "" ou null → null (pas de changement réel)
-                if (!isConsideredNoChange(null, newVal)) {
-                    Map<String, Object> change = new HashMap<>();
-                    change.put("old", null);
-                    change.put("new", newVal);
-                    changes.put(entry.getKey(), change);
-                }
-            }
-            return changes;
-        }
+        private final Long entityId;
 
-        // Comparer tous les champs de currentData
-        for (Map.Entry<String, Object> entry : currentData.entrySet()) {
-            String fieldName = entry.getKey();
-            if ("id".equals(fieldName)) continue;  // Ne pas afficher l'ID
-            Object currentValue = entry.getValue();
-            Object previousValue = previousData.get(fieldName);
-
-            // Vérifier si la valeur a changé (exclure null ↔ "" considéré comme sans changement)
-            if (!areEqual(currentValue, previousValue) && !isConsideredNoChange(previousValue, currentValue)) {
-                Map<String, Object> change = new HashMap<>();
-                change.put("old", previousValue);
-                change.put("new", currentValue);
-                changes.put(fieldName, change);
-            }
+        RevisionDataModel(Long entityId) {
+            this.entityId = entityId;
+            setRowCount(auditService.countEntityRevisions(entityId));
         }
 
-        // Vérifier les champs qui existent seulement dans previousData (supprimés)
-        for (Map.Entry<String, Object> entry : previousData.entrySet()) {
-            String fieldName = entry.getKey();
-            if ("id".equals(fieldName)) continue;  // Ne pas afficher l'ID
-            if (!currentData.containsKey(fieldName)) {
-                Object oldVal = entry.getValue();
-                // Ne pas afficher "" → null ou null → null (pas de changement réel)
-                if (!isConsideredNoChange(oldVal, null)) {
-                    Map<String, Object> change = new HashMap<>();
-                    change.put("old", oldVal);
-                    change.put("new", null);
-                    changes.put(fieldName, change);
-                }
-            }
+        @Override
+        public int count(Map<String, FilterMeta> filterBy) {
+            return auditService.countEntityRevisions(entityId);
         }
 
-        // Gestion spéciale pour les Map (labels, descriptions) - créer des entrées individuelles par langue
-        for (Map.Entry<String, Object> entry : currentData.entrySet()) {
-            String fieldName = entry.getKey();
-            Object currentValue = entry.getValue();
-            
-            if (currentValue instanceof Map) {
-                @SuppressWarnings("unchecked")
-                Map<String, String> currentMap = (Map<String, String>) currentValue;
-                @SuppressWarnings("unchecked")
-                Map<String, String> previousMap = previousData.get(fieldName) instanceof Map ? 
-                    (Map<String, String>) previousData.get(fieldName) : null;
-
-                // Comparer chaque clé de langue
-                for (Map.Entry<String, String> mapEntry : currentMap.entrySet()) {
-                    String languageKey = mapEntry.getKey();
-                    String currentLangValue = mapEntry.getValue();
-                    String previousLangValue = (previousMap != null && previousMap.containsKey(languageKey)) ? 
-                        previousMap.get(languageKey) : null;
-
-                    if (!areEqual(currentLangValue, previousLangValue) && !isConsideredNoChange(previousLangValue, currentLangValue)) {
-                        String granularFieldName = fieldName + "." + languageKey;
-                        Map<String, Object> change = new HashMap<>();
-                        change.put("old", previousLangValue);
-                        change.put("new", currentLangValue);
-                        changes.put(granularFieldName, change);
-                        
-                        // Retirer l'entrée globale si elle existe
-                        changes.remove(fieldName);
-                    }
-                }
-
-                // Vérifier les clés qui existent seulement dans previousMap
-                if (previousMap != null) {
-                    for (Map.Entry<String, String> mapEntry : previousMap.entrySet()) {
-                        String languageKey = mapEntry.getKey();
-                        if (!currentMap.containsKey(languageKey)) {
-                            Object oldVal = mapEntry.getValue();
-                            if (!isConsideredNoChange(oldVal, null)) {
-                                String granularFieldName = fieldName + "." + languageKey;
-                                Map<String, Object> change = new HashMap<>();
-                                change.put("old", oldVal);
-                                change.put("new", null);
-                                changes.put(granularFieldName, change);
-                                
-                                // Retirer l'entrée globale si elle existe
-                                changes.remove(fieldName);
-                            }
-                        }
-                    }
-                }
-            }
+        @Override
+        public List<EntityRevisionDTO> load(int first, int pageSize, Map<String, SortMeta> sortBy,
+                                            Map<String, FilterMeta> filterBy) {
+            boolean newestFirst = sortBy == null || sortBy.values().stream()
+                    .noneMatch(sort -> sort.getOrder() == SortOrder.ASCENDING);
+            return auditService.getEntityRevisionSummaries(entityId, first, pageSize, newestFirst);
         }
 
-        return changes;
-    }
-
-    /**
-     * Indique si null et chaîne vide ("") sont considérés comme équivalents (aucun changement réel).
-     */
-    private boolean isConsideredNoChange(Object oldVal, Object newVal) {
-        return isNullOrEmpty(oldVal) && isNullOrEmpty(newVal);
-    }
-
-    private boolean isNullOrEmpty(Object o) {
-        if (o == null) return true;
-        if (o instanceof String) return ((String) o).trim().isEmpty();
-        return false;
-    }
-
-    /**
-     * Compare deux valeurs pour déterminer si elles sont égales
-     */
-    private boolean areEqual(Object value1, Object value2) {
-        if (value1 == null && value2 == null) {
-            return true;
-        }
-        if (value1 == null || value2 == null) {
-            return false;
+        @Override
+        public String getRowKey(EntityRevisionDTO revision) {
+            return revision.getRevisionNumber() != null ? revision.getRevisionNumber().toString() : null;
         }
-        
-        // Comparaison spéciale pour les Map
-        if (value1 instanceof Map && value2 instanceof Map) {
-            @SuppressWarnings("unchecked")
-            Map<?, ?> map1 = (Map<?, ?>) value1;
-            @SuppressWarnings("unchecked")
-            Map<?, ?> map2 = (Map<?, ?>) value2;
-            return map1.equals(map2);
+
+        @Override
+        public EntityRevisionDTO getRowData(String rowKey) {
+            if (rowKey == null) {
+                return null;
+            }
+            return auditService.getEntityRevision(entityId, Long.valueOf(rowKey)).orElse(null);
         }
-        
-        return value1.equals(value2);
     }
 }
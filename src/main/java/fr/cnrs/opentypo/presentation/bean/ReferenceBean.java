@@ -17,6 +17,7 @@ import fr.cnrs.opentypo.domain.entity.UserPermission;
 import fr.cnrs.opentypo.domain.entity.Utilisateur;
 import fr.cnrs.opentypo.application.service.EntityAuthorityService;
 import fr.cnrs.opentypo.application.service.EntityImageService;
+import fr.cnrs.opentypo.application.service.UserPermissionSnapshotService;
 import fr.cnrs.opentypo.infrastructure.persistence.EntityRelationRepository;
 import fr.cnrs.opentypo.infrastructure.persistence.ImageRepository;
 import fr.cnrs.opentypo.infrastructure.persistence.UserPermissionRepository;
@@ -90,6 +91,9 @@ public class ReferenceBean implements Serializable {
     @Autowired
     private UserPermissionRepository userPermissionRepository;
 
+    @Autowired
+    private UserPermissionSnapshotService userPermissionSnapshotService;
+
     @Autowired
     private CollectionBean collectionBean;
 
@@ -307,6 +311,7 @@ public class ReferenceBean implements Serializable {
                 }
             }
         }
+        userPermissionSnapshotService.invalidate();
         invalidateReferenceGestionnairesCache(savedReference.getId());
     }
 
@@ -965,7 +970,7 @@ public class ReferenceBean implements Serializable {
             return false;
         }
 
-        return userPermissionRepository.existsByUserIdAndEntityIdAndRole(userId, applicationBean.getSelectedEntity().getId(),
+        return userPermissionSnapshotService.hasRole(userId, applicationBean.getSelectedEntity().getId(),
                 PermissionRoleEnum.GESTIONNAIRE_REFERENTIEL.getLabel());
     }
 
@@ -1,6 +1,8 @@
 package fr.cnrs.opentypo.presentation.bean;
 
+import fr.cnrs.opentypo.application.dto.EntitySearchCriteria;
 import fr.cnrs.opentypo.application.dto.EntityStatusEnum;
+import fr.cnrs.opentypo.application.service.EntitySearchService;
 import fr.cnrs.opentypo.common.constant.EntityConstants;
 import fr.cnrs.opentypo.domain.entity.Entity;
 import fr.cnrs.opentypo.domain.entity.Label;
@@ -19,11 +21,9 @@ import lombok.extern.slf4j.Slf4j;
 import jakarta.faces.model.SelectItem;
 import java.io.Serializable;
 import java.util.ArrayList;
-import java.util.Comparator;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Optional;
-import java.util.Set;
+import java.util.function.Predicate;
 import java.util.stream.Collectors;
 
 
@@ -34,9 +34,15 @@ import java.util.stream.Collectors;
 @Named("searchBean")
 public class SearchBean implements Serializable {
 
+    /** Nombre maximal de résultats remontés par la recherche (classés par pertinence). */
+    private static final int SEARCH_RESULT_LIMIT = 1000;
+
     @Inject
     private EntityRepository entityRepository;
 
+    @Inject
+    private EntitySearchService entitySearchService;
+
     @Inject
     private EntityRelationRepository entityRelationRepository;
 
@@ -65,6 +71,7 @@ public class SearchBean implements Serializable {
     private List<Entity> references;
     private List<Entity> collections;
     private List<Entity> searchResults = new ArrayList<>(); // Résultats de la recherche
+    private boolean searchResultsTruncated; // Limite SEARCH_RESULT_LIMIT atteinte : résultats incomplets
 
     @PostConstruct
     public void init() {
@@ -236,6 +243,11 @@ public class SearchBean implements Serializable {
                 loadCollections();
             }
             
+            // Visibilité évaluée par lot pour toute la liste (une requête au lieu d'une par entité)
+            Predicate<Entity> visible = appBean != null
+                    ? appBean.getVisibilityPredicate().prefetch(collections)
+                    : e -> true;
+
             // Pour chaque collection
             for (Entity collection : collections) {
                 if (collection == null || collection.getCode() == null) {
@@ -243,7 +255,7 @@ public class SearchBean implements Serializable {
                 }
 
                 // Ne proposer que les collections visibles pour l'utilisateur
-                if (appBean != null && !appBean.isEntityVisibleForCurrentUser(collection)) {
+                if (!visible.test(collection)) {
                     continue;
                 }
                 
@@ -267,8 +279,9 @@ public class SearchBean implements Serializable {
                 
                 // Filtrer selon les droits de l'utilisateur (publique / groupe / user_permission / REFUSED)
                 if (appBean != null) {
+                    appBean.getVisibilityPredicate().prefetch(collectionReferences);
                     collectionReferences = collectionReferences.stream()
-                            .filter(r -> r != null && appBean.isEntityVisibleForCurrentUser(r))
+                            .filter(r -> r != null && visible.test(r))
                             .toList();
                 }
                 
@@ -296,44 +309,41 @@ public class SearchBean implements Serializable {
     }
 
     /**
-     * Récupère récursivement toutes les entités d'une collection (référentiels, catégories, groupes, séries, types)
+     * Racine du périmètre de recherche sélectionné : collection ("COL:code" ou ancien format "code")
+     * ou référentiel de la collection ("REF:collectionCode:referenceCode"). Null si introuvable.
      */
-    private Set<Entity> getAllEntitiesInCollection(Entity collection) {
-        Set<Entity> allEntities = new HashSet<>();
-        Set<Long> processedIds = new HashSet<>(); // Pour éviter les boucles infinies
-        getAllEntitiesInCollectionRecursive(collection, allEntities, processedIds);
-        return allEntities;
-    }
-    
-    /**
-     * Méthode récursive helper pour éviter les boucles infinies
-     */
-    private void getAllEntitiesInCollectionRecursive(Entity entity, Set<Entity> allEntities, Set<Long> processedIds) {
-        if (entity == null || entity.getId() == null) {
-            return;
+    private Entity resolveSearchScopeRoot() {
+        if (collections == null) {
+            loadCollections();
         }
-        
-        // Éviter les boucles infinies
-        if (processedIds.contains(entity.getId())) {
-            return;
-        }
-        
-        processedIds.add(entity.getId());
-        allEntities.add(entity);
-        
-        try {
-            // Récupérer tous les enfants directs
-            List<Entity> children = entityRelationRepository.findChildrenByParent(entity);
-            
-            // Pour chaque enfant, récursivement récupérer ses descendants
-            for (Entity child : children) {
-                if (child != null && child.getId() != null) {
-                    getAllEntitiesInCollectionRecursive(child, allEntities, processedIds);
-                }
+        String collectionCode;
+        String referenceCode = null;
+        if (collectionSelected.startsWith("COL:")) {
+            collectionCode = collectionSelected.substring(4);
+        } else if (collectionSelected.startsWith("REF:")) {
+            String[] parts = collectionSelected.split(":", 3);
+            if (parts.length != 3) {
+                return null;
             }
-        } catch (Exception e) {
-            log.error("Erreur lors de la récupération récursive des entités pour l'entité: {}", entity.getCode(), e);
+            collectionCode = parts[1];
+            referenceCode = parts[2];
+        } else {
+            collectionCode = collectionSelected;
+        }
+
+        Entity collection = collections.stream()
+                .filter(c -> c != null && c.getCode() != null && c.getCode().equals(collectionCode))
+                .findFirst()
+                .orElse(null);
+        if (collection == null || referenceCode == null) {
+            return collection;
         }
+        final String finalReferenceCode = referenceCode;
+        return entityRelationRepository.findChildrenByParentAndType(collection, EntityConstants.ENTITY_TYPE_REFERENCE)
+                .stream()
+                .filter(r -> r != null && finalReferenceCode.equals(r.getCode()))
+                .findFirst()
+                .orElse(null);
     }
 
     /**
@@ -352,6 +362,7 @@ public class SearchBean implements Serializable {
 
             // Initialiser la liste des résultats
             searchResults = new ArrayList<>();
+            searchResultsTruncated = false;
             
             // Vérifier que le terme de recherche n'est pas vide et a au moins 2 caractères
             if (searchTerm == null || searchTerm.trim().isEmpty()) {
@@ -370,90 +381,46 @@ public class SearchBean implements Serializable {
             log.debug("Début de la recherche avec le terme: '{}', type: '{}', statut: '{}', typeFilter: '{}'",
                      trimmedSearchTerm, searchTypeFilter, statutFilter, typeFilter);
             
-            // Effectuer la recherche selon le type de recherche (code + labels selon langue)
-            List<Entity> allMatchingEntities;
-            
-            switch (searchTypeFilter != null ? searchTypeFilter : "CONTAINS") {
-                case "STARTS_WITH":
-                    allMatchingEntities = entityRepository.searchByCodeOrLabelStartsWith(trimmedSearchTerm, langSelected);
-                    break;
-                case "EXACT":
-                    allMatchingEntities = entityRepository.searchByCodeOrLabelExact(trimmedSearchTerm, langSelected);
-                    break;
-                case "CONTAINS":
-                default:
-                    allMatchingEntities = entityRepository.searchByCodeOrLabelContains(trimmedSearchTerm, langSelected);
-                    break;
+            // Périmètre collection / référentiel : résolu en base avec la recherche (entity_closure)
+            Long scopeRootId = null;
+            if (collectionSelected != null && !collectionSelected.isEmpty()) {
+                Entity scopeRoot = resolveSearchScopeRoot();
+                if (scopeRoot == null || scopeRoot.getId() == null) {
+                    log.debug("Périmètre de recherche introuvable : '{}'", collectionSelected);
+                    return;
+                }
+                scopeRootId = scopeRoot.getId();
             }
+
+            // Recherche classée par pertinence (code, libellés et descriptions dans la langue)
+            EntitySearchCriteria.MatchMode matchMode = switch (searchTypeFilter != null ? searchTypeFilter : "CONTAINS") {
+                case "STARTS_WITH" -> EntitySearchCriteria.MatchMode.STARTS_WITH;
+                case "EXACT" -> EntitySearchCriteria.MatchMode.EXACT;
+                default -> EntitySearchCriteria.MatchMode.CONTAINS;
+            };
+            // Statut et type filtrés en base, avant la limite
+            List<Entity> allMatchingEntities = entitySearchService.search(new EntitySearchCriteria(
+                    trimmedSearchTerm, EntitySearchCriteria.Field.ANY, matchMode, langSelected,
+                    scopeRootId, statutForQuery(getEffectiveStatutFilter()),
+                    typeFilter != null && !typeFilter.isEmpty() ? typeFilter : null,
+                    EntitySearchCriteria.Order.RELEVANCE, SEARCH_RESULT_LIMIT));
+            searchResultsTruncated = allMatchingEntities.size() >= SEARCH_RESULT_LIMIT;
             
-            log.debug("Nombre d'entités trouvées par la requête: {}", allMatchingEntities != null ? allMatchingEntities.size() : 0);
+            log.debug("Nombre d'entités trouvées par la requête: {}", allMatchingEntities.size());
             
             // Filtrer selon les critères
-            List<Entity> filtered = new ArrayList<>();
-            if (allMatchingEntities != null) {
-                filtered = allMatchingEntities.stream()
-                    .filter(e -> e != null)
-                    // Filtre global d'autorisation (publique / groupe / user_permission / REFUSED)
-                    .filter(e -> applicationBeanProvider.get() == null || applicationBeanProvider.get().isEntityVisibleForCurrentUser(e))
-                    // Filtre par type d'entité
-                    .filter(e -> {
-                        if (typeFilter == null || typeFilter.isEmpty()) {
-                            return true; // Tous les types
-                        }
-                        return e.getEntityType() != null && typeFilter.equals(e.getEntityType().getCode());
-                    })
-                    // Filtre par statut (hors ligne : publié uniquement ; connecté : selon le filtre)
-                    .filter(e -> matchesStatutFilter(e, getEffectiveStatutFilter()))
-                    // Filtre par collection si sélectionnée
-                    .filter(e -> {
-                        if (collectionSelected == null || collectionSelected.isEmpty()) {
-                            return true; // Toutes les collections
-                        }
-                        // Si une collection est sélectionnée, vérifier si l'entité appartient à cette collection
-                        try {
-                            if (collections == null) {
-                                loadCollections();
-                            }
-                            
-                            final String collectionCode;
-                            if (collectionSelected.startsWith("COL:")) {
-                                collectionCode = collectionSelected.substring(4);
-                            } else if (collectionSelected.startsWith("REF:")) {
-                                String[] parts = collectionSelected.split(":", 3);
-                                if (parts.length == 3) {
-                                    collectionCode = parts[1];
-                                } else {
-                                    collectionCode = null;
-                                }
-                            } else {
-                                collectionCode = collectionSelected;
-                            }
-                            
-                            if (collectionCode != null) {
-                                final String finalCollectionCode = collectionCode;
-                                Entity selectedCollection = collections.stream()
-                                    .filter(c -> c != null && c.getCode() != null && c.getCode().equals(finalCollectionCode))
-                                    .findFirst()
-                                    .orElse(null);
-                                
-                                if (selectedCollection != null) {
-                                    Set<Entity> collectionEntities = getAllEntitiesInCollection(selectedCollection);
-                                    return collectionEntities.contains(e);
-                                }
-                            }
-                            return false;
-                        } catch (Exception ex) {
-                            log.error("Erreur lors du filtrage par collection", ex);
-                            return true; // En cas d'erreur, inclure l'entité
-                        }
-                    })
-                    .collect(Collectors.toList());
-            }
-            
-            // Trier par ordre alphabétique décroissant (Z à A)
-            filtered.sort(Comparator.comparing((Entity e) -> 
-                e.getNom() != null ? e.getNom().toLowerCase() : "").reversed());
+            ApplicationBean appBean = applicationBeanProvider.get();
+            // Visibilité évaluée par lot pour tous les résultats (nombre constant de requêtes)
+            Predicate<Entity> visible = appBean != null
+                    ? appBean.getVisibilityPredicate().prefetch(allMatchingEntities)
+                    : e -> true;
+            List<Entity> filtered = allMatchingEntities.stream()
+                .filter(e -> e != null)
+                // Filtre global d'autorisation (publique / groupe / user_permission / REFUSED)
+                .filter(visible)
+                .collect(Collectors.toList());
             
+            // Ordre conservé : pertinence décroissante (voir EntitySearchService)
             searchResults = filtered;
             
             log.info("Recherche effectuée : {} résultats trouvés", searchResults.size());
@@ -461,6 +428,7 @@ public class SearchBean implements Serializable {
         } catch (Exception e) {
             log.error("Erreur lors de la recherche", e);
             searchResults = new ArrayList<>();
+            searchResultsTruncated = false;
             // Ne pas propager l'exception pour éviter de casser l'interface
         }
     }
@@ -687,21 +655,18 @@ public class SearchBean implements Serializable {
         return statutFilter != null ? statutFilter : "";
     }
 
-    private static boolean matchesStatutFilter(Entity entity, String filter) {
-        if (filter == null || filter.isEmpty()) {
-            return true;
-        }
-        String statut = entity.getStatut();
+    /** Statut exigé par le filtre (hors ligne : publié uniquement ; connecté : selon le filtre), null : tous. */
+    private static String statutForQuery(String filter) {
         if ("public".equals(filter)) {
-            return EntityStatusEnum.PUBLIQUE.name().equals(statut);
+            return EntityStatusEnum.PUBLIQUE.name();
         }
         if ("prive".equals(filter)) {
-            return EntityStatusEnum.PRIVEE.name().equals(statut);
+            return EntityStatusEnum.PRIVEE.name();
         }
         if ("brouillon".equals(filter)) {
-            return EntityStatusEnum.PROPOSITION.name().equals(statut);
+            return EntityStatusEnum.PROPOSITION.name();
         }
-        return true;
+        return null;
     }
 
     /**
@@ -5,11 +5,11 @@ import fr.cnrs.opentypo.application.dto.EntityStatusEnum;
 import fr.cnrs.opentypo.application.dto.NameItem;
 import fr.cnrs.opentypo.application.dto.PermissionRoleEnum;
 import fr.cnrs.opentypo.common.constant.EntityConstants;
-import fr.cnrs.opentypo.infrastructure.persistence.UserPermissionRepository;
 import fr.cnrs.opentypo.application.service.EntityAuthorityService;
 import fr.cnrs.opentypo.application.service.EntityCodeUniquenessService;
 import fr.cnrs.opentypo.application.service.GroupService;
 import fr.cnrs.opentypo.application.service.TypeService;
+import fr.cnrs.opentypo.application.service.UserPermissionSnapshotService;
 import fr.cnrs.opentypo.presentation.bean.candidats.Candidat;
 import fr.cnrs.opentypo.presentation.bean.candidats.CandidatBean;
 import fr.cnrs.opentypo.presentation.bean.candidats.converter.CandidatConverter;
@@ -86,7 +86,7 @@ public class SerieBean implements Serializable {
     private EntityEditModeBean entityEditModeBean;
 
     @Autowired
-    private UserPermissionRepository userPermissionRepository;
+    private UserPermissionSnapshotService userPermissionSnapshotService;
 
     @Autowired
     private EntityAuthorityService entityAuthorityService;
@@ -558,13 +558,13 @@ public class SerieBean implements Serializable {
         Long userId = loginBean.getCurrentUser().getId();
         Entity reference = typeService.findReferenceAncestor(serie);
         if (reference != null && reference.getId() != null
-                && userPermissionRepository.existsByUserIdAndEntityIdAndRole(
+                && userPermissionSnapshotService.hasRole(
                         userId, reference.getId(), PermissionRoleEnum.GESTIONNAIRE_REFERENTIEL.getLabel())) {
             return true;
         }
         return groupService.findGroupByEntityId(serie.getId())
                 .filter(group -> group.getId() != null)
-                .map(group -> userPermissionRepository.existsByUserIdAndEntityIdAndRole(
+                .map(group -> userPermissionSnapshotService.hasRole(
                         userId, group.getId(), PermissionRoleEnum.REDACTEUR.getLabel()))
                 .orElse(false);
     }
@@ -602,19 +602,19 @@ public class SerieBean implements Serializable {
 
         Entity collection = applicationBean.getSelectedCollection();
         if (collection != null && collection.getId() != null
-                && userPermissionRepository.existsByUserIdAndEntityIdAndRole(userId, collection.getId(),
+                && userPermissionSnapshotService.hasRole(userId, collection.getId(),
                 PermissionRoleEnum.GESTIONNAIRE_COLLECTION.getLabel())) {
             return true;
         }
 
         if (applicationBean.getSelectedReference() != null && applicationBean.getSelectedReference().getId() != null
-                && userPermissionRepository.existsByUserIdAndEntityIdAndRole(userId, applicationBean.getSelectedReference().getId(),
+                && userPermissionSnapshotService.hasRole(userId, applicationBean.getSelectedReference().getId(),
                 PermissionRoleEnum.GESTIONNAIRE_REFERENTIEL.getLabel())) {
             return true;
         }
 
         return applicationBean.getSelectedGroup() != null && applicationBean.getSelectedGroup().getId() != null
-                && userPermissionRepository.existsByUserIdAndEntityIdAndRole(userId, applicationBean.getSelectedGroup().getId(),
+                && userPermissionSnapshotService.hasRole(userId, applicationBean.getSelectedGroup().getId(),
                 PermissionRoleEnum.VALIDEUR.getLabel());
     }
 }
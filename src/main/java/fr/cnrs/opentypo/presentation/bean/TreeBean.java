@@ -391,6 +391,13 @@ public class TreeBean implements Serializable {
         newRoot.setData(rootData);
 
         if (rawRoot.getChildren() != null) {
+            List<Entity> childEntities = new ArrayList<>();
+            for (Object childObj : rawRoot.getChildren()) {
+                if (childObj instanceof TreeNode childNode && childNode.getData() instanceof Entity childEntity) {
+                    childEntities.add(childEntity);
+                }
+            }
+            appBean.getVisibilityPredicate().prefetch(childEntities);
             for (Object childObj : rawRoot.getChildren()) {
                 if (childObj instanceof TreeNode childNode && childNode.getData() instanceof Entity childEntity) {
                     if (appBean.isEntityVisibleInCatalogList(childEntity, childrenEntityTypeCode)) {
@@ -408,6 +415,9 @@ public class TreeBean implements Serializable {
     private void loadChildForEntity(TreeNode entityNode, Entity parentEntity) {
         List<Entity> elements = resolveChildEntitiesForTree(parentEntity);
         ApplicationBean appBean = getApplicationBean();
+        if (appBean != null && elements != null) {
+            appBean.getVisibilityPredicate().prefetch(elements);
+        }
 
         if (elements != null && !elements.isEmpty()) {
             for (Entity entity : elements) {
@@ -9,9 +9,9 @@ import fr.cnrs.opentypo.application.service.TypeService;
 import fr.cnrs.opentypo.application.service.EntityAuthorityService;
 import fr.cnrs.opentypo.application.service.EntityCodeUniquenessService;
 import fr.cnrs.opentypo.application.service.TypeValidationAuthorityService;
+import fr.cnrs.opentypo.application.service.UserPermissionSnapshotService;
 import fr.cnrs.opentypo.common.constant.EntityConstants;
 import fr.cnrs.opentypo.domain.entity.Description;
-import fr.cnrs.opentypo.infrastructure.persistence.UserPermissionRepository;
 import fr.cnrs.opentypo.presentation.bean.candidats.CandidatBean;
 import fr.cnrs.opentypo.domain.entity.Entity;
 import fr.cnrs.opentypo.domain.entity.EntityRelation;
@@ -103,7 +103,7 @@ public class TypeBean implements Serializable {
     private EntityEditModeBean entityEditModeBean;
 
     @Autowired
-    private UserPermissionRepository userPermissionRepository;
+    private UserPermissionSnapshotService userPermissionSnapshotService;
 
     @Autowired
     private TypeValidationAuthorityService typeValidationAuthorityService;
@@ -278,10 +278,12 @@ public class TypeBean implements Serializable {
         List<Entity> collections = appBean.getCollections();
         if (collections == null) return result;
 
+        appBean.getVisibilityPredicate().prefetch(collections);
         for (Entity collection : collections) {
             if (collection == null || !appBean.isEntityVisibleForCurrentUser(collection)) continue;
             List<Entity> references = referenceService.loadReferencesByCollection(collection);
             if (references == null || references.isEmpty()) continue;
+            appBean.getVisibilityPredicate().prefetch(references);
 
             List<SelectItem> groupItems = new ArrayList<>();
             for (Entity reference : references) {
@@ -401,10 +403,12 @@ public class TypeBean implements Serializable {
         List<Entity> collections = appBean.getCollections();
         if (collections == null) return result;
 
+        appBean.getVisibilityPredicate().prefetch(collections);
         for (Entity collection : collections) {
             if (collection == null || !appBean.isEntityVisibleForCurrentUser(collection)) continue;
             List<Entity> references = referenceService.loadReferencesByCollection(collection);
             if (references == null || references.isEmpty()) continue;
+            appBean.getVisibilityPredicate().prefetch(references);
 
             List<SelectItem> groupItems = new ArrayList<>();
             for (Entity reference : references) {
@@ -963,13 +967,13 @@ public class TypeBean implements Serializable {
         Long userId = loginBean.getCurrentUser().getId();
         Entity reference = typeService.findReferenceAncestor(type);
         if (reference != null && reference.getId() != null
-                && userPermissionRepository.existsByUserIdAndEntityIdAndRole(
+                && userPermissionSnapshotService.hasRole(
                         userId, reference.getId(), PermissionRoleEnum.GESTIONNAIRE_REFERENTIEL.getLabel())) {
             return true;
         }
         return groupService.findGroupByEntityId(type.getId())
                 .filter(group -> group.getId() != null)
-                .map(group -> userPermissionRepository.existsByUserIdAndEntityIdAndRole(
+                .map(group -> userPermissionSnapshotService.hasRole(
                         userId, group.getId(), PermissionRoleEnum.REDACTEUR.getLabel()))
                 .orElse(false);
     }
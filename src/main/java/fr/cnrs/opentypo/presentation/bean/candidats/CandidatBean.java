@@ -11,6 +11,7 @@ import fr.cnrs.opentypo.application.service.CollectionService;
 import fr.cnrs.opentypo.application.service.DemandeValidationRequirementsService;
 import fr.cnrs.opentypo.application.service.GroupService;
 import fr.cnrs.opentypo.application.service.TypeValidationAuthorityService;
+import fr.cnrs.opentypo.application.service.UserPermissionSnapshotService;
 import fr.cnrs.opentypo.common.constant.EntityConstants;
 import fr.cnrs.opentypo.domain.entity.Entity;
 import fr.cnrs.opentypo.domain.entity.EntityType;
@@ -124,6 +125,9 @@ public class CandidatBean implements Serializable {
     @Inject
     private UserPermissionRepository userPermissionRepository;
 
+    @Inject
+    private UserPermissionSnapshotService userPermissionSnapshotService;
+
     @Autowired
     private CollectionService collectionService;
 
@@ -540,6 +544,7 @@ public class CandidatBean implements Serializable {
                 userPermissionRepository.save(permission);
             }
         }
+        userPermissionSnapshotService.invalidate();
     }
 
     private static Long toLong(Object value) {
@@ -826,7 +831,7 @@ public class CandidatBean implements Serializable {
         if (g.isEmpty()) {
             return false;
         }
-        return userPermissionRepository.existsByUserIdAndEntityIdAndRole(
+        return userPermissionSnapshotService.hasRole(
                 loginBean.getCurrentUser().getId(), g.get().getId(), roleLabel);
     }
 
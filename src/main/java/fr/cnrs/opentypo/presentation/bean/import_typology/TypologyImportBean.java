@@ -1,6 +1,7 @@
 package fr.cnrs.opentypo.presentation.bean.import_typology;
 
-import fr.cnrs.opentypo.application.import_typology.TypologyCsvParser;
+import fr.cnrs.opentypo.application.import_typology.TypologyCsvFile;
+import fr.cnrs.opentypo.application.import_typology.TypologyCsvSpool;
 import fr.cnrs.opentypo.application.import_typology.TypologyImportAnalyzeResult;
 import fr.cnrs.opentypo.application.import_typology.TypologyImportCollectionProfile;
 import fr.cnrs.opentypo.application.import_typology.TypologyImportConstants;
@@ -18,6 +19,7 @@ import fr.cnrs.opentypo.presentation.bean.ApplicationBean;
 import fr.cnrs.opentypo.presentation.bean.LoginBean;
 import fr.cnrs.opentypo.presentation.bean.ReferenceBean;
 import fr.cnrs.opentypo.presentation.i18n.JsfMessages;
+import jakarta.annotation.PreDestroy;
 import jakarta.enterprise.context.SessionScoped;
 import jakarta.faces.application.FacesMessage;
 import jakarta.faces.context.FacesContext;
@@ -33,6 +35,7 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.util.StringUtils;
 
 import java.io.ByteArrayInputStream;
+import java.io.InputStream;
 import java.io.Serializable;
 import java.io.IOException;
 import java.net.URLEncoder;
@@ -54,6 +57,9 @@ public class TypologyImportBean implements Serializable {
     @Autowired
     private transient TypologyImportJobLauncher typologyImportJobLauncher;
 
+    @Autowired
+    private transient TypologyCsvSpool typologyCsvSpool;
+
     @Autowired
     private ApplicationBean applicationBean;
 
@@ -66,14 +72,18 @@ public class TypologyImportBean implements Serializable {
     @Getter
     private int step = 1;
 
+    /** CSV chargé, conservé dans un fichier temporaire et relu en flux par l'analyse, l'import et l'export. */
     @Getter
-    private TypologyCsvParser.ParsedCsv parsedCsv;
+    private TypologyCsvFile parsedCsv;
 
     @Getter
     private TypologyImportAnalyzeResult analysis;
 
     private String uploadedFileName;
 
+    /** Dernier import soumis depuis l’assistant (file d’exécution, voir {@link TypologyImportJobLauncher}). */
+    private Long importJobId;
+
     /** Message persistant sur l’écran d’import (échec / import partiel), distinct des popins growl. */
     private String screenStatusTitle;
     private String screenStatusDetail;
@@ -200,21 +210,21 @@ public class TypologyImportBean implements Serializable {
                     JsfMessages.get("import.notAuthorized")));
             return;
         }
-        try {
-            byte[] data = event.getFile().getContent();
-            String text = new String(data, StandardCharsets.UTF_8);
-            this.parsedCsv = TypologyCsvParser.parse(text);
+        try (InputStream content = event.getFile().getInputStream()) {
+            TypologyCsvFile stored = typologyCsvSpool.store(content);
+            releaseCsvFile();
+            this.parsedCsv = stored;
             this.uploadedFileName = event.getFile().getFileName();
             this.analysis = null;
             this.step = 1;
             clearScreenStatus();
             fc.addMessage(null, new FacesMessage(FacesMessage.SEVERITY_INFO,
                     JsfMessages.get("import.fileLoaded.summary"),
-                    JsfMessages.format("import.fileLoaded.detail", parsedCsv.rows().size())));
+                    JsfMessages.format("import.fileLoaded.detail", parsedCsv.rowCount())));
             PrimeFaces.current().ajax().update(":importForm :growl");
         } catch (Exception ex) {
             log.warn("CSV invalide", ex);
-            this.parsedCsv = null;
+            releaseCsvFile();
             fc.addMessage(null, new FacesMessage(FacesMessage.SEVERITY_ERROR,
                     JsfMessages.get("import.invalidFile.summary"),
                     ex.getMessage()));
@@ -238,13 +248,12 @@ public class TypologyImportBean implements Serializable {
             return;
         }
         HttpSession httpSession = (HttpSession) fc.getExternalContext().getSession(false);
-        TypologyImportProgress progress = TypologyImportProgressSession.getOrCreate(httpSession);
-        progress.reset();
+        TypologyImportProgress progress = new TypologyImportProgress();
         TypologyImportProgressSession.bind(httpSession, progress);
-        progress.beginAnalyzing(parsedCsv.rows().size());
+        progress.beginAnalyzing(parsedCsv.rowCount());
         try {
             log.info("Analyse typologique démarrée (référentiel id={}, {} lignes)",
-                    reference.getId(), parsedCsv.rows().size());
+                    reference.getId(), parsedCsv.rowCount());
             analysis = typologyImportService.analyze(
                     reference,
                     parsedCsv,
@@ -297,19 +306,18 @@ public class TypologyImportBean implements Serializable {
         }
         clearScreenStatus();
         HttpSession httpSession = (HttpSession) fc.getExternalContext().getSession(false);
-        TypologyImportProgress progress = TypologyImportProgressSession.getOrCreate(httpSession);
-        progress.reset();
+        TypologyImportProgress progress = new TypologyImportProgress();
         progress.beginImporting(countImportableRows());
         TypologyImportProgressSession.bind(httpSession, progress);
         try {
-            typologyImportJobLauncher.launchExecute(
+            importJobId = typologyImportJobLauncher.submit(
                     referenceEntity.getId(),
                     parsedCsv,
+                    uploadedFileName,
                     loginBean.getCurrentUser(),
                     resolveImportCollectionProfile(),
-                    httpSession,
                     analysis);
-            PrimeFaces.current().executeScript("typologyImportStartPoll()");
+            watchImportJob(httpSession);
         } catch (Exception ex) {
             log.error("Démarrage import typologique impossible", ex);
             progress.fail(ex.getMessage());
@@ -321,13 +329,86 @@ public class TypologyImportBean implements Serializable {
         }
     }
 
+    /**
+     * Demande l’arrêt de l’import en cours : il s’arrête avant son prochain lot (ou aussitôt s’il attend son tour).
+     */
+    public void cancelImport() {
+        FacesContext fc = FacesContext.getCurrentInstance();
+        if (importJobId == null || !typologyImportJobLauncher.cancel(importJobId)) {
+            return;
+        }
+        fc.addMessage(null, new FacesMessage(FacesMessage.SEVERITY_INFO, JsfMessages.get("import.cancel"),
+                JsfMessages.get("import.cancel.requested")));
+        PrimeFaces.current().ajax().update(":growl");
+    }
+
+    /**
+     * Relance l’import annulé ou interrompu après la dernière ligne enregistrée.
+     */
+    public void resumeImport() {
+        FacesContext fc = FacesContext.getCurrentInstance();
+        if (!canUseImport() || importJobId == null) {
+            return;
+        }
+        HttpSession httpSession = (HttpSession) fc.getExternalContext().getSession(false);
+        TypologyImportProgress progress = new TypologyImportProgress();
+        progress.beginImporting(0);
+        progress.setPreparingImport(JsfMessages.get("import.resume"));
+        TypologyImportProgressSession.bind(httpSession, progress);
+        if (!typologyImportJobLauncher.resume(importJobId)) {
+            progress.reset();
+            showScreenStatus("error", JsfMessages.get("import.impossible.summary"),
+                    JsfMessages.get("import.resume.impossible"));
+            updateImportScreen();
+            return;
+        }
+        clearScreenStatus();
+        PrimeFaces.current().executeScript("PF('typologyImportBlock').show()");
+        watchImportJob(httpSession);
+        updateImportScreen();
+    }
+
+    /**
+     * Suit le job soumis : sa progression (registre des imports) remplace celle de la session et l’écran s’abonne
+     * au flux SSE du job (poll AJAX si le navigateur ne le gère pas).
+     */
+    private void watchImportJob(HttpSession httpSession) {
+        typologyImportJobLauncher.findProgress(importJobId)
+                .ifPresent(progress -> TypologyImportProgressSession.bind(httpSession, progress));
+        PrimeFaces.current().executeScript("typologyImportWatch('" + getImportEventsUrl() + "')");
+    }
+
+    /** Flux SSE de progression du dernier import soumis ({@code GET /api/v1/imports/{jobId}/events}). */
+    public String getImportEventsUrl() {
+        if (importJobId == null) {
+            return "";
+        }
+        FacesContext fc = FacesContext.getCurrentInstance();
+        String contextPath = fc != null ? fc.getExternalContext().getRequestContextPath() : "";
+        return contextPath + "/api/v1/imports/" + importJobId + "/events";
+    }
+
+    public boolean isImportCancellable() {
+        TypologyImportProgress progress = activeProgress();
+        return importJobId != null && progress.isRunning()
+                && progress.getOperation() == TypologyImportProgress.Operation.IMPORT;
+    }
+
+    /** Import arrêté avant la fin (annulé, partiel ou en échec) : proposé à la reprise. */
+    public boolean isImportResumable() {
+        TypologyImportProgress progress = activeProgress();
+        return importJobId != null && progress.getOperation() == TypologyImportProgress.Operation.IMPORT
+                && (progress.getPhase() == TypologyImportProgress.Phase.FAILED
+                || (progress.getPhase() == TypologyImportProgress.Phase.COMPLETE && progress.isPartialSuccess()));
+    }
+
     private TypologyImportProgress activeProgress() {
         return TypologyImportProgressSession.fromFacesContext();
     }
 
     private int countImportableRows() {
         if (analysis == null || analysis.previewLines() == null) {
-            return parsedCsv != null ? parsedCsv.rows().size() : 0;
+            return parsedCsv != null ? parsedCsv.rowCount() : 0;
         }
         return (int) analysis.previewLines().stream()
                 .filter(line -> line != null && line.lineOk())
@@ -484,12 +565,37 @@ public class TypologyImportBean implements Serializable {
     }
 
     private void clearWizardState() {
-        parsedCsv = null;
+        releaseCsvFile();
         analysis = null;
         uploadedFileName = null;
+        importJobId = null;
         step = 1;
         clearScreenStatus();
-        TypologyImportProgressSession.fromFacesContext().reset();
+        FacesContext fc = FacesContext.getCurrentInstance();
+        if (fc != null) {
+            // La progression liée au dernier job reste celle du registre des imports : on en repart une neuve.
+            TypologyImportProgressSession.bind((HttpSession) fc.getExternalContext().getSession(false),
+                    new TypologyImportProgress());
+        }
+    }
+
+    /**
+     * Fin de session : le CSV chargé et non réinitialisé ne doit pas rester dans le répertoire de dépôt.
+     */
+    @PreDestroy
+    void releaseOnSessionEnd() {
+        releaseCsvFile();
+    }
+
+    /**
+     * Oublie le CSV chargé et supprime son fichier temporaire (un import soumis lit sa propre copie).
+     */
+    private void releaseCsvFile() {
+        if (parsedCsv == null) {
+            return;
+        }
+        parsedCsv.delete();
+        parsedCsv = null;
     }
 
     private void clearScreenStatus() {
@@ -10,6 +10,7 @@ import fr.cnrs.opentypo.domain.entity.Utilisateur;
 import fr.cnrs.opentypo.infrastructure.persistence.GroupeRepository;
 import fr.cnrs.opentypo.infrastructure.persistence.UtilisateurRepository;
 import fr.cnrs.opentypo.application.service.UtilisateurService;
+import fr.cnrs.opentypo.application.service.UserPermissionSnapshotService;
 import fr.cnrs.opentypo.presentation.bean.UserBean;
 
 import jakarta.annotation.PostConstruct;
@@ -55,6 +56,9 @@ public class UserManagementBean implements Serializable {
     @Inject
     private LoginBean loginBean;
 
+    @Inject
+    private UserPermissionSnapshotService userPermissionSnapshotService;
+
     private List<Utilisateur> users = new ArrayList<>();
     private Utilisateur selectedUser;
     private Utilisateur newUser;
@@ -355,6 +359,8 @@ public class UserManagementBean implements Serializable {
             }
 
             utilisateur = utilisateurRepository.save(utilisateur);
+            // Le groupe a pu changer : les instantanés de permissions en session sont à recharger
+            userPermissionSnapshotService.invalidate();
 
             notificationBean.showSuccessWithUpdate(JsfMessages.get("common.growl.success"), JsfMessages.get("users.success.updated"),
                     ":growl, :userForm");
@@ -393,6 +399,7 @@ public class UserManagementBean implements Serializable {
                 }
 
                 utilisateurRepository.delete(user);
+                userPermissionSnapshotService.invalidate();
                 notificationBean.showSuccessWithUpdate(JsfMessages.get("common.growl.success"),
                         JsfMessages.format("users.success.delete", user.getPrenom(), user.getNom()),
                     ":growl, :usersForm");
@@ -0,0 +1,80 @@
+package fr.cnrs.opentypo.presentation.rest;
+
+import fr.cnrs.opentypo.application.dto.api.ApiErrorResponse;
+import fr.cnrs.opentypo.application.dto.api.ChangeFeedDto;
+import fr.cnrs.opentypo.application.service.ChangeFeedApiService;
+import fr.cnrs.opentypo.infrastructure.config.OpenApiConfig;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+/**
+ * Flux des modifications par plage de révisions, pour la synchronisation incrémentale des miroirs.
+ */
+@Tag(name = "Modifications", description = "Entités créées, modifiées ou supprimées depuis une révision.")
+@SecurityRequirement(name = OpenApiConfig.BEARER_SCHEME)
+@RestController
+@RequestMapping(path = "/api/v1/changes", produces = MediaType.APPLICATION_JSON_VALUE)
+@RequiredArgsConstructor
+public class ChangeFeedRestController {
+
+    private final ChangeFeedApiService changeFeedApiService;
+
+    @Operation(
+            operationId = "listChanges",
+            summary = "Lister les entités modifiées depuis une révision",
+            description = """
+                    Entités touchées par les révisions postérieures à **sinceRev** (défaut 0 : tout l'historique),
+                    avec l'opération nette `ADD`, `MOD` ou `DEL` sur la page. Une modification des libellés,
+                    descriptions, caractéristiques, références, images ou relations compte comme `MOD`.
+                    **highWaterMark** : révision à repasser en `sinceRev` à l'appel suivant ; tant que
+                    **hasMore** vaut true, d'autres révisions suivent.
+                    **limit** : lignes de révision lues par appel (défaut 500, max 5000) ; une page ne coupe
+                    jamais une révision. Une révision n'est servie qu'une fois validées toutes celles qui la
+                    précèdent.
+                    Seules les entités visibles par l'appelant sont listées ; une entité qu'il ne voit plus
+                    (supprimée, refusée, repassée en privé) est signalée en `DEL` si elle était PUBLIQUE.""")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Page du flux des modifications.", content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = ChangeFeedDto.class))),
+            @ApiResponse(responseCode = "400", description = "Paramètres invalides.", content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = ApiErrorResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Non authentifié.", content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = ApiErrorResponse.class))),
+            @ApiResponse(responseCode = "403", description = "Accès refusé.", content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = ApiErrorResponse.class)))
+    })
+    @GetMapping
+    public ChangeFeedDto listChanges(
+            @Parameter(
+                    name = "sinceRev",
+                    in = ParameterIn.QUERY,
+                    description = "Révision de reprise (highWaterMark de l'appel précédent).",
+                    example = "1287",
+                    schema = @Schema(type = "integer", format = "int64"))
+            @RequestParam(required = false) Long sinceRev,
+            @Parameter(
+                    name = "limit",
+                    in = ParameterIn.QUERY,
+                    description = "Nombre max de lignes de révision (défaut 500, max 5000).",
+                    example = "500")
+            @RequestParam(required = false) Integer limit) {
+        return changeFeedApiService.getChangesSince(sinceRev, limit);
+    }
+}
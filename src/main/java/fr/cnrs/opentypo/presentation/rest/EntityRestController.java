@@ -4,6 +4,7 @@ import fr.cnrs.opentypo.application.dto.api.ApiErrorResponse;
 import fr.cnrs.opentypo.application.dto.api.EntityApiStatutFilter;
 import fr.cnrs.opentypo.application.dto.api.EntityCreateRequest;
 import fr.cnrs.opentypo.application.dto.api.EntityListOrder;
+import fr.cnrs.opentypo.application.dto.api.EntityListPage;
 import fr.cnrs.opentypo.application.dto.api.EntityResponseDto;
 import fr.cnrs.opentypo.application.dto.api.EntityUpdateRequest;
 import fr.cnrs.opentypo.application.dto.api.EntityVisibilityRequest;
@@ -22,6 +23,7 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -35,6 +37,7 @@ import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseStatus;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.WebRequest;
 import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 import java.net.URI;
@@ -52,6 +55,9 @@ import java.util.List;
 @RequiredArgsConstructor
 public class EntityRestController {
 
+    /** En-tête portant le curseur de la page suivante de {@code GET /api/v1/entities}. */
+    public static final String NEXT_CURSOR_HEADER = "X-Next-Cursor";
+
     private final EntityApiService entityApiService;
 
     @Operation(
@@ -62,13 +68,29 @@ public class EntityRestController {
                     `match` : `EXACT` ou `CONTAINS`. `value` : texte recherché.
                     Sans `field`/`match`/`value` : liste paginée filtrée par `statut` uniquement.
                     **statut** : `PUBLIQUE`, `PROPOSITION`, `REFUSED` (stocké REFUSE), ou `tous` (tous les statuts).
-                    **order** : `date_desc` (défaut), `date`, `code`, `code_desc`.
+                    **order** : `date_desc` (défaut), `date`, `code`, `code_desc`, `relevance`
+                    (défaut pour `match=CONTAINS` : résultats classés par pertinence, exact > préfixe > sous-chaîne).
                     **limit** : défaut 200, max 1000.
-                    **rootId** (optionnel) : limite la recherche au sous-arbre dont cette entité est la racine (elle incluse).""")
+                    **rootId** (optionnel) : limite la recherche au sous-arbre dont cette entité est la racine (elle incluse).
+                    **cursor** (mode liste uniquement) : valeur de l'en-tête `X-Next-Cursor` de la réponse précédente,
+                    pour lire la page suivante avec les mêmes `statut`, `order` et `rootId`. L'en-tête est absent
+                    sur la dernière page ; `Link: <…>; rel="next"` donne l'URL complète de la page suivante.
+                    **detail** (défaut false) : inclut les rubriques Description, Caractéristiques physiques et
+                    descriptions de présentation de chaque entité.""")
     @ApiResponses({
             @ApiResponse(
                     responseCode = "200",
                     description = "Liste d'entités correspondantes (vide si aucun résultat).",
+                    headers = {
+                            @Header(
+                                    name = EntityRestController.NEXT_CURSOR_HEADER,
+                                    description = "Curseur opaque de la page suivante (absent sur la dernière page).",
+                                    schema = @Schema(type = "string")),
+                            @Header(
+                                    name = HttpHeaders.LINK,
+                                    description = "URL de la page suivante (`rel=\"next\"`).",
+                                    schema = @Schema(type = "string"))
+                    },
                     content = @Content(
                             mediaType = MediaType.APPLICATION_JSON_VALUE,
                             array = @ArraySchema(schema = @Schema(implementation = EntityResponseDto.class)))),
@@ -86,7 +108,7 @@ public class EntityRestController {
                             schema = @Schema(implementation = ApiErrorResponse.class)))
     })
     @GetMapping
-    public List<EntityResponseDto> listEntities(
+    public ResponseEntity<List<EntityResponseDto>> listEntities(
             @Parameter(
                     name = "field",
                     in = ParameterIn.QUERY,
@@ -131,7 +153,7 @@ public class EntityRestController {
                     in = ParameterIn.QUERY,
                     description = "Tri des résultats.",
                     example = EntityListOrder.DEFAULT_VALUE,
-                    schema = @Schema(allowableValues = {"date_desc", "date", "code", "code_desc"}))
+                    schema = @Schema(allowableValues = {"date_desc", "date", "code", "code_desc", "relevance"}))
             @RequestParam(required = false) String order,
             @Parameter(
                     name = "rootId",
@@ -139,14 +161,38 @@ public class EntityRestController {
                     description = "Identifiant de l'entité racine : recherche limitée à son sous-arbre (descendants inclus).",
                     example = "42",
                     schema = @Schema(type = "integer", format = "int64"))
-            @RequestParam(required = false) Long rootId) {
-        return entityApiService.listEntities(field, match, value, statut, lang, limit, order, rootId);
+            @RequestParam(required = false) Long rootId,
+            @Parameter(
+                    name = "cursor",
+                    in = ParameterIn.QUERY,
+                    description = "Curseur de la page suivante (en-tête X-Next-Cursor de la réponse précédente).")
+            @RequestParam(required = false) String cursor,
+            @Parameter(
+                    name = "detail",
+                    in = ParameterIn.QUERY,
+                    description = "Inclure les rubriques de détail de chaque entité.",
+                    example = "false")
+            @RequestParam(defaultValue = "false") boolean detail) {
+        EntityListPage page = entityApiService.listEntities(
+                field, match, value, statut, lang, limit, order, rootId, cursor, detail);
+        if (!page.hasNext()) {
+            return ResponseEntity.ok(page.items());
+        }
+        String nextUrl = ServletUriComponentsBuilder.fromCurrentRequest()
+                .replaceQueryParam("cursor", page.nextCursor())
+                .build()
+                .toUriString();
+        return ResponseEntity.ok()
+                .header(NEXT_CURSOR_HEADER, page.nextCursor())
+                .header(HttpHeaders.LINK, "<" + nextUrl + ">; rel=\"next\"")
+                .body(page.items());
     }
 
     @Operation(
             operationId = "getEntityByCode",
             summary = "Obtenir une entité par code métier",
-            description = "Ressource unitaire par code métier (insensible à la casse), avec détail complet.")
+            description = "Ressource unitaire par code métier (insensible à la casse), avec détail complet. "
+                    + "Réponse accompagnée d'un ETag et d'un Last-Modified : GET conditionnel (304) possible.")
     @ApiResponses({
             @ApiResponse(
                     responseCode = "200",
@@ -154,6 +200,7 @@ public class EntityRestController {
                     content = @Content(
                             mediaType = MediaType.APPLICATION_JSON_VALUE,
                             schema = @Schema(implementation = EntityResponseDto.class))),
+            @ApiResponse(responseCode = "304", description = "Non modifiée depuis l'ETag (If-None-Match) ou la date (If-Modified-Since) fournis.", content = @Content),
             @ApiResponse(responseCode = "400", description = "Code vide.", content = @Content(
                             mediaType = MediaType.APPLICATION_JSON_VALUE,
                             schema = @Schema(implementation = ApiErrorResponse.class))),
@@ -175,14 +222,19 @@ public class EntityRestController {
                     description = "Code métier unique.",
                     required = true,
                     example = "DECOCER")
-            @PathVariable String code) {
+            @PathVariable String code,
+            WebRequest request) {
+        if (entityApiService.getEntityVersionByCode(code).filter(v -> v.isNotModified(request)).isPresent()) {
+            return null;
+        }
         return entityApiService.getByCode(code);
     }
 
     @Operation(
             operationId = "getEntityChildren",
             summary = "Lister les enfants directs d'une entité",
-            description = "Enfants directs, ordonnés par display_order puis code. Filtre **statut** optionnel.")
+            description = "Enfants directs, ordonnés par display_order puis code. Filtre **statut** optionnel ; **detail=true** inclut les rubriques de détail. "
+                    + "Réponse accompagnée d'un ETag et d'un Last-Modified : GET conditionnel (304) possible.")
     @ApiResponses({
             @ApiResponse(
                     responseCode = "200",
@@ -190,6 +242,7 @@ public class EntityRestController {
                     content = @Content(
                             mediaType = MediaType.APPLICATION_JSON_VALUE,
                             array = @ArraySchema(schema = @Schema(implementation = EntityResponseDto.class)))),
+            @ApiResponse(responseCode = "304", description = "Non modifiée depuis l'ETag (If-None-Match) ou la date (If-Modified-Since) fournis.", content = @Content),
             @ApiResponse(responseCode = "400", description = "Paramètre statut invalide.", content = @Content(
                             mediaType = MediaType.APPLICATION_JSON_VALUE,
                             schema = @Schema(implementation = ApiErrorResponse.class))),
@@ -215,8 +268,19 @@ public class EntityRestController {
                     name = "statut",
                     in = ParameterIn.QUERY,
                     schema = @Schema(allowableValues = {"PUBLIQUE", "PROPOSITION", "REFUSED", EntityApiStatutFilter.VALUE_TOUS}))
-            @RequestParam(required = false) String statut) {
-        return entityApiService.getChildren(id, EntityApiStatutFilter.parse(statut));
+            @RequestParam(required = false) String statut,
+            @Parameter(
+                    name = "detail",
+                    in = ParameterIn.QUERY,
+                    description = "Inclure les rubriques de détail de chaque enfant.",
+                    example = "false")
+            @RequestParam(defaultValue = "false") boolean detail,
+            WebRequest request) {
+        EntityApiStatutFilter filter = EntityApiStatutFilter.parse(statut);
+        if (entityApiService.getChildrenVersion(id, filter, detail).filter(v -> v.isNotModified(request)).isPresent()) {
+            return null;
+        }
+        return entityApiService.getChildren(id, filter, detail);
     }
 
     @Operation(
@@ -262,7 +326,8 @@ public class EntityRestController {
     @Operation(
             operationId = "getEntityById",
             summary = "Obtenir une entité par identifiant",
-            description = "Détail complet incluant rubriques Description, Caractéristiques physiques et descriptions de présentation.")
+            description = "Détail complet incluant rubriques Description, Caractéristiques physiques et descriptions de présentation. "
+                    + "Réponse accompagnée d'un ETag et d'un Last-Modified : GET conditionnel (304) possible.")
     @ApiResponses({
             @ApiResponse(
                     responseCode = "200",
@@ -270,6 +335,7 @@ public class EntityRestController {
                     content = @Content(
                             mediaType = MediaType.APPLICATION_JSON_VALUE,
                             schema = @Schema(implementation = EntityResponseDto.class))),
+            @ApiResponse(responseCode = "304", description = "Non modifiée depuis l'ETag (If-None-Match) ou la date (If-Modified-Since) fournis.", content = @Content),
             @ApiResponse(responseCode = "401", description = "Non authentifié.", content = @Content(
                             mediaType = MediaType.APPLICATION_JSON_VALUE,
                             schema = @Schema(implementation = ApiErrorResponse.class))),
@@ -288,7 +354,11 @@ public class EntityRestController {
                     required = true,
                     example = "42",
                     schema = @Schema(type = "integer", format = "int64"))
-            @PathVariable Long id) {
+            @PathVariable Long id,
+            WebRequest request) {
+        if (entityApiService.getEntityVersion(id).filter(v -> v.isNotModified(request)).isPresent()) {
+            return null;
+        }
         return entityApiService.getById(id);
     }
 
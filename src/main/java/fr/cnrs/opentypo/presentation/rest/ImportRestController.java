@@ -0,0 +1,158 @@
+package fr.cnrs.opentypo.presentation.rest;
+
+import fr.cnrs.opentypo.application.dto.api.ApiErrorMessages;
+import fr.cnrs.opentypo.application.dto.api.ApiErrorResponse;
+import fr.cnrs.opentypo.application.dto.api.ImportJobProgressDto;
+import fr.cnrs.opentypo.application.import_typology.TypologyImportJobLauncher;
+import fr.cnrs.opentypo.application.import_typology.TypologyImportProgressRegistry;
+import fr.cnrs.opentypo.infrastructure.config.OpenApiConfig;
+import fr.cnrs.opentypo.infrastructure.security.OpentypoAuthSupport;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Suivi des imports CSV de typologie soumis depuis l'assistant d'import.
+ * Un import n'est visible que par l'utilisateur qui l'a soumis et par les administrateurs ;
+ * pour les autres, il est introuvable (404), comme un identifiant inexistant.
+ */
+@Tag(name = "Imports", description = "Avancement des imports CSV de typologie.")
+@SecurityRequirement(name = OpenApiConfig.BEARER_SCHEME)
+@RestController
+@RequestMapping(path = "/api/v1/imports", produces = MediaType.APPLICATION_JSON_VALUE)
+@RequiredArgsConstructor
+public class ImportRestController {
+
+    /** Événement SSE portant un {@link ImportJobProgressDto}. */
+    static final String PROGRESS_EVENT = "progress";
+
+    private final TypologyImportProgressRegistry progressRegistry;
+    private final TypologyImportJobLauncher importJobLauncher;
+
+    @Value("${opentypo.import.events-timeout:30m}")
+    private Duration eventsTimeout;
+
+    @Operation(
+            operationId = "getImportJob",
+            summary = "Avancement d'un import",
+            description = "État courant du job : progression en mémoire pendant l'import, "
+                    + "sinon dernier avancement enregistré (lots validés). Réservé à l'auteur de l'import "
+                    + "et aux administrateurs.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Avancement du job.", content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = ImportJobProgressDto.class))),
+            @ApiResponse(responseCode = "401", description = "Non authentifié.", content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = ApiErrorResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Import introuvable ou soumis par un autre utilisateur.",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorResponse.class)))
+    })
+    @GetMapping("/{jobId}")
+    public ImportJobProgressDto getImportJob(
+            @Parameter(description = "Identifiant du job d'import.", example = "42") @PathVariable long jobId,
+            @Parameter(hidden = true) Authentication authentication) {
+        assertJobVisible(jobId, authentication);
+        return progressRegistry.snapshot(jobId)
+                .orElseThrow(() -> new ResponseStatusException(HttpStatus.NOT_FOUND, ApiErrorMessages.IMPORT_JOB_NOT_FOUND));
+    }
+
+    @Operation(
+            operationId = "streamImportJob",
+            summary = "Flux d'avancement d'un import (SSE)",
+            description = "Événements « progress » (ImportJobProgressDto) : état courant à la connexion, puis à chaque "
+                    + "étape de l'import (import en file ou exécuté par une autre instance : avancement relu "
+                    + "périodiquement en base). Le flux se ferme quand le job est terminé. Réservé à l'auteur "
+                    + "de l'import et aux administrateurs.")
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Flux d'événements.", content = @Content(
+                    mediaType = MediaType.TEXT_EVENT_STREAM_VALUE,
+                    schema = @Schema(implementation = ImportJobProgressDto.class))),
+            @ApiResponse(responseCode = "401", description = "Non authentifié.", content = @Content(
+                    mediaType = MediaType.APPLICATION_JSON_VALUE,
+                    schema = @Schema(implementation = ApiErrorResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Import introuvable ou soumis par un autre utilisateur.",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorResponse.class)))
+    })
+    @GetMapping(path = "/{jobId}/events", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamImportJob(
+            @Parameter(description = "Identifiant du job d'import.", example = "42") @PathVariable long jobId,
+            @Parameter(hidden = true) Authentication authentication) {
+        ImportJobProgressDto current = getImportJob(jobId, authentication);
+        SseEmitter emitter = new SseEmitter(eventsTimeout.toMillis());
+        if (!send(emitter, current)) {
+            return emitter;
+        }
+        AtomicReference<Runnable> unsubscribe = new AtomicReference<>(() -> {
+        });
+        unsubscribe.set(progressRegistry.subscribe(jobId, progress -> {
+            if (!send(emitter, progress)) {
+                unsubscribe.get().run();
+            }
+        }));
+        emitter.onCompletion(() -> unsubscribe.get().run());
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> unsubscribe.get().run());
+        // Job terminé entre la lecture de l'état et l'abonnement : plus aucun événement ne viendra.
+        progressRegistry.snapshot(jobId).filter(ImportJobProgressDto::terminal).ifPresent(last -> {
+            if (!last.equals(current)) {
+                send(emitter, last);
+            } else {
+                emitter.complete();
+            }
+        });
+        return emitter;
+    }
+
+    private void assertJobVisible(long jobId, Authentication authentication) {
+        boolean admin = authentication != null && authentication.getAuthorities().stream()
+                .anyMatch(authority -> OpentypoAuthSupport.ROLE_ADMIN.equals(authority.getAuthority()));
+        String email = authentication != null ? authentication.getName() : null;
+        if (importJobLauncher.findJobVisibleTo(jobId, email, admin).isEmpty()) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, ApiErrorMessages.IMPORT_JOB_NOT_FOUND);
+        }
+    }
+
+    /**
+     * Envoie l'avancement et ferme le flux s'il est terminal.
+     *
+     * @return {@code false} si le flux est fermé
+     */
+    private static boolean send(SseEmitter emitter, ImportJobProgressDto progress) {
+        try {
+            emitter.send(SseEmitter.event().name(PROGRESS_EVENT).data(progress, MediaType.APPLICATION_JSON));
+            if (progress.terminal()) {
+                emitter.complete();
+                return false;
+            }
+            return true;
+        } catch (IOException | IllegalStateException e) {
+            emitter.completeWithError(e);
+            return false;
+        }
+    }
+}
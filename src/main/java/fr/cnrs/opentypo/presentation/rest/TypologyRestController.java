@@ -16,12 +16,25 @@ import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.context.request.NativeWebRequest;
+import org.springframework.web.context.request.WebRequest;
+import org.springframework.web.context.request.async.WebAsyncUtils;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
+import tools.jackson.databind.json.JsonMapper;
 
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
 import java.util.List;
 
 /**
@@ -37,6 +50,11 @@ import java.util.List;
 public class TypologyRestController {
 
     private final EntityApiService entityApiService;
+    private final JsonMapper jsonMapper;
+
+    /** Délai de l'export en flux, propre à cette réponse (les autres réponses asynchrones gardent le défaut). */
+    @Value("${opentypo.api.export.request-timeout:30m}")
+    private Duration exportRequestTimeout;
 
     @Operation(
             operationId = "listCollections",
@@ -47,7 +65,8 @@ public class TypologyRestController {
                     - absent ou `PUBLIQUE` (défaut) : collections publiques ;
                     - `PROPOSITION`, `REFUSED` : filtre sur ce statut ;
                     - `tous` : toutes les collections, tous statuts.
-                    Tri : ordre d'affichage personnalisé puis code (comme l'interface).""")
+                    Tri : ordre d'affichage personnalisé puis code (comme l'interface).
+                    Réponse accompagnée d'un ETag et d'un Last-Modified : GET conditionnel (304) possible.""")
     @ApiResponses({
             @ApiResponse(
                     responseCode = "200",
@@ -55,6 +74,7 @@ public class TypologyRestController {
                     content = @Content(
                             mediaType = MediaType.APPLICATION_JSON_VALUE,
                             array = @ArraySchema(schema = @Schema(implementation = EntityResponseDto.class)))),
+            @ApiResponse(responseCode = "304", description = "Non modifiée depuis l'ETag (If-None-Match) ou la date (If-Modified-Since) fournis.", content = @Content),
             @ApiResponse(responseCode = "400", description = "Paramètre statut invalide.", content = @Content(
                             mediaType = MediaType.APPLICATION_JSON_VALUE,
                             schema = @Schema(implementation = ApiErrorResponse.class))),
@@ -79,8 +99,77 @@ public class TypologyRestController {
                     in = ParameterIn.QUERY,
                     description = "Nombre maximum de collections retournées (défaut 500, max 5000).",
                     example = "500")
-            @RequestParam(required = false) Integer limit) {
+            @RequestParam(required = false) Integer limit,
+            WebRequest request) {
         EntityApiStatutFilter filter = EntityApiStatutFilter.parse(statut);
+        if (entityApiService.getCollectionsVersion(filter, limit).filter(v -> v.isNotModified(request)).isPresent()) {
+            return null;
+        }
         return entityApiService.listCollections(filter, limit);
     }
+
+    @Operation(
+            operationId = "exportTypology",
+            summary = "Exporter une typologie complète",
+            description = """
+                    Diffuse en flux **toutes les entités du sous-arbre** de la collection `{id}` (collection incluse,
+                    puis par profondeur croissante), au format NDJSON : un objet entité par ligne, rubriques
+                    de détail incluses (comme `GET /api/v1/entities/{id}`).
+                    Paramètre **statut** : absent ou `PUBLIQUE` (défaut), `PROPOSITION`, `REFUSED`, ou `tous`.""")
+    @ApiResponses({
+            @ApiResponse(
+                    responseCode = "200",
+                    description = "Flux NDJSON (une entité par ligne ; vide si aucune entité ne correspond).",
+                    content = @Content(
+                            mediaType = MediaType.APPLICATION_NDJSON_VALUE,
+                            schema = @Schema(implementation = EntityResponseDto.class))),
+            @ApiResponse(responseCode = "400", description = "Paramètre statut invalide.", content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorResponse.class))),
+            @ApiResponse(responseCode = "401", description = "Non authentifié.", content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorResponse.class))),
+            @ApiResponse(responseCode = "403", description = "Accès refusé.", content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorResponse.class))),
+            @ApiResponse(responseCode = "404", description = "Collection introuvable (ou entité d'un autre type).", content = @Content(
+                            mediaType = MediaType.APPLICATION_JSON_VALUE,
+                            schema = @Schema(implementation = ApiErrorResponse.class)))
+    })
+    @GetMapping(path = "/{id}/export", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<StreamingResponseBody> exportTypology(
+            @Parameter(description = "Identifiant de la collection.", required = true, example = "1")
+            @PathVariable Long id,
+            @Parameter(
+                    name = "statut",
+                    in = ParameterIn.QUERY,
+                    description = "Filtre par statut. Défaut : PUBLIQUE.",
+                    example = "PUBLIQUE",
+                    schema = @Schema(allowableValues = {"PUBLIQUE", "PROPOSITION", "REFUSED", EntityApiStatutFilter.VALUE_TOUS}))
+            @RequestParam(required = false) String statut,
+            NativeWebRequest request) {
+        EntityApiStatutFilter filter = statut == null || statut.isBlank()
+                ? EntityApiStatutFilter.PUBLIQUE
+                : EntityApiStatutFilter.parse(statut);
+        entityApiService.assertCollectionExists(id);
+        WebAsyncUtils.getAsyncManager(request).getAsyncWebRequest().setTimeout(exportRequestTimeout.toMillis());
+        StreamingResponseBody body = out -> entityApiService.exportSubtree(id, filter, chunk -> {
+            try {
+                for (EntityResponseDto dto : chunk) {
+                    out.write(jsonMapper.writeValueAsBytes(dto));
+                    out.write('\n');
+                }
+                out.flush();
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        });
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_NDJSON)
+                .header(HttpHeaders.CONTENT_DISPOSITION, ContentDisposition.attachment()
+                        .filename("typologie-" + id + ".ndjson")
+                        .build()
+                        .toString())
+                .body(body);
+    }
 }
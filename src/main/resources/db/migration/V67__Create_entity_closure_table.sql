@@ -0,0 +1,148 @@
+-- Table de fermeture transitive de entity_relation : une ligne par couple (ancêtre, descendant),
+-- avec la profondeur minimale et le code du type de l'ancêtre.
+-- Permet de résoudre "ancêtre de type X" et "appartient au sous-arbre de R" en une lecture indexée,
+-- sans remonter l'arbre niveau par niveau ni rejouer une CTE récursive.
+--
+-- La table est maintenue par triggers sur entity_relation : toute création, déplacement ou suppression
+-- de relation (JPA, requête native, suppression en cascade) la met à jour dans la même transaction.
+
+CREATE TABLE IF NOT EXISTS entity_closure (
+    ancestor_id BIGINT NOT NULL,
+    descendant_id BIGINT NOT NULL,
+    depth INTEGER NOT NULL,
+    ancestor_type_code VARCHAR(1000),
+    CONSTRAINT pk_entity_closure PRIMARY KEY (ancestor_id, descendant_id),
+    CONSTRAINT fk_entity_closure_ancestor FOREIGN KEY (ancestor_id) REFERENCES entity (id) ON DELETE CASCADE,
+    CONSTRAINT fk_entity_closure_descendant FOREIGN KEY (descendant_id) REFERENCES entity (id) ON DELETE CASCADE
+);
+
+-- Ancêtre d'un type donné le plus proche d'une entité (descendant_id, ancestor_type_code, depth).
+CREATE INDEX IF NOT EXISTS idx_entity_closure_descendant_type
+    ON entity_closure (descendant_id, ancestor_type_code, depth);
+
+-- 1) Ajout de l'arête parent -> enfant : chaque ancêtre du parent (parent inclus) devient ancêtre
+--    de chaque descendant de l'enfant (enfant inclus). En cas de chemins multiples, on garde la profondeur minimale.
+CREATE OR REPLACE FUNCTION entity_closure_link(p_parent_id BIGINT, p_child_id BIGINT) RETURNS void AS $$
+BEGIN
+    INSERT INTO entity_closure (ancestor_id, descendant_id, depth, ancestor_type_code)
+    SELECT a.ancestor_id, d.descendant_id, a.depth + d.depth + 1, a.ancestor_type_code
+    FROM (
+        SELECT ec.ancestor_id, ec.depth, ec.ancestor_type_code
+        FROM entity_closure ec
+        WHERE ec.descendant_id = p_parent_id
+        UNION ALL
+        SELECT e.id, 0, et.code
+        FROM entity e
+        LEFT JOIN entity_type et ON et.id = e.entity_type_id
+        WHERE e.id = p_parent_id
+    ) a
+    CROSS JOIN (
+        SELECT ec.descendant_id, ec.depth
+        FROM entity_closure ec
+        WHERE ec.ancestor_id = p_child_id
+        UNION ALL
+        SELECT p_child_id, 0
+    ) d
+    WHERE a.ancestor_id <> d.descendant_id
+    ON CONFLICT (ancestor_id, descendant_id)
+        DO UPDATE SET depth = LEAST(entity_closure.depth, EXCLUDED.depth);
+END;
+$$ LANGUAGE plpgsql;
+
+-- 2) Retrait de l'arête parent -> enfant : on retire tous les ancêtres externes du sous-arbre de l'enfant,
+--    puis on rejoue les arêtes restantes qui entrent dans ce sous-arbre (cas d'un enfant à plusieurs parents).
+--    Les chemins internes au sous-arbre ne passent pas par l'arête retirée et restent valides.
+CREATE OR REPLACE FUNCTION entity_closure_unlink(p_parent_id BIGINT, p_child_id BIGINT) RETURNS void AS $$
+DECLARE
+    remaining RECORD;
+BEGIN
+    DELETE FROM entity_closure ec
+    WHERE ec.descendant_id IN (
+              SELECT p_child_id
+              UNION
+              SELECT s.descendant_id FROM entity_closure s WHERE s.ancestor_id = p_child_id)
+      AND ec.ancestor_id NOT IN (
+              SELECT p_child_id
+              UNION
+              SELECT s.descendant_id FROM entity_closure s WHERE s.ancestor_id = p_child_id);
+
+    FOR remaining IN
+        SELECT r.parent_id, r.child_id
+        FROM entity_relation r
+        WHERE r.child_id IN (
+                  SELECT p_child_id
+                  UNION
+                  SELECT s.descendant_id FROM entity_closure s WHERE s.ancestor_id = p_child_id)
+          AND r.parent_id NOT IN (
+                  SELECT p_child_id
+                  UNION
+                  SELECT s.descendant_id FROM entity_closure s WHERE s.ancestor_id = p_child_id)
+    LOOP
+        PERFORM entity_closure_link(remaining.parent_id, remaining.child_id);
+    END LOOP;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION entity_relation_closure_trigger() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP IN ('DELETE', 'UPDATE') THEN
+        PERFORM entity_closure_unlink(OLD.parent_id, OLD.child_id);
+    END IF;
+    IF TG_OP IN ('INSERT', 'UPDATE') THEN
+        PERFORM entity_closure_link(NEW.parent_id, NEW.child_id);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_entity_relation_closure_insert ON entity_relation;
+CREATE TRIGGER trg_entity_relation_closure_insert
+    AFTER INSERT ON entity_relation
+    FOR EACH ROW EXECUTE FUNCTION entity_relation_closure_trigger();
+
+DROP TRIGGER IF EXISTS trg_entity_relation_closure_update ON entity_relation;
+CREATE TRIGGER trg_entity_relation_closure_update
+    AFTER UPDATE OF parent_id, child_id ON entity_relation
+    FOR EACH ROW
+    WHEN (OLD.parent_id IS DISTINCT FROM NEW.parent_id OR OLD.child_id IS DISTINCT FROM NEW.child_id)
+    EXECUTE FUNCTION entity_relation_closure_trigger();
+
+DROP TRIGGER IF EXISTS trg_entity_relation_closure_delete ON entity_relation;
+CREATE TRIGGER trg_entity_relation_closure_delete
+    AFTER DELETE ON entity_relation
+    FOR EACH ROW EXECUTE FUNCTION entity_relation_closure_trigger();
+
+-- 3) Changement de type d'une entité : le code dénormalisé suit.
+CREATE OR REPLACE FUNCTION entity_closure_type_trigger() RETURNS trigger AS $$
+BEGIN
+    UPDATE entity_closure
+    SET ancestor_type_code = (SELECT et.code FROM entity_type et WHERE et.id = NEW.entity_type_id)
+    WHERE ancestor_id = NEW.id;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_entity_closure_type ON entity;
+CREATE TRIGGER trg_entity_closure_type
+    AFTER UPDATE OF entity_type_id ON entity
+    FOR EACH ROW
+    WHEN (OLD.entity_type_id IS DISTINCT FROM NEW.entity_type_id)
+    EXECUTE FUNCTION entity_closure_type_trigger();
+
+-- 4) Alimentation initiale à partir des relations existantes.
+WITH RECURSIVE paths AS (
+    SELECT r.parent_id AS ancestor_id, r.child_id AS descendant_id, 1 AS depth
+    FROM entity_relation r
+    UNION ALL
+    SELECT p.ancestor_id, r.child_id, p.depth + 1
+    FROM paths p
+    INNER JOIN entity_relation r ON r.parent_id = p.descendant_id
+)
+INSERT INTO entity_closure (ancestor_id, descendant_id, depth, ancestor_type_code)
+SELECT p.ancestor_id, p.descendant_id, MIN(p.depth), et.code
+FROM paths p
+INNER JOIN entity e ON e.id = p.ancestor_id
+LEFT JOIN entity_type et ON et.id = e.entity_type_id
+WHERE p.ancestor_id <> p.descendant_id
+GROUP BY p.ancestor_id, p.descendant_id, et.code
+ON CONFLICT (ancestor_id, descendant_id) DO NOTHING;
@@ -0,0 +1,98 @@
+-- Moteur de recherche PostgreSQL pour les codes, libellés et descriptions des entités.
+--
+-- 1) Index trigrammes (pg_trgm) sur lower(code) et lower(label.nom) : les filtres
+--    LIKE '%q%', LIKE 'q%' et l'égalité insensible à la casse deviennent indexés.
+-- 2) Document plein texte par entité et par langue (entity_search_document) : libellés (poids A)
+--    et descriptions (poids B), maintenu par triggers sur label et description.
+
+CREATE EXTENSION IF NOT EXISTS pg_trgm;
+
+CREATE INDEX IF NOT EXISTS idx_entity_metadata_code_trgm
+    ON entity_metadata USING gin (lower(code) gin_trgm_ops);
+
+CREATE INDEX IF NOT EXISTS idx_label_nom_trgm
+    ON label USING gin (lower(nom) gin_trgm_ops);
+
+CREATE TABLE IF NOT EXISTS entity_search_document (
+    entity_id BIGINT NOT NULL,
+    code_langue VARCHAR(10) NOT NULL,
+    document TSVECTOR NOT NULL,
+    CONSTRAINT pk_entity_search_document PRIMARY KEY (entity_id, code_langue),
+    CONSTRAINT fk_entity_search_document_entity FOREIGN KEY (entity_id) REFERENCES entity (id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_entity_search_document_document
+    ON entity_search_document USING gin (document);
+
+-- Configuration de recherche plein texte associée à un code langue (simple par défaut).
+CREATE OR REPLACE FUNCTION entity_search_config(p_code_langue VARCHAR) RETURNS regconfig AS $$
+    SELECT CASE lower(p_code_langue)
+               WHEN 'fr' THEN 'french'::regconfig
+               WHEN 'en' THEN 'english'::regconfig
+               WHEN 'de' THEN 'german'::regconfig
+               WHEN 'es' THEN 'spanish'::regconfig
+               WHEN 'it' THEN 'italian'::regconfig
+               ELSE 'simple'::regconfig
+           END;
+$$ LANGUAGE sql IMMUTABLE;
+
+-- Recalcule le document (entité, langue) à partir des libellés et descriptions courants.
+CREATE OR REPLACE FUNCTION entity_search_document_refresh(p_entity_id BIGINT, p_code_langue VARCHAR) RETURNS void AS $$
+DECLARE
+    v_document TSVECTOR;
+BEGIN
+    IF p_entity_id IS NULL OR p_code_langue IS NULL THEN
+        RETURN;
+    END IF;
+
+    v_document :=
+        setweight(to_tsvector(entity_search_config(p_code_langue), COALESCE(
+            (SELECT string_agg(l.nom, ' ') FROM label l
+             WHERE l.entity_id = p_entity_id AND l.code_langue = p_code_langue), '')), 'A')
+        || setweight(to_tsvector(entity_search_config(p_code_langue), COALESCE(
+            (SELECT string_agg(d.valeur, ' ') FROM description d
+             WHERE d.entity_id = p_entity_id AND d.code_langue = p_code_langue), '')), 'B');
+
+    IF v_document = ''::tsvector OR NOT EXISTS (SELECT 1 FROM entity e WHERE e.id = p_entity_id) THEN
+        DELETE FROM entity_search_document
+        WHERE entity_id = p_entity_id AND code_langue = p_code_langue;
+    ELSE
+        INSERT INTO entity_search_document (entity_id, code_langue, document)
+        VALUES (p_entity_id, p_code_langue, v_document)
+        ON CONFLICT (entity_id, code_langue) DO UPDATE SET document = EXCLUDED.document;
+    END IF;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Trigger commun à label et description (colonnes entity_id et code_langue).
+CREATE OR REPLACE FUNCTION entity_search_document_trigger() RETURNS trigger AS $$
+BEGIN
+    IF TG_OP IN ('UPDATE', 'DELETE') THEN
+        PERFORM entity_search_document_refresh(OLD.entity_id, OLD.code_langue);
+    END IF;
+    IF TG_OP = 'INSERT'
+            OR (TG_OP = 'UPDATE' AND (OLD.entity_id IS DISTINCT FROM NEW.entity_id
+                                      OR OLD.code_langue IS DISTINCT FROM NEW.code_langue)) THEN
+        PERFORM entity_search_document_refresh(NEW.entity_id, NEW.code_langue);
+    END IF;
+    RETURN NULL;
+END;
+$$ LANGUAGE plpgsql;
+
+DROP TRIGGER IF EXISTS trg_label_search_document ON label;
+CREATE TRIGGER trg_label_search_document
+    AFTER INSERT OR UPDATE OR DELETE ON label
+    FOR EACH ROW EXECUTE FUNCTION entity_search_document_trigger();
+
+DROP TRIGGER IF EXISTS trg_description_search_document ON description;
+CREATE TRIGGER trg_description_search_document
+    AFTER INSERT OR UPDATE OR DELETE ON description
+    FOR EACH ROW EXECUTE FUNCTION entity_search_document_trigger();
+
+-- Alimentation initiale.
+SELECT entity_search_document_refresh(s.entity_id, s.code_langue)
+FROM (
+    SELECT DISTINCT l.entity_id, l.code_langue FROM label l
+    UNION
+    SELECT DISTINCT d.entity_id, d.code_langue FROM description d
+) s;
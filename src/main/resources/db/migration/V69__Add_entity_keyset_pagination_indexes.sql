@@ -0,0 +1,9 @@
+-- Pagination par clé de GET /api/v1/entities : index parcourus dans l'ordre des clés de tri
+-- (create_date, id) et (lower(code), entity_id), dans les deux sens.
+-- Une page profonde coûte alors la taille de la page, et non le nombre de lignes sautées.
+
+CREATE INDEX IF NOT EXISTS idx_entity_create_date_id
+    ON entity (create_date, id);
+
+CREATE INDEX IF NOT EXISTS idx_entity_metadata_lower_code_entity
+    ON entity_metadata (lower(code), entity_id);
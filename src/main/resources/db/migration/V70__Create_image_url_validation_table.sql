@@ -0,0 +1,16 @@
+-- Résultats de vérification réseau des URL d'image (analyse d'import CSV), conservés d'un import à l'autre.
+-- Clé : SHA-256 hexadécimal de l'URL. Seules les URL ayant obtenu une réponse HTTP sont enregistrées ;
+-- au-delà de la durée de validité (opentypo.import.image-validation.cache-ttl-hours), l'URL est revérifiée.
+
+CREATE TABLE IF NOT EXISTS image_url_validation (
+    url_hash VARCHAR(64) NOT NULL,
+    url TEXT NOT NULL,
+    valid BOOLEAN NOT NULL,
+    http_status INTEGER NOT NULL,
+    content_type VARCHAR(255),
+    checked_at TIMESTAMP NOT NULL,
+    CONSTRAINT pk_image_url_validation PRIMARY KEY (url_hash)
+);
+
+CREATE INDEX IF NOT EXISTS idx_image_url_validation_checked_at
+    ON image_url_validation (checked_at);
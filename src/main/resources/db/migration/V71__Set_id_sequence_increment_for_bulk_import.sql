@@ -0,0 +1,43 @@
+-- Migration V71: Séquences d'identifiants par blocs pour les tables écrites en masse par l'import CSV de typologie
+-- Description: Hibernate réserve les identifiants par blocs de 50 (séquence « pooled »,
+-- EntityConstants.ID_ALLOCATION_SIZE) au lieu de les relire après chaque INSERT (IDENTITY) :
+-- les INSERT, et ceux des tables *_aud, partent alors par lots JDBC.
+-- Les colonnes IDENTITY sont converties en séquence propre à la table (<table>_id_seq, pas de 50),
+-- visible d'Hibernate ; la valeur par défaut de la colonne reste alimentée par cette séquence.
+--
+-- L'optimiseur « pooled » prend la valeur rendue par la séquence comme borne haute du bloc
+-- [valeur - 49 .. valeur] : la prochaine valeur est donc MAX(id) + 50, ou la dernière valeur déjà
+-- distribuée + 50 si elle est plus haute, pour ne jamais redistribuer un identifiant existant.
+
+DO $$
+DECLARE
+    t TEXT;
+    seq TEXT;
+    max_id BIGINT;
+    last_id BIGINT;
+    called BOOLEAN;
+    next_id BIGINT;
+BEGIN
+    FOREACH t IN ARRAY ARRAY[
+        'entity', 'entity_metadata', 'label', 'description', 'image', 'reference-opentheso',
+        'description_detail', 'description_pate', 'description_monnaie',
+        'caracteristique_physique', 'caracteristique_physique_monnaie']
+    LOOP
+        IF to_regclass(quote_ident(t)) IS NULL THEN
+            CONTINUE;
+        END IF;
+        seq := t || '_id_seq';
+        EXECUTE format('SELECT COALESCE(MAX(id), 0) FROM %I', t) INTO max_id;
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN id DROP IDENTITY IF EXISTS', t);
+        EXECUTE format('CREATE SEQUENCE IF NOT EXISTS %I', seq);
+        EXECUTE format('SELECT last_value, is_called FROM %I', seq) INTO last_id, called;
+        IF called THEN
+            max_id := GREATEST(max_id, last_id);
+        END IF;
+        next_id := max_id + 50;
+        EXECUTE format('ALTER SEQUENCE %I INCREMENT BY 50 OWNED BY %I.id', seq, t);
+        PERFORM setval(quote_ident(seq)::regclass, next_id, false);
+        EXECUTE format('ALTER TABLE %I ALTER COLUMN id SET DEFAULT nextval(%L::regclass)', t, quote_ident(seq));
+        RAISE NOTICE 'Table % : séquence % (pas de 50, prochaine valeur %)', t, seq, next_id;
+    END LOOP;
+END $$;
@@ -0,0 +1,25 @@
+-- Migration V72: File d'exécution des imports CSV de typologie
+-- Description: Un job par import soumis (copie du CSV, état, avancement lot par lot). Les jobs en attente ou
+-- en cours au redémarrage sont relancés ; un job annulé ou en échec reprend après la dernière ligne validée.
+
+CREATE TABLE IF NOT EXISTS import_job (
+    id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY,
+    reference_id BIGINT NOT NULL,
+    collection_profile VARCHAR(20) NOT NULL,
+    status VARCHAR(20) NOT NULL,
+    csv_path TEXT NOT NULL,
+    file_name VARCHAR(255),
+    user_id BIGINT,
+    create_by VARCHAR(255),
+    planned_count INTEGER NOT NULL DEFAULT 0,
+    imported_count INTEGER NOT NULL DEFAULT 0,
+    last_csv_row INTEGER,
+    message TEXT,
+    created_at TIMESTAMP NOT NULL,
+    started_at TIMESTAMP,
+    finished_at TIMESTAMP,
+    CONSTRAINT fk_import_job_reference FOREIGN KEY (reference_id) REFERENCES entity(id) ON DELETE CASCADE
+);
+
+CREATE INDEX IF NOT EXISTS idx_import_job_status ON import_job(status);
+CREATE INDEX IF NOT EXISTS idx_import_job_reference_id ON import_job(reference_id);
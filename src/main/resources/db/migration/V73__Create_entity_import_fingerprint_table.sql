@@ -0,0 +1,16 @@
+-- Migration V73: Empreintes de ligne CSV pour l'import différentiel de typologie
+-- Description: Pour chaque entité écrite par l'import, SHA-256 de la ligne CSV appliquée et dernière révision
+-- Envers de l'entité après le lot. Au ré-import, une ligne de même empreinte est ignorée si l'entité n'a pas
+-- de révision plus récente (aucune modification depuis l'application entre-temps).
+
+CREATE TABLE IF NOT EXISTS entity_import_fingerprint (
+    entity_id BIGINT NOT NULL,
+    fingerprint VARCHAR(64) NOT NULL,
+    rev BIGINT,
+    imported_at TIMESTAMP NOT NULL,
+    CONSTRAINT pk_entity_import_fingerprint PRIMARY KEY (entity_id),
+    CONSTRAINT fk_entity_import_fingerprint_entity FOREIGN KEY (entity_id) REFERENCES entity(id) ON DELETE CASCADE
+);
+
+-- Dernière révision d'une entité (contrôle de l'import différentiel) : la clé primaire d'entity_aud est (rev, id).
+CREATE INDEX IF NOT EXISTS idx_entity_aud_id_rev ON entity_aud (id, rev);
@@ -0,0 +1,49 @@
+-- Migration V74: Résumé des modifications par révision et par entité
+-- Description: Une ligne par révision Envers et par entité touchée, écrite à la validation de la transaction
+-- (RevisionChangeListener) : type de révision d'entity_aud, statut de l'entité après la révision, masque des
+-- sections (tables d'audit) et liste des champs modifiés. L'historique, le flux des modifications et la date de
+-- dernière modification lisent cette table au lieu de rejouer les tables d'audit.
+
+CREATE TABLE IF NOT EXISTS revision_change (
+    entity_id BIGINT NOT NULL,
+    rev BIGINT NOT NULL,
+    revtype SMALLINT,
+    statut VARCHAR(1000),
+    changed_sections INTEGER NOT NULL,
+    changed_fields TEXT,
+    CONSTRAINT pk_revision_change PRIMARY KEY (entity_id, rev),
+    CONSTRAINT fk_revision_change_rev FOREIGN KEY (rev) REFERENCES revinfo(rev)
+);
+
+-- Flux des modifications par plage de révisions
+CREATE INDEX IF NOT EXISTS idx_revision_change_rev ON revision_change (rev);
+
+-- Lignes d'une révision lues à la validation : les autres tables d'audit ont une clé primaire (rev, id)
+CREATE INDEX IF NOT EXISTS "idx_reference-opentheso_aud_rev" ON "reference-opentheso_aud" (rev);
+
+-- Reprise de l'historique existant : entités et sections depuis les tables d'audit (bits de RevisionChangeSection),
+-- champs modifiés inconnus (NULL : l'historique les recalcule en rejouant les tables d'audit).
+INSERT INTO revision_change (entity_id, rev, revtype, statut, changed_sections)
+SELECT x.entity_id, x.rev, MAX(x.entity_revtype),
+       (SELECT ea.statut FROM entity_aud ea
+        WHERE ea.id = x.entity_id AND ea.rev <= x.rev AND ea.revtype <> 2
+        ORDER BY ea.rev DESC LIMIT 1),
+       SUM(DISTINCT x.section)
+FROM (
+    SELECT id AS entity_id, rev, revtype AS entity_revtype, 1 AS section FROM entity_aud
+    UNION ALL SELECT entity_id, rev, NULL, 2 FROM entity_metadata_aud WHERE entity_id IS NOT NULL
+    UNION ALL SELECT entity_id, rev, NULL, 4 FROM label_aud WHERE entity_id IS NOT NULL
+    UNION ALL SELECT entity_id, rev, NULL, 8 FROM description_aud WHERE entity_id IS NOT NULL
+    UNION ALL SELECT entity_id, rev, NULL, 16 FROM description_detail_aud WHERE entity_id IS NOT NULL
+    UNION ALL SELECT entity_id, rev, NULL, 32 FROM description_pate_aud WHERE entity_id IS NOT NULL
+    UNION ALL SELECT entity_id, rev, NULL, 64 FROM description_monnaie_aud WHERE entity_id IS NOT NULL
+    UNION ALL SELECT entity_id, rev, NULL, 128 FROM caracteristique_physique_aud WHERE entity_id IS NOT NULL
+    UNION ALL SELECT entity_id, rev, NULL, 256 FROM caracteristique_physique_monnaie_aud WHERE entity_id IS NOT NULL
+    UNION ALL SELECT entity_id, rev, NULL, 512 FROM image_aud WHERE entity_id IS NOT NULL
+    UNION ALL SELECT entity_id, rev, NULL, 1024 FROM "reference-opentheso_aud" WHERE entity_id IS NOT NULL
+    UNION ALL SELECT parent_id, rev, NULL, 2048 FROM entity_relation_aud WHERE parent_id IS NOT NULL
+    UNION ALL SELECT child_id, rev, NULL, 2048 FROM entity_relation_aud WHERE child_id IS NOT NULL
+) x
+JOIN revinfo r ON r.rev = x.rev
+GROUP BY x.entity_id, x.rev
+ON CONFLICT (entity_id, rev) DO NOTHING;
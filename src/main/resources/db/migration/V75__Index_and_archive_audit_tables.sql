@@ -0,0 +1,50 @@
+-- Migration V75: Index (entité, révision) des tables d'audit de l'historique et tables d'archive
+-- Description: L'historique lit chaque table d'audit par entité ; leur clé primaire commence par rev, d'où un
+-- parcours complet de la table. Les tables d'archive, partitionnées par plage de révisions, reçoivent les
+-- révisions plus anciennes que l'horizon d'archivage (AuditArchiveService) ; l'historique les lit avec les
+-- tables d'audit. Les partitions sont créées par le job d'archivage.
+
+-- entity_aud : index (id, rev) créé par V73
+CREATE INDEX IF NOT EXISTS idx_entity_metadata_aud_entity_rev ON entity_metadata_aud (entity_id, rev);
+CREATE INDEX IF NOT EXISTS idx_label_aud_entity_rev ON label_aud (entity_id, rev);
+CREATE INDEX IF NOT EXISTS idx_description_aud_entity_rev ON description_aud (entity_id, rev);
+CREATE INDEX IF NOT EXISTS idx_description_detail_aud_entity_rev ON description_detail_aud (entity_id, rev);
+CREATE INDEX IF NOT EXISTS idx_description_pate_aud_entity_rev ON description_pate_aud (entity_id, rev);
+CREATE INDEX IF NOT EXISTS idx_description_monnaie_aud_entity_rev ON description_monnaie_aud (entity_id, rev);
+CREATE INDEX IF NOT EXISTS idx_caracteristique_physique_aud_entity_rev ON caracteristique_physique_aud (entity_id, rev);
+CREATE INDEX IF NOT EXISTS idx_caracteristique_physique_monnaie_aud_entity_rev ON caracteristique_physique_monnaie_aud (entity_id, rev);
+CREATE INDEX IF NOT EXISTS idx_image_aud_entity_rev ON image_aud (entity_id, rev);
+CREATE INDEX IF NOT EXISTS "idx_reference-opentheso_aud_entity_rev" ON "reference-opentheso_aud" (entity_id, rev);
+CREATE INDEX IF NOT EXISTS idx_entity_relation_aud_parent_rev ON entity_relation_aud (parent_id, rev);
+CREATE INDEX IF NOT EXISTS idx_entity_relation_aud_child_rev ON entity_relation_aud (child_id, rev);
+
+-- Tables d'archive : mêmes colonnes que la table d'audit, partitionnées par plage de révisions
+CREATE TABLE IF NOT EXISTS entity_aud_archive (LIKE entity_aud) PARTITION BY RANGE (rev);
+CREATE TABLE IF NOT EXISTS entity_metadata_aud_archive (LIKE entity_metadata_aud) PARTITION BY RANGE (rev);
+CREATE TABLE IF NOT EXISTS label_aud_archive (LIKE label_aud) PARTITION BY RANGE (rev);
+CREATE TABLE IF NOT EXISTS description_aud_archive (LIKE description_aud) PARTITION BY RANGE (rev);
+CREATE TABLE IF NOT EXISTS description_detail_aud_archive (LIKE description_detail_aud) PARTITION BY RANGE (rev);
+CREATE TABLE IF NOT EXISTS description_pate_aud_archive (LIKE description_pate_aud) PARTITION BY RANGE (rev);
+CREATE TABLE IF NOT EXISTS description_monnaie_aud_archive (LIKE description_monnaie_aud) PARTITION BY RANGE (rev);
+CREATE TABLE IF NOT EXISTS caracteristique_physique_aud_archive (LIKE caracteristique_physique_aud) PARTITION BY RANGE (rev);
+CREATE TABLE IF NOT EXISTS caracteristique_physique_monnaie_aud_archive (LIKE caracteristique_physique_monnaie_aud) PARTITION BY RANGE (rev);
+CREATE TABLE IF NOT EXISTS image_aud_archive (LIKE image_aud) PARTITION BY RANGE (rev);
+CREATE TABLE IF NOT EXISTS "reference-opentheso_aud_archive" (LIKE "reference-opentheso_aud") PARTITION BY RANGE (rev);
+CREATE TABLE IF NOT EXISTS entity_relation_aud_archive (LIKE entity_relation_aud) PARTITION BY RANGE (rev);
+
+-- Index des archives (hérités par chaque partition) : lectures de l'historique par entité
+CREATE INDEX IF NOT EXISTS idx_entity_aud_archive_id_rev ON entity_aud_archive (id, rev);
+CREATE INDEX IF NOT EXISTS idx_entity_metadata_aud_archive_entity_rev ON entity_metadata_aud_archive (entity_id, rev);
+CREATE INDEX IF NOT EXISTS idx_label_aud_archive_entity_rev ON label_aud_archive (entity_id, rev);
+CREATE INDEX IF NOT EXISTS idx_description_aud_archive_entity_rev ON description_aud_archive (entity_id, rev);
+CREATE INDEX IF NOT EXISTS idx_description_detail_aud_archive_entity_rev ON description_detail_aud_archive (entity_id, rev);
+CREATE INDEX IF NOT EXISTS idx_description_pate_aud_archive_entity_rev ON description_pate_aud_archive (entity_id, rev);
+CREATE INDEX IF NOT EXISTS idx_description_monnaie_aud_archive_entity_rev ON description_monnaie_aud_archive (entity_id, rev);
+CREATE INDEX IF NOT EXISTS idx_caracteristique_physique_aud_archive_entity_rev ON caracteristique_physique_aud_archive (entity_id, rev);
+CREATE INDEX IF NOT EXISTS idx_caracteristique_physique_monnaie_aud_archive_entity_rev ON caracteristique_physique_monnaie_aud_archive (entity_id, rev);
+CREATE INDEX IF NOT EXISTS idx_image_aud_archive_entity_rev ON image_aud_archive (entity_id, rev);
+CREATE INDEX IF NOT EXISTS "idx_reference-opentheso_aud_archive_entity_rev" ON "reference-opentheso_aud_archive" (entity_id, rev);
+-- Références pointées par les caractéristiques physiques, lues par identifiant
+CREATE INDEX IF NOT EXISTS "idx_reference-opentheso_aud_archive_id_rev" ON "reference-opentheso_aud_archive" (id, rev);
+CREATE INDEX IF NOT EXISTS idx_entity_relation_aud_archive_parent_rev ON entity_relation_aud_archive (parent_id, rev);
+CREATE INDEX IF NOT EXISTS idx_entity_relation_aud_archive_child_rev ON entity_relation_aud_archive (child_id, rev);
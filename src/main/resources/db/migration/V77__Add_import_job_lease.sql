@@ -0,0 +1,7 @@
+-- Migration V77: Bail d'exécution des imports CSV de typologie
+-- Description: L'instance qui exécute un job le prend en base (lease_owner) et renouvelle lease_heartbeat pendant
+-- l'import. Au démarrage et périodiquement, seuls les jobs RUNNING de l'instance elle-même ou dont le bail a expiré
+-- sont remis en file : avec plusieurs instances, un même import n'est jamais exécuté deux fois.
+
+ALTER TABLE import_job ADD COLUMN IF NOT EXISTS lease_owner VARCHAR(255);
+ALTER TABLE import_job ADD COLUMN IF NOT EXISTS lease_heartbeat TIMESTAMP;
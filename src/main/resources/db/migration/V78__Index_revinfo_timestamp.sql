@@ -0,0 +1,5 @@
+-- Migration V78: Index sur l'horodatage des révisions
+-- Description: Tant qu'une transaction auditée est en cours, GET /api/v1/changes s'arrête à la dernière révision
+-- horodatée avant son début ; cet index la trouve sans parcourir revinfo.
+
+CREATE INDEX IF NOT EXISTS idx_revinfo_revtstmp ON revinfo (revtstmp);
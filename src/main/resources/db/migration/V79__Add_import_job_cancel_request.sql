@@ -0,0 +1,6 @@
+-- Migration V79: Demande d'annulation des imports CSV de typologie
+-- Description: L'annulation est enregistrée sur le job (cancel_requested) et non plus seulement dans la mémoire de
+-- l'instance qui reçoit la demande : l'instance qui exécute l'import la lit avant chaque lot et aucune instance ne
+-- prend un job dont l'annulation est demandée.
+
+ALTER TABLE import_job ADD COLUMN IF NOT EXISTS cancel_requested BOOLEAN NOT NULL DEFAULT FALSE;
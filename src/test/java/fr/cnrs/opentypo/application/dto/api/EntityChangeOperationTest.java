@@ -0,0 +1,24 @@
+package fr.cnrs.opentypo.application.dto.api;
+
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class EntityChangeOperationTest {
+
+    @Test
+    void fromRevisionType_mapsEnversTypesAndRelatedTableChanges() {
+        assertEquals(EntityChangeOperation.ADD, EntityChangeOperation.fromRevisionType((short) 0));
+        assertEquals(EntityChangeOperation.MOD, EntityChangeOperation.fromRevisionType((short) 1));
+        assertEquals(EntityChangeOperation.DEL, EntityChangeOperation.fromRevisionType((short) 2));
+        assertEquals(EntityChangeOperation.MOD, EntityChangeOperation.fromRevisionType(null));
+    }
+
+    @Test
+    void followedBy_keepsCreationUntilDeletion() {
+        assertEquals(EntityChangeOperation.ADD, EntityChangeOperation.ADD.followedBy(EntityChangeOperation.MOD));
+        assertEquals(EntityChangeOperation.DEL, EntityChangeOperation.ADD.followedBy(EntityChangeOperation.DEL));
+        assertEquals(EntityChangeOperation.DEL, EntityChangeOperation.MOD.followedBy(EntityChangeOperation.DEL));
+        assertEquals(EntityChangeOperation.MOD, EntityChangeOperation.MOD.followedBy(EntityChangeOperation.MOD));
+    }
+}
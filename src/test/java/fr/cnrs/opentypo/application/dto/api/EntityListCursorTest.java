@@ -0,0 +1,39 @@
+package fr.cnrs.opentypo.application.dto.api;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class EntityListCursorTest {
+
+    @Test
+    void decode_roundTripsDateAndCodeCursors() {
+        LocalDateTime createDate = LocalDateTime.of(2025, 3, 4, 10, 15, 30, 123456000);
+        EntityListCursor dateCursor = EntityListCursor.decode(
+                EntityListCursor.ofDate(EntityListOrder.DATE_DESC, createDate, 42L).encode(), EntityListOrder.DATE_DESC);
+        assertEquals(createDate, dateCursor.dateValue());
+        assertEquals(42L, dateCursor.id());
+
+        EntityListCursor codeCursor = EntityListCursor.decode(
+                EntityListCursor.ofCode(EntityListOrder.CODE_ASC, "amp\n12é", 7L).encode(), EntityListOrder.CODE_ASC);
+        assertEquals("amp\n12é", codeCursor.sortValue());
+        assertEquals(7L, codeCursor.id());
+    }
+
+    @Test
+    void decode_rejectsGarbageAndCursorOfAnotherOrder() {
+        String codeCursor = EntityListCursor.ofCode(EntityListOrder.CODE_ASC, "abc", 1L).encode();
+
+        ResponseStatusException otherOrder = assertThrows(ResponseStatusException.class,
+                () -> EntityListCursor.decode(codeCursor, EntityListOrder.CODE_DESC));
+        assertEquals(HttpStatus.BAD_REQUEST, otherOrder.getStatusCode());
+        assertThrows(ResponseStatusException.class, () -> EntityListCursor.decode("%%%", EntityListOrder.DATE_DESC));
+        assertThrows(ResponseStatusException.class, () -> EntityListCursor.decode(
+                EntityListCursor.ofCode(EntityListOrder.DATE_ASC, "not-a-date", 1L).encode(), EntityListOrder.DATE_ASC));
+    }
+}
@@ -0,0 +1,41 @@
+package fr.cnrs.opentypo.application.dto.api;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class ResourceVersionTest {
+
+    @Test
+    void of_sameKeyGivesSameStrongEtag() {
+        ResourceVersion version = ResourceVersion.of("entity|42:7", 1_700_000_000_000L);
+
+        assertEquals(version.etag(), ResourceVersion.of("entity|42:7", 0L).etag());
+        assertNotEquals(version.etag(), ResourceVersion.of("entity|42:8", 1_700_000_000_000L).etag());
+        assertTrue(version.etag().startsWith("\"") && version.etag().endsWith("\""));
+    }
+
+    @Test
+    void isNotModified_honoursIfNoneMatch() {
+        ResourceVersion version = ResourceVersion.of("entity|42:7", 1_700_000_000_000L);
+
+        MockHttpServletRequest matching = new MockHttpServletRequest("GET", "/api/v1/entities/42");
+        matching.addHeader("If-None-Match", version.etag());
+        MockHttpServletResponse notModified = new MockHttpServletResponse();
+        assertTrue(version.isNotModified(new ServletWebRequest(matching, notModified)));
+        assertEquals(304, notModified.getStatus());
+
+        MockHttpServletRequest stale = new MockHttpServletRequest("GET", "/api/v1/entities/42");
+        stale.addHeader("If-None-Match", "\"autre\"");
+        MockHttpServletResponse modified = new MockHttpServletResponse();
+        assertFalse(version.isNotModified(new ServletWebRequest(stale, modified)));
+        assertEquals(200, modified.getStatus());
+        assertEquals(version.etag(), modified.getHeader("ETag"));
+    }
+}
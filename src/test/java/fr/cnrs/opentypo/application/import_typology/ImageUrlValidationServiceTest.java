@@ -0,0 +1,74 @@
+package fr.cnrs.opentypo.application.import_typology;
+
+import fr.cnrs.opentypo.domain.entity.ImageUrlValidation;
+import fr.cnrs.opentypo.infrastructure.persistence.ImageUrlValidationRepository;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ImageUrlValidationServiceTest {
+
+    private final ImageUrlValidationRepository repository = mock(ImageUrlValidationRepository.class);
+    private final RemoteImageUrlBatchValidator batchValidator = mock(RemoteImageUrlBatchValidator.class);
+    private final ImageUrlValidationService service = new ImageUrlValidationService(
+            repository, batchValidator, mock(PlatformTransactionManager.class), 24);
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void validateAll_reusesFreshResultsAndStoresDefinitiveChecks() {
+        String known = "https://img.example.org/a.png";
+        String fresh = "https://img.example.org/b.png";
+        String unreachable = "https://down.example.org/c.png";
+        when(repository.findFresh(anyCollection(), any(LocalDateTime.class))).thenReturn(List.of(
+                new ImageUrlValidation(ImageUrlValidationService.urlHash(known), known, false, 404, null, LocalDateTime.now())));
+        when(batchValidator.validateAll(List.of(fresh, unreachable))).thenReturn(Map.of(
+                fresh, new RemoteImageUrlValidator.Check(true, 200, "image/png"),
+                unreachable, RemoteImageUrlValidator.Check.NO_RESPONSE));
+
+        Map<String, Boolean> results = service.validateAll(List.of(known, " " + fresh, unreachable, known));
+
+        assertEquals(Map.of(known, false, fresh, true, unreachable, false), results);
+        ArgumentCaptor<List<ImageUrlValidation>> saved = ArgumentCaptor.forClass(List.class);
+        verify(repository).saveAll(saved.capture());
+        assertEquals(1, saved.getValue().size());
+        assertEquals(fresh, saved.getValue().get(0).getUrl());
+        assertEquals("image/png", saved.getValue().get(0).getContentType());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void validateAll_doesNotStoreTransientFailures() {
+        String gone = "https://img.example.org/gone.png";
+        String page = "https://img.example.org/page";
+        String throttled = "https://img.example.org/throttled.png";
+        String failing = "https://img.example.org/failing.png";
+        String slow = "https://img.example.org/slow.png";
+        when(repository.findFresh(anyCollection(), any(LocalDateTime.class))).thenReturn(List.of());
+        when(batchValidator.validateAll(List.of(gone, page, throttled, failing, slow))).thenReturn(Map.of(
+                gone, new RemoteImageUrlValidator.Check(false, 410, "text/html"),
+                page, new RemoteImageUrlValidator.Check(false, 200, "text/html"),
+                throttled, new RemoteImageUrlValidator.Check(false, 429, "text/html"),
+                failing, new RemoteImageUrlValidator.Check(false, 503, null),
+                slow, new RemoteImageUrlValidator.Check(false, 408, null)));
+
+        service.validateAll(List.of(gone, page, throttled, failing, slow));
+
+        ArgumentCaptor<List<ImageUrlValidation>> saved = ArgumentCaptor.forClass(List.class);
+        verify(repository).saveAll(saved.capture());
+        assertEquals(Set.of(gone, page),
+                saved.getValue().stream().map(ImageUrlValidation::getUrl).collect(Collectors.toSet()));
+    }
+}
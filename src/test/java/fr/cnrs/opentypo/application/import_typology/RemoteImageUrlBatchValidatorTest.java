@@ -0,0 +1,104 @@
+package fr.cnrs.opentypo.application.import_typology;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class RemoteImageUrlBatchValidatorTest {
+
+    private HttpServer server;
+    private ExecutorService serverExecutor;
+    private final AtomicInteger requests = new AtomicInteger();
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger maxInFlight = new AtomicInteger();
+
+    @BeforeEach
+    void startServer() throws IOException {
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.createContext("/img/", exchange -> respond(exchange, 200, "image/png", 50));
+        server.createContext("/missing.png", exchange -> respond(exchange, 404, "text/html", 0));
+        server.createContext("/slow.png", exchange -> respond(exchange, 200, "image/png", 4_000));
+        serverExecutor = Executors.newCachedThreadPool();
+        server.setExecutor(serverExecutor);
+        server.start();
+    }
+
+    @AfterEach
+    void stopServer() {
+        server.stop(0);
+        serverExecutor.shutdownNow();
+    }
+
+    @Test
+    void validateAll_dedupesUrlsAndCapsRequestsPerHost() {
+        List<String> urls = new ArrayList<>();
+        for (int i = 0; i < 8; i++) {
+            urls.add(url("/img/" + i + ".png"));
+            urls.add(" " + url("/img/" + i + ".png") + " ");
+        }
+        urls.add(url("/missing.png"));
+        urls.add("ftp://example.org/a.png");
+
+        Map<String, RemoteImageUrlValidator.Check> results = new RemoteImageUrlBatchValidator(2, 32, 30).validateAll(urls);
+
+        assertEquals(10, results.size());
+        assertTrue(results.get(url("/img/3.png")).valid());
+        assertEquals("image/png", results.get(url("/img/3.png")).contentType());
+        assertFalse(results.get(url("/missing.png")).valid());
+        assertEquals(404, results.get(url("/missing.png")).status());
+        assertFalse(results.get("ftp://example.org/a.png").definitive());
+        assertEquals(9, requests.get());
+        assertTrue(maxInFlight.get() <= 2, "requêtes simultanées : " + maxInFlight.get());
+    }
+
+    @Test
+    void validateAll_leavesUrlsUncheckedAfterDeadline() {
+        long start = System.nanoTime();
+
+        Map<String, RemoteImageUrlValidator.Check> results = new RemoteImageUrlBatchValidator(4, 32, 1)
+                .validateAll(List.of(url("/img/ok.png"), url("/slow.png")));
+
+        assertTrue(results.get(url("/img/ok.png")).valid());
+        assertFalse(results.containsKey(url("/slow.png")));
+        assertTrue(System.nanoTime() - start < 3_000_000_000L);
+    }
+
+    private String url(String path) {
+        return "http://127.0.0.1:" + server.getAddress().getPort() + path;
+    }
+
+    private void respond(HttpExchange exchange, int status, String contentType, long delayMillis) throws IOException {
+        requests.incrementAndGet();
+        maxInFlight.accumulateAndGet(inFlight.incrementAndGet(), Math::max);
+        try {
+            Thread.sleep(delayMillis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            // avant la réponse : le client peut enchaîner sa requête suivante dès réception des en-têtes
+            inFlight.decrementAndGet();
+        }
+        try {
+            exchange.getResponseHeaders().set("Content-Type", contentType);
+            exchange.sendResponseHeaders(status, -1);
+        } finally {
+            exchange.close();
+        }
+    }
+}
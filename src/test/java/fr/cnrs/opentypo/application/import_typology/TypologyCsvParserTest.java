@@ -1,12 +1,25 @@
 package fr.cnrs.opentypo.application.import_typology;
 
 import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.io.StringReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Map;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 
 class TypologyCsvParserTest {
 
+    @TempDir
+    Path spool;
+
     @Test
     void parse_preservesNewlinesInsideQuotedFields() {
         String csv = """
@@ -51,4 +64,41 @@ class TypologyCsvParserTest {
     void parse_rejectsFileWithoutDataRows() {
         assertThrows(IllegalArgumentException.class, () -> TypologyCsvParser.parse("code_type;description_fr\n"));
     }
+
+    @Test
+    void open_streamsRowsWithCsvRowNumbers() {
+        String csv = "\uFEFFCode_Type,Label_FR\r\nA,x\r\n\r\nB,\"y\r\nz\"\rC\n";
+
+        try (TypologyCsvParser.CsvRowReader rows = TypologyCsvParser.open(new StringReader(csv))) {
+            assertEquals(List.of("code_type", "label_fr"), rows.headers());
+            Map<String, String> first = rows.next();
+            assertEquals("A", first.get("code_type"));
+            assertEquals(2, rows.csvRowNumber());
+            Map<String, String> second = rows.next();
+            assertEquals("y\nz", second.get("label_fr"));
+            assertSame(first.keySet().iterator().next(), second.keySet().iterator().next());
+            assertEquals("", rows.next().get("label_fr"));
+            assertEquals(4, rows.csvRowNumber());
+            assertNull(rows.next());
+        }
+    }
+
+    @Test
+    void store_spoolsUploadAndRereadsRows() throws Exception {
+        byte[] content = "code_type;label_fr\nA;é\nB;b\n".getBytes(StandardCharsets.UTF_8);
+
+        TypologyCsvFile file = TypologyCsvFile.store(new ByteArrayInputStream(content), spool);
+        try {
+            assertEquals(2, file.rowCount());
+            for (int pass = 0; pass < 2; pass++) {
+                try (TypologyCsvSource.Rows rows = file.openRows()) {
+                    assertEquals("é", rows.next().get("label_fr"));
+                    assertEquals("B", rows.next().get("code_type"));
+                    assertNull(rows.next());
+                }
+            }
+        } finally {
+            file.delete();
+        }
+    }
 }
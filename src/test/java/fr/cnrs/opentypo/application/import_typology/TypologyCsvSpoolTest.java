@@ -0,0 +1,42 @@
+package fr.cnrs.opentypo.application.import_typology;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.attribute.FileTime;
+import java.time.Duration;
+import java.time.Instant;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TypologyCsvSpoolTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void sweep_deletesOnlyAbandonedUploads() throws Exception {
+        TypologyCsvSpool spool = new TypologyCsvSpool(directory.toString(), Duration.ofHours(24));
+        TypologyCsvFile current = spool.store(new ByteArrayInputStream("code_type\nA\n".getBytes(StandardCharsets.UTF_8)));
+        Path abandoned = Files.writeString(directory.resolve(TypologyCsvFile.SPOOL_PREFIX + "1.csv"), "code_type\nB\n");
+        Files.setLastModifiedTime(abandoned, FileTime.from(Instant.now().minus(Duration.ofDays(2))));
+        Path other = Files.writeString(directory.resolve("notes.csv"), "x");
+        Files.setLastModifiedTime(other, FileTime.from(Instant.now().minus(Duration.ofDays(2))));
+
+        assertEquals(1, spool.sweep(Instant.now().minus(Duration.ofHours(24))));
+
+        assertFalse(Files.exists(abandoned));
+        assertTrue(Files.exists(other));
+        try (var files = Files.list(directory)) {
+            assertEquals(2, files.count());
+        }
+        assertEquals(1, current.rowCount());
+        current.delete();
+    }
+}
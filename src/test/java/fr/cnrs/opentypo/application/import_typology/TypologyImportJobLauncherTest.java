@@ -0,0 +1,297 @@
+package fr.cnrs.opentypo.application.import_typology;
+
+import fr.cnrs.opentypo.domain.entity.Entity;
+import fr.cnrs.opentypo.domain.entity.ImportJob;
+import fr.cnrs.opentypo.domain.entity.Utilisateur;
+import fr.cnrs.opentypo.infrastructure.persistence.ImportJobRepository;
+import fr.cnrs.opentypo.infrastructure.persistence.UtilisateurRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.ByteArrayInputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class TypologyImportJobLauncherTest {
+
+    private static final String CSV = "code_categorie;nom_complet_fr\nC1;Cat\nC2;Cat 2\n";
+
+    @TempDir
+    Path jobDirectory;
+
+    private final TypologyImportService importService = mock(TypologyImportService.class);
+    private final ImportJobRepository jobRepository = mock(ImportJobRepository.class);
+    private final UtilisateurRepository userRepository = mock(UtilisateurRepository.class);
+    private final Map<Long, ImportJob> jobs = new ConcurrentHashMap<>();
+    private final List<Long> started = new CopyOnWriteArrayList<>();
+    private final Map<Long, CountDownLatch> releases = new ConcurrentHashMap<>();
+    private final Map<Long, CountDownLatch> finished = new ConcurrentHashMap<>();
+    private TypologyImportProgressRegistry progressRegistry;
+    private TypologyImportJobLauncher launcher;
+
+    @BeforeEach
+    void setUp() {
+        AtomicLong ids = new AtomicLong();
+        when(jobRepository.save(any(ImportJob.class))).thenAnswer(inv -> {
+            ImportJob job = inv.getArgument(0);
+            if (job.getId() == null) {
+                job.setId(ids.incrementAndGet());
+            }
+            jobs.put(job.getId(), job);
+            if (job.getStatus().isTerminal()) {
+                finished.computeIfAbsent(job.getId(), id -> new CountDownLatch(1)).countDown();
+            }
+            return job;
+        });
+        when(jobRepository.claim(anyLong(), anyString(), any(), eq(ImportJob.Status.QUEUED), eq(ImportJob.Status.RUNNING)))
+                .thenAnswer(inv -> {
+                    ImportJob job = jobs.get(inv.<Long>getArgument(0));
+                    if (job == null || job.getStatus() != ImportJob.Status.QUEUED || job.isCancelRequested()) {
+                        return 0;
+                    }
+                    job.setStatus(ImportJob.Status.RUNNING);
+                    job.setLeaseOwner(inv.getArgument(1));
+                    job.setLeaseHeartbeat(inv.getArgument(2));
+                    return 1;
+                });
+        when(jobRepository.requestCancel(anyLong(), eq(ImportJob.Status.QUEUED), eq(ImportJob.Status.RUNNING)))
+                .thenAnswer(inv -> {
+                    ImportJob job = jobs.get(inv.<Long>getArgument(0));
+                    if (job == null || job.getStatus().isTerminal()) {
+                        return 0;
+                    }
+                    job.setCancelRequested(true);
+                    return 1;
+                });
+        when(jobRepository.cancelQueued(anyString(), any(), eq(ImportJob.Status.QUEUED), eq(ImportJob.Status.CANCELLED)))
+                .thenAnswer(inv -> {
+                    List<ImportJob> cancelled = jobs.values().stream()
+                            .filter(job -> job.getStatus() == ImportJob.Status.QUEUED && job.isCancelRequested())
+                            .toList();
+                    cancelled.forEach(job -> {
+                        job.setStatus(ImportJob.Status.CANCELLED);
+                        job.setMessage(inv.getArgument(0));
+                    });
+                    return cancelled.size();
+                });
+        when(jobRepository.existsByIdAndCancelRequestedTrue(anyLong()))
+                .thenAnswer(inv -> jobs.get(inv.<Long>getArgument(0)).isCancelRequested());
+        when(jobRepository.findById(anyLong())).thenAnswer(inv -> Optional.ofNullable(jobs.get(inv.<Long>getArgument(0))));
+        when(importService.executeImport(any(), any(), any(), any(), any(), anyBoolean(), any(), any(), any()))
+                .thenAnswer(inv -> {
+                    long referenceId = inv.<Entity>getArgument(0).getId();
+                    TypologyImportCheckpoint checkpoint = inv.getArgument(8);
+                    CountDownLatch release = releases.computeIfAbsent(referenceId, id -> new CountDownLatch(1));
+                    started.add(referenceId);
+                    release.await(5, TimeUnit.SECONDS);
+                    if (checkpoint.cancelRequested()) {
+                        return TypologyImportExecutionResult.cancelled(checkpoint.committedRows(), 2, 3);
+                    }
+                    checkpoint.batchCommitted(2, 2, 3);
+                    return TypologyImportExecutionResult.ok(2);
+                });
+        progressRegistry = new TypologyImportProgressRegistry(jobRepository);
+        launcher = new TypologyImportJobLauncher(importService, jobRepository, userRepository,
+                progressRegistry, jobDirectory.toString(), 2, "instance-a", Duration.ofMinutes(2));
+    }
+
+    @AfterEach
+    void tearDown() {
+        releases.values().forEach(CountDownLatch::countDown);
+        launcher.shutdown();
+    }
+
+    @Test
+    void submit_runsReferencesInParallelAndSerializesJobsOfTheSameReference() throws Exception {
+        long first = submit(1L);
+        long second = submit(1L);
+        long other = submit(2L);
+
+        awaitStarted(2);
+        assertEquals(List.of(1L, 2L), started.stream().sorted().toList());
+        assertEquals(ImportJob.Status.QUEUED, jobs.get(second).getStatus());
+
+        release(1L);
+        awaitFinished(first);
+        awaitStarted(3);
+        assertEquals(1L, started.get(2));
+
+        release(1L);
+        release(2L);
+        awaitFinished(second);
+        awaitFinished(other);
+        assertEquals(ImportJob.Status.COMPLETED, jobs.get(first).getStatus());
+        assertFalse(Path.of(jobs.get(first).getCsvPath()).toFile().exists());
+    }
+
+    @Test
+    void cancel_dropsQueuedJobAndStopsRunningJobAtNextBatch_thenResumeRestartsIt() throws Exception {
+        long running = submit(1L);
+        long queued = submit(1L);
+        awaitStarted(1);
+
+        assertTrue(launcher.cancel(queued));
+        assertEquals(ImportJob.Status.CANCELLED, jobs.get(queued).getStatus());
+        assertTrue(launcher.cancel(running));
+        release(1L);
+        awaitFinished(running);
+        assertEquals(ImportJob.Status.CANCELLED, jobs.get(running).getStatus());
+        assertTrue(Path.of(jobs.get(running).getCsvPath()).toFile().exists());
+
+        finished.remove(running);
+        assertEquals("CANCELLED", progressRegistry.snapshot(queued).orElseThrow().status());
+        assertTrue(launcher.resume(running));
+        awaitStarted(2);
+        release(1L);
+        awaitFinished(running);
+        assertEquals(ImportJob.Status.COMPLETED, jobs.get(running).getStatus());
+        assertTrue(progressRegistry.snapshot(running).orElseThrow().terminal());
+        assertEquals(List.of(1L, 1L), started);
+    }
+
+    @Test
+    void cancel_reachesJobsOfOtherInstancesThroughTheDatabase() throws Exception {
+        ImportJob queuedElsewhere = storedJob(7L, 3L, ImportJob.Status.QUEUED);
+        ImportJob runningElsewhere = storedJob(8L, 4L, ImportJob.Status.RUNNING);
+        runningElsewhere.setLeaseOwner("instance-b");
+
+        assertTrue(launcher.cancel(7L));
+        assertTrue(launcher.cancel(8L));
+        assertFalse(launcher.cancel(7L));
+        assertFalse(launcher.cancel(42L));
+
+        assertEquals(ImportJob.Status.CANCELLED, queuedElsewhere.getStatus());
+        // Arrêté par instance-b avant son prochain lot
+        assertEquals(ImportJob.Status.RUNNING, runningElsewhere.getStatus());
+        assertTrue(runningElsewhere.isCancelRequested());
+
+        // Remis en file après la disparition d'instance-b : annulé, jamais repris
+        runningElsewhere.setStatus(ImportJob.Status.QUEUED);
+        runningElsewhere.setLeaseOwner(null);
+        when(jobRepository.findByStatusInOrderByIdAsc(any())).thenReturn(List.of());
+        launcher.maintainLeases();
+        assertEquals(ImportJob.Status.CANCELLED, runningElsewhere.getStatus());
+        assertTrue(started.isEmpty());
+    }
+
+    @Test
+    void runningJob_stopsWhenCancelIsRequestedFromAnotherInstance() throws Exception {
+        long running = submit(1L);
+        awaitStarted(1);
+
+        // Demande reçue par une autre instance : seul le job en base est marqué
+        jobs.get(running).setCancelRequested(true);
+        release(1L);
+        awaitFinished(running);
+
+        assertEquals(ImportJob.Status.CANCELLED, jobs.get(running).getStatus());
+        assertEquals("CANCELLED", progressRegistry.snapshot(running).orElseThrow().status());
+    }
+
+    @Test
+    void run_releasesOwnAndExpiredLeasesThenRunsQueuedJobsOnce() throws Exception {
+        ImportJob queued = storedJob(7L, 3L, ImportJob.Status.QUEUED);
+        when(jobRepository.findByStatusInOrderByIdAsc(any())).thenReturn(List.of(queued));
+
+        launcher.run(null);
+        awaitStarted(1);
+
+        verify(jobRepository).releaseLeasesOf("instance-a", ImportJob.Status.QUEUED, ImportJob.Status.RUNNING);
+        verify(jobRepository).releaseExpiredLeases(any(), eq(ImportJob.Status.QUEUED), eq(ImportJob.Status.RUNNING));
+        assertEquals("instance-a", jobs.get(7L).getLeaseOwner());
+
+        launcher.maintainLeases();
+        verify(jobRepository).renewLeases(eq("instance-a"), any(), eq(ImportJob.Status.RUNNING));
+        release(3L);
+        awaitFinished(7L);
+        assertEquals(List.of(3L), started);
+        assertEquals(ImportJob.Status.COMPLETED, jobs.get(7L).getStatus());
+        assertNull(jobs.get(7L).getLeaseOwner());
+    }
+
+    @Test
+    void findJobVisibleTo_onlyOwnerAndAdmins() {
+        ImportJob job = new ImportJob();
+        job.setId(9L);
+        job.setUserId(5L);
+        jobs.put(9L, job);
+        Utilisateur owner = new Utilisateur();
+        owner.setId(5L);
+        Utilisateur other = new Utilisateur();
+        other.setId(6L);
+        when(userRepository.findByEmail("owner@example.org")).thenReturn(Optional.of(owner));
+        when(userRepository.findByEmail("other@example.org")).thenReturn(Optional.of(other));
+
+        assertTrue(launcher.findJobVisibleTo(9L, "owner@example.org", false).isPresent());
+        assertTrue(launcher.findJobVisibleTo(9L, "other@example.org", true).isPresent());
+        assertTrue(launcher.findJobVisibleTo(9L, "other@example.org", false).isEmpty());
+        assertTrue(launcher.findJobVisibleTo(9L, null, false).isEmpty());
+        assertTrue(launcher.findJobVisibleTo(10L, "owner@example.org", true).isEmpty());
+    }
+
+    private ImportJob storedJob(long jobId, long referenceId, ImportJob.Status status) throws Exception {
+        ImportJob job = new ImportJob();
+        job.setId(jobId);
+        job.setReferenceId(referenceId);
+        job.setCollectionProfile(TypologyImportCollectionProfile.CERAMIQUE.name());
+        job.setStatus(status);
+        job.setCsvPath(Files.writeString(jobDirectory.resolve("job-" + jobId + ".csv"), CSV).toString());
+        job.setCreatedAt(LocalDateTime.now());
+        jobs.put(jobId, job);
+        return job;
+    }
+
+    private long submit(long referenceId) throws Exception {
+        TypologyCsvFile csv = TypologyCsvFile.store(new ByteArrayInputStream(CSV.getBytes(StandardCharsets.UTF_8)),
+                jobDirectory);
+        try {
+            return launcher.submit(referenceId, csv, "import.csv", null, TypologyImportCollectionProfile.CERAMIQUE,
+                    null);
+        } finally {
+            csv.delete();
+        }
+    }
+
+    private void release(long referenceId) {
+        releases.computeIfAbsent(referenceId, id -> new CountDownLatch(1)).countDown();
+        releases.remove(referenceId);
+    }
+
+    private void awaitStarted(int count) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (started.size() < count && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(count, started.size());
+    }
+
+    private void awaitFinished(long jobId) throws InterruptedException {
+        assertTrue(finished.computeIfAbsent(jobId, id -> new CountDownLatch(1)).await(5, TimeUnit.SECONDS));
+    }
+}
@@ -0,0 +1,131 @@
+package fr.cnrs.opentypo.application.import_typology;
+
+import fr.cnrs.opentypo.application.dto.api.ImportJobProgressDto;
+import fr.cnrs.opentypo.domain.entity.ImportJob;
+import fr.cnrs.opentypo.infrastructure.persistence.ImportJobRepository;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class TypologyImportProgressRegistryTest {
+
+    private final ImportJobRepository jobRepository = mock(ImportJobRepository.class);
+    private final TypologyImportProgressRegistry registry = new TypologyImportProgressRegistry(jobRepository, Runnable::run);
+
+    @Test
+    void subscribe_receivesEachPublishedStepUntilUnsubscribed() {
+        TypologyImportProgress progress = registry.register(7L, 3L);
+        progress.beginImporting(100);
+        List<ImportJobProgressDto> received = new ArrayList<>();
+        Runnable unsubscribe = registry.subscribe(7L, received::add);
+
+        registry.updateStatus(7L, ImportJob.Status.RUNNING, null);
+        progress.tickImporting(40, 100, 42);
+        progress.publish();
+        unsubscribe.run();
+        progress.publish();
+
+        assertEquals(2, received.size());
+        ImportJobProgressDto last = received.get(1);
+        assertEquals("RUNNING", last.status());
+        assertEquals(40, last.current());
+        assertEquals(40, last.percent());
+        assertEquals("Ligne 42", last.detail());
+        assertFalse(last.terminal());
+    }
+
+    @Test
+    void snapshot_fallsBackToPersistedJobWhenNotInMemory() {
+        ImportJob job = new ImportJob();
+        job.setId(9L);
+        job.setReferenceId(3L);
+        job.setStatus(ImportJob.Status.CANCELLED);
+        job.setPlannedCount(200);
+        job.setImportedCount(50);
+        job.setLastCsvRow(52);
+        job.setMessage("Import annulé");
+        when(jobRepository.findById(9L)).thenReturn(Optional.of(job));
+
+        ImportJobProgressDto snapshot = registry.snapshot(9L).orElseThrow();
+
+        assertEquals("CANCELLED", snapshot.status());
+        assertEquals(25, snapshot.percent());
+        assertEquals("Ligne 52", snapshot.detail());
+        assertTrue(snapshot.terminal());
+        assertTrue(registry.snapshot(10L).isEmpty());
+    }
+
+    @Test
+    void publish_neverRunsSubscriberOnImportThreadAndKeepsOnlyLatestState() {
+        Queue<Runnable> deliveries = new ArrayDeque<>();
+        TypologyImportProgressRegistry deferred = new TypologyImportProgressRegistry(jobRepository, deliveries::add);
+        TypologyImportProgress progress = deferred.register(7L, 3L);
+        progress.beginImporting(100);
+        List<ImportJobProgressDto> received = new ArrayList<>();
+        deferred.subscribe(7L, received::add);
+
+        for (int row = 1; row <= 30; row++) {
+            progress.tickImporting(row, 100, row + 1);
+            progress.publish();
+        }
+
+        assertTrue(received.isEmpty());
+        assertEquals(1, deliveries.size());
+        deliveries.poll().run();
+        assertEquals(1, received.size());
+        assertEquals(30, received.getFirst().current());
+        assertTrue(deliveries.isEmpty());
+    }
+
+    @Test
+    void subscribe_followsJobNotInMemoryFromPersistedRow() {
+        ImportJob job = new ImportJob();
+        job.setId(11L);
+        job.setReferenceId(3L);
+        job.setStatus(ImportJob.Status.RUNNING);
+        job.setPlannedCount(100);
+        job.setImportedCount(20);
+        when(jobRepository.findById(11L)).thenReturn(Optional.of(job));
+        when(jobRepository.findAllById(anyCollection())).thenReturn(List.of(job));
+        List<ImportJobProgressDto> received = new ArrayList<>();
+        Runnable unsubscribe = registry.subscribe(11L, received::add);
+
+        registry.pollPersistedJobs();
+        assertTrue(received.isEmpty());
+
+        job.setImportedCount(60);
+        registry.pollPersistedJobs();
+        job.setStatus(ImportJob.Status.COMPLETED);
+        registry.pollPersistedJobs();
+        unsubscribe.run();
+        registry.pollPersistedJobs();
+
+        assertEquals(List.of(60, 60), received.stream().map(ImportJobProgressDto::current).toList());
+        assertTrue(received.getLast().terminal());
+    }
+
+    @Test
+    void register_handsPersistedSubscribersToTheLocalJob() {
+        List<ImportJobProgressDto> received = new ArrayList<>();
+        registry.subscribe(12L, received::add);
+
+        TypologyImportProgress progress = registry.register(12L, 3L);
+        registry.updateStatus(12L, ImportJob.Status.RUNNING, null);
+
+        assertEquals(Set.of("RUNNING"), Set.copyOf(received.stream().map(ImportJobProgressDto::status).toList()));
+        progress.publish();
+        assertEquals(2, received.size());
+    }
+}
@@ -0,0 +1,42 @@
+package fr.cnrs.opentypo.application.import_typology;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+class TypologyImportRowFingerprintTest {
+
+    @Test
+    void of_ignoresColumnOrderAndSurroundingWhitespace() {
+        Map<String, String> row = new LinkedHashMap<>();
+        row.put("code_type", "T1");
+        row.put("nom_complet_fr", "Amphore");
+        Map<String, String> reordered = new LinkedHashMap<>();
+        reordered.put("nom_complet_fr", " Amphore ");
+        reordered.put("code_type", "T1");
+
+        assertEquals(
+                TypologyImportRowFingerprint.of(row, new LinkedHashSet<>(List.of("code_type", "nom_complet_fr")),
+                        TypologyImportCollectionProfile.CERAMIQUE),
+                TypologyImportRowFingerprint.of(reordered, new LinkedHashSet<>(List.of("nom_complet_fr", "code_type")),
+                        TypologyImportCollectionProfile.CERAMIQUE));
+    }
+
+    @Test
+    void of_changesWithValueOrCollectionProfile() {
+        LinkedHashSet<String> headers = new LinkedHashSet<>(List.of("code_type", "nom_complet_fr"));
+        String base = TypologyImportRowFingerprint.of(Map.of("code_type", "T1", "nom_complet_fr", "Amphore"),
+                headers, TypologyImportCollectionProfile.CERAMIQUE);
+
+        assertNotEquals(base, TypologyImportRowFingerprint.of(Map.of("code_type", "T1", "nom_complet_fr", "Amphores"),
+                headers, TypologyImportCollectionProfile.CERAMIQUE));
+        assertNotEquals(base, TypologyImportRowFingerprint.of(Map.of("code_type", "T1", "nom_complet_fr", "Amphore"),
+                headers, TypologyImportCollectionProfile.MONNAIE));
+    }
+}
@@ -0,0 +1,156 @@
+package fr.cnrs.opentypo.application.service;
+
+import fr.cnrs.opentypo.application.dto.EntityRevisionDTO;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.data.jpa.test.autoconfigure.DataJpaTest;
+import org.springframework.boot.jdbc.test.autoconfigure.AutoConfigureTestDatabase;
+import org.springframework.context.annotation.Import;
+import org.springframework.core.io.ClassPathResource;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.DynamicPropertyRegistry;
+import org.springframework.test.context.DynamicPropertySource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+
+/**
+ * Archivage sur une vraie base PostgreSQL : tables d'audit créées par Hibernate Envers, tables d'archive par V75.
+ * Les révisions déplacées restent lues par l'historique ({@link AuditService}).
+ */
+@Testcontainers(disabledWithoutDocker = true)
+@DataJpaTest(properties = {
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "spring.jpa.properties.hibernate.envers.audit_table_suffix=_aud",
+        "spring.jpa.properties.hibernate.envers.revision_field_name=rev",
+        "spring.jpa.properties.hibernate.envers.revision_type_field_name=revtype",
+        "spring.jpa.properties.hibernate.envers.store_data_at_delete=true"})
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@Import({AuditService.class, AuditArchiveService.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class AuditArchiveServicePostgresTest {
+
+    @Container
+    private static final PostgreSQLContainer POSTGRES = new PostgreSQLContainer("postgres:16-alpine");
+
+    @DynamicPropertySource
+    static void datasource(DynamicPropertyRegistry registry) {
+        registry.add("spring.datasource.url", POSTGRES::getJdbcUrl);
+        registry.add("spring.datasource.username", POSTGRES::getUsername);
+        registry.add("spring.datasource.password", POSTGRES::getPassword);
+    }
+
+    @Autowired
+    private AuditService auditService;
+
+    @Autowired
+    private AuditArchiveService auditArchiveService;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @PersistenceContext
+    private EntityManager entityManager;
+
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("DROP TABLE IF EXISTS entity_aud_archive, label_aud_archive, description_aud_archive CASCADE");
+        jdbc.execute("TRUNCATE entity_aud, label_aud, description_aud, revinfo CASCADE");
+        jdbc.execute(new ClassPathResource("db/migration/V75__Index_and_archive_audit_tables.sql")
+                .getContentAsString(StandardCharsets.UTF_8));
+
+        // Entité 1 : créée (rév. 1), libellé modifié (rév. 2), publiée (rév. 3), description ajoutée (rév. 4).
+        // Entité 2 : une seule révision, ancienne.
+        for (long rev = 1; rev <= 4; rev++) {
+            jdbc.update("INSERT INTO revinfo (rev, revtstmp, modified_by) VALUES (?, ?, 'archiviste@example.org')",
+                    rev, rev * 1000);
+        }
+        jdbc.update("INSERT INTO entity_aud (id, rev, revtype, statut) VALUES (1, 1, 0, 'PROPOSITION')");
+        jdbc.update("INSERT INTO entity_aud (id, rev, revtype, statut) VALUES (2, 1, 0, 'PUBLIQUE')");
+        jdbc.update("INSERT INTO entity_aud (id, rev, revtype, statut) VALUES (1, 3, 1, 'PUBLIQUE')");
+        jdbc.update("INSERT INTO label_aud (id, rev, revtype, entity_id, code_langue, nom) VALUES (10, 1, 0, 1, 'fr', 'Amphore')");
+        jdbc.update("INSERT INTO label_aud (id, rev, revtype, entity_id, code_langue, nom) VALUES (10, 2, 1, 1, 'fr', 'Amphore A')");
+        jdbc.update("INSERT INTO description_aud (id, rev, revtype, entity_id, code_langue, valeur) "
+                + "VALUES (20, 4, 0, 1, 'fr', 'Col étroit')");
+    }
+
+    @Test
+    void archiveRevisionsBefore_movesOldRowsAndKeepsHistory() {
+        List<String> historyBefore = history(1L);
+
+        long moved = auditArchiveService.archiveRevisionsBefore(Instant.ofEpochMilli(3500));
+
+        assertEquals(3, moved);
+        assertEquals(2, count("entity_aud"));
+        assertEquals(1, count("entity_aud_archive"));
+        assertEquals(0, count("label_aud"));
+        assertEquals(2, count("label_aud_archive"));
+        assertEquals(1, count("description_aud"));
+        assertEquals(0, count("description_aud_archive"));
+        // Dernière ligne de chaque entité conservée dans entity_aud, même antérieure à l'horizon
+        assertEquals(List.of("1:3", "2:1"),
+                jdbc.queryForList("SELECT id || ':' || rev FROM entity_aud ORDER BY id", String.class));
+        assertEquals(historyBefore, history(1L));
+        assertEquals(List.of(4L, 3L, 2L, 1L), auditService.getEntityRevisions(1L).stream()
+                .map(EntityRevisionDTO::getRevisionNumber).toList());
+    }
+
+    @Test
+    void archiveRevisionsBefore_reusesPartitionsCreatedWithAnotherSize() {
+        archiver(2).archiveRevisionsBefore(Instant.ofEpochMilli(1500));
+        List<String> historyBefore = history(1L);
+
+        long moved = archiver(5).archiveRevisionsBefore(Instant.ofEpochMilli(3500));
+
+        assertEquals(1, moved);
+        assertEquals(List.of("label_aud_archive_r0", "label_aud_archive_r2"),
+                jdbc.queryForList("SELECT c.relname::text FROM pg_partition_tree('label_aud_archive') t "
+                        + "JOIN pg_class c ON c.oid = t.relid WHERE t.level = 1 ORDER BY 1", String.class));
+        assertEquals(2, count("label_aud_archive"));
+        assertEquals(historyBefore, history(1L));
+    }
+
+    /** Archivage avec une autre taille de partition que celle de la configuration. */
+    private AuditArchiveService archiver(long partitionSize) {
+        AuditArchiveService service = new AuditArchiveService(transactionManager, true, 365, partitionSize);
+        ReflectionTestUtils.setField(service, "entityManager", entityManager);
+        return service;
+    }
+
+    /** Révisions de l'entité telles que l'historique les affiche : numéro, type, champs modifiés et état. */
+    private List<String> history(Long entityId) {
+        List<EntityRevisionDTO> revisions = auditService.getEntityRevisions(entityId);
+        assertFalse(revisions.isEmpty());
+        return revisions.stream()
+                .map(r -> r.getRevisionNumber() + " " + r.getRevisionType() + " " + r.getChangedFields()
+                        + " " + r.getEntityData())
+                .toList();
+    }
+
+    private long count(String table) {
+        Long count = jdbc.queryForObject("SELECT COUNT(*) FROM " + table, Long.class);
+        return count != null ? count : 0;
+    }
+}
@@ -0,0 +1,62 @@
+package fr.cnrs.opentypo.application.service;
+
+import fr.cnrs.opentypo.application.dto.RevisionChangeSection;
+import fr.cnrs.opentypo.application.service.AuditArchiveService.PartitionSlice;
+import fr.cnrs.opentypo.application.service.AuditArchiveService.RevisionRange;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class AuditArchiveServiceTest {
+
+    @Test
+    void archiveTables_keepQuotedAuditTableNames() {
+        assertEquals("label_aud_archive", RevisionChangeSection.LABEL.getArchiveTable());
+        assertEquals("\"reference-opentheso_aud_archive\"", RevisionChangeSection.REFERENCE_OPENTHESO.getArchiveTable());
+        assertEquals("reference-opentheso_aud_archive_r300000",
+                AuditArchiveService.partitionName(RevisionChangeSection.REFERENCE_OPENTHESO, 300_000));
+    }
+
+    @Test
+    void moveSql_keepsTheLastEntityRowOnly() {
+        List<String> columns = List.of("\"id\"", "\"rev\"", "\"revtype\"", "\"statut\"");
+
+        String entity = AuditArchiveService.moveSql(RevisionChangeSection.ENTITY, columns);
+        String label = AuditArchiveService.moveSql(RevisionChangeSection.LABEL, columns);
+
+        assertTrue(entity.contains("n.id = a.id AND n.rev > a.rev"));
+        assertFalse(label.contains("EXISTS"));
+        assertTrue(label.startsWith("WITH moved AS (DELETE FROM label_aud a WHERE a.rev BETWEEN :fromRev AND :toRev"));
+        assertTrue(label.endsWith("INSERT INTO label_aud_archive (\"id\", \"rev\", \"revtype\", \"statut\") "
+                + "SELECT \"id\", \"rev\", \"revtype\", \"statut\" FROM moved"));
+    }
+
+    @Test
+    void slices_cutRevisionsIntoAlignedPartitions() {
+        assertEquals(List.of(
+                        new PartitionSlice(new RevisionRange(0, 100), true),
+                        new PartitionSlice(new RevisionRange(100, 200), true),
+                        new PartitionSlice(new RevisionRange(200, 300), true)),
+                AuditArchiveService.slices(List.of(), 42, 250, 100));
+    }
+
+    @Test
+    void slices_keepBoundsOfExistingPartitionsWhenSizeChanged() {
+        // Partitions créées avec une taille de 100, archivage poursuivi avec une taille de 150
+        List<RevisionRange> existing = List.of(new RevisionRange(0, 100), new RevisionRange(100, 200),
+                new RevisionRange(400, 500));
+
+        assertEquals(List.of(
+                        new PartitionSlice(new RevisionRange(0, 100), false),
+                        new PartitionSlice(new RevisionRange(100, 200), false),
+                        new PartitionSlice(new RevisionRange(200, 300), true),
+                        new PartitionSlice(new RevisionRange(300, 400), true),
+                        new PartitionSlice(new RevisionRange(400, 500), false),
+                        new PartitionSlice(new RevisionRange(500, 600), true)),
+                AuditArchiveService.slices(existing, 10, 520, 150));
+    }
+}
@@ -0,0 +1,145 @@
+package fr.cnrs.opentypo.application.service;
+
+import fr.cnrs.opentypo.application.dto.EntityStatusEnum;
+import fr.cnrs.opentypo.application.dto.api.ChangeFeedDto;
+import fr.cnrs.opentypo.application.dto.api.EntityChangeDto;
+import fr.cnrs.opentypo.application.dto.api.EntityChangeOperation;
+import fr.cnrs.opentypo.domain.entity.Utilisateur;
+import fr.cnrs.opentypo.infrastructure.persistence.UtilisateurRepository;
+import fr.cnrs.opentypo.testsupport.UserTestFixtures;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Query;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.BitSet;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class ChangeFeedApiServiceTest {
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private Query query;
+
+    @Mock
+    private VisibilityService visibilityService;
+
+    @Mock
+    private UtilisateurRepository utilisateurRepository;
+
+    private ChangeFeedApiService service;
+
+    @BeforeEach
+    void setUp() {
+        service = new ChangeFeedApiService(visibilityService, utilisateurRepository, Duration.ofSeconds(10));
+        ReflectionTestUtils.setField(service, "entityManager", entityManager);
+        when(entityManager.createNativeQuery(anyString())).thenReturn(query);
+        when(query.setParameter(anyString(), any())).thenReturn(query);
+        when(query.setMaxResults(anyInt())).thenReturn(query);
+    }
+
+    @AfterEach
+    void clearSecurityContext() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void getChangesSince_servesUpToLastRevisionWhenNoneInFlight() {
+        when(query.getSingleResult()).thenReturn(100L, null);
+        when(query.getResultList()).thenReturn(List.of());
+
+        ChangeFeedDto feed = service.getChangesSince(40L, null);
+
+        verify(query).setParameter("settledRev", 100L);
+        assertEquals(40L, feed.highWaterMark());
+        assertFalse(feed.hasMore());
+    }
+
+    @Test
+    void getChangesSince_stopsBeforeRevisionsOfTransactionInFlight() {
+        when(query.getSingleResult()).thenReturn(100L, 1_000_000L, 95L);
+        when(query.getResultList()).thenReturn(List.of());
+
+        service.getChangesSince(40L, null);
+
+        verify(query).setParameter("startedBefore", 990_000L);
+        verify(query).setParameter("lastRev", 100L);
+        verify(query).setParameter("settledRev", 95L);
+    }
+
+    @Test
+    void getChangesSince_listsOnlyEntriesVisibleToCaller() {
+        Utilisateur user = authenticate(UserTestFixtures.utilisateurStandard());
+        when(query.getSingleResult()).thenReturn(100L, null);
+        when(query.getResultList()).thenReturn(
+                List.of(new Object[]{10L, 41L, 1}, new Object[]{11L, 41L, 1}, new Object[]{12L, 42L, 2}),
+                List.of(new Object[]{11L, EntityStatusEnum.PRIVEE.name()},
+                        new Object[]{12L, EntityStatusEnum.PUBLIQUE.name()}));
+        BitSet visible = new BitSet();
+        visible.set(0);
+        when(visibilityService.evaluate(List.of(10L, 11L, 12L), user)).thenReturn(visible);
+
+        ChangeFeedDto feed = service.getChangesSince(40L, null);
+
+        assertEquals(List.of(
+                new EntityChangeDto(10L, EntityChangeOperation.MOD, 41L),
+                new EntityChangeDto(12L, EntityChangeOperation.DEL, 42L)), feed.changes());
+        assertEquals(42L, feed.highWaterMark());
+        verify(query).setParameter("entityIds", List.of(11L, 12L));
+    }
+
+    @Test
+    void getChangesSince_reportsEntityNoLongerVisibleAsDeletion() {
+        Utilisateur user = authenticate(UserTestFixtures.utilisateurStandard());
+        when(query.getSingleResult()).thenReturn(100L, null);
+        // 20 : PUBLIQUE avant la page, repassée en privé ; 21 : créée puis masquée dans la page
+        when(query.getResultList()).thenReturn(
+                List.of(new Object[]{20L, 41L, 1}, new Object[]{21L, 42L, 0}),
+                List.<Object[]>of(new Object[]{20L, EntityStatusEnum.PUBLIQUE.name()}));
+        when(visibilityService.evaluate(List.of(20L, 21L), user)).thenReturn(new BitSet());
+
+        ChangeFeedDto feed = service.getChangesSince(40L, null);
+
+        assertEquals(List.of(new EntityChangeDto(20L, EntityChangeOperation.DEL, 41L)), feed.changes());
+        assertEquals(42L, feed.highWaterMark());
+    }
+
+    @Test
+    void getChangesSince_adminSeesEveryEntry() {
+        Utilisateur admin = authenticate(UserTestFixtures.adminTechnique());
+        when(visibilityService.isAdmin(admin)).thenReturn(true);
+        when(query.getSingleResult()).thenReturn(100L, null);
+        when(query.getResultList()).thenReturn(List.of(new Object[]{11L, 41L, 1}, new Object[]{13L, 43L, 2}));
+
+        ChangeFeedDto feed = service.getChangesSince(40L, null);
+
+        assertEquals(2, feed.changes().size());
+    }
+
+    private Utilisateur authenticate(Utilisateur user) {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken(user.getEmail(), null, List.of()));
+        when(utilisateurRepository.findByEmail(user.getEmail())).thenReturn(Optional.of(user));
+        return user;
+    }
+}
@@ -0,0 +1,76 @@
+package fr.cnrs.opentypo.application.service;
+
+import fr.cnrs.opentypo.application.dto.api.EntityResponseDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+class EntityDtoCacheTest {
+
+    @Test
+    void put_cachesOnlyPublishedEntitiesAndEvictsLeastRecentlyUsed() {
+        EntityDtoCache cache = new EntityDtoCache(2);
+        EntityResponseDto first = dto(1L, "PUBLIQUE");
+        cache.put(first, true, cache.generation());
+        cache.put(dto(2L, "PUBLIQUE"), true, cache.generation());
+        cache.put(dto(3L, "PRIVEE"), true, cache.generation());
+
+        assertSame(first, cache.get(1L, true));
+        assertNull(cache.get(1L, false));
+        assertNull(cache.get(3L, true));
+
+        cache.put(dto(4L, "PUBLIQUE"), true, cache.generation());
+        assertNull(cache.get(2L, true));
+
+        EntityDtoCache.Stats stats = cache.stats();
+        assertEquals(1, stats.hits());
+        assertEquals(3, stats.misses());
+        assertEquals(1, stats.evictions());
+        assertEquals(2, stats.size());
+    }
+
+    @Test
+    void invalidate_removesEntityAndRejectsDtoLoadedBefore() {
+        EntityDtoCache cache = new EntityDtoCache(10);
+        cache.put(dto(1L, "PUBLIQUE"), true, cache.generation());
+        cache.put(dto(2L, "PUBLIQUE"), true, cache.generation());
+        long beforeLoad = cache.generation();
+
+        cache.invalidate(List.of(1L));
+        cache.put(dto(1L, "PUBLIQUE"), true, beforeLoad);
+
+        assertNull(cache.get(1L, true));
+        assertEquals(2L, cache.get(2L, true).id());
+    }
+
+    @Test
+    void invalidateAllAfterCommit_clearsOnceAtTransactionEnd() {
+        EntityDtoCache cache = new EntityDtoCache(10);
+        cache.put(dto(1L, "PUBLIQUE"), true, cache.generation());
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            cache.invalidateAllAfterCommit();
+            cache.invalidateAllAfterCommit();
+
+            assertEquals(1L, cache.get(1L, true).id());
+            List<TransactionSynchronization> synchronizations = TransactionSynchronizationManager.getSynchronizations();
+            assertEquals(1, synchronizations.size());
+
+            synchronizations.get(0).afterCompletion(TransactionSynchronization.STATUS_COMMITTED);
+            assertNull(cache.get(1L, true));
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    private static EntityResponseDto dto(Long id, String statut) {
+        return new EntityResponseDto(id, "C" + id, "TYPE", statut, null, null, null, null, null, null, null,
+                null, null, null, null, null, null, List.of(), List.of(), List.of(), null, null, null);
+    }
+}
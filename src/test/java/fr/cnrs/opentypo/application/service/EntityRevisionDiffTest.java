@@ -0,0 +1,45 @@
+package fr.cnrs.opentypo.application.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+class EntityRevisionDiffTest {
+
+    @Test
+    void changedFields_splitsLabelsPerLanguageAndIgnoresIdAndEmptyValues() {
+        Map<String, Object> previous = new HashMap<>();
+        previous.put("id", 1L);
+        previous.put("code", "AMP-1");
+        previous.put("tpq", "");
+        previous.put("labels", Map.of("fr", "Amphore", "en", "Amphora"));
+        Map<String, Object> current = new HashMap<>();
+        current.put("id", 1L);
+        current.put("code", "AMP-2");
+        current.put("tpq", null);
+        current.put("labels", Map.of("fr", "Amphore"));
+
+        Map<String, Map<String, Object>> changes = EntityRevisionDiff.changedFields(current, previous);
+
+        assertEquals(Set.of("code", "labels.en"), changes.keySet());
+        assertEquals("AMP-1", changes.get("code").get("old"));
+        assertEquals("Amphora", changes.get("labels.en").get("old"));
+        assertNull(changes.get("labels.en").get("new"));
+    }
+
+    @Test
+    void changedFields_reportsEveryFilledFieldOfTheFirstRevision() {
+        Map<String, Object> current = new HashMap<>();
+        current.put("id", 1L);
+        current.put("code", "AMP-1");
+        current.put("commentaireDatation", " ");
+
+        assertEquals(Set.of("code"), EntityRevisionDiff.changedFields(current, null).keySet());
+        assertEquals(Map.of(), EntityRevisionDiff.changedFields(null, current));
+    }
+}
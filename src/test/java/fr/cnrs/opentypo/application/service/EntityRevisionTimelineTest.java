@@ -0,0 +1,82 @@
+package fr.cnrs.opentypo.application.service;
+
+import fr.cnrs.opentypo.application.service.EntityRevisionTimeline.AuditTable;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class EntityRevisionTimelineTest {
+
+    private static final long ENTITY_ID = 10L;
+
+    @Test
+    void snapshot_replaysLabelsAndReferencesCumulativelyAndDropsDeletedRows() {
+        EntityRevisionTimeline timeline = new EntityRevisionTimeline(ENTITY_ID, Map.of(
+                AuditTable.ENTITY, List.of(
+                        new Object[]{1L, 0, "PROPOSITION", null, 1, null},
+                        new Object[]{3L, 1, "PUBLIQUE", null, 1, 50L}),
+                AuditTable.LABEL, List.of(
+                        new Object[]{1L, 0, "fr", "Amphore"},
+                        new Object[]{2L, 0, "en", "Amphora"},
+                        new Object[]{3L, 2, "en", "Amphora"}),
+                AuditTable.REFERENCE_OPENTHESO, List.of(
+                        new Object[]{1L, 0, 21L, ENTITY_ID, "AIRE_CIRCULATION", "Gaule"},
+                        new Object[]{1L, 0, 20L, ENTITY_ID, "AIRE_CIRCULATION", " Italie "},
+                        new Object[]{2L, 2, 21L, ENTITY_ID, "AIRE_CIRCULATION", "Gaule"},
+                        new Object[]{2L, 0, 50L, 99L, "CATEGORIE_FONCTIONNELLE", "Vaisselle"})));
+
+        timeline.advanceTo(1L);
+        Map<String, Object> first = timeline.snapshot();
+        assertEquals(0, timeline.entityRevisionType());
+        assertEquals(Map.of("fr", "Amphore"), first.get("labels"));
+        assertEquals(List.of("Italie", "Gaule"), first.get("airesCirculation"));
+
+        timeline.advanceTo(2L);
+        Map<String, Object> second = timeline.snapshot();
+        assertNull(timeline.entityRevisionType());
+        assertEquals(Map.of("fr", "Amphore", "en", "Amphora"), second.get("labels"));
+        assertEquals(List.of("Italie"), second.get("airesCirculation"));
+        assertEquals("PROPOSITION", second.get("statut"));
+
+        timeline.advanceTo(3L);
+        Map<String, Object> third = timeline.snapshot();
+        assertEquals(Map.of("fr", "Amphore"), third.get("labels"));
+        assertEquals("PUBLIQUE", third.get("statut"));
+        assertEquals("Vaisselle", third.get("categorieFonctionnelle"));
+    }
+
+    @Test
+    void snapshot_keepsLastLiveRowAfterEntityDeletion() {
+        EntityRevisionTimeline timeline = new EntityRevisionTimeline(ENTITY_ID, Map.of(
+                AuditTable.ENTITY, List.of(
+                        new Object[]{1L, 0, "PUBLIQUE", "ark:/1", 2, null},
+                        new Object[]{4L, 2, "PUBLIQUE", "ark:/1", 2, null})));
+
+        timeline.advanceTo(1L);
+        assertTrue(timeline.entityExists());
+        assertEquals(ENTITY_ID, timeline.snapshot().get("id"));
+
+        timeline.advanceTo(4L);
+        Map<String, Object> deleted = timeline.snapshot();
+        assertFalse(timeline.entityExists());
+        assertEquals(2, timeline.entityRevisionType());
+        assertNull(deleted.get("id"));
+        assertEquals("ark:/1", deleted.get("idArk"));
+    }
+
+    @Test
+    void referencedOpenthesoIds_collectsReferenceColumnsOfEntityAndCharacteristics() {
+        List<Long> ids = EntityRevisionTimeline.referencedOpenthesoIds(
+                List.<Object[]>of(new Object[]{1L, 0, "PUBLIQUE", null, 1, 7L}),
+                List.<Object[]>of(new Object[]{1L, 0, 8L, null, 9L, null, 7L}),
+                List.<Object[]>of(new Object[]{2L, 1, 11L, null, "12 g", 12L, null}));
+
+        assertEquals(List.of(7L, 8L, 9L, 11L, 12L), ids);
+    }
+}
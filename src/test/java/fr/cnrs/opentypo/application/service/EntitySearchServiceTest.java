@@ -0,0 +1,129 @@
+package fr.cnrs.opentypo.application.service;
+
+import fr.cnrs.opentypo.application.dto.EntitySearchCriteria;
+import fr.cnrs.opentypo.domain.entity.Entity;
+import fr.cnrs.opentypo.domain.entity.EntityType;
+import fr.cnrs.opentypo.domain.entity.Label;
+import fr.cnrs.opentypo.domain.entity.Langue;
+import fr.cnrs.opentypo.infrastructure.persistence.EntityRepository;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.DatabaseMetaData;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EntitySearchServiceTest {
+
+    @Mock
+    private EntityRepository entityRepository;
+
+    @Mock
+    private EntityStatusCascadeService entityStatusCascadeService;
+
+    @Mock
+    private DataSource dataSource;
+
+    @InjectMocks
+    private EntitySearchService entitySearchService;
+
+    private void useH2() throws SQLException {
+        Connection connection = mock(Connection.class);
+        DatabaseMetaData metaData = mock(DatabaseMetaData.class);
+        when(metaData.getDatabaseProductName()).thenReturn("H2");
+        when(connection.getMetaData()).thenReturn(metaData);
+        when(dataSource.getConnection()).thenReturn(connection);
+    }
+
+    @Test
+    void searchIds_fallbackRanksExactThenPrefixThenSubstring() throws SQLException {
+        useH2();
+        when(entityRepository.searchByCodeOrLabelContains("amph", "fr")).thenReturn(List.of(
+                entity(1L, "X-AMPH", "PUBLIQUE", "Vase"),
+                entity(2L, "B-1", "PUBLIQUE", "Amphore gauloise"),
+                entity(3L, "AMPH", "PUBLIQUE", null),
+                entity(4L, "AMPH-2", "PRIVEE", null)));
+
+        List<Long> ids = entitySearchService.searchIds(criteria(EntitySearchCriteria.Field.ANY, null, 10));
+
+        assertEquals(List.of(3L, 4L, 2L, 1L), ids);
+    }
+
+    @Test
+    void searchIds_fallbackAppliesFieldStatutAndLimit() throws SQLException {
+        useH2();
+        when(entityRepository.searchByCodeOrLabelContains("amph", "fr")).thenReturn(List.of(
+                entity(1L, "AMPH", "PUBLIQUE", "Vase"),
+                entity(2L, "B-1", "PUBLIQUE", "Amphore"),
+                entity(3L, "B-2", "PRIVEE", "Amphorette")));
+
+        assertEquals(List.of(3L, 2L), entitySearchService.searchIds(criteria(EntitySearchCriteria.Field.LABEL, null, 10)));
+        assertEquals(List.of(2L), entitySearchService.searchIds(criteria(EntitySearchCriteria.Field.LABEL, "PUBLIQUE", 10)));
+        assertEquals(List.of(1L), entitySearchService.searchIds(criteria(EntitySearchCriteria.Field.CODE, null, 1)));
+    }
+
+    @Test
+    void searchIds_fallbackAppliesTypeScopeAndOrderBeforeLimit() throws SQLException {
+        useH2();
+        when(entityRepository.searchByCodeOrLabelContains("amph", "fr")).thenReturn(List.of(
+                entity(1L, "AMPH-C", "PUBLIQUE", null, "TYPE"),
+                entity(2L, "AMPH", "PUBLIQUE", null, "SERIE"),
+                entity(3L, "AMPH-A", "PUBLIQUE", null, "TYPE"),
+                entity(4L, "AMPH-B", "PUBLIQUE", null, "TYPE")));
+        when(entityStatusCascadeService.collectSelfAndDescendantIds(9L)).thenReturn(Set.of(9L, 1L, 2L, 3L));
+
+        assertEquals(List.of(3L, 1L), entitySearchService.searchIds(new EntitySearchCriteria(
+                "amph", EntitySearchCriteria.Field.ANY, EntitySearchCriteria.MatchMode.CONTAINS, "fr",
+                9L, null, "TYPE", EntitySearchCriteria.Order.CODE_ASC, 10)));
+        assertEquals(List.of(1L), entitySearchService.searchIds(new EntitySearchCriteria(
+                "amph", EntitySearchCriteria.Field.ANY, EntitySearchCriteria.MatchMode.CONTAINS, "fr",
+                null, null, "TYPE", EntitySearchCriteria.Order.CODE_DESC, 1)));
+    }
+
+    @Test
+    void searchIds_blankTermRunsNoQuery() {
+        assertTrue(entitySearchService.searchIds(new EntitySearchCriteria(
+                "  ", EntitySearchCriteria.Field.ANY, EntitySearchCriteria.MatchMode.CONTAINS, "fr", null, null, 10)).isEmpty());
+        verifyNoInteractions(entityRepository, dataSource);
+    }
+
+    private static EntitySearchCriteria criteria(EntitySearchCriteria.Field field, String statut, int limit) {
+        return new EntitySearchCriteria("amph", field, EntitySearchCriteria.MatchMode.CONTAINS, "fr", null, statut, limit);
+    }
+
+    private static Entity entity(Long id, String code, String statut, String labelFr) {
+        return entity(id, code, statut, labelFr, "TYPE");
+    }
+
+    private static Entity entity(Long id, String code, String statut, String labelFr, String typeCode) {
+        EntityType type = new EntityType();
+        type.setCode(typeCode);
+        Entity entity = new Entity();
+        entity.setEntityType(type);
+        entity.setId(id);
+        entity.setCode(code);
+        entity.setStatut(statut);
+        if (labelFr != null) {
+            Langue langue = new Langue();
+            langue.setCode("fr");
+            Label label = new Label();
+            label.setNom(labelFr);
+            label.setLangue(langue);
+            entity.getLabels().add(label);
+        }
+        return entity;
+    }
+}
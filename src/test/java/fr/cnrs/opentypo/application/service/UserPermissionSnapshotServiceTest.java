@@ -0,0 +1,122 @@
+package fr.cnrs.opentypo.application.service;
+
+import fr.cnrs.opentypo.application.dto.PermissionRoleEnum;
+import fr.cnrs.opentypo.infrastructure.persistence.UserPermissionRepository;
+import fr.cnrs.opentypo.infrastructure.persistence.UtilisateurRepository;
+import fr.cnrs.opentypo.testsupport.UserTestFixtures;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class UserPermissionSnapshotServiceTest {
+
+    private static final Long USER_ID = 7L;
+
+    @Mock
+    private UserPermissionRepository userPermissionRepository;
+
+    @Mock
+    private UtilisateurRepository utilisateurRepository;
+
+    @InjectMocks
+    private UserPermissionSnapshotService userPermissionSnapshotService;
+
+    @BeforeEach
+    void bindRequest() {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.getSession(true);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+    }
+
+    @AfterEach
+    void unbindRequest() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void hasRole_answersAllChecksFromOneLoad() {
+        when(utilisateurRepository.findByIdWithGroupe(USER_ID)).thenReturn(Optional.empty());
+        when(userPermissionRepository.findEntityIdAndRoleByUserId(USER_ID)).thenReturn(rows(
+                new Object[]{20L, PermissionRoleEnum.REDACTEUR.getLabel()},
+                new Object[]{10L, PermissionRoleEnum.GESTIONNAIRE_REFERENTIEL.getLabel()}));
+
+        assertTrue(userPermissionSnapshotService.hasRole(USER_ID, 10L, PermissionRoleEnum.GESTIONNAIRE_REFERENTIEL.getLabel()));
+        assertFalse(userPermissionSnapshotService.hasRole(USER_ID, 10L, PermissionRoleEnum.REDACTEUR.getLabel()));
+        assertTrue(userPermissionSnapshotService.hasRole(USER_ID, 20L, PermissionRoleEnum.REDACTEUR.getLabel()));
+        assertTrue(userPermissionSnapshotService.hasAnyRole(USER_ID, 20L));
+        assertFalse(userPermissionSnapshotService.hasAnyRole(USER_ID, 30L));
+        assertFalse(userPermissionSnapshotService.isAdministrateur(USER_ID));
+
+        verify(userPermissionRepository, times(1)).findEntityIdAndRoleByUserId(USER_ID);
+    }
+
+    @Test
+    void invalidate_reloadsSnapshotOnNextCheck() {
+        when(utilisateurRepository.findByIdWithGroupe(USER_ID))
+                .thenReturn(Optional.of(UserTestFixtures.adminTechnique()));
+        when(userPermissionRepository.findEntityIdAndRoleByUserId(USER_ID))
+                .thenReturn(rows())
+                .thenReturn(rows(new Object[]{10L, PermissionRoleEnum.VALIDEUR.getLabel()}));
+
+        assertTrue(userPermissionSnapshotService.isAdministrateur(USER_ID));
+        assertFalse(userPermissionSnapshotService.hasRole(USER_ID, 10L, PermissionRoleEnum.VALIDEUR.getLabel()));
+        userPermissionSnapshotService.invalidate();
+        assertTrue(userPermissionSnapshotService.hasRole(USER_ID, 10L, PermissionRoleEnum.VALIDEUR.getLabel()));
+
+        verify(userPermissionRepository, times(2)).findEntityIdAndRoleByUserId(USER_ID);
+    }
+
+    @Test
+    void invalidate_inTransactionWaitsForCommit() {
+        when(utilisateurRepository.findByIdWithGroupe(USER_ID)).thenReturn(Optional.empty());
+        when(userPermissionRepository.findEntityIdAndRoleByUserId(USER_ID))
+                .thenReturn(rows())
+                .thenReturn(rows(new Object[]{10L, PermissionRoleEnum.VALIDEUR.getLabel()}));
+
+        assertFalse(userPermissionSnapshotService.hasAnyRole(USER_ID, 10L));
+        TransactionSynchronizationManager.initSynchronization();
+        try {
+            userPermissionSnapshotService.invalidate();
+            assertFalse(userPermissionSnapshotService.hasAnyRole(USER_ID, 10L));
+            verify(userPermissionRepository, times(1)).findEntityIdAndRoleByUserId(USER_ID);
+
+            TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        } finally {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+        assertTrue(userPermissionSnapshotService.hasAnyRole(USER_ID, 10L));
+
+        verify(userPermissionRepository, times(2)).findEntityIdAndRoleByUserId(USER_ID);
+    }
+
+    @Test
+    void snapshotFor_anonymousIsEmptyWithoutQueries() {
+        assertFalse(userPermissionSnapshotService.hasAnyRole(null, 10L));
+        verifyNoInteractions(userPermissionRepository, utilisateurRepository);
+    }
+
+    private static List<Object[]> rows(Object[]... rows) {
+        return new ArrayList<>(List.of(rows));
+    }
+}
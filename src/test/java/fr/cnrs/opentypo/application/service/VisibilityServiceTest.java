@@ -0,0 +1,121 @@
+package fr.cnrs.opentypo.application.service;
+
+import fr.cnrs.opentypo.application.dto.EntityStatusEnum;
+import fr.cnrs.opentypo.common.constant.EntityConstants;
+import fr.cnrs.opentypo.domain.entity.Entity;
+import fr.cnrs.opentypo.domain.entity.EntityType;
+import fr.cnrs.opentypo.domain.entity.Utilisateur;
+import fr.cnrs.opentypo.infrastructure.persistence.EntityRepository;
+import fr.cnrs.opentypo.infrastructure.persistence.UserPermissionRepository;
+import fr.cnrs.opentypo.testsupport.UserTestFixtures;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class VisibilityServiceTest {
+
+    @Mock
+    private EntityRepository entityRepository;
+
+    @Mock
+    private UserPermissionRepository userPermissionRepository;
+
+    @InjectMocks
+    private VisibilityService visibilityService;
+
+    @Test
+    void evaluate_anonymousSeesOnlyPublishedEntities() {
+        when(entityRepository.findStatutAndTypeCodeByIds(anyCollection())).thenReturn(rows(
+                new Object[]{10L, EntityStatusEnum.PUBLIQUE.name(), EntityConstants.ENTITY_TYPE_TYPE},
+                new Object[]{11L, EntityStatusEnum.PRIVEE.name(), EntityConstants.ENTITY_TYPE_TYPE},
+                new Object[]{12L, EntityStatusEnum.REFUSE.name(), EntityConstants.ENTITY_TYPE_TYPE}));
+
+        BitSet visible = visibilityService.evaluate(List.of(10L, 11L, 12L, 99L), null);
+
+        assertTrue(visible.get(0));
+        assertFalse(visible.get(1));
+        assertFalse(visible.get(2));
+        assertFalse(visible.get(3));
+        verifyNoInteractions(userPermissionRepository);
+    }
+
+    @Test
+    void evaluate_authenticatedUserSeesPublicAndAllowedCollectionsInConstantQueries() {
+        Utilisateur user = UserTestFixtures.utilisateurStandard();
+        when(entityRepository.findStatutAndTypeCodeByIds(anyCollection())).thenReturn(rows(
+                new Object[]{10L, EntityStatusEnum.PRIVEE.name(), EntityConstants.ENTITY_TYPE_TYPE},
+                new Object[]{11L, EntityStatusEnum.PRIVEE.name(), EntityConstants.ENTITY_TYPE_TYPE},
+                new Object[]{12L, EntityStatusEnum.PRIVEE.name(), EntityConstants.ENTITY_TYPE_TYPE},
+                new Object[]{13L, EntityStatusEnum.PRIVEE.name(), EntityConstants.ENTITY_TYPE_COLLECTION}));
+        when(entityRepository.findCollectionAncestorsByIds(anyCollection())).thenReturn(rows(
+                new Object[]{10L, 1L, EntityStatusEnum.PUBLIQUE.name()},
+                new Object[]{11L, 2L, EntityStatusEnum.PRIVEE.name()},
+                new Object[]{12L, 3L, EntityStatusEnum.PRIVEE.name()}));
+        when(userPermissionRepository.findEntityIdsByUserIdAndEntityTypeCode(
+                user.getId(), EntityConstants.ENTITY_TYPE_COLLECTION)).thenReturn(List.of(2L));
+
+        BitSet visible = visibilityService.evaluate(List.of(10L, 11L, 12L, 13L), user);
+
+        assertTrue(visible.get(0));
+        assertTrue(visible.get(1));
+        assertFalse(visible.get(2));
+        assertTrue(visible.get(3));
+        verify(entityRepository, times(1)).findCollectionAncestorsByIds(anyCollection());
+        verify(userPermissionRepository, times(1))
+                .findEntityIdsByUserIdAndEntityTypeCode(user.getId(), EntityConstants.ENTITY_TYPE_COLLECTION);
+    }
+
+    @Test
+    void predicate_prefetchResolvesAllEntitiesWithOneAncestorQuery() {
+        Utilisateur user = UserTestFixtures.utilisateurStandard();
+        Entity first = entity(10L, EntityStatusEnum.PRIVEE.name());
+        Entity second = entity(11L, EntityStatusEnum.PRIVEE.name());
+        when(entityRepository.findCollectionAncestorsByIds(anyCollection())).thenReturn(rows(
+                new Object[]{10L, 1L, EntityStatusEnum.PUBLIQUE.name()}));
+
+        VisibilityService.VisibilityPredicate predicate =
+                visibilityService.newPredicate(user).prefetch(List.of(first, second));
+        List<Entity> visible = List.of(first, second).stream().filter(predicate).toList();
+
+        assertEquals(List.of(first), visible);
+        verify(entityRepository, times(1)).findCollectionAncestorsByIds(anyCollection());
+    }
+
+    @Test
+    void predicate_adminSeesEverythingWithoutQueries() {
+        Entity refused = entity(10L, EntityStatusEnum.REFUSE.name());
+
+        assertTrue(visibilityService.newPredicate(UserTestFixtures.adminTechnique()).test(refused));
+        verifyNoInteractions(entityRepository, userPermissionRepository);
+    }
+
+    private static List<Object[]> rows(Object[]... rows) {
+        return new ArrayList<>(List.of(rows));
+    }
+
+    private static Entity entity(Long id, String statut) {
+        EntityType type = new EntityType();
+        type.setCode(EntityConstants.ENTITY_TYPE_TYPE);
+        Entity entity = new Entity();
+        entity.setId(id);
+        entity.setStatut(statut);
+        entity.setEntityType(type);
+        return entity;
+    }
+}
@@ -0,0 +1,92 @@
+package fr.cnrs.opentypo.infrastructure.listener;
+
+import fr.cnrs.opentypo.application.service.EntityDtoCache;
+import fr.cnrs.opentypo.domain.entity.ImportJob;
+import fr.cnrs.opentypo.domain.entity.Label;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.repository.core.RepositoryInformation;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.data.repository.core.support.RepositoryFactoryCustomizer;
+import org.springframework.data.repository.core.support.RepositoryFactorySupport;
+import org.springframework.data.repository.core.support.RepositoryProxyPostProcessor;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class EntityDtoCacheBulkModificationInvalidatorTest {
+
+    @Mock
+    private ObjectProvider<EntityDtoCache> entityDtoCacheProvider;
+
+    @Mock
+    private EntityDtoCache entityDtoCache;
+
+    interface SampleRepository {
+        @Modifying
+        void deleteByEntityId(Long entityId);
+
+        long countByEntityId(Long entityId);
+    }
+
+    @Test
+    void modifyingQuery_invalidatesCacheAfterCommit() {
+        when(entityDtoCacheProvider.getObject()).thenReturn(entityDtoCache);
+        SampleRepository repository = proxy(Label.class);
+
+        assertEquals(3L, repository.countByEntityId(1L));
+        verify(entityDtoCache, never()).invalidateAllAfterCommit();
+
+        repository.deleteByEntityId(1L);
+        verify(entityDtoCache).invalidateAllAfterCommit();
+    }
+
+    @Test
+    void ignoredDomainType_leavesCacheUntouched() {
+        SampleRepository repository = proxy(ImportJob.class);
+
+        repository.deleteByEntityId(1L);
+
+        verify(entityDtoCacheProvider, never()).getObject();
+    }
+
+    @SuppressWarnings({"rawtypes", "unchecked"})
+    private SampleRepository proxy(Class<?> domainType) {
+        RepositoryFactoryBeanSupport factoryBean = mock(RepositoryFactoryBeanSupport.class);
+        new EntityDtoCacheBulkModificationInvalidator(entityDtoCacheProvider)
+                .postProcessBeforeInitialization(factoryBean, "sampleRepository");
+        ArgumentCaptor<RepositoryFactoryCustomizer> customizer = ArgumentCaptor.forClass(RepositoryFactoryCustomizer.class);
+        verify(factoryBean).addRepositoryFactoryCustomizer(customizer.capture());
+
+        RepositoryFactorySupport factory = mock(RepositoryFactorySupport.class);
+        customizer.getValue().customize(factory);
+        ArgumentCaptor<RepositoryProxyPostProcessor> postProcessor = ArgumentCaptor.forClass(RepositoryProxyPostProcessor.class);
+        verify(factory).addRepositoryProxyPostProcessor(postProcessor.capture());
+
+        RepositoryInformation information = mock(RepositoryInformation.class);
+        when(information.getDomainType()).thenReturn((Class) domainType);
+        ProxyFactory proxyFactory = new ProxyFactory(new SampleRepository() {
+            @Override
+            public void deleteByEntityId(Long entityId) {
+            }
+
+            @Override
+            public long countByEntityId(Long entityId) {
+                return 3L;
+            }
+        });
+        proxyFactory.addInterface(SampleRepository.class);
+        postProcessor.getValue().postProcess(proxyFactory, information);
+        return (SampleRepository) proxyFactory.getProxy();
+    }
+}
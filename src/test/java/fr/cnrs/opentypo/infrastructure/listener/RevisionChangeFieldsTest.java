@@ -0,0 +1,134 @@
+package fr.cnrs.opentypo.infrastructure.listener;
+
+import fr.cnrs.opentypo.application.service.EntityRevisionDiff;
+import fr.cnrs.opentypo.application.service.EntityRevisionTimeline;
+import fr.cnrs.opentypo.application.service.EntityRevisionTimeline.AuditTable;
+import fr.cnrs.opentypo.domain.entity.CaracteristiquePhysiqueMonnaie;
+import fr.cnrs.opentypo.domain.entity.DescriptionDetail;
+import fr.cnrs.opentypo.domain.entity.DescriptionPate;
+import fr.cnrs.opentypo.domain.entity.Entity;
+import fr.cnrs.opentypo.domain.entity.EntityMetadata;
+import fr.cnrs.opentypo.domain.entity.Label;
+import fr.cnrs.opentypo.domain.entity.Langue;
+import fr.cnrs.opentypo.domain.entity.ReferenceOpentheso;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RevisionChangeFieldsTest {
+
+    private static final String[] REFERENCE = {"code", "valeur", "entity"};
+
+    @Test
+    void changedFields_mapsWritesToHistoryKeysAndIgnoresRewrittenRows() {
+        Entity entity = entity(7L);
+        RevisionChangeFields fields = new RevisionChangeFields();
+
+        fields.updated(new EntityMetadata(), new String[]{"code", "commentaire", "tpq", "entity"},
+                new Object[]{"AMP-1", "ancien", 10, entity}, new Object[]{"AMP-1", "texte", 10, entity}, new int[]{1, 2});
+        fields.inserted(new Label(), new String[]{"nom", "entity", "langue"}, new Object[]{"Amphore", entity, langue("fr")});
+        fields.updated(new CaracteristiquePhysiqueMonnaie(), new String[]{"entity", "metrologie", "valeur"},
+                new Object[]{entity, null, null}, new Object[]{entity, "12 g", null}, null);
+        // Réécriture d'une aire à l'identique et remplacement d'une autre
+        fields.deleted(new ReferenceOpentheso(), REFERENCE, new Object[]{"AIRE_CIRCULATION", "Gaule", entity});
+        fields.inserted(new ReferenceOpentheso(), REFERENCE, new Object[]{"AIRE_CIRCULATION", " Gaule ", entity});
+        fields.deleted(new ReferenceOpentheso(), REFERENCE, new Object[]{"FONCTION_USAGE", "Stockage", entity});
+        fields.inserted(new ReferenceOpentheso(), REFERENCE, new Object[]{"FONCTION_USAGE", "Transport", entity});
+
+        assertEquals(Map.of(7L, Set.of("commentaireMetadata", "labels.fr", "metrologieMonnaie", "fonctionUsage")),
+                fields.changedFields());
+    }
+
+    @Test
+    void changedFields_keepsOnlyHistoryPropertiesOfANewEntityAndGroupsItsLabels() {
+        Entity entity = entity(3L);
+        RevisionChangeFields fields = new RevisionChangeFields();
+
+        fields.inserted(entity, new String[]{"statut", "createBy", "labels", "metadata", "idArk"},
+                new Object[]{"PUBLIQUE", "admin", new ArrayList<>(), new EntityMetadata(), ""});
+        fields.inserted(new Label(), new String[]{"nom", "entity", "langue"}, new Object[]{"Amphora", entity, langue("en")});
+
+        assertEquals(Map.of(3L, Set.of("statut", "labels")), fields.changedFields());
+        assertEquals("inclusionPate", RevisionChangeFields.referenceKey("INCLUSIONS"));
+    }
+
+    @Test
+    void changedFields_matchHistoryDiffOfTheSameEdit() {
+        Entity entity = entity(7L);
+        RevisionChangeFields fields = new RevisionChangeFields();
+
+        // Révision 2 : écritures Hibernate de la transaction…
+        fields.updated(entity, new String[]{"statut", "idArk", "createBy"},
+                new Object[]{"PROPOSITION", null, "admin"}, new Object[]{"PUBLIQUE", null, "editeur"}, null);
+        fields.updated(new EntityMetadata(), new String[]{"code", "commentaire", "tpq", "entity"},
+                new Object[]{"AMP-1", "ancien", 10, entity}, new Object[]{"AMP-1", "texte", 10, entity}, new int[]{1});
+        fields.inserted(new Label(), new String[]{"nom", "entity", "langue"}, new Object[]{"Amphore", entity, langue("fr")});
+        fields.updated(new DescriptionDetail(), new String[]{"entity", "decors", "metrologie"},
+                new Object[]{entity, null, null}, new Object[]{entity, null, "12 cm"}, null);
+        fields.inserted(new DescriptionPate(), new String[]{"entity", "description"}, new Object[]{entity, "Pâte fine"});
+        fields.updated(new CaracteristiquePhysiqueMonnaie(), new String[]{"entity", "metrologie", "valeur"},
+                new Object[]{entity, null, null}, new Object[]{entity, "12 g", null}, null);
+        fields.deleted(new ReferenceOpentheso(), REFERENCE, new Object[]{"AIRE_CIRCULATION", "Gaule", entity});
+        fields.inserted(new ReferenceOpentheso(), REFERENCE, new Object[]{"AIRE_CIRCULATION", " Gaule ", entity});
+        fields.deleted(new ReferenceOpentheso(), REFERENCE, new Object[]{"FONCTION_USAGE", "Stockage", entity});
+        fields.inserted(new ReferenceOpentheso(), REFERENCE, new Object[]{"FONCTION_USAGE", "Transport", entity});
+
+        // … et lignes d'audit correspondantes, rejouées par l'historique
+        Object[] metadataBefore = new Object[22];
+        metadataBefore[0] = 1L;
+        metadataBefore[2] = "AMP-1";
+        metadataBefore[3] = "ancien";
+        metadataBefore[8] = 10;
+        Object[] metadataAfter = metadataBefore.clone();
+        metadataAfter[0] = 2L;
+        metadataAfter[1] = 1;
+        metadataAfter[3] = "texte";
+        EntityRevisionTimeline timeline = new EntityRevisionTimeline(7L, Map.of(
+                AuditTable.ENTITY, List.of(
+                        new Object[]{1L, 0, "PROPOSITION", null, null, null},
+                        new Object[]{2L, 1, "PUBLIQUE", null, null, null}),
+                AuditTable.METADATA, List.of(metadataBefore, metadataAfter),
+                AuditTable.LABEL, List.of(
+                        new Object[]{1L, 0, "en", "Amphora"},
+                        new Object[]{2L, 0, "fr", "Amphore"}),
+                AuditTable.DESCRIPTION_DETAIL, List.of(
+                        new Object[]{1L, 0, null, null, null},
+                        new Object[]{2L, 1, null, null, "12 cm"}),
+                AuditTable.DESCRIPTION_PATE, List.<Object[]>of(new Object[]{2L, 0, "Pâte fine"}),
+                AuditTable.CARACTERISTIQUE_PHYSIQUE_MONNAIE, List.of(
+                        new Object[]{1L, 0, null, null, null, null, null},
+                        new Object[]{2L, 1, null, null, "12 g", null, null}),
+                AuditTable.REFERENCE_OPENTHESO, List.of(
+                        new Object[]{1L, 0, 21L, 7L, "AIRE_CIRCULATION", "Gaule"},
+                        new Object[]{1L, 0, 22L, 7L, "FONCTION_USAGE", "Stockage"},
+                        new Object[]{2L, 2, 21L, 7L, "AIRE_CIRCULATION", "Gaule"},
+                        new Object[]{2L, 0, 23L, 7L, "AIRE_CIRCULATION", " Gaule "},
+                        new Object[]{2L, 2, 22L, 7L, "FONCTION_USAGE", "Stockage"},
+                        new Object[]{2L, 0, 24L, 7L, "FONCTION_USAGE", "Transport"})));
+        timeline.advanceTo(1L);
+        Map<String, Object> before = timeline.snapshot();
+        timeline.advanceTo(2L);
+        Map<String, Object> after = timeline.snapshot();
+
+        assertEquals(EntityRevisionDiff.changedFields(after, before).keySet(), fields.changedFields().get(7L));
+        assertEquals(Set.of("statut", "commentaireMetadata", "labels.fr", "metrologieDetail", "descriptionPate",
+                "metrologieMonnaie", "fonctionUsage"), fields.changedFields().get(7L));
+    }
+
+    private static Entity entity(long id) {
+        Entity entity = new Entity();
+        entity.setId(id);
+        return entity;
+    }
+
+    private static Langue langue(String code) {
+        Langue langue = new Langue();
+        langue.setCode(code);
+        return langue;
+    }
+}
@@ -0,0 +1,133 @@
+package fr.cnrs.opentypo.infrastructure.persistence;
+
+import fr.cnrs.opentypo.common.constant.EntityConstants;
+import org.hibernate.id.IdentifierGeneratorHelper;
+import org.hibernate.id.IntegralDataTypeHolder;
+import org.hibernate.id.enhanced.AccessCallback;
+import org.hibernate.id.enhanced.PooledOptimizer;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.ClassPathResource;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.postgresql.PostgreSQLContainer;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * V71 sur une vraie base PostgreSQL : après la migration, les identifiants distribués par
+ * l'optimiseur « pooled » d'Hibernate ne doivent jamais reprendre ceux des lignes existantes.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class BulkImportIdSequenceMigrationTest {
+
+    @Container
+    private static final PostgreSQLContainer POSTGRES = new PostgreSQLContainer("postgres:16-alpine");
+
+    @Test
+    void pooledIdsAfterMigration_continueAboveExistingRows() throws Exception {
+        try (Connection connection = connect()) {
+            execute(connection, "DROP TABLE IF EXISTS label, \"reference-opentheso\" CASCADE");
+            execute(connection, "CREATE TABLE label (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, nom TEXT)");
+            execute(connection, "CREATE TABLE \"reference-opentheso\" "
+                    + "(id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, nom TEXT)");
+            execute(connection, "INSERT INTO label (nom) SELECT 'existant-' || g FROM generate_series(1, 120) g");
+            execute(connection, "INSERT INTO \"reference-opentheso\" (nom) SELECT 'existant-' || g FROM generate_series(1, 7) g");
+
+            migrate(connection);
+
+            assertEquals(121L, insertWithPooledIds(connection, "label", 60));
+            assertEquals(8L, insertWithPooledIds(connection, "\"reference-opentheso\"", 60));
+            assertEquals(180L, count(connection, "label"));
+        }
+    }
+
+    @Test
+    void pooledIdsOnEmptyTable_startAtOne() throws Exception {
+        try (Connection connection = connect()) {
+            execute(connection, "DROP TABLE IF EXISTS label CASCADE");
+            execute(connection, "CREATE TABLE label (id BIGINT GENERATED BY DEFAULT AS IDENTITY PRIMARY KEY, nom TEXT)");
+
+            migrate(connection);
+
+            assertEquals(1L, insertWithPooledIds(connection, "label", 3));
+        }
+    }
+
+    private static Connection connect() throws SQLException {
+        return DriverManager.getConnection(POSTGRES.getJdbcUrl(), POSTGRES.getUsername(), POSTGRES.getPassword());
+    }
+
+    private static void migrate(Connection connection) throws IOException, SQLException {
+        execute(connection, script("V71__Set_id_sequence_increment_for_bulk_import.sql"));
+    }
+
+    /**
+     * Insère {@code rows} lignes avec des identifiants tirés comme le fait Hibernate
+     * ({@code @SequenceGenerator} : pas de {@link EntityConstants#ID_ALLOCATION_SIZE}, valeur initiale 1).
+     * Retourne le premier identifiant distribué.
+     */
+    private static long insertWithPooledIds(Connection connection, String table, int rows) throws SQLException {
+        String sequence = table.startsWith("\"")
+                ? table.substring(0, table.length() - 1) + "_id_seq\""
+                : table + "_id_seq";
+        PooledOptimizer optimizer = new PooledOptimizer(Long.class, EntityConstants.ID_ALLOCATION_SIZE);
+        optimizer.injectInitialValue(1);
+        AccessCallback callback = new AccessCallback() {
+            @Override
+            public IntegralDataTypeHolder getNextValue() {
+                try (Statement statement = connection.createStatement();
+                     ResultSet rs = statement.executeQuery("SELECT nextval('" + sequence.replace("'", "''") + "')")) {
+                    rs.next();
+                    return IdentifierGeneratorHelper.getIntegralDataTypeHolder(Long.class).initialize(rs.getLong(1));
+                } catch (SQLException e) {
+                    throw new IllegalStateException(e);
+                }
+            }
+
+            @Override
+            public String getTenantIdentifier() {
+                return null;
+            }
+        };
+
+        long first = -1;
+        try (PreparedStatement insert = connection.prepareStatement("INSERT INTO " + table + " (id, nom) VALUES (?, 'import')")) {
+            for (int i = 0; i < rows; i++) {
+                long id = ((Number) optimizer.generate(callback)).longValue();
+                if (first < 0) {
+                    first = id;
+                }
+                insert.setLong(1, id);
+                insert.executeUpdate();
+            }
+        }
+        return first;
+    }
+
+    private static long count(Connection connection, String table) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rs = statement.executeQuery("SELECT COUNT(*) FROM " + table)) {
+            rs.next();
+            return rs.getLong(1);
+        }
+    }
+
+    private static String script(String name) throws IOException {
+        return new ClassPathResource("db/migration/" + name).getContentAsString(StandardCharsets.UTF_8);
+    }
+
+    private static void execute(Connection connection, String sql) throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            statement.execute(sql);
+        }
+    }
+}
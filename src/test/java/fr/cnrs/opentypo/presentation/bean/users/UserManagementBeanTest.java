@@ -8,6 +8,7 @@ import fr.cnrs.opentypo.infrastructure.persistence.UtilisateurRepository;
 import fr.cnrs.opentypo.presentation.bean.LoginBean;
 import fr.cnrs.opentypo.presentation.bean.NotificationBean;
 import fr.cnrs.opentypo.presentation.bean.UserBean;
+import fr.cnrs.opentypo.application.service.UserPermissionSnapshotService;
 import fr.cnrs.opentypo.application.service.UtilisateurService;
 import fr.cnrs.opentypo.testsupport.UserTestFixtures;
 import org.junit.jupiter.api.BeforeEach;
@@ -58,6 +59,9 @@ class UserManagementBeanTest {
     @Mock
     private LoginBean loginBean;
 
+    @Mock
+    private UserPermissionSnapshotService userPermissionSnapshotService;
+
     @InjectMocks
     private UserManagementBean userManagementBean;
 